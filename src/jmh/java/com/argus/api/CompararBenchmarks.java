@@ -0,0 +1,52 @@
+package com.argus.api;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Compara dois resultados do JMH (-rf json) e termina com código 1 se algum benchmark ficou
+// mais lento que a tolerância. Uso: CompararBenchmarks <anterior.json> <atual.json> [tolerancia%]
+public class CompararBenchmarks {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Uso: CompararBenchmarks <anterior.json> <atual.json> [tolerancia%]");
+			System.exit(2);
+		}
+		double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+		Map<String, Double> anteriores = ler(new File(args[0]));
+		Map<String, Double> atuais = ler(new File(args[1]));
+
+		boolean regressao = false;
+		System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "anterior", "atual", "variação");
+		for (Map.Entry<String, Double> atual : atuais.entrySet()) {
+			Double anterior = anteriores.get(atual.getKey());
+			if (anterior == null || anterior == 0) {
+				System.out.printf("%-80s %14s %14.3f %9s%n", atual.getKey(), "-", atual.getValue(), "novo");
+				continue;
+			}
+			// todos os benchmarks medem tempo por operação: maior é pior
+			double variacao = (atual.getValue() - anterior) / anterior * 100;
+			boolean piorou = variacao > tolerancia;
+			regressao |= piorou;
+			System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n",
+					atual.getKey(), anterior, atual.getValue(), variacao, piorou ? "  <-- regressão" : "");
+		}
+		System.exit(regressao ? 1 : 0);
+	}
+
+	private static Map<String, Double> ler(File arquivo) throws Exception {
+		Map<String, Double> resultados = new LinkedHashMap<>();
+		for (JsonNode resultado : new ObjectMapper().readTree(arquivo)) {
+			StringBuilder nome = new StringBuilder(resultado.get("benchmark").asText());
+			resultado.path("params").fields().forEachRemaining(parametro ->
+					nome.append(" ").append(parametro.getKey()).append("=").append(parametro.getValue().asText()));
+			resultados.put(nome.toString(), resultado.get("primaryMetric").get("score").asDouble());
+		}
+		return resultados;
+	}
+}
@@ -0,0 +1,73 @@
+package com.argus.api.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Jackson nos DTOs com @JsonFormat de data e hora, com o ObjectMapper configurado como o do Spring Boot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+	private static final TypeReference<List<ReservasDTO>> LISTA_RESERVAS = new TypeReference<>() { };
+
+	@Param({"1", "100"})
+	public int quantidade;
+
+	private ObjectMapper objectMapper;
+	private List<ReservasDTO> reservas;
+	private List<SessaoVotacaoDTO> sessoes;
+	private byte[] reservasJson;
+
+	@Setup
+	public void preparar() throws Exception {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		reservas = new ArrayList<>();
+		sessoes = new ArrayList<>();
+		LocalDate hoje = LocalDate.of(2024, 11, 1);
+		for (int i = 0; i < quantidade; i++) {
+			reservas.add(new ReservasDTO((long) i, "Salão de festas", hoje.plusDays(i),
+					LocalTime.of(18, 0), LocalTime.of(22, 0)));
+			sessoes.add(new SessaoVotacaoDTO((long) i, "Pintura da fachada " + i, "Aprovação do orçamento.",
+					hoje, hoje.plusDays(10), "Residencial Argus"));
+		}
+		reservasJson = objectMapper.writeValueAsBytes(reservas);
+	}
+
+	@Benchmark
+	public byte[] serializarReservas() throws Exception {
+		return objectMapper.writeValueAsBytes(reservas);
+	}
+
+	@Benchmark
+	public byte[] serializarSessoes() throws Exception {
+		return objectMapper.writeValueAsBytes(sessoes);
+	}
+
+	@Benchmark
+	public List<ReservasDTO> desserializarReservas() throws Exception {
+		return objectMapper.readValue(reservasJson, LISTA_RESERVAS);
+	}
+}
@@ -0,0 +1,44 @@
+package com.argus.api.infra.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// O mesmo encoder do SecurityConfigurations (força padrão 10): é o custo do login e do cadastro.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void preparar() {
+		encoder = new BCryptPasswordEncoder();
+		hash = encoder.encode("senha-do-morador");
+	}
+
+	@Benchmark
+	public String codificar() {
+		return encoder.encode("senha-do-morador");
+	}
+
+	@Benchmark
+	public boolean conferir() {
+		return encoder.matches("senha-do-morador", hash);
+	}
+}
@@ -0,0 +1,81 @@
+package com.argus.api.infra.security;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.repository.UsuarioRepository;
+
+// Custo por requisição da autenticação: emitir e validar o JWT e resolver o usuário no
+// SecurityFilter (com o repositório respondendo da memória, para medir só o filtro).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegurancaBenchmark {
+
+	private TokenService tokenService;
+	private SecurityFilter securityFilter;
+	private Usuarios usuario;
+	private String token;
+
+	@Setup
+	public void preparar() {
+		usuario = new Usuarios();
+		usuario.setId(1L);
+		usuario.setCpf("123.456.789-00");
+		usuario.setNome("Morador");
+		usuario.setSenha("$2a$10$abcdefghijklmnopqrstuv");
+		usuario.setTipoDoUsuario(TipoDoUsuario.MORADOR);
+
+		tokenService = new TokenService();
+		ReflectionTestUtils.setField(tokenService, "secret", "segredo-do-benchmark");
+		token = tokenService.generateToken(usuario);
+
+		securityFilter = new SecurityFilter();
+		securityFilter.tokenService = tokenService;
+		securityFilter.usuarioRepository = (UsuarioRepository) Proxy.newProxyInstance(
+				UsuarioRepository.class.getClassLoader(),
+				new Class<?>[]{UsuarioRepository.class},
+				(proxy, metodo, argumentos) -> metodo.getName().equals("findByCpf") ? usuario : null);
+	}
+
+	@Benchmark
+	public String gerarToken() {
+		return tokenService.generateToken(usuario);
+	}
+
+	@Benchmark
+	public String validarToken() {
+		return tokenService.validateToken(token);
+	}
+
+	@Benchmark
+	public void resolverUsuarioNoFiltro(Blackhole blackhole) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservas");
+		request.addHeader("Authorization", "Bearer " + token);
+		securityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+		SecurityContextHolder.clearContext();
+	}
+}
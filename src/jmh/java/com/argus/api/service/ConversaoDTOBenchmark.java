@@ -0,0 +1,136 @@
+package com.argus.api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.AreasComuns;
+import com.argus.api.domain.model.Comunicados;
+import com.argus.api.domain.model.Condominio;
+import com.argus.api.domain.model.Ocorrencias;
+import com.argus.api.domain.model.Reservas;
+import com.argus.api.domain.model.SessaoVotacao;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.AreasComunsDTO;
+import com.argus.api.dto.ComunicadoDTO;
+import com.argus.api.dto.OcorrenciasDTO;
+import com.argus.api.dto.ReservasDTO;
+import com.argus.api.dto.SessaoVotacaoDTO;
+import com.argus.api.dto.UsuarioDTO;
+
+// Conversões entidade -> DTO feitas pelos services em cada item das listagens.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoDTOBenchmark {
+
+	private AreasComunsService areasComunsService;
+	private ComunicadoService comunicadoService;
+	private OcorrenciasService ocorrenciasService;
+	private ReservasService reservasService;
+	private SessaoVotacaoService sessaoVotacaoService;
+	private UsuarioService usuarioService;
+
+	private AreasComuns area;
+	private Comunicados comunicado;
+	private Ocorrencias ocorrencia;
+	private Reservas reserva;
+	private SessaoVotacao sessao;
+	private Usuarios usuario;
+
+	@Setup
+	public void preparar() {
+		areasComunsService = new AreasComunsService();
+		comunicadoService = new ComunicadoService();
+		ocorrenciasService = new OcorrenciasService(null, null, null, null, null, null);
+		reservasService = new ReservasService();
+		sessaoVotacaoService = new SessaoVotacaoService(null, null, null, null, null);
+		usuarioService = new UsuarioService();
+
+		Condominio condominio = new Condominio(1L, "Residencial Argus", "Rua A, 100", LocalDateTime.now(), LocalDateTime.now());
+
+		usuario = new Usuarios();
+		usuario.setId(1L);
+		usuario.setNome("Morador");
+		usuario.setCpf("123.456.789-00");
+		usuario.setTelefone("11999990000");
+		usuario.setTipoDoUsuario(TipoDoUsuario.MORADOR);
+		usuario.setBloco('A');
+		usuario.setApartamento(101);
+		usuario.setCondominio(condominio);
+
+		area = new AreasComuns(1L, "Salão de festas", true, condominio);
+
+		comunicado = new Comunicados();
+		comunicado.setId(1L);
+		comunicado.setTitulo("Manutenção");
+		comunicado.setMensagem("A água será desligada amanhã das 8h às 12h.");
+		comunicado.setUsuarios(usuario);
+		comunicado.setCondominio(condominio);
+
+		ocorrencia = new Ocorrencias();
+		ocorrencia.setId(1L);
+		ocorrencia.setTitulo("Vazamento");
+		ocorrencia.setDescricao("Vazamento no corredor do bloco A.");
+		ocorrencia.setTipo(Ocorrencias.TipoOcorrencia.values()[0]);
+		ocorrencia.setDataCriacao(LocalDateTime.now());
+		ocorrencia.setUsuario(usuario);
+		ocorrencia.setArea(area);
+
+		reserva = new Reservas();
+		reserva.setId(1L);
+		reserva.setAreasComuns(area);
+		reserva.setDataReserva(LocalDate.now().plusDays(7));
+		reserva.setHoraInicio(LocalTime.of(18, 0));
+		reserva.setHoraFim(LocalTime.of(22, 0));
+
+		sessao = new SessaoVotacao(1L, "Pintura da fachada", "Aprovação do orçamento.",
+				LocalDate.now(), LocalDate.now().plusDays(10), condominio);
+	}
+
+	@Benchmark
+	public AreasComunsDTO areaComum() {
+		return areasComunsService.convertToDTO(area);
+	}
+
+	@Benchmark
+	public ComunicadoDTO comunicado() {
+		return comunicadoService.converterParaDTO(comunicado);
+	}
+
+	@Benchmark
+	public OcorrenciasDTO ocorrencia() {
+		return ocorrenciasService.converterParaDTO(ocorrencia);
+	}
+
+	@Benchmark
+	public ReservasDTO reserva() {
+		return reservasService.convertToDTO(reserva);
+	}
+
+	@Benchmark
+	public SessaoVotacaoDTO sessaoVotacao() {
+		return sessaoVotacaoService.convertToDTO(sessao);
+	}
+
+	@Benchmark
+	public UsuarioDTO usuario() {
+		return usuarioService.convertToDTO(usuario);
+	}
+}
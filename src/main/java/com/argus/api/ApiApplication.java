@@ -2,12 +2,18 @@ package com.argus.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ApiApplication.class, args);
+		SpringApplication application = new SpringApplication(ApiApplication.class);
+		// guarda os passos da inicialização para o RelatorioInicializacao; o buffer é esvaziado ao ficar pronta
+		application.setApplicationStartup(new BufferingApplicationStartup(10_000));
+		application.run(args);
 	}
 
 }
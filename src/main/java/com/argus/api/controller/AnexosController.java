@@ -0,0 +1,73 @@
+package com.argus.api.controller;
+
+import com.argus.api.domain.model.AnexoOcorrencia;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.AnexoOcorrenciaDTO;
+import com.argus.api.exception.LimiteAnexoExcedidoException;
+import com.argus.api.infra.armazenamento.EnvioArquivo;
+import com.argus.api.service.AnexosService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+// O corpo do upload é o próprio arquivo (não multipart), lido direto do stream da requisição
+@RestController
+@RequestMapping("/ocorrencias/{idOcorrencia}/anexos")
+@RequiredArgsConstructor
+public class AnexosController {
+    private final AnexosService anexosService;
+    private final EnvioArquivo envioArquivo;
+
+    @PostMapping(consumes = {"image/*", "video/*"})
+    public ResponseEntity<?> anexar(
+            @PathVariable Long idOcorrencia,
+            @RequestParam("nome") String nomeArquivo,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoConteudo,
+            @AuthenticationPrincipal Usuarios usuario,
+            HttpServletRequest request
+    ) throws IOException {
+        try {
+            AnexoOcorrenciaDTO anexo = anexosService.anexar(idOcorrencia, nomeArquivo, tipoConteudo,
+                    request.getContentLengthLong(), request.getInputStream(), usuario);
+            return new ResponseEntity<>(anexo, HttpStatus.CREATED);
+        } catch (LimiteAnexoExcedidoException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AnexoOcorrenciaDTO>> listarAnexos(@PathVariable Long idOcorrencia,
+                                                                 @AuthenticationPrincipal Usuarios usuario) {
+        return ResponseEntity.ok(anexosService.listarAnexos(idOcorrencia, usuario));
+    }
+
+    @GetMapping("/{idAnexo}")
+    public void baixarAnexo(
+            @PathVariable Long idOcorrencia,
+            @PathVariable Long idAnexo,
+            @AuthenticationPrincipal Usuarios usuario,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        AnexoOcorrencia anexo;
+        try {
+            anexo = anexosService.buscarAnexo(idOcorrencia, idAnexo, usuario);
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            return;
+        }
+
+        envioArquivo.enviar(anexosService.caminhoConteudo(anexo), "\"" + anexo.getHashConteudo() + "\"",
+                anexo.getTipoConteudo(), anexo.getNomeArquivo(), request, response);
+    }
+}
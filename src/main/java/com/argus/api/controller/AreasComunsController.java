@@ -1,12 +1,11 @@
 package com.argus.api.controller;
 
-
-
-import java.util.List;
+import java.time.YearMonth;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,10 +13,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Usuarios;
 import com.argus.api.dto.AreasComunsDTO;
+import com.argus.api.infra.cache.CacheRespostas;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import com.argus.api.service.AreasComunsService;
+import com.argus.api.service.OcupacaoAreasService;
 
 @RestController
 @RequestMapping("/areasComuns")
@@ -26,6 +32,12 @@ public class AreasComunsController {
     @Autowired
     private AreasComunsService areasComunsService;
 
+    @Autowired
+    private CacheRespostas cacheRespostas;
+
+    @Autowired
+    private OcupacaoAreasService ocupacaoAreasService;
+
     @PostMapping
     public ResponseEntity<AreasComunsDTO> cadastrarAreaComum(@RequestBody AreasComunsDTO areaComumDTO) {
         AreasComunsDTO areaCadastrada = areasComunsService.cadastrarAreaComum(areaComumDTO);
@@ -33,9 +45,35 @@ public class AreasComunsController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AreasComunsDTO>> listarTodasAsAreasComuns() {
-        List<AreasComunsDTO> areasComuns = areasComunsService.listarTodasAsAreasComuns();
-        return ResponseEntity.ok(areasComuns);
+    public ResponseEntity<byte[]> listarTodasAsAreasComuns(@RequestParam(required = false) String fields, WebRequest request) {
+        if (cacheRespostas.naoModificado(Recurso.AREAS_COMUNS, request)) {
+            return null;
+        }
+        if (fields != null) {
+            String campos = areasComunsService.normalizarCampos(fields);
+            return cacheRespostas.responder("areasComuns?fields=" + campos, Recurso.AREAS_COMUNS, request,
+                    () -> areasComunsService.listarCampos(campos));
+        }
+        return cacheRespostas.responder("areasComuns", Recurso.AREAS_COMUNS, request,
+                areasComunsService::listarTodasAsAreasComuns);
+    }
+
+    // mapa de calor por dia da semana e hora; sem mes, soma todo o histórico. Áreas de outros
+    // condomínios só são visíveis para ADMIN
+    @GetMapping("/{id}/ocupacao")
+    public ResponseEntity<?> ocupacao(@PathVariable Long id, @RequestParam(required = false) YearMonth mes,
+                                      @AuthenticationPrincipal Usuarios usuario) {
+        if (usuario.getTipoDoUsuario() != TipoDoUsuario.ADMIN && (usuario.getCondominio() == null
+                || !ocupacaoAreasService.areaDoCondominio(id, usuario.getCondominio().getId()))) {
+            return new ResponseEntity<>("Área comum não encontrada", HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(ocupacaoAreasService.consultar(id, mes));
+    }
+
+    @PostMapping("/ocupacao/recalcular")
+    public ResponseEntity<Void> recalcularOcupacao() {
+        ocupacaoAreasService.recalcular();
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{id}")
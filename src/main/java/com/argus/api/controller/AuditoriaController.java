@@ -0,0 +1,106 @@
+package com.argus.api.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.argus.api.dto.RegistroAuditoriaDTO;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+
+// Consulta da trilha de auditoria desta instância, por intervalo de tempo (padrão: últimas 24 horas)
+@RestController
+@RequestMapping("/auditoria")
+public class AuditoriaController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private final LogAuditoria logAuditoria;
+
+    public AuditoriaController(LogAuditoria logAuditoria) {
+        this.logAuditoria = logAuditoria;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> consultar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant inicio,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fim,
+                                       @RequestParam(required = false) Long usuarioId,
+                                       @RequestParam(required = false) AcaoAuditoria acao,
+                                       @RequestParam(defaultValue = "100") int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return new ResponseEntity<>("O limite deve estar entre 1 e " + LIMITE_MAXIMO, HttpStatus.BAD_REQUEST);
+        }
+        Instant ate = fim != null ? fim : Instant.now();
+        Instant de = inicio != null ? inicio : ate.minus(Duration.ofDays(1));
+        if (de.isAfter(ate)) {
+            return new ResponseEntity<>("O início deve ser anterior ao fim", HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(logAuditoria.consultar(de, ate, usuarioId, acao, limite));
+    }
+
+    // exportação sem limite em CSV, escrita à medida que os segmentos são lidos
+    @GetMapping("/exportacao")
+    public ResponseEntity<?> exportar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant inicio,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fim,
+                                      @RequestParam(required = false) Long usuarioId,
+                                      @RequestParam(required = false) AcaoAuditoria acao) {
+        if (inicio.isAfter(fim)) {
+            return new ResponseEntity<>("O início deve ser anterior ao fim", HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody corpo = saida -> {
+            BufferedWriter escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            escritor.write("instante,usuario_id,condominio_id,acao,recurso_id,detalhe\n");
+            try {
+                logAuditoria.percorrer(inicio, fim, registro -> {
+                    if ((usuarioId == null || usuarioId.equals(registro.usuarioId()))
+                            && (acao == null || acao == registro.acao())) {
+                        escreverLinha(escritor, registro);
+                    }
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            escritor.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"auditoria.csv\"")
+                .body(corpo);
+    }
+
+    private static void escreverLinha(BufferedWriter escritor, RegistroAuditoriaDTO registro) {
+        try {
+            escritor.write(registro.instante() + "," + valor(registro.usuarioId()) + "," + valor(registro.condominioId())
+                    + "," + registro.acao() + "," + valor(registro.recursoId()) + "," + campo(registro.detalhe()) + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String valor(Long valor) {
+        return valor != null ? valor.toString() : "";
+    }
+
+    private static String campo(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return "\"" + texto.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -2,10 +2,15 @@ package com.argus.api.controller;
 
 import com.argus.api.dto.ComunicadoDTO;
 import com.argus.api.service.ComunicadoService;
+import com.argus.api.infra.cache.LeiturasAgrupadas;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +23,12 @@ public class ComunicadoController {
     @Autowired
     private ComunicadoService comunicadoService;
 
+    @Autowired
+    private VersoesRecursos versoesRecursos;
+
+    @Autowired
+    private LeiturasAgrupadas leiturasAgrupadas;
+
     @PostMapping
     public ResponseEntity<?> enviarComunicado(@RequestBody ComunicadoDTO comunicadoDTO) {
         try {
@@ -29,8 +40,20 @@ public class ComunicadoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ComunicadoDTO>> listarComunicados() {
-        List<ComunicadoDTO> comunicados = comunicadoService.listarComunicados();
+    public ResponseEntity<List<?>> listarComunicados(@RequestParam(required = false) String fields, WebRequest request) {
+        if (request.checkNotModified(versoesRecursos.etag(Recurso.COMUNICADOS))) {
+            return null;
+        }
+        // os parâmetros fazem parte da chave do agrupamento, então ?fields= não se mistura com a listagem completa
+        List<?> comunicados = leiturasAgrupadas.executar("comunicado", Recurso.COMUNICADOS, request,
+                () -> fields != null ? comunicadoService.listarCampos(fields) : comunicadoService.listarComunicados());
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(comunicados);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<ComunicadoDTO>> buscarPorTexto(@RequestParam("q") String texto,
+                                                              @RequestParam(defaultValue = "20") int limite) {
+        List<ComunicadoDTO> comunicados = comunicadoService.buscarPorTexto(texto, limite);
         return ResponseEntity.ok(comunicados);
     }
 
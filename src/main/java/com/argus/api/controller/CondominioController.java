@@ -2,12 +2,20 @@ package com.argus.api.controller;
 
 import com.argus.api.domain.model.Condominio;
 import com.argus.api.dto.CondominioDTO;
+import com.argus.api.dto.PurgaDTO;
+import com.argus.api.exception.CondominioNotFoundException;
 import com.argus.api.service.CondominioService;
+import com.argus.api.service.PurgaService;
+import com.argus.api.infra.cache.CacheRespostas;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/condominio")
@@ -15,6 +23,12 @@ public class CondominioController {
     @Autowired
     private CondominioService condominioService;
 
+    @Autowired
+    private CacheRespostas cacheRespostas;
+
+    @Autowired
+    private PurgaService purgaService;
+
     @PostMapping
     public ResponseEntity<String> createCondominio(@RequestBody CondominioDTO condominioDTO) {
         condominioService.createCondominio(condominioDTO);
@@ -22,8 +36,17 @@ public class CondominioController {
     }
 
     @GetMapping
-    public List<Condominio> getAllCondominios() {
-        return condominioService.getAllCondominios();
+    public ResponseEntity<byte[]> getAllCondominios(@RequestParam(required = false) String fields, WebRequest request) {
+        if (cacheRespostas.naoModificado(Recurso.CONDOMINIOS, request)) {
+            return null;
+        }
+        if (fields != null) {
+            String campos = condominioService.normalizarCampos(fields);
+            return cacheRespostas.responder("condominio?fields=" + campos, Recurso.CONDOMINIOS, request,
+                    () -> condominioService.listarCampos(campos));
+        }
+        return cacheRespostas.responder("condominio", Recurso.CONDOMINIOS, request,
+                condominioService::getAllCondominios);
     }
 
     @GetMapping("/{id}")
@@ -38,9 +61,14 @@ public class CondominioController {
         return ResponseEntity.ok(condominio);
     }
 
+    // A exclusão apaga todos os dados do condomínio em segundo plano; o andamento fica em /purgas/{id}
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteCondominio(@PathVariable Long id) {
-        condominioService.deleteCondominio(id);
-        return ResponseEntity.ok("Condomínio " + id + " excluído.");
+    public ResponseEntity<?> deleteCondominio(@PathVariable Long id) {
+        try {
+            PurgaDTO purga = purgaService.agendarCondominio(id);
+            return ResponseEntity.accepted().location(URI.create("/purgas/" + purga.id())).body(purga);
+        } catch (CondominioNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
     }
 }
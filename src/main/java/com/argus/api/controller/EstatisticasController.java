@@ -0,0 +1,32 @@
+package com.argus.api.controller;
+
+import com.argus.api.dto.EstatisticasHibernateDTO;
+import com.argus.api.infra.cache.CacheRespostas;
+import com.argus.api.infra.cache.EstatisticasHibernate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/estatisticas")
+public class EstatisticasController {
+
+    private final CacheRespostas cacheRespostas;
+    private final EstatisticasHibernate estatisticasHibernate;
+
+    public EstatisticasController(CacheRespostas cacheRespostas, EstatisticasHibernate estatisticasHibernate) {
+        this.cacheRespostas = cacheRespostas;
+        this.estatisticasHibernate = estatisticasHibernate;
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<CacheRespostas.Estatisticas> estatisticasCache() {
+        return ResponseEntity.ok(cacheRespostas.estatisticas());
+    }
+
+    @GetMapping("/hibernate")
+    public ResponseEntity<EstatisticasHibernateDTO> estatisticasHibernate() {
+        return ResponseEntity.ok(estatisticasHibernate.coletar());
+    }
+}
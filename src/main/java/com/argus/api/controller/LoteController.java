@@ -0,0 +1,31 @@
+package com.argus.api.controller;
+
+import com.argus.api.dto.RequisicaoLoteDTO;
+import com.argus.api.infra.lote.ExecutorLote;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Várias requisições em uma ida e volta: a resposta traz, na mesma ordem, o status, os cabeçalhos e
+// o corpo de cada item. Cada item segue as mesmas regras de acesso que teria sozinho.
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class LoteController {
+    private final ExecutorLote executorLote;
+
+    @PostMapping
+    public ResponseEntity<?> executar(@RequestBody List<RequisicaoLoteDTO> requisicoes,
+                                      HttpServletRequest request, HttpServletResponse response) {
+        try {
+            return ResponseEntity.ok(executorLote.executar(requisicoes, request, response));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.argus.api.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,8 +11,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.argus.api.dto.NotificacaoDTO;
+import com.argus.api.infra.cache.LeiturasAgrupadas;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import com.argus.api.service.NotificacoesService;
 
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -23,10 +28,21 @@ public class NotificacoesController {
 	@Autowired
 	private NotificacoesService notificacoesService;
 
+	@Autowired
+	private VersoesRecursos versoesRecursos;
+
+	@Autowired
+	private LeiturasAgrupadas leiturasAgrupadas;
+
 
 	@GetMapping
-	public List<NotificacaoDTO> buscarUltimasNotificacoes() {
-		return notificacoesService.buscarUltimasNotificacoes();
+	public ResponseEntity<List<NotificacaoDTO>> buscarUltimasNotificacoes(WebRequest request) {
+		if (request.checkNotModified(versoesRecursos.etag(Recurso.NOTIFICACOES))) {
+			return null;
+		}
+		List<NotificacaoDTO> notificacoes = leiturasAgrupadas.executar("notificacoes", Recurso.NOTIFICACOES, request,
+				notificacoesService::buscarUltimasNotificacoes);
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(notificacoes);
 	}
 
 	@DeleteMapping("/{id}")
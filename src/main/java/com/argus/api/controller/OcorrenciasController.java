@@ -1,12 +1,18 @@
 package com.argus.api.controller;
 
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Usuarios;
 import com.argus.api.dto.OcorrenciasDTO;
+import com.argus.api.dto.OcorrenciasEstatisticasDTO;
+import com.argus.api.service.EstatisticasOcorrenciasService;
 import com.argus.api.service.OcorrenciasService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -14,6 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OcorrenciasController {
     private final OcorrenciasService ocorrenciasService;
+    private final EstatisticasOcorrenciasService estatisticasOcorrenciasService;
 
     @PostMapping
     public ResponseEntity<OcorrenciasDTO> criarOcorrencia(@RequestBody OcorrenciasDTO ocorrenciaDTO) {
@@ -27,6 +34,37 @@ public class OcorrenciasController {
         return ResponseEntity.ok(ocorrencias);
     }
 
+    @GetMapping("/busca")
+    public ResponseEntity<List<OcorrenciasDTO>> buscarPorTexto(
+            @RequestParam("q") String texto,
+            @RequestParam(defaultValue = "20") int limite
+    ) {
+        List<OcorrenciasDTO> ocorrencias = ocorrenciasService.buscarPorTexto(texto, limite);
+        return ResponseEntity.ok(ocorrencias);
+    }
+
+    // só ADMIN escolhe o condomínio (ou vê todos); os demais recebem sempre os números do próprio
+    @GetMapping("/stats")
+    public ResponseEntity<?> estatisticas(
+            @RequestParam(required = false) Long condominioId,
+            @RequestParam(required = false) YearMonth mes,
+            @AuthenticationPrincipal Usuarios usuario
+    ) {
+        if (usuario.getTipoDoUsuario() != TipoDoUsuario.ADMIN) {
+            if (usuario.getCondominio() == null) {
+                return new ResponseEntity<>("Usuário sem condomínio.", HttpStatus.FORBIDDEN);
+            }
+            condominioId = usuario.getCondominio().getId();
+        }
+        return ResponseEntity.ok(estatisticasOcorrenciasService.consultar(condominioId, mes));
+    }
+
+    @PostMapping("/stats/recalcular")
+    public ResponseEntity<OcorrenciasEstatisticasDTO> recalcularEstatisticas() {
+        estatisticasOcorrenciasService.recalcular();
+        return ResponseEntity.ok(estatisticasOcorrenciasService.consultar(null, null));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OcorrenciasDTO> buscarOcorrencia(@PathVariable Long id) {
         OcorrenciasDTO ocorrencia = ocorrenciasService.buscarOcorrenciaPorId(id);
@@ -0,0 +1,29 @@
+package com.argus.api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.argus.api.service.PurgaService;
+
+// Andamento das exclusões de condomínios e usuários
+@RestController
+@RequestMapping("/purgas")
+public class PurgasController {
+
+    private final PurgaService purgaService;
+
+    public PurgasController(PurgaService purgaService) {
+        this.purgaService = purgaService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> buscarPurga(@PathVariable Long id) {
+        return purgaService.buscar(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>("Purga não encontrada", HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,80 @@
+package com.argus.api.controller;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.RelatorioDTO;
+import com.argus.api.dto.SolicitacaoRelatorioDTO;
+import com.argus.api.exception.LimiteRelatoriosException;
+import com.argus.api.infra.armazenamento.EnvioArquivo;
+import com.argus.api.service.RelatorioService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+// Relatórios mensais do condomínio: o pedido responde 202 e o CSV é baixado depois que o status
+// chega a CONCLUIDA. Um relatório já gerado para o mesmo tipo e período volta com 200.
+@RestController
+@RequestMapping("/relatorios")
+@RequiredArgsConstructor
+public class RelatoriosController {
+    private final RelatorioService relatorioService;
+    private final EnvioArquivo envioArquivo;
+
+    @PostMapping
+    public ResponseEntity<?> solicitar(@RequestBody SolicitacaoRelatorioDTO solicitacao,
+                                       @AuthenticationPrincipal Usuarios usuario) {
+        Long condominioId = usuario.getTipoDoUsuario() == TipoDoUsuario.ADMIN && solicitacao.condominioId() != null
+                ? solicitacao.condominioId()
+                : usuario.getCondominio() != null ? usuario.getCondominio().getId() : null;
+        try {
+            RelatorioDTO relatorio = relatorioService.solicitar(solicitacao.tipo(), solicitacao.periodo(),
+                    condominioId, usuario.getId());
+            URI local = URI.create("/relatorios/" + relatorio.id());
+            if ("CONCLUIDA".equals(relatorio.status())) {
+                return ResponseEntity.ok().location(local).body(relatorio);
+            }
+            return ResponseEntity.accepted().location(local).body(relatorio);
+        } catch (LimiteRelatoriosException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> buscar(@PathVariable Long id, @AuthenticationPrincipal Usuarios usuario) {
+        return visivel(id, usuario)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>("Relatório não encontrado", HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/{id}/arquivo")
+    public void baixar(@PathVariable Long id, @AuthenticationPrincipal Usuarios usuario,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<RelatorioDTO> relatorio = visivel(id, usuario);
+        if (relatorio.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Relatório não encontrado");
+            return;
+        }
+        if (!"CONCLUIDA".equals(relatorio.get().status())) {
+            response.sendError(HttpStatus.CONFLICT.value(), "Relatório ainda não concluído: " + relatorio.get().status());
+            return;
+        }
+        envioArquivo.enviar(relatorioService.arquivo(relatorio.get()), "\"relatorio-" + id + "\"", "text/csv; charset=UTF-8",
+                relatorio.get().tipo().toLowerCase() + "-" + relatorio.get().periodo() + ".csv", request, response);
+    }
+
+    // relatórios de outros condomínios só são visíveis para ADMIN
+    private Optional<RelatorioDTO> visivel(Long id, Usuarios usuario) {
+        return relatorioService.buscar(id).filter(relatorio -> usuario.getTipoDoUsuario() == TipoDoUsuario.ADMIN
+                || usuario.getCondominio() != null && relatorio.condominioId().equals(usuario.getCondominio().getId()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.argus.api.controller;
 
 import com.argus.api.dto.ReservasDTO;
+import com.argus.api.infra.idempotencia.RespostasIdempotentes;
 import com.argus.api.service.ReservasService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,18 +17,27 @@ public class ReservasController {
     @Autowired
     private ReservasService reservasService;
 
+    @Autowired
+    private RespostasIdempotentes respostasIdempotentes;
+
     @PostMapping
-    public ResponseEntity<?> reservarArea(@RequestBody ReservasDTO reservasDTO) {
-        try {
-            ReservasDTO reserva = reservasService.reservarArea(reservasDTO);
-            return new ResponseEntity<>(reserva, HttpStatus.CREATED);
-        } catch (RuntimeException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
+    public ResponseEntity<?> reservarArea(@RequestBody ReservasDTO reservasDTO,
+                                          @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chaveIdempotencia) {
+        return respostasIdempotentes.executar("POST /reservas", chaveIdempotencia, reservasDTO, () -> {
+            try {
+                ReservasDTO reserva = reservasService.reservarArea(reservasDTO);
+                return new ResponseEntity<>(reserva, HttpStatus.CREATED);
+            } catch (RuntimeException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
     @GetMapping
-    public ResponseEntity<List<ReservasDTO>> listarTodasReservas() {
+    public ResponseEntity<?> listarTodasReservas(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(reservasService.listarCampos(fields));
+        }
         List<ReservasDTO> reservas = reservasService.listarTodasReservas();
         return new ResponseEntity<>(reservas, HttpStatus.OK);
     }
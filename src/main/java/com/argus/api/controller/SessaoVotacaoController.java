@@ -1,22 +1,26 @@
 package com.argus.api.controller;
 
 import com.argus.api.dto.SessaoVotacaoDTO;
+import com.argus.api.infra.cache.CacheRespostas;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import com.argus.api.service.SessaoVotacaoService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/sessaoVotacao")
 public class SessaoVotacaoController {
 
     private final SessaoVotacaoService sessaoVotacaoService;
+    private final CacheRespostas cacheRespostas;
 
-    public SessaoVotacaoController(SessaoVotacaoService sessaoVotacaoService) {
+    public SessaoVotacaoController(SessaoVotacaoService sessaoVotacaoService, CacheRespostas cacheRespostas) {
         this.sessaoVotacaoService = sessaoVotacaoService;
+        this.cacheRespostas = cacheRespostas;
     }
 
     @PostMapping
@@ -26,9 +30,17 @@ public class SessaoVotacaoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SessaoVotacaoDTO>> listarTodasSessoes() {
-        List<SessaoVotacaoDTO> sessoes = sessaoVotacaoService.listarTodasSessoes();
-        return ResponseEntity.ok(sessoes);
+    public ResponseEntity<byte[]> listarTodasSessoes(@RequestParam(required = false) String fields, WebRequest request) {
+        if (cacheRespostas.naoModificado(Recurso.SESSOES_VOTACAO, request)) {
+            return null;
+        }
+        if (fields != null) {
+            String campos = sessaoVotacaoService.normalizarCampos(fields);
+            return cacheRespostas.responder("sessaoVotacao?fields=" + campos, Recurso.SESSOES_VOTACAO, request,
+                    () -> sessaoVotacaoService.listarCampos(campos));
+        }
+        return cacheRespostas.responder("sessaoVotacao", Recurso.SESSOES_VOTACAO, request,
+                sessaoVotacaoService::listarTodasSessoes);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,57 @@
+package com.argus.api.controller;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.argus.api.dto.MovimentacaoShardDTO;
+import com.argus.api.dto.ShardDTO;
+import com.argus.api.infra.datasource.MovimentacaoShards;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+// Só existe com api.datasource.shards.habilitado=true
+@RestController
+@RequestMapping("/shards")
+@ConditionalOnProperty(name = "api.datasource.shards.habilitado", havingValue = "true")
+public class ShardsController {
+
+    private final RoteamentoShardDataSource roteamentoShardDataSource;
+    private final MovimentacaoShards movimentacaoShards;
+
+    public ShardsController(RoteamentoShardDataSource roteamentoShardDataSource, MovimentacaoShards movimentacaoShards) {
+        this.roteamentoShardDataSource = roteamentoShardDataSource;
+        this.movimentacaoShards = movimentacaoShards;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ShardDTO>> listarShards() {
+        List<ShardDTO> shards = roteamentoShardDataSource.shards().stream()
+                .map(nome -> new ShardDTO(nome, nome.equals(roteamentoShardDataSource.principal()),
+                        new JdbcTemplate(roteamentoShardDataSource.shard(nome))
+                                .queryForObject("SELECT COUNT(*) FROM condominios", Long.class)))
+                .toList();
+        return ResponseEntity.ok(shards);
+    }
+
+    // Síncrono: responde quando a movimentação termina
+    @PostMapping("/condominios/{id}/mover")
+    public ResponseEntity<?> moverCondominio(@PathVariable Long id, @RequestParam String destino) {
+        try {
+            MovimentacaoShardDTO movimentacao = movimentacaoShards.mover(id, destino);
+            return ResponseEntity.ok(movimentacao);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+}
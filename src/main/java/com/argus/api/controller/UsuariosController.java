@@ -1,13 +1,25 @@
 package com.argus.api.controller;
 
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Condominio;
 import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.ImportacaoUsuariosDTO;
+import com.argus.api.dto.PurgaDTO;
 import com.argus.api.dto.UsuarioDTO;
+import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.exception.UsuarioNotFoundException;
+import com.argus.api.service.ImportacaoUsuariosService;
+import com.argus.api.service.PurgaService;
 import com.argus.api.service.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -16,9 +28,18 @@ public class UsuariosController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private ImportacaoUsuariosService importacaoUsuariosService;
+
+    @Autowired
+    private PurgaService purgaService;
 
+    // ?fields=id,nome devolve só esses campos, sem ler as demais colunas
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> getUsers() {
+    public ResponseEntity<?> getUsers(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(usuarioService.listarCampos(fields));
+        }
         List<UsuarioDTO> usuarios = usuarioService.getAllUsers();
         return ResponseEntity.ok(usuarios);
     }
@@ -37,10 +58,44 @@ public class UsuariosController {
         return ResponseEntity.ok(usuarioDTO);
     }
 
+    // Apaga o usuário e o que depende dele (votos, ocorrências, comunicados) em segundo plano
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable Long id) throws Exception {
-        UsuarioDTO deletedUser = usuarioService.deleteUser(id);
-        String responseMessage = deletedUser.nome() + " Foi Deletado Com Sucesso!";
-        return ResponseEntity.ok(responseMessage);
+    public ResponseEntity<?> deleteUser(@PathVariable Long id) {
+        try {
+            PurgaDTO purga = purgaService.agendarUsuario(id);
+            return ResponseEntity.accepted().location(URI.create("/purgas/" + purga.id())).body(purga);
+        } catch (UsuarioNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // O corpo é o próprio CSV, lido em streaming. Síndicos e subsíndicos importam só para o próprio
+    // condomínio, como nos relatórios, e sem criar usuários de papel acima do seu; ADMIN informa o
+    // condomínio pelo nome
+    @PostMapping(value = "/importacao", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<?> importarUsuarios(@RequestParam(value = "condominio", required = false) String condominio,
+                                              @AuthenticationPrincipal Usuarios usuario,
+                                              HttpServletRequest request) throws IOException {
+        try {
+            ImportacaoUsuariosDTO relatorio;
+            if (usuario.getTipoDoUsuario() == TipoDoUsuario.ADMIN) {
+                if (condominio == null || condominio.isBlank()) {
+                    return new ResponseEntity<>("Informe o condomínio.", HttpStatus.BAD_REQUEST);
+                }
+                relatorio = importacaoUsuariosService.importar(condominio, request.getInputStream(), usuario.getTipoDoUsuario());
+            } else {
+                Condominio proprio = usuario.getCondominio();
+                if (proprio == null || condominio != null && !condominio.equalsIgnoreCase(proprio.getNome())) {
+                    return new ResponseEntity<>("Importação permitida só no próprio condomínio.", HttpStatus.FORBIDDEN);
+                }
+                relatorio = importacaoUsuariosService.importar(proprio.getId(), request.getInputStream(),
+                        usuario.getTipoDoUsuario());
+            }
+            return ResponseEntity.ok(relatorio);
+        } catch (CondominioNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 }
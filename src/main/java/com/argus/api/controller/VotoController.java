@@ -2,6 +2,7 @@ package com.argus.api.controller;
 
 import com.argus.api.dto.VotoDTO;
 import com.argus.api.domain.model.Voto;
+import com.argus.api.infra.idempotencia.RespostasIdempotentes;
 import com.argus.api.service.VotoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,17 +16,23 @@ import java.util.List;
 public class VotoController {
 
     private final VotoService votoService;
+    private final RespostasIdempotentes respostasIdempotentes;
 
     @Autowired
-    public VotoController(VotoService votoService) {
+    public VotoController(VotoService votoService, RespostasIdempotentes respostasIdempotentes) {
         this.votoService = votoService;
+        this.respostasIdempotentes = respostasIdempotentes;
     }
 
     @PostMapping
-    public ResponseEntity<String> registrarVoto(@Valid @RequestBody VotoDTO votoDTO, @RequestHeader("usuarioId") Long usuarioId) {
-        // Chama o serviço para registrar o voto
-        String resposta = votoService.registrarVoto(votoDTO, usuarioId);
-        return ResponseEntity.ok(resposta);
+    public ResponseEntity<?> registrarVoto(@Valid @RequestBody VotoDTO votoDTO, @RequestHeader("usuarioId") Long usuarioId,
+                                           @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chaveIdempotencia) {
+        // Uma repetição com a mesma Idempotency-Key recebe a resposta do primeiro envio em vez de "Usuário já votou"
+        return respostasIdempotentes.executar("POST /votos", chaveIdempotencia, List.of(votoDTO, usuarioId), () -> {
+            // Chama o serviço para registrar o voto
+            String resposta = votoService.registrarVoto(votoDTO, usuarioId);
+            return ResponseEntity.ok(resposta);
+        });
     }
 
     // Endpoint para listar um voto pelo seu id
@@ -38,7 +45,10 @@ public class VotoController {
 
     // Endpoint para listar todos os votos
     @GetMapping
-    public ResponseEntity<List<Voto>> listarTodosVotos() {
+    public ResponseEntity<?> listarTodosVotos(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(votoService.listarCampos(fields));
+        }
         // Chama o serviço para listar todos os votos
         List<Voto> votos = votoService.listarTodosVotos();
         return ResponseEntity.ok(votos);
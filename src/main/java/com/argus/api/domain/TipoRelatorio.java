@@ -0,0 +1,7 @@
+package com.argus.api.domain;
+
+public enum TipoRelatorio {
+    RESERVAS_POR_AREA,
+    OCORRENCIAS_POR_STATUS,
+    RESULTADOS_VOTACAO
+}
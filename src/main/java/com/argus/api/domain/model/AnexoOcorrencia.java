@@ -0,0 +1,51 @@
+package com.argus.api.domain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "anexos_ocorrencia")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnexoOcorrencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "ocorrencia_id", nullable = false)
+    private Ocorrencias ocorrencia;
+
+    @ManyToOne
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuarios usuario;
+
+    // SHA-256 do conteúdo; é também o nome do arquivo no armazenamento
+    @Column(name = "hash_conteudo", length = 64, nullable = false)
+    private String hashConteudo;
+
+    @Column(name = "nome_arquivo", nullable = false)
+    private String nomeArquivo;
+
+    @Column(name = "tipo_conteudo", length = 100, nullable = false)
+    private String tipoConteudo;
+
+    @Column(nullable = false)
+    private Long tamanho;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+}
@@ -37,6 +37,9 @@ public class Ocorrencias {
     @Column(name = "data_criacao", nullable = false)
     private LocalDateTime dataCriacao;
 
+    @Column(name = "data_resolucao")
+    private LocalDateTime dataResolucao;
+
     @ManyToOne
     @JoinColumn(name = "id_usuario", nullable = false)
     private Usuarios usuario;
@@ -0,0 +1,13 @@
+package com.argus.api.dto;
+
+import java.time.LocalDateTime;
+
+public record AnexoOcorrenciaDTO(
+        Long id,
+        Long idOcorrencia,
+        String nomeArquivo,
+        String tipoConteudo,
+        Long tamanho,
+        String hashConteudo,
+        LocalDateTime dataCriacao
+) { }
@@ -0,0 +1,17 @@
+package com.argus.api.dto;
+
+import java.util.Map;
+
+public record EstatisticasHibernateDTO(
+        long consultasExecutadas,
+        long statementsPreparados,
+        long entidadesCarregadas,
+        long acertosSegundoNivel,
+        long faltasSegundoNivel,
+        long gravacoesSegundoNivel,
+        long acertosCacheConsultas,
+        long faltasCacheConsultas,
+        Map<String, Regiao> regioes
+) {
+    public record Regiao(long acertos, long faltas, long gravacoes) { }
+}
@@ -0,0 +1,17 @@
+package com.argus.api.dto;
+
+import java.util.List;
+
+// erros traz no máximo api.importacao.maximo-erros itens; totalErros conta todos
+public record ImportacaoUsuariosDTO(
+        long linhasLidas,
+        long importados,
+        long totalErros,
+        List<ErroImportacao> erros
+) {
+    public record ErroImportacao(
+            long linha,
+            String cpf,
+            String mensagem
+    ) { }
+}
@@ -0,0 +1,11 @@
+package com.argus.api.dto;
+
+import java.util.Map;
+
+public record MovimentacaoShardDTO(
+        Long condominioId,
+        String origem,
+        String destino,
+        Map<String, Long> linhasCopiadas,
+        long duracaoMs
+) { }
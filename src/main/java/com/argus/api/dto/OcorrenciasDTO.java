@@ -13,6 +13,7 @@ public class OcorrenciasDTO {
     private Ocorrencias.StatusAprovacao statusAprovacao;
     private Ocorrencias.StatusResolucao statusResolucao;
     private LocalDateTime dataCriacao;
+    private LocalDateTime dataResolucao;
     private Long idUsuario;
     private Long idArea;
 }
\ No newline at end of file
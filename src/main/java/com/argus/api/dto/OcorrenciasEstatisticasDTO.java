@@ -0,0 +1,15 @@
+package com.argus.api.dto;
+
+import java.util.Map;
+
+import com.argus.api.domain.model.Ocorrencias;
+
+public record OcorrenciasEstatisticasDTO(
+        Long condominioId,
+        String mes,
+        long total,
+        Map<Ocorrencias.TipoOcorrencia, Long> porTipo,
+        Map<Ocorrencias.StatusAprovacao, Long> porStatusAprovacao,
+        Map<Ocorrencias.StatusResolucao, Long> porStatusResolucao,
+        Double mediaHorasResolucao
+) { }
@@ -0,0 +1,15 @@
+package com.argus.api.dto;
+
+import java.time.DayOfWeek;
+import java.util.Map;
+
+// Cada array tem 24 posições, uma por hora do dia. taxaOcupacao (minutos reservados sobre os
+// minutos disponíveis naquele dia da semana e hora) só é calculada quando há um mês.
+public record OcupacaoAreaDTO(
+        Long areaId,
+        String mes,
+        long reservas,
+        Map<DayOfWeek, int[]> reservasPorHora,
+        Map<DayOfWeek, int[]> minutosPorHora,
+        Map<DayOfWeek, double[]> taxaOcupacao
+) { }
@@ -0,0 +1,16 @@
+package com.argus.api.dto;
+
+import java.time.LocalDateTime;
+
+public record PurgaDTO(
+        Long id,
+        String tipo,
+        Long alvoId,
+        String status,
+        String etapa,
+        long linhasApagadas,
+        int tentativas,
+        String erro,
+        LocalDateTime criadaEm,
+        LocalDateTime concluidaEm
+) { }
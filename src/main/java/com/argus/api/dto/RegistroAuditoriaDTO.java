@@ -0,0 +1,14 @@
+package com.argus.api.dto;
+
+import java.time.Instant;
+
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+
+public record RegistroAuditoriaDTO(
+        Instant instante,
+        Long usuarioId,
+        Long condominioId,
+        AcaoAuditoria acao,
+        Long recursoId,
+        String detalhe
+) { }
@@ -0,0 +1,17 @@
+package com.argus.api.dto;
+
+import java.time.LocalDateTime;
+
+public record RelatorioDTO(
+        Long id,
+        String tipo,
+        Long condominioId,
+        String periodo,
+        String status,
+        Long linhas,
+        Long tamanho,
+        int tentativas,
+        String erro,
+        LocalDateTime criadaEm,
+        LocalDateTime concluidaEm
+) { }
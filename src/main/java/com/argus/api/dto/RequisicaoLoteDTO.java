@@ -0,0 +1,14 @@
+package com.argus.api.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// caminho inclui a query string (/comunicado?fields=id,titulo); corpo é enviado como JSON
+public record RequisicaoLoteDTO(
+        String id,
+        String metodo,
+        String caminho,
+        Map<String, String> cabecalhos,
+        JsonNode corpo
+) { }
@@ -0,0 +1,13 @@
+package com.argus.api.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// corpo já vem em JSON: a resposta do item (ou a mensagem de erro em texto, como string JSON)
+public record RespostaLoteDTO(
+        String id,
+        int status,
+        Map<String, String> cabecalhos,
+        @JsonRawValue String corpo
+) { }
@@ -0,0 +1,7 @@
+package com.argus.api.dto;
+
+public record ShardDTO(
+        String nome,
+        boolean principal,
+        long condominios
+) { }
@@ -0,0 +1,12 @@
+package com.argus.api.dto;
+
+import java.time.YearMonth;
+
+import com.argus.api.domain.TipoRelatorio;
+
+// condominioId só é considerado para ADMIN; os demais recebem o relatório do próprio condomínio
+public record SolicitacaoRelatorioDTO(
+        TipoRelatorio tipo,
+        YearMonth periodo,
+        Long condominioId
+) { }
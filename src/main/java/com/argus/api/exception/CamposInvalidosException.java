@@ -0,0 +1,7 @@
+package com.argus.api.exception;
+
+public class CamposInvalidosException extends RuntimeException {
+    public CamposInvalidosException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.argus.api.exception;
+
+public class CondominioEmMovimentacaoException extends RuntimeException {
+    public CondominioEmMovimentacaoException(String message) {
+        super(message);
+    }
+}
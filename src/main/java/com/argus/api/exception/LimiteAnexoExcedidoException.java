@@ -0,0 +1,7 @@
+package com.argus.api.exception;
+
+public class LimiteAnexoExcedidoException extends RuntimeException {
+    public LimiteAnexoExcedidoException(String message) {
+        super(message);
+    }
+}
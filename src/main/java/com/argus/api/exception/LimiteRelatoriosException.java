@@ -0,0 +1,7 @@
+package com.argus.api.exception;
+
+public class LimiteRelatoriosException extends RuntimeException {
+    public LimiteRelatoriosException(String message) {
+        super(message);
+    }
+}
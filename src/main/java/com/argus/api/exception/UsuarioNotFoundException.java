@@ -0,0 +1,7 @@
+package com.argus.api.exception;
+
+public class UsuarioNotFoundException extends RuntimeException {
+    public UsuarioNotFoundException(String message) {
+        super(message);
+    }
+}
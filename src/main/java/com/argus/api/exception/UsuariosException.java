@@ -1,10 +1,12 @@
 package com.argus.api.exception;
 
 import com.argus.api.dto.ExecoesDTO;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -37,4 +39,20 @@ public class UsuariosException {
     public ResponseEntity handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body("Argumento inválido.");
     }
+
+    @ExceptionHandler(CamposInvalidosException.class)
+    public ResponseEntity handleCamposInvalidos(CamposInvalidosException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    // a escrita chega ao banco dentro de uma transação, que embrulha a exceção do roteamento de shards
+    @ExceptionHandler({CondominioEmMovimentacaoException.class, CannotCreateTransactionException.class})
+    public ResponseEntity handleCondominioEmMovimentacao(RuntimeException ex) {
+        if (!(NestedExceptionUtils.getMostSpecificCause(ex) instanceof CondominioEmMovimentacaoException movimentacao)) {
+            throw ex;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(movimentacao.getMessage());
+    }
 }
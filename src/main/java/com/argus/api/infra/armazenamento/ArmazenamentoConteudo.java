@@ -0,0 +1,147 @@
+package com.argus.api.infra.armazenamento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.argus.api.exception.LimiteAnexoExcedidoException;
+
+// Armazenamento endereçado por conteúdo: cada arquivo fica em <raiz>/ab/cd/<sha256>.
+// O upload é gravado em um arquivo temporário enquanto o hash é calculado, e arquivos
+// idênticos são gravados uma única vez.
+@Component
+public class ArmazenamentoConteudo {
+
+    private static final Logger log = LoggerFactory.getLogger(ArmazenamentoConteudo.class);
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // um conteúdo gravado (ou reaproveitado) há menos tempo que isso pode ser de um upload que
+    // ainda não inseriu o anexo, e fica no disco
+    static final Duration GUARDA = Duration.ofMinutes(5);
+
+    private final Path raiz;
+
+    private final Path temporarios;
+
+    public ArmazenamentoConteudo(@Value("${api.anexos.diretorio:./dados/anexos}") String diretorio) throws IOException {
+        this.raiz = Path.of(diretorio).toAbsolutePath().normalize();
+        this.temporarios = raiz.resolve("tmp");
+        Files.createDirectories(temporarios);
+    }
+
+    public ConteudoArmazenado gravar(InputStream entrada, long limiteBytes) throws IOException {
+        MessageDigest digest = novoDigest();
+        Path temporario = Files.createTempFile(temporarios, "upload-", ".part");
+        long tamanho = 0;
+
+        try {
+            try (OutputStream saida = Files.newOutputStream(temporario)) {
+                byte[] buffer = new byte[TAMANHO_BUFFER];
+                int lidos;
+                while ((lidos = entrada.read(buffer)) != -1) {
+                    tamanho += lidos;
+                    if (tamanho > limiteBytes) {
+                        throw new LimiteAnexoExcedidoException("O arquivo excede o limite de " + limiteBytes + " bytes.");
+                    }
+                    digest.update(buffer, 0, lidos);
+                    saida.write(buffer, 0, lidos);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path destino = caminho(hash);
+            Instant criadoEm = null;
+            if (Files.exists(destino)) {
+                Files.delete(temporario);
+                Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(destino.getParent());
+                if (mover(temporario, destino)) {
+                    criadoEm = Files.getLastModifiedTime(destino).toInstant();
+                }
+            }
+            return new ConteudoArmazenado(hash, tamanho, criadoEm);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    // apaga um conteúdo que nenhum anexo usa mais
+    public void liberar(String hash) {
+        Path arquivo = caminho(hash);
+        try {
+            if (Files.exists(arquivo)
+                    && Files.getLastModifiedTime(arquivo).toInstant().isBefore(Instant.now().minus(GUARDA))) {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o conteúdo {}: {}", hash, e.getMessage());
+        }
+    }
+
+    // Desfaz um gravar() cujo anexo não chegou a ser inserido. Sem esperar a guarda, mas só se foi
+    // esse gravar que criou o arquivo e nenhum upload o reaproveitou depois, o que renovaria a data
+    public void descartar(ConteudoArmazenado conteudo) {
+        if (conteudo.criadoEm() == null) {
+            return;
+        }
+        Path arquivo = caminho(conteudo.hash());
+        try {
+            if (Files.exists(arquivo)
+                    && !Files.getLastModifiedTime(arquivo).toInstant().isAfter(conteudo.criadoEm())) {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o conteúdo {}: {}", conteudo.hash(), e.getMessage());
+        }
+    }
+
+    public Path caminho(String hash) {
+        if (!hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Hash de conteúdo inválido.");
+        }
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // false se outro upload do mesmo conteúdo criou o arquivo primeiro
+    private boolean mover(Path temporario, Path destino) throws IOException {
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temporario);
+            return false;
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // criadoEm é a data do arquivo quando foi este gravar() que o criou, e null quando o conteúdo já existia
+    public record ConteudoArmazenado(String hash, long tamanho, Instant criadoEm) { }
+}
@@ -0,0 +1,129 @@
+package com.argus.api.infra.armazenamento;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Envia um arquivo do disco sem passar o conteúdo pela heap. Quando o conector do Tomcat
+// suporta sendfile, o envio é delegado a ele; senão usa FileChannel.transferTo.
+// Aceita um único intervalo no cabeçalho Range (bytes=inicio-fim, bytes=inicio-, bytes=-sufixo).
+@Component
+public class EnvioArquivo {
+
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    public void enviar(Path arquivo, String etag, String tipoConteudo, String nomeArquivo,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long tamanho = Files.size(arquivo);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400, immutable");
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long inicio = 0;
+        long fim = tamanho - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] intervalo = interpretarRange(range, tamanho);
+            if (intervalo == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                return;
+            }
+            if (intervalo.length == 2) {
+                inicio = intervalo[0];
+                fim = intervalo[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+            }
+        }
+
+        long quantidade = fim - inicio + 1;
+        response.setContentType(tipoConteudo);
+        response.setContentLengthLong(quantidade);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline().filename(nomeArquivo, StandardCharsets.UTF_8).build().toString());
+
+        if ("HEAD".equals(request.getMethod()) || quantidade == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            request.setAttribute(SENDFILE_ARQUIVO, arquivo.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, fim + 1);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+            long posicao = inicio;
+            long restante = quantidade;
+            while (restante > 0) {
+                long enviados = canal.transferTo(posicao, restante, saida);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicao += enviados;
+                restante -= enviados;
+            }
+        }
+    }
+
+    // null = intervalo inválido, vazio = ignorar o Range e enviar o arquivo inteiro
+    private long[] interpretarRange(String range, long tamanho) {
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return new long[0];
+        }
+
+        String especificacao = range.substring("bytes=".length()).trim();
+        int hifen = especificacao.indexOf('-');
+        if (hifen < 0) {
+            return new long[0];
+        }
+
+        try {
+            String parteInicio = especificacao.substring(0, hifen).trim();
+            String parteFim = especificacao.substring(hifen + 1).trim();
+
+            if (parteInicio.isEmpty()) {
+                long sufixo = Long.parseLong(parteFim);
+                if (sufixo <= 0 || tamanho == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, tamanho - sufixo), tamanho - 1};
+            }
+
+            long inicio = Long.parseLong(parteInicio);
+            long fim = parteFim.isEmpty() ? tamanho - 1 : Math.min(Long.parseLong(parteFim), tamanho - 1);
+            if (inicio >= tamanho || fim < inicio) {
+                return null;
+            }
+            return new long[]{inicio, fim};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.argus.api.infra.auditoria;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// O código é o que vai para o arquivo: não reaproveite nem mude o de uma ação existente
+public enum AcaoAuditoria {
+    VOTO_REGISTRADO(1),
+    VOTO_REMOVIDO(2),
+    RESERVA_REMOVIDA(3),
+    OCORRENCIA_STATUS_ALTERADO(4),
+    USUARIO_PAPEL_ALTERADO(5),
+    USUARIO_EXCLUIDO(6),
+    CONDOMINIO_EXCLUIDO(7),
+    USUARIO_CRIADO(8);
+
+    private static final Map<Short, AcaoAuditoria> POR_CODIGO = new HashMap<>();
+
+    static {
+        for (AcaoAuditoria acao : values()) {
+            POR_CODIGO.put(acao.codigo, acao);
+        }
+    }
+
+    private final short codigo;
+
+    AcaoAuditoria(int codigo) {
+        this.codigo = (short) codigo;
+    }
+
+    short codigo() {
+        return codigo;
+    }
+
+    static AcaoAuditoria doCodigo(short codigo) {
+        AcaoAuditoria acao = POR_CODIGO.get(codigo);
+        if (acao == null) {
+            throw new IllegalStateException("Código de ação de auditoria desconhecido: " + codigo);
+        }
+        return acao;
+    }
+}
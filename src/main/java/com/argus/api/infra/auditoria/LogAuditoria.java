@@ -0,0 +1,308 @@
+package com.argus.api.infra.auditoria;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.RegistroAuditoriaDTO;
+import com.argus.api.infra.transacao.AposCommit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Trilha de auditoria (quem alterou o quê) fora do MySQL: cada registro é anexado a um segmento
+// mapeado em memória em api.auditoria.diretorio, e um segmento cheio dá lugar a um novo. A escrita
+// só copia bytes para a memória mapeada; o fsync é feito em grupo por uma thread própria a cada
+// api.auditoria.intervalo-sincronizacao, cobrindo todos os registros anexados desde o anterior. Com
+// api.auditoria.aguardar-sincronizacao=true, quem registra espera pelo fsync que cobre o seu registro.
+// Os registros são feitos depois do commit, para que uma escrita desfeita não apareça na trilha.
+// Cada instância grava os próprios arquivos; segmentos mais antigos que api.auditoria.retencao são
+// apagados.
+@Slf4j
+@Component
+public class LogAuditoria {
+
+    private static final int TAMANHO_MAXIMO_DETALHE = 1024;
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final boolean habilitado;
+    private final boolean aguardarSincronizacao;
+    private final Duration intervaloSincronizacao;
+    private final Duration retencao;
+    private final Clock relogio;
+    private final Counter registros;
+    private final Timer sincronizacoes;
+
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final List<SegmentoAuditoria> segmentos = new CopyOnWriteArrayList<>();
+    private SegmentoAuditoria ativo;
+    private long ultimoInstante;
+    private long sequenciaEscrita;
+
+    private final Object monitorSincronizacao = new Object();
+    private long sequenciaSincronizada;
+
+    private final ScheduledExecutorService sincronizador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "auditoria-sincronizacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LogAuditoria(@Value("${api.auditoria.diretorio:./dados/auditoria}") String diretorio,
+                        @Value("${api.auditoria.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+                        @Value("${api.auditoria.habilitado:true}") boolean habilitado,
+                        @Value("${api.auditoria.aguardar-sincronizacao:false}") boolean aguardarSincronizacao,
+                        @Value("${api.auditoria.intervalo-sincronizacao:100ms}") Duration intervaloSincronizacao,
+                        @Value("${api.auditoria.retencao:400d}") Duration retencao,
+                        MeterRegistry meterRegistry) throws IOException {
+        this(Paths.get(diretorio), Math.toIntExact(tamanhoSegmento.toBytes()), habilitado, aguardarSincronizacao,
+                intervaloSincronizacao, retencao, Clock.systemUTC(), meterRegistry);
+    }
+
+    LogAuditoria(Path diretorio, int tamanhoSegmento, boolean habilitado, boolean aguardarSincronizacao,
+                 Duration intervaloSincronizacao, Duration retencao, Clock relogio, MeterRegistry meterRegistry)
+            throws IOException {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.habilitado = habilitado;
+        this.aguardarSincronizacao = aguardarSincronizacao;
+        this.intervaloSincronizacao = intervaloSincronizacao;
+        this.retencao = retencao;
+        this.relogio = relogio;
+        this.registros = meterRegistry.counter("auditoria.registros");
+        this.sincronizacoes = meterRegistry.timer("auditoria.sincronizacoes");
+        meterRegistry.gaugeCollectionSize("auditoria.segmentos", List.of(), segmentos);
+        if (habilitado) {
+            abrirSegmentos();
+            sincronizador.scheduleWithFixedDelay(this::sincronizar, intervaloSincronizacao.toMillis(),
+                    intervaloSincronizacao.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // registra em nome do usuário autenticado, depois do commit da transação corrente
+    public void registrar(AcaoAuditoria acao, Long recursoId, String detalhe) {
+        if (!habilitado) {
+            return;
+        }
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        Usuarios usuario = autenticacao != null && autenticacao.getPrincipal() instanceof Usuarios autenticado
+                ? autenticado : null;
+        Long usuarioId = usuario != null ? usuario.getId() : null;
+        Long condominioId = usuario != null && usuario.getCondominio() != null ? usuario.getCondominio().getId() : null;
+        AposCommit.executar(() -> {
+            try {
+                anexar(usuarioId, condominioId, acao, recursoId, detalhe);
+            } catch (RuntimeException e) {
+                // a escrita no banco já foi confirmada; a falha na trilha não desfaz a requisição
+                log.error("Falha ao registrar auditoria {} {}: {}", acao, recursoId, e.getMessage());
+            }
+        });
+    }
+
+    void anexar(Long usuarioId, Long condominioId, AcaoAuditoria acao, Long recursoId, String detalhe) {
+        long sequencia;
+        escrita.lock();
+        try {
+            // o índice dos segmentos depende de instantes que nunca diminuem
+            long instante = Math.max(relogio.millis(), ultimoInstante);
+            byte[] conteudo = SegmentoAuditoria.codificar(instante, usuarioId, condominioId, acao, recursoId,
+                    detalhe, TAMANHO_MAXIMO_DETALHE);
+            if (!ativo.anexar(instante, conteudo)) {
+                rotacionar();
+                if (!ativo.anexar(instante, conteudo)) {
+                    throw new IllegalStateException("Registro de auditoria maior que o segmento.");
+                }
+            }
+            ultimoInstante = instante;
+            sequencia = ++sequenciaEscrita;
+        } finally {
+            escrita.unlock();
+        }
+        registros.increment();
+        if (aguardarSincronizacao) {
+            aguardarSincronizacao(sequencia);
+        }
+    }
+
+    // registros entre inicio e fim (inclusive) que passam no filtro, em ordem, até o consumidor devolver false
+    public void percorrer(Instant inicio, Instant fim, Predicate<RegistroAuditoriaDTO> consumidor) {
+        long de = inicio.toEpochMilli();
+        long ate = fim.toEpochMilli();
+        for (SegmentoAuditoria segmento : segmentos) {
+            if (segmento.vazio() || segmento.ultimoInstante() < de) {
+                continue;
+            }
+            if (segmento.primeiroInstante() > ate) {
+                return;
+            }
+            if (!segmento.ler(de, ate, consumidor)) {
+                return;
+            }
+        }
+    }
+
+    public List<RegistroAuditoriaDTO> consultar(Instant inicio, Instant fim, Long usuarioId, AcaoAuditoria acao, int limite) {
+        List<RegistroAuditoriaDTO> encontrados = new ArrayList<>();
+        percorrer(inicio, fim, registro -> {
+            if ((usuarioId == null || usuarioId.equals(registro.usuarioId()))
+                    && (acao == null || acao == registro.acao())) {
+                encontrados.add(registro);
+            }
+            return encontrados.size() < limite;
+        });
+        return encontrados;
+    }
+
+    void sincronizar() {
+        SegmentoAuditoria segmento;
+        long sequencia;
+        escrita.lock();
+        try {
+            segmento = ativo;
+            sequencia = sequenciaEscrita;
+        } finally {
+            escrita.unlock();
+        }
+        if (sequencia <= sequenciaSincronizadaAtual()) {
+            return;
+        }
+        try {
+            sincronizacoes.record(segmento::forcar);
+        } catch (RuntimeException e) {
+            log.error("Falha no fsync da auditoria: {}", e.getMessage());
+            return;
+        }
+        marcarSincronizada(sequencia);
+    }
+
+    @Scheduled(fixedDelayString = "${api.auditoria.intervalo-limpeza:PT1H}")
+    public void limpar() {
+        if (!habilitado) {
+            return;
+        }
+        long limite = relogio.millis() - retencao.toMillis();
+        for (SegmentoAuditoria segmento : segmentos) {
+            if (segmento == ativo || segmento.ultimoInstante() >= limite) {
+                continue;
+            }
+            segmentos.remove(segmento);
+            try {
+                segmento.apagar();
+                log.info("Segmento de auditoria {} apagado pela retenção", segmento.sequencia());
+            } catch (IOException e) {
+                log.warn("Não foi possível apagar o segmento de auditoria {}: {}", segmento.sequencia(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void fechar() {
+        sincronizador.shutdownNow();
+        if (!habilitado) {
+            return;
+        }
+        escrita.lock();
+        try {
+            ativo.forcar();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void abrirSegmentos() throws IOException {
+        Files.createDirectories(diretorio);
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem.filter(arquivo -> arquivo.getFileName().toString().endsWith(SegmentoAuditoria.EXTENSAO))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < arquivos.size(); i++) {
+            segmentos.add(SegmentoAuditoria.abrir(arquivos.get(i), i == arquivos.size() - 1, tamanhoSegmento));
+        }
+        if (segmentos.isEmpty()) {
+            segmentos.add(SegmentoAuditoria.criar(diretorio, 1, tamanhoSegmento));
+        }
+        ativo = segmentos.get(segmentos.size() - 1);
+        ultimoInstante = Math.max(0, ativo.ultimoInstante());
+        if (arquivos.size() > 0) {
+            log.info("Auditoria: {} segmentos em {}", segmentos.size(), diretorio.toAbsolutePath());
+        }
+    }
+
+    // chamado com a trava de escrita: o segmento cheio é sincronizado ao ser selado
+    private void rotacionar() {
+        try {
+            ativo.selar();
+            SegmentoAuditoria novo = SegmentoAuditoria.criar(diretorio, ativo.sequencia() + 1, tamanhoSegmento);
+            segmentos.add(novo);
+            ativo = novo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir um novo segmento de auditoria", e);
+        }
+        marcarSincronizada(sequenciaEscrita);
+    }
+
+    private long sequenciaSincronizadaAtual() {
+        synchronized (monitorSincronizacao) {
+            return sequenciaSincronizada;
+        }
+    }
+
+    private void marcarSincronizada(long sequencia) {
+        synchronized (monitorSincronizacao) {
+            if (sequencia > sequenciaSincronizada) {
+                sequenciaSincronizada = sequencia;
+                monitorSincronizacao.notifyAll();
+            }
+        }
+    }
+
+    // espera no máximo alguns intervalos: se o disco travar, a requisição não fica presa
+    private void aguardarSincronizacao(long sequencia) {
+        long limite = System.nanoTime() + intervaloSincronizacao.multipliedBy(10).toNanos();
+        synchronized (monitorSincronizacao) {
+            while (sequenciaSincronizada < sequencia) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    log.warn("Auditoria: fsync não terminou a tempo para o registro {}", sequencia);
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(monitorSincronizacao, restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.argus.api.infra.auditoria;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+import com.argus.api.dto.RegistroAuditoriaDTO;
+
+// Um arquivo de auditoria de tamanho fixo, mapeado em memória. Depois do cabeçalho, cada registro é
+// [tamanho int][crc32c int][conteúdo]; o tamanho é gravado por último, então um registro pela metade
+// (queda no meio da escrita) tem tamanho zero ou crc errado e marca o fim do segmento. Um índice
+// esparso (instante, posição) a cada INTERVALO_INDICE bytes permite começar a leitura perto do
+// início de um intervalo de tempo; ao selar o segmento, o índice é gravado ao lado, em .idx.
+class SegmentoAuditoria {
+
+    static final String EXTENSAO = ".seg";
+
+    private static final byte[] MAGICO = "ARGUSAUD".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 16;
+    private static final int CABECALHO_REGISTRO = 8;
+    private static final int INTERVALO_INDICE = 4096;
+    private static final String EXTENSAO_INDICE = ".idx";
+
+    private final Path arquivo;
+    private final long sequencia;
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+
+    // fim dos registros completos: os leitores não passam daqui
+    private volatile int fim;
+    private volatile long primeiroInstante = Long.MAX_VALUE;
+    private volatile long ultimoInstante = Long.MIN_VALUE;
+    private volatile boolean selado;
+
+    private long[] indiceInstantes = new long[64];
+    private int[] indicePosicoes = new int[64];
+    private int tamanhoIndice;
+    private int ultimaPosicaoIndexada = -INTERVALO_INDICE;
+
+    private SegmentoAuditoria(Path arquivo, long sequencia, FileChannel canal, MappedByteBuffer buffer) {
+        this.arquivo = arquivo;
+        this.sequencia = sequencia;
+        this.canal = canal;
+        this.buffer = buffer;
+    }
+
+    static SegmentoAuditoria criar(Path diretorio, long sequencia, int capacidade) throws IOException {
+        Path arquivo = diretorio.resolve(nome(sequencia));
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+        buffer.put(0, MAGICO);
+        buffer.putInt(MAGICO.length, VERSAO);
+        // sem isso, uma queda antes da primeira sincronização deixa um arquivo sem cabeçalho
+        buffer.force(0, CABECALHO);
+        SegmentoAuditoria segmento = new SegmentoAuditoria(arquivo, sequencia, canal, buffer);
+        segmento.fim = CABECALHO;
+        return segmento;
+    }
+
+    // o último segmento é reaberto para escrita e tem o final conferido registro a registro;
+    // os anteriores usam o índice gravado ao selar, quando existe
+    static SegmentoAuditoria abrir(Path arquivo, boolean ativo, int capacidade) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        long sequencia = Long.parseLong(nome.substring(nome.indexOf('-') + 1, nome.length() - EXTENSAO.length()));
+        if (ativo && semCabecalho(arquivo)) {
+            // criado logo antes de uma queda, sem o cabeçalho chegar ao disco: nenhum registro
+            // chegou a ser gravado, então é recriado vazio
+            Files.delete(arquivo);
+            return criar(arquivo.getParent(), sequencia, capacidade);
+        }
+        FileChannel canal = ativo
+                ? FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(arquivo, StandardOpenOption.READ);
+        MappedByteBuffer buffer = canal.map(ativo ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, canal.size());
+        byte[] magico = new byte[MAGICO.length];
+        buffer.get(0, magico);
+        if (!Arrays.equals(magico, MAGICO) || buffer.getInt(MAGICO.length) != VERSAO) {
+            canal.close();
+            throw new IOException("Arquivo de auditoria inválido: " + arquivo);
+        }
+
+        SegmentoAuditoria segmento = new SegmentoAuditoria(arquivo, sequencia, canal, buffer);
+        if (ativo || !segmento.carregarIndice()) {
+            segmento.percorrerParaRecuperar(ativo);
+        }
+        segmento.selado = !ativo;
+        if (!ativo) {
+            canal.close();
+        }
+        return segmento;
+    }
+
+    private static boolean semCabecalho(Path arquivo) throws IOException {
+        byte[] cabecalho;
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            cabecalho = entrada.readNBytes(CABECALHO);
+        }
+        for (byte b : cabecalho) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String nome(long sequencia) {
+        return String.format("auditoria-%020d%s", sequencia, EXTENSAO);
+    }
+
+    // false quando não cabe: o chamador abre o próximo segmento
+    boolean anexar(long instante, byte[] conteudo) {
+        int posicao = fim;
+        if (posicao + CABECALHO_REGISTRO + conteudo.length > buffer.capacity()) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo);
+        buffer.putInt(posicao + 4, (int) crc.getValue());
+        buffer.put(posicao + CABECALHO_REGISTRO, conteudo);
+        buffer.putInt(posicao, conteudo.length);
+        indexar(instante, posicao);
+        fim = posicao + CABECALHO_REGISTRO + conteudo.length;
+        return true;
+    }
+
+    // percorre os registros a partir de "de" (epoch ms) até passar de "ate", enquanto o consumidor devolver true
+    boolean ler(long de, long ate, Predicate<RegistroAuditoriaDTO> consumidor) {
+        int limite = fim;
+        int posicao = posicaoInicial(de);
+        while (posicao + CABECALHO_REGISTRO <= limite) {
+            int tamanho = buffer.getInt(posicao);
+            byte[] conteudo = new byte[tamanho];
+            buffer.get(posicao + CABECALHO_REGISTRO, conteudo);
+            posicao += CABECALHO_REGISTRO + tamanho;
+            RegistroAuditoriaDTO registro = decodificar(conteudo);
+            long instante = registro.instante().toEpochMilli();
+            if (instante > ate) {
+                return true;
+            }
+            if (instante >= de && !consumidor.test(registro)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void forcar() {
+        if (!selado) {
+            buffer.force();
+        }
+    }
+
+    void selar() throws IOException {
+        buffer.force();
+        gravarIndice();
+        selado = true;
+        canal.close();
+    }
+
+    void apagar() throws IOException {
+        if (canal.isOpen()) {
+            canal.close();
+        }
+        Files.deleteIfExists(arquivoIndice());
+        Files.deleteIfExists(arquivo);
+    }
+
+    long sequencia() {
+        return sequencia;
+    }
+
+    long primeiroInstante() {
+        return primeiroInstante;
+    }
+
+    long ultimoInstante() {
+        return ultimoInstante;
+    }
+
+    boolean vazio() {
+        return ultimoInstante == Long.MIN_VALUE;
+    }
+
+    static byte[] codificar(long instante, Long usuarioId, Long condominioId, AcaoAuditoria acao, Long recursoId,
+                            String detalhe, int tamanhoMaximoDetalhe) {
+        byte[] texto = detalhe != null ? detalhe.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (texto.length > tamanhoMaximoDetalhe) {
+            texto = Arrays.copyOf(texto, tamanhoMaximoDetalhe);
+        }
+        return ByteBuffer.allocate(8 * 4 + 2 + 2 + texto.length)
+                .putLong(instante)
+                .putLong(usuarioId != null ? usuarioId : -1)
+                .putLong(condominioId != null ? condominioId : -1)
+                .putShort(acao.codigo())
+                .putLong(recursoId != null ? recursoId : -1)
+                .putShort((short) texto.length)
+                .put(texto)
+                .array();
+    }
+
+    private static RegistroAuditoriaDTO decodificar(byte[] conteudo) {
+        ByteBuffer leitura = ByteBuffer.wrap(conteudo);
+        Instant instante = Instant.ofEpochMilli(leitura.getLong());
+        Long usuarioId = opcional(leitura.getLong());
+        Long condominioId = opcional(leitura.getLong());
+        AcaoAuditoria acao = AcaoAuditoria.doCodigo(leitura.getShort());
+        Long recursoId = opcional(leitura.getLong());
+        byte[] texto = new byte[Short.toUnsignedInt(leitura.getShort())];
+        leitura.get(texto);
+        return new RegistroAuditoriaDTO(instante, usuarioId, condominioId, acao, recursoId,
+                texto.length > 0 ? new String(texto, StandardCharsets.UTF_8) : null);
+    }
+
+    private static Long opcional(long valor) {
+        return valor >= 0 ? valor : null;
+    }
+
+    private void percorrerParaRecuperar(boolean ativo) {
+        int posicao = CABECALHO;
+        while (posicao + CABECALHO_REGISTRO <= buffer.capacity()) {
+            int tamanho = buffer.getInt(posicao);
+            if (tamanho <= 0 || posicao + CABECALHO_REGISTRO + tamanho > buffer.capacity()) {
+                break;
+            }
+            byte[] conteudo = new byte[tamanho];
+            buffer.get(posicao + CABECALHO_REGISTRO, conteudo);
+            CRC32C crc = new CRC32C();
+            crc.update(conteudo);
+            if ((int) crc.getValue() != buffer.getInt(posicao + 4)) {
+                break;
+            }
+            indexar(ByteBuffer.wrap(conteudo).getLong(), posicao);
+            posicao += CABECALHO_REGISTRO + tamanho;
+        }
+        if (ativo && posicao + CABECALHO_REGISTRO <= buffer.capacity() && buffer.getInt(posicao) != 0) {
+            // registro interrompido no meio: zera o tamanho para o próximo começar no lugar dele
+            buffer.putInt(posicao, 0);
+            buffer.force();
+        }
+        fim = posicao;
+    }
+
+    private synchronized void indexar(long instante, int posicao) {
+        if (primeiroInstante == Long.MAX_VALUE) {
+            primeiroInstante = instante;
+        }
+        ultimoInstante = instante;
+        if (posicao - ultimaPosicaoIndexada < INTERVALO_INDICE) {
+            return;
+        }
+        if (tamanhoIndice == indiceInstantes.length) {
+            indiceInstantes = Arrays.copyOf(indiceInstantes, tamanhoIndice * 2);
+            indicePosicoes = Arrays.copyOf(indicePosicoes, tamanhoIndice * 2);
+        }
+        indiceInstantes[tamanhoIndice] = instante;
+        indicePosicoes[tamanhoIndice] = posicao;
+        tamanhoIndice++;
+        ultimaPosicaoIndexada = posicao;
+    }
+
+    // a última entrada do índice com instante anterior a "de"; os instantes nunca diminuem dentro do
+    // log, então nada antes dela pode estar no intervalo
+    private synchronized int posicaoInicial(long de) {
+        int inicio = 0;
+        int fimBusca = tamanhoIndice;
+        while (inicio < fimBusca) {
+            int meio = (inicio + fimBusca) >>> 1;
+            if (indiceInstantes[meio] < de) {
+                inicio = meio + 1;
+            } else {
+                fimBusca = meio;
+            }
+        }
+        return inicio > 0 ? indicePosicoes[inicio - 1] : CABECALHO;
+    }
+
+    private Path arquivoIndice() {
+        String nome = arquivo.getFileName().toString();
+        return arquivo.resolveSibling(nome.substring(0, nome.length() - EXTENSAO.length()) + EXTENSAO_INDICE);
+    }
+
+    private synchronized void gravarIndice() throws IOException {
+        Path temporario = arquivoIndice().resolveSibling(arquivoIndice().getFileName() + ".tmp");
+        try (DataOutputStream saida = new DataOutputStream(Files.newOutputStream(temporario))) {
+            saida.writeInt(fim);
+            saida.writeLong(primeiroInstante);
+            saida.writeLong(ultimoInstante);
+            saida.writeInt(tamanhoIndice);
+            for (int i = 0; i < tamanhoIndice; i++) {
+                saida.writeLong(indiceInstantes[i]);
+                saida.writeInt(indicePosicoes[i]);
+            }
+        }
+        Files.move(temporario, arquivoIndice(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized boolean carregarIndice() {
+        if (!Files.exists(arquivoIndice())) {
+            return false;
+        }
+        try (DataInputStream entrada = new DataInputStream(Files.newInputStream(arquivoIndice()))) {
+            fim = entrada.readInt();
+            primeiroInstante = entrada.readLong();
+            ultimoInstante = entrada.readLong();
+            tamanhoIndice = entrada.readInt();
+            indiceInstantes = new long[Math.max(tamanhoIndice, 1)];
+            indicePosicoes = new int[Math.max(tamanhoIndice, 1)];
+            for (int i = 0; i < tamanhoIndice; i++) {
+                indiceInstantes[i] = entrada.readLong();
+                indicePosicoes[i] = entrada.readInt();
+            }
+            return true;
+        } catch (IOException e) {
+            // índice truncado: o segmento é percorrido do início
+            tamanhoIndice = 0;
+            primeiroInstante = Long.MAX_VALUE;
+            ultimoInstante = Long.MIN_VALUE;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.argus.api.infra.busca;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.springframework.stereotype.Component;
+
+// Monta a expressão BOOLEAN MODE do MATCH ... AGAINST a partir do texto digitado pelo usuário.
+// Os acentos são removidos (a collation das tabelas já compara sem acento) e cada termo é
+// reduzido ao radical, buscado por prefixo: "vazamentos", "vazou" e "vazando" viram "+vaza*". A
+// vogal temática fica no radical; sem ela, "+vaz*" também casaria com "vazio" e "vazão".
+@Component
+public class ConsultaTextual {
+
+    // innodb_ft_min_token_size padrão do MySQL
+    private static final int TAMANHO_MINIMO_TERMO = 3;
+
+    private static final int TAMANHO_MINIMO_RADICAL = 3;
+
+    private static final int MAXIMO_TERMOS = 10;
+
+    // A lista de stopwords padrão do InnoDB é em inglês
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "da", "do", "das", "dos",
+            "em", "na", "no", "nas", "nos", "por", "para", "com", "sem", "que", "e", "ou",
+            "ao", "aos", "se", "mas", "mais", "muito", "foi", "ser", "esta", "este", "isso");
+
+    // sufixo e o que fica no lugar dele; sem plural, que já foi tirado antes
+    private static final String[][] SUFIXOS = {
+            {"amento", "a"}, {"imento", "i"}, {"adora", "a"}, {"ador", "a"}, {"acao", "a"},
+            {"mente", ""}, {"idade", ""}, {"ancia", ""}, {"encia", ""}, {"ismo", ""}, {"ista", ""},
+            {"avel", ""}, {"ivel", ""}, {"oso", ""}, {"osa", ""},
+            {"ado", "a"}, {"ada", "a"}, {"ido", "i"}, {"ida", "i"}, {"ando", "a"}, {"endo", "e"}, {"indo", "i"},
+            {"ar", "a"}, {"er", "e"}, {"ir", "i"}, {"ou", "a"}, {"eu", "e"}, {"iu", "i"}
+    };
+
+    public String montar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        Set<String> radicais = new LinkedHashSet<>();
+        for (String termo : normalizar(texto).split("[^a-z0-9]+")) {
+            if (termo.length() < TAMANHO_MINIMO_TERMO || STOPWORDS.contains(termo)) {
+                continue;
+            }
+            radicais.add(radical(termo));
+            if (radicais.size() == MAXIMO_TERMOS) {
+                break;
+            }
+        }
+
+        StringJoiner expressao = new StringJoiner(" ");
+        radicais.forEach(radical -> expressao.add("+" + radical + "*"));
+        return expressao.toString();
+    }
+
+    String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    String radical(String termo) {
+        String palavra = removerPlural(termo);
+        for (String[] sufixo : SUFIXOS) {
+            if (palavra.endsWith(sufixo[0]) && palavra.length() - sufixo[0].length() >= TAMANHO_MINIMO_RADICAL) {
+                return palavra.substring(0, palavra.length() - sufixo[0].length()) + sufixo[1];
+            }
+        }
+        return palavra;
+    }
+
+    private String removerPlural(String palavra) {
+        if (palavra.length() <= TAMANHO_MINIMO_RADICAL + 1 || !palavra.endsWith("s")) {
+            return palavra;
+        }
+        if (palavra.endsWith("oes") || palavra.endsWith("aes")) {
+            return palavra.substring(0, palavra.length() - 3) + "ao";
+        }
+        if (palavra.endsWith("ais")) {
+            return palavra.substring(0, palavra.length() - 2) + "l";
+        }
+        if (palavra.endsWith("eis")) {
+            return palavra.substring(0, palavra.length() - 3) + "el";
+        }
+        if (palavra.endsWith("res") || palavra.endsWith("zes")) {
+            return palavra.substring(0, palavra.length() - 2);
+        }
+        if (palavra.endsWith("ns")) {
+            return palavra.substring(0, palavra.length() - 2) + "m";
+        }
+        return palavra.substring(0, palavra.length() - 1);
+    }
+}
@@ -0,0 +1,221 @@
+package com.argus.api.infra.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Cache do corpo já serializado (JSON e JSON gzip) das listagens que mudam pouco. Um acerto
+// não passa pelo JPA nem pelo Jackson. As entradas guardam a versão do recurso em que foram
+// geradas e são descartadas quando o service dono incrementa a versão. O total de bytes é
+// limitado, removendo as entradas usadas há mais tempo.
+@Component
+public class CacheRespostas {
+
+    private final VersoesRecursos versoesRecursos;
+    private final ObjectMapper objectMapper;
+    private final long capacidadeBytes;
+    private final RoteamentoShardDataSource roteamentoShards;
+
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesOcupados;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    public CacheRespostas(VersoesRecursos versoesRecursos, ObjectMapper objectMapper,
+                          @Value("${api.cache-respostas.tamanho-maximo:16MB}") DataSize capacidade,
+                          ObjectProvider<RoteamentoShardDataSource> roteamentoShards) {
+        this.versoesRecursos = versoesRecursos;
+        this.roteamentoShards = roteamentoShards.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.capacidadeBytes = capacidade.toBytes();
+        versoesRecursos.aoIncrementar(this::invalidar);
+    }
+
+    // O ETag depende da codificação: o corpo gzip e o sem compactação são representações diferentes e
+    // não podem ter o mesmo ETag forte. A escolha segue só o Accept-Encoding, para o 304 sair sem
+    // consultar o cache; um cliente que aceita gzip e recebe o JSON puro (quando compactar não reduz
+    // o corpo) vê esse mesmo JSON sempre com o ETag de sufixo -gzip.
+    public boolean naoModificado(Recurso recurso, WebRequest request) {
+        String etag = versoesRecursos.etag(recurso);
+        if (aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            etag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+        return request.checkNotModified(etag);
+    }
+
+    public ResponseEntity<byte[]> responder(String chave, Recurso recurso, WebRequest request, Supplier<?> corpo) {
+        // com shards, cada banco tem a sua listagem
+        if (roteamentoShards != null) {
+            chave = roteamentoShards.shardAtual() + ":" + chave;
+        }
+        long versao = versoesRecursos.versao(recurso);
+        Entrada entrada = buscar(chave, versao);
+
+        if (entrada != null) {
+            acertos.increment();
+        } else {
+            faltas.increment();
+            entrada = serializar(recurso, versao, corpo.get());
+            guardar(chave, entrada);
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (entrada.gzip() != null && aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entrada.gzip());
+        }
+        return resposta.body(entrada.json());
+    }
+
+    public Estatisticas estatisticas() {
+        long totalAcertos = acertos.sum();
+        long total = totalAcertos + faltas.sum();
+        synchronized (this) {
+            return new Estatisticas(totalAcertos, total - totalAcertos, remocoes.sum(), entradas.size(),
+                    bytesOcupados, capacidadeBytes, total > 0 ? (double) totalAcertos / total : 0.0);
+        }
+    }
+
+    private synchronized Entrada buscar(String chave, long versao) {
+        Entrada entrada = entradas.get(chave);
+        return entrada != null && entrada.versao() == versao ? entrada : null;
+    }
+
+    private synchronized void guardar(String chave, Entrada entrada) {
+        // uma entrada que ocupa mais de um quarto do cache expulsaria todas as outras
+        if (entrada.tamanho() > capacidadeBytes / 4) {
+            return;
+        }
+
+        Entrada anterior = entradas.put(chave, entrada);
+        if (anterior != null) {
+            bytesOcupados -= anterior.tamanho();
+        }
+        bytesOcupados += entrada.tamanho();
+
+        Iterator<Map.Entry<String, Entrada>> iterator = entradas.entrySet().iterator();
+        while (bytesOcupados > capacidadeBytes && iterator.hasNext()) {
+            Map.Entry<String, Entrada> maisAntiga = iterator.next();
+            if (maisAntiga.getValue() == entrada) {
+                continue;
+            }
+            bytesOcupados -= maisAntiga.getValue().tamanho();
+            iterator.remove();
+            remocoes.increment();
+        }
+    }
+
+    private synchronized void invalidar(Recurso recurso) {
+        Iterator<Entrada> iterator = entradas.values().iterator();
+        while (iterator.hasNext()) {
+            Entrada entrada = iterator.next();
+            if (entrada.recurso() == recurso) {
+                bytesOcupados -= entrada.tamanho();
+                iterator.remove();
+            }
+        }
+    }
+
+    private Entrada serializar(Recurso recurso, long versao, Object corpo) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(corpo);
+            byte[] gzip = compactar(json);
+            return new Entrada(recurso, versao, json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a resposta.", e);
+        }
+    }
+
+    // Accept-Encoding com pesos (RFC 9110): gzip;q=0 recusa, e o * vale para o gzip quando ele não
+    // aparece. Um identity explícito com peso maior que o do gzip também fica sem compactação.
+    static boolean aceitaGzip(String aceita) {
+        if (aceita == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double qualquer = null;
+        Double identity = null;
+        for (String item : aceita.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double peso = peso(partes);
+            switch (codificacao) {
+                case "gzip", "x-gzip" -> gzip = peso;
+                case "*" -> qualquer = peso;
+                case "identity" -> identity = peso;
+                default -> { }
+            }
+        }
+        double pesoGzip = gzip != null ? gzip : qualquer != null ? qualquer : 0;
+        return pesoGzip > 0 && (identity == null || pesoGzip >= identity);
+    }
+
+    // um q malformado recusa a codificação, em vez de aceitá-la com o peso padrão
+    private static double peso(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() > 1 && (parametro.charAt(0) == 'q' || parametro.charAt(0) == 'Q')
+                    && parametro.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parametro.substring(parametro.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] compactar(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private record Entrada(Recurso recurso, long versao, byte[] json, byte[] gzip) {
+        long tamanho() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    public record Estatisticas(
+            long acertos,
+            long faltas,
+            long remocoes,
+            int entradas,
+            long bytesOcupados,
+            long capacidadeBytes,
+            double taxaAcerto
+    ) { }
+}
@@ -0,0 +1,47 @@
+package com.argus.api.infra.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.argus.api.dto.EstatisticasHibernateDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Números do Hibernate desde a subida da aplicação (hibernate.generate_statistics), para medir
+// quantas idas ao banco o cache de segundo nível e o cache de consultas estão evitando.
+@Component
+public class EstatisticasHibernate {
+
+    private final Statistics statistics;
+
+    public EstatisticasHibernate(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public EstatisticasHibernateDTO coletar() {
+        Map<String, EstatisticasHibernateDTO.Regiao> regioes = new TreeMap<>();
+        for (String nome : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regiao = statistics.getDomainDataRegionStatistics(nome);
+            regioes.put(nome, new EstatisticasHibernateDTO.Regiao(
+                    regiao.getHitCount(),
+                    regiao.getMissCount(),
+                    regiao.getPutCount()));
+        }
+
+        return new EstatisticasHibernateDTO(
+                statistics.getQueryExecutionCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                regioes);
+    }
+}
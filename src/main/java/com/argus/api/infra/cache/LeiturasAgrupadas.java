@@ -0,0 +1,115 @@
+package com.argus.api.infra.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Agrupa leituras idênticas em andamento (single-flight): enquanto uma requisição executa a
+// consulta de uma rota, as outras com os mesmos parâmetros, o mesmo condomínio e a mesma versão
+// do recurso esperam e recebem o mesmo resultado, em vez de irem ao banco também. Nada fica
+// guardado depois que a consulta termina. Quem espera mais que api.leituras-agrupadas.espera-maxima
+// desiste e faz a própria consulta.
+@Component
+public class LeiturasAgrupadas {
+
+    private final VersoesRecursos versoesRecursos;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final long esperaMaximaNanos;
+
+    private final Map<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    public LeiturasAgrupadas(VersoesRecursos versoesRecursos, MeterRegistry meterRegistry,
+                             @Value("${api.leituras-agrupadas.habilitado:true}") boolean habilitado,
+                             @Value("${api.leituras-agrupadas.espera-maxima:2s}") Duration esperaMaxima) {
+        this.versoesRecursos = versoesRecursos;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        meterRegistry.gaugeMapSize("leituras.agrupadas.em.andamento", List.of(), emAndamento);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String rota, Recurso recurso, WebRequest request, Supplier<T> consulta) {
+        if (!habilitado) {
+            return consulta.get();
+        }
+
+        // a versão na chave impede que quem chegou depois de uma escrita receba o resultado anterior a ela
+        String chave = rota + "|" + versoesRecursos.versao(recurso) + "|" + condominio() + "|" + parametros(request);
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, novo);
+
+        if (existente == null) {
+            try {
+                T resultado = consulta.get();
+                novo.complete(resultado);
+                return resultado;
+            } catch (RuntimeException | Error e) {
+                novo.completeExceptionally(e);
+                throw e;
+            } finally {
+                emAndamento.remove(chave, novo);
+            }
+        }
+
+        try {
+            Object resultado = existente.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            contador("leituras.agrupadas", rota).increment();
+            return (T) resultado;
+        } catch (TimeoutException e) {
+            contador("leituras.agrupadas.espera.excedida", rota).increment();
+            return consulta.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a consulta em andamento.", e);
+        }
+    }
+
+    private Counter contador(String nome, String rota) {
+        return Counter.builder(nome).tag("rota", rota).register(meterRegistry);
+    }
+
+    private static String condominio() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof Usuarios usuario
+                && usuario.getCondominio() != null) {
+            return String.valueOf(usuario.getCondominio().getId());
+        }
+        return "-";
+    }
+
+    // ordenados, para que ?a=1&b=2 e ?b=2&a=1 caiam na mesma chave
+    private static String parametros(WebRequest request) {
+        StringBuilder texto = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((nome, valores) ->
+                texto.append(nome).append('=').append(Arrays.toString(valores)).append('&'));
+        return texto.toString();
+    }
+}
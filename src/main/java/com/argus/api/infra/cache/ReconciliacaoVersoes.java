@@ -0,0 +1,98 @@
+package com.argus.api.infra.cache;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+// Traz para os contadores do VersoesRecursos as escritas feitas por outras instâncias em
+// comunicados, notificações e sessões de votação (condomínios e áreas comuns vêm pela
+// reconciliação do ReferenciasService). A cada rodada compara a contagem e o maior updated_at de
+// cada tabela com os da rodada anterior e incrementa a versão quando mudaram. Um updated_at mais
+// novo que a margem também incrementa: uma transação que fez commit depois da leitura com um
+// updated_at no mesmo segundo (ou anterior) não mudaria o maior valor.
+@Component
+public class ReconciliacaoVersoes {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliacaoVersoes.class);
+
+    private static final Map<Recurso, String> TABELAS = Map.of(
+            Recurso.COMUNICADOS, "comunicados",
+            Recurso.NOTIFICACOES, "notificacoes",
+            Recurso.SESSOES_VOTACAO, "sessao_votacao");
+
+    // chave do único banco quando não há shards
+    private static final String SEM_SHARDS = "";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoteamentoShardDataSource roteamento;
+    private final VersoesRecursos versoesRecursos;
+    private final Duration margem;
+
+    private final Map<String, Estado> vistos = new ConcurrentHashMap<>();
+
+    public ReconciliacaoVersoes(JdbcTemplate jdbcTemplate, ObjectProvider<RoteamentoShardDataSource> roteamentoShards,
+                                VersoesRecursos versoesRecursos,
+                                @Value("${api.versoes.margem:1m}") Duration margem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roteamento = roteamentoShards.getIfAvailable();
+        this.versoesRecursos = versoesRecursos;
+        this.margem = margem;
+    }
+
+    @Scheduled(fixedDelayString = "${api.versoes.intervalo-reconciliacao:PT10S}")
+    public void reconciliar() {
+        for (String shard : shards()) {
+            for (Map.Entry<Recurso, String> tabela : TABELAS.entrySet()) {
+                try {
+                    Leitura leitura = roteamento != null
+                            ? ContextoShard.noShard(shard, () -> ler(tabela.getValue()))
+                            : ler(tabela.getValue());
+                    Estado anterior = vistos.put(shard + ":" + tabela.getKey(), leitura.estado());
+                    // na primeira leitura não há com o que comparar
+                    if (anterior != null && (!anterior.equals(leitura.estado()) || leitura.recente(margem))) {
+                        versoesRecursos.incrementar(tabela.getKey());
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Falha ao reconciliar a versão de {} no banco '{}': {}", tabela.getKey(), shard,
+                            e.getMessage());
+                }
+            }
+        }
+    }
+
+    // o horário é o do banco, o mesmo que grava o updated_at
+    private Leitura ler(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), MAX(updated_at), CURRENT_TIMESTAMP FROM " + tabela,
+                (rs, linha) -> new Leitura(new Estado(rs.getLong(1), rs.getTimestamp(2)), rs.getTimestamp(3)));
+    }
+
+    private Collection<String> shards() {
+        return roteamento != null ? roteamento.shards() : List.of(SEM_SHARDS);
+    }
+
+    private record Estado(long linhas, Timestamp marca) {
+    }
+
+    private record Leitura(Estado estado, Timestamp agora) {
+
+        boolean recente(Duration margem) {
+            return estado.marca() != null && estado.marca().toInstant().isAfter(agora.toInstant().minus(margem));
+        }
+    }
+}
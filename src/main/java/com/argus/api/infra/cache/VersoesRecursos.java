@@ -0,0 +1,63 @@
+package com.argus.api.infra.cache;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.argus.api.infra.transacao.AposCommit;
+
+// Contador de versão por recurso, incrementado pelos services a cada escrita. O ETag das
+// listagens é derivado só do contador, então um If-None-Match é respondido com 304 sem
+// consultar o banco. O prefixo aleatório evita reaproveitar ETags depois de um restart.
+// Os contadores são locais à instância; as escritas feitas por outras instâncias chegam pelo
+// ReconciliacaoVersoes e pelo ReferenciasService.
+@Component
+public class VersoesRecursos {
+
+    public enum Recurso {
+        AREAS_COMUNS,
+        COMUNICADOS,
+        CONDOMINIOS,
+        NOTIFICACOES,
+        SESSOES_VOTACAO
+    }
+
+    private final String instancia = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final Map<Recurso, AtomicLong> versoes = new EnumMap<>(Recurso.class);
+
+    private final List<Consumer<Recurso>> ouvintes = new CopyOnWriteArrayList<>();
+
+    public VersoesRecursos() {
+        for (Recurso recurso : Recurso.values()) {
+            versoes.put(recurso, new AtomicLong());
+        }
+    }
+
+    public long versao(Recurso recurso) {
+        return versoes.get(recurso).get();
+    }
+
+    public String etag(Recurso recurso) {
+        return "\"" + instancia + "-" + recurso.ordinal() + "-" + versao(recurso) + "\"";
+    }
+
+    public void incrementar(Recurso... recursos) {
+        AposCommit.executar(() -> {
+            for (Recurso recurso : recursos) {
+                versoes.get(recurso).incrementAndGet();
+                ouvintes.forEach(ouvinte -> ouvinte.accept(recurso));
+            }
+        });
+    }
+
+    public void aoIncrementar(Consumer<Recurso> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+}
@@ -0,0 +1,109 @@
+package com.argus.api.infra.campos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.argus.api.exception.CamposInvalidosException;
+
+// Campos que uma listagem aceita em ?fields=, cada um com a expressão SQL que o lê e, quando vem de
+// outra tabela, o JOIN necessário. Só as colunas e os JOINs dos campos pedidos entram no SELECT.
+// Os nomes são os mesmos da resposta completa, e os formatos de data e hora também.
+public final class CamposListagem {
+
+    public static final Function<Object, Object> DATA = valor -> ((LocalDate) valor).format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    public static final Function<Object, Object> HORA = valor -> ((LocalTime) valor).format(DateTimeFormatter.ofPattern("HH:mm"));
+
+    private final String tabela;
+    private final String ordenacao;
+    private final Map<String, Campo> campos;
+
+    private CamposListagem(String tabela, String ordenacao, Map<String, Campo> campos) {
+        this.tabela = tabela;
+        this.ordenacao = ordenacao;
+        this.campos = campos;
+    }
+
+    public static Construtor de(String tabela, String ordenacao) {
+        return new Construtor(tabela, ordenacao);
+    }
+
+    // "id, titulo" -> [id, titulo], na ordem pedida e sem repetições
+    public List<String> selecionar(String fields) {
+        Set<String> selecionados = new LinkedHashSet<>();
+        for (String nome : fields.split(",")) {
+            String campo = nome.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            if (!campos.containsKey(campo)) {
+                throw new CamposInvalidosException("Campo desconhecido: " + campo + ". Campos disponíveis: "
+                        + String.join(",", campos.keySet()));
+            }
+            selecionados.add(campo);
+        }
+        if (selecionados.isEmpty()) {
+            throw new CamposInvalidosException("Informe ao menos um campo. Campos disponíveis: "
+                    + String.join(",", campos.keySet()));
+        }
+        return new ArrayList<>(selecionados);
+    }
+
+    String sql(List<String> selecionados) {
+        List<String> expressoes = new ArrayList<>();
+        Set<String> juncoes = new LinkedHashSet<>();
+        for (String nome : selecionados) {
+            Campo campo = campos.get(nome);
+            expressoes.add(campo.expressao());
+            if (campo.juncao() != null) {
+                juncoes.add(campo.juncao());
+            }
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", expressoes))
+                .append(" FROM ").append(tabela);
+        juncoes.forEach(juncao -> sql.append(' ').append(juncao));
+        return sql.append(" ORDER BY ").append(ordenacao).toString();
+    }
+
+    Object formatar(String nome, Object valor) {
+        Function<Object, Object> formato = campos.get(nome).formato();
+        return valor != null && formato != null ? formato.apply(valor) : valor;
+    }
+
+    private record Campo(String expressao, String juncao, Function<Object, Object> formato) { }
+
+    public static final class Construtor {
+        private final String tabela;
+        private final String ordenacao;
+        private final Map<String, Campo> campos = new LinkedHashMap<>();
+
+        private Construtor(String tabela, String ordenacao) {
+            this.tabela = tabela;
+            this.ordenacao = ordenacao;
+        }
+
+        public Construtor campo(String nome, String expressao) {
+            return campo(nome, expressao, null, null);
+        }
+
+        public Construtor campo(String nome, String expressao, Function<Object, Object> formato) {
+            return campo(nome, expressao, null, formato);
+        }
+
+        public Construtor campo(String nome, String expressao, String juncao, Function<Object, Object> formato) {
+            campos.put(nome, new Campo(expressao, juncao, formato));
+            return this;
+        }
+
+        public CamposListagem construir() {
+            return new CamposListagem(tabela, ordenacao, new LinkedHashMap<>(campos));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.argus.api.infra.campos;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Executa uma listagem com só os campos pedidos. Cada linha vira um mapa com as chaves na ordem
+// pedida, então o Jackson escreve só esses campos. Chamada de dentro de um método
+// @Transactional(readOnly = true) do service, a consulta vai para a réplica como as demais leituras.
+@Component
+public class ConsultaCampos {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConsultaCampos(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Map<String, Object>> listar(CamposListagem listagem, String fields) {
+        List<String> campos = listagem.selecionar(fields);
+        return jdbcTemplate.query(listagem.sql(campos), (ResultSet rs, int linha) -> {
+            Map<String, Object> registro = new LinkedHashMap<>(campos.size() * 2);
+            for (int i = 0; i < campos.size(); i++) {
+                registro.put(campos.get(i), listagem.formatar(campos.get(i), converter(rs.getObject(i + 1))));
+            }
+            return registro;
+        });
+    }
+
+    private static Object converter(Object valor) {
+        if (valor instanceof Date data) {
+            return data.toLocalDate();
+        }
+        if (valor instanceof Time hora) {
+            return hora.toLocalTime();
+        }
+        if (valor instanceof Timestamp instante) {
+            return instante.toLocalDateTime();
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.argus.api.infra.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitor de CSV em streaming: devolve um registro por vez, sem carregar o arquivo. Aceita
+// separador vírgula ou ponto e vírgula (o do Excel em português), campos entre aspas com
+// aspas duplicadas ("") e quebras de linha dentro das aspas.
+public class LeitorCsv {
+
+    private final BufferedReader leitor;
+    private final char separador;
+    private long linhasLidas;
+    private long inicioRegistro;
+
+    public LeitorCsv(BufferedReader leitor, char separador) {
+        this.leitor = leitor;
+        this.separador = separador;
+    }
+
+    // Detecta o separador pela primeira linha (o cabeçalho) e devolve os nomes das colunas
+    public static LeitorCsv comCabecalho(BufferedReader leitor, List<String> cabecalho) throws IOException {
+        leitor.mark(8192);
+        String primeira = leitor.readLine();
+        leitor.reset();
+        char separador = primeira != null && primeira.indexOf(';') >= 0 && primeira.indexOf(',') < 0 ? ';' : ',';
+
+        LeitorCsv csv = new LeitorCsv(leitor, separador);
+        List<String> colunas = csv.proximo();
+        if (colunas != null) {
+            // o Excel grava o BOM do UTF-8 no início do arquivo
+            colunas.forEach(coluna -> cabecalho.add(coluna.replace("\uFEFF", "").strip()));
+        }
+        return csv;
+    }
+
+    // Linha do arquivo em que começou o último registro lido
+    public long linha() {
+        return inicioRegistro;
+    }
+
+    // null no fim do arquivo
+    public List<String> proximo() throws IOException {
+        String texto = lerLinha();
+        while (texto != null && texto.isBlank()) {
+            texto = lerLinha();
+        }
+        if (texto == null) {
+            return null;
+        }
+        inicioRegistro = linhasLidas;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int i = 0;
+        while (true) {
+            if (i == texto.length()) {
+                if (!entreAspas) {
+                    break;
+                }
+                texto = lerLinha();
+                if (texto == null) {
+                    throw new IllegalArgumentException("Aspas não fechadas no registro da linha " + inicioRegistro + ".");
+                }
+                campo.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = texto.charAt(i++);
+            if (entreAspas) {
+                if (c == '"' && i < texto.length() && texto.charAt(i) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private String lerLinha() throws IOException {
+        String texto = leitor.readLine();
+        if (texto != null) {
+            linhasLidas++;
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,54 @@
+package com.argus.api.infra.datasource;
+
+import java.util.function.Supplier;
+
+// Indica ao RoteamentoShardDataSource qual banco usar quando não é o do usuário autenticado:
+// um banco pelo nome (ferramentas que percorrem todos) ou o banco de um condomínio (antes da
+// autenticação, a partir do token). Sem shards, não tem efeito.
+public final class ContextoShard {
+
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Long> CONDOMINIO = new ThreadLocal<>();
+
+    private ContextoShard() {
+    }
+
+    public static <T> T noShard(String shard, Supplier<T> acao) {
+        String anterior = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return acao.get();
+        } finally {
+            restaurar(SHARD, anterior);
+        }
+    }
+
+    public static <T> T doCondominio(Long condominioId, Supplier<T> acao) {
+        if (condominioId == null) {
+            return acao.get();
+        }
+        Long anterior = CONDOMINIO.get();
+        CONDOMINIO.set(condominioId);
+        try {
+            return acao.get();
+        } finally {
+            restaurar(CONDOMINIO, anterior);
+        }
+    }
+
+    static String shard() {
+        return SHARD.get();
+    }
+
+    static Long condominio() {
+        return CONDOMINIO.get();
+    }
+
+    private static <T> void restaurar(ThreadLocal<T> variavel, T anterior) {
+        if (anterior == null) {
+            variavel.remove();
+        } else {
+            variavel.set(anterior);
+        }
+    }
+}
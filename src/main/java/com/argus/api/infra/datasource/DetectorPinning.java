@@ -0,0 +1,67 @@
+package com.argus.api.infra.datasource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.context.SmartLifecycle;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+// Registra quando uma virtual thread fica presa à thread carregadora (bloco synchronized ou
+// código nativo) por mais que o limite, por exemplo dentro do driver JDBC. Usa o evento
+// jdk.VirtualThreadPinned do JFR, que só existe a partir do Java 21.
+@Slf4j
+public class DetectorPinning implements SmartLifecycle {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private static final int FRAMES_NO_LOG = 8;
+
+    private final Duration limite;
+
+    private final LongAdder ocorrencias = new LongAdder();
+
+    private RecordingStream stream;
+
+    public DetectorPinning(Duration limite) {
+        this.limite = limite;
+    }
+
+    public long ocorrencias() {
+        return ocorrencias.sum();
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO, evento -> {
+            ocorrencias.increment();
+            List<RecordedFrame> frames = evento.getStackTrace() != null ? evento.getStackTrace().getFrames() : List.of();
+            log.warn("Virtual thread presa à carregadora por {} ms:\n\t{}", evento.getDuration().toMillis(),
+                    frames.stream()
+                            .limit(FRAMES_NO_LOG)
+                            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                                    + ":" + frame.getLineNumber())
+                            .collect(Collectors.joining("\n\t")));
+        });
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+}
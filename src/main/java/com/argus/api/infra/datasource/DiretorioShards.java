@@ -0,0 +1,50 @@
+package com.argus.api.infra.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Diretório condomínio -> banco, na tabela diretorio_shards do banco principal. Cada instância
+// guarda uma cópia em memória, relida a cada api.datasource.shards.intervalo-atualizacao; um
+// condomínio sem entrada fica no principal. Um condomínio bloqueado está sendo movido e não
+// aceita escritas.
+public class DiretorioShards {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String principal;
+    private volatile Map<Long, Destino> destinos = Map.of();
+
+    public DiretorioShards(DataSource principalDataSource, String principal) {
+        this.jdbcTemplate = new JdbcTemplate(principalDataSource);
+        this.principal = principal;
+    }
+
+    public Destino localizar(Long condominioId) {
+        Destino destino = destinos.get(condominioId);
+        return destino != null ? destino : new Destino(principal, false);
+    }
+
+    public Map<Long, Destino> destinos() {
+        return destinos;
+    }
+
+    public void atualizar() {
+        Map<Long, Destino> lidos = new HashMap<>();
+        jdbcTemplate.query("SELECT condominio_id, shard, bloqueado FROM diretorio_shards", rs -> {
+            lidos.put(rs.getLong(1), new Destino(rs.getString(2), rs.getBoolean(3)));
+        });
+        destinos = Map.copyOf(lidos);
+    }
+
+    void bloquear(Long condominioId, String shard, boolean bloqueado) {
+        jdbcTemplate.update("INSERT INTO diretorio_shards (condominio_id, shard, bloqueado) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE shard = VALUES(shard), bloqueado = VALUES(bloqueado)",
+                condominioId, shard, bloqueado);
+        atualizar();
+    }
+
+    public record Destino(String shard, boolean bloqueado) { }
+}
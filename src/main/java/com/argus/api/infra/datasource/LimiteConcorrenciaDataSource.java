@@ -0,0 +1,102 @@
+package com.argus.api.infra.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Limita quantas threads podem segurar uma conexão ao mesmo tempo. Com virtual threads não há
+// mais o teto natural do pool de threads do Tomcat, e milhares de requisições esperariam
+// direto no pool do Hikari; aqui elas esperam em uma fila justa com o mesmo tamanho do pool.
+public class LimiteConcorrenciaDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+
+    private final long esperaMaximaNanos;
+
+    public LimiteConcorrenciaDataSource(DataSource alvo, int limite, Duration esperaMaxima) {
+        super(alvo);
+        this.permissoes = new Semaphore(limite, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int permissoesDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public int threadsAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Tempo esgotado aguardando uma conexão (" + threadsAguardando() + " threads na fila).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando uma conexão.", e);
+        }
+    }
+
+    private Connection envolver(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        InvocationHandler handler = (proxy, metodo, argumentos) -> {
+            if (metodo.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                try {
+                    return invocar(conexao, metodo, argumentos);
+                } finally {
+                    permissoes.release();
+                }
+            }
+            if (metodo.getName().equals("unwrap") && argumentos[0] instanceof Class<?> tipo && tipo.isInstance(conexao)) {
+                return conexao;
+            }
+            return invocar(conexao, metodo, argumentos);
+        };
+        return (Connection) Proxy.newProxyInstance(
+                LimiteConcorrenciaDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invocar(Connection conexao, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(conexao, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
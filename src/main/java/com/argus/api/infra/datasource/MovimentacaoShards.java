@@ -0,0 +1,195 @@
+package com.argus.api.infra.datasource;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.dto.MovimentacaoShardDTO;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.DiretorioShards.Destino;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Move um condomínio para outro banco com a API no ar. As leituras continuam durante toda a
+// movimentação; as escritas do condomínio ficam bloqueadas da cópia até a troca no diretório:
+//   1. bloqueia o condomínio no diretório e espera as outras instâncias relerem o diretório;
+//   2. copia as linhas do condomínio (com os mesmos ids) para o destino, em uma transação, e confere as contagens;
+//   3. aponta o diretório para o destino, ainda bloqueado, e espera de novo;
+//   4. desbloqueia e apaga as linhas do banco de origem.
+// Se a cópia falhar, o destino é desfeito pela transação e o condomínio volta a aceitar escritas na origem.
+@Slf4j
+public class MovimentacaoShards {
+
+    // em ordem de dependência (chaves estrangeiras); a remoção na origem percorre ao contrário
+    private static final String USUARIOS = "SELECT id FROM usuarios WHERE condominio_id = ?";
+    private static final List<Tabela> TABELAS = List.of(
+            new Tabela("condominios", "id = ?"),
+            new Tabela("usuarios", "condominio_id = ?"),
+            new Tabela("areas_comuns", "condominio_id = ?"),
+            new Tabela("sessao_votacao", "condominio_id = ?"),
+            new Tabela("comunicados", "condominio_id = ?"),
+            new Tabela("reservas", "areas_comuns_id IN (SELECT id FROM areas_comuns WHERE condominio_id = ?)"),
+            new Tabela("ocorrencias", "id_usuario IN (" + USUARIOS + ")"),
+            new Tabela("anexos_ocorrencia", "ocorrencia_id IN (SELECT id FROM ocorrencias WHERE id_usuario IN (" + USUARIOS + "))"),
+            new Tabela("voto", "usuario_id IN (" + USUARIOS + ")"),
+            new Tabela("notificacoes", "id_usuarios IN (" + USUARIOS + ")"
+                    + " OR id_comunicados IN (SELECT id FROM comunicados WHERE condominio_id = ?)"
+                    + " OR id_reserva IN (SELECT r.id FROM reservas r JOIN areas_comuns a ON a.id = r.areas_comuns_id"
+                    + " WHERE a.condominio_id = ?)"));
+
+    private final RoteamentoShardDataSource roteamento;
+    private final VersoesRecursos versoesRecursos;
+    private final Duration esperaPropagacao;
+    private final int tamanhoLote;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    public MovimentacaoShards(RoteamentoShardDataSource roteamento, VersoesRecursos versoesRecursos,
+                              Duration esperaPropagacao, int tamanhoLote) {
+        this.roteamento = roteamento;
+        this.versoesRecursos = versoesRecursos;
+        this.esperaPropagacao = esperaPropagacao;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public MovimentacaoShardDTO mover(Long condominioId, String destino) {
+        DiretorioShards diretorio = roteamento.diretorio();
+        diretorio.atualizar();
+        Destino atual = diretorio.localizar(condominioId);
+        String origem = atual.shard();
+        DataSource bancoDestino = roteamento.shard(destino);
+        DataSource bancoOrigem = roteamento.shard(origem);
+        if (origem.equals(destino)) {
+            throw new IllegalArgumentException("O condomínio já está no banco " + destino + ".");
+        }
+        if (new JdbcTemplate(bancoOrigem).queryForObject("SELECT COUNT(*) FROM condominios WHERE id = ?",
+                Long.class, condominioId) == 0) {
+            throw new IllegalArgumentException("Condomínio " + condominioId + " não encontrado no banco " + origem + ".");
+        }
+        if (!emAndamento.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe uma movimentação em andamento nesta instância.");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            log.info("Movendo o condomínio {} de {} para {}", condominioId, origem, destino);
+            diretorio.bloquear(condominioId, origem, true);
+            esperarPropagacao();
+
+            Map<String, Long> copiadas;
+            try {
+                copiadas = copiar(condominioId, bancoOrigem, bancoDestino);
+            } catch (RuntimeException e) {
+                diretorio.bloquear(condominioId, origem, false);
+                throw e;
+            }
+
+            diretorio.bloquear(condominioId, destino, true);
+            esperarPropagacao();
+            diretorio.bloquear(condominioId, destino, false);
+            // as listagens em cache foram montadas com o condomínio no banco antigo
+            versoesRecursos.incrementar(Recurso.values());
+
+            remover(condominioId, bancoOrigem);
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Condomínio {} movido de {} para {} em {} ms: {}", condominioId, origem, destino, duracaoMs, copiadas);
+            return new MovimentacaoShardDTO(condominioId, origem, destino, copiadas, duracaoMs);
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+
+    private Map<String, Long> copiar(Long condominioId, DataSource origem, DataSource destino) {
+        JdbcTemplate leitura = new JdbcTemplate(origem);
+        JdbcTemplate escrita = new JdbcTemplate(destino);
+
+        return new TransactionTemplate(new DataSourceTransactionManager(destino)).execute(status -> {
+            Map<String, Long> copiadas = new LinkedHashMap<>();
+            for (Tabela tabela : TABELAS) {
+                long[] linhas = {0};
+                List<Object[]> lote = new ArrayList<>(tamanhoLote);
+                String[] insert = {null};
+                leitura.query("SELECT * FROM " + tabela.nome() + " WHERE " + tabela.filtro(), rs -> {
+                    ResultSetMetaData metadados = rs.getMetaData();
+                    int colunas = metadados.getColumnCount();
+                    if (insert[0] == null) {
+                        insert[0] = insert(tabela.nome(), metadados);
+                    }
+                    Object[] valores = new Object[colunas];
+                    for (int i = 0; i < colunas; i++) {
+                        valores[i] = rs.getObject(i + 1);
+                    }
+                    lote.add(valores);
+                    linhas[0]++;
+                    if (lote.size() == tamanhoLote) {
+                        escrita.batchUpdate(insert[0], lote);
+                        lote.clear();
+                    }
+                }, tabela.parametros(condominioId));
+                if (!lote.isEmpty()) {
+                    escrita.batchUpdate(insert[0], lote);
+                }
+
+                long noDestino = escrita.queryForObject("SELECT COUNT(*) FROM " + tabela.nome() + " WHERE " + tabela.filtro(),
+                        Long.class, tabela.parametros(condominioId));
+                if (noDestino != linhas[0]) {
+                    throw new IllegalStateException("Cópia de " + tabela.nome() + " incompleta: " + linhas[0]
+                            + " linhas na origem e " + noDestino + " no destino.");
+                }
+                copiadas.put(tabela.nome(), linhas[0]);
+            }
+            return copiadas;
+        });
+    }
+
+    private void remover(Long condominioId, DataSource origem) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(origem);
+        List<Tabela> inversa = new ArrayList<>(TABELAS);
+        Collections.reverse(inversa);
+        new TransactionTemplate(new DataSourceTransactionManager(origem)).executeWithoutResult(status -> {
+            for (Tabela tabela : inversa) {
+                jdbcTemplate.update("DELETE FROM " + tabela.nome() + " WHERE " + tabela.filtro(), tabela.parametros(condominioId));
+            }
+        });
+    }
+
+    private void esperarPropagacao() {
+        try {
+            Thread.sleep(esperaPropagacao.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movimentação interrompida.", e);
+        }
+    }
+
+    private static String insert(String tabela, ResultSetMetaData metadados) throws SQLException {
+        StringBuilder colunas = new StringBuilder();
+        StringBuilder valores = new StringBuilder();
+        for (int i = 1; i <= metadados.getColumnCount(); i++) {
+            colunas.append(i > 1 ? ", " : "").append('`').append(metadados.getColumnLabel(i)).append('`');
+            valores.append(i > 1 ? ", ?" : "?");
+        }
+        return "INSERT INTO " + tabela + " (" + colunas + ") VALUES (" + valores + ")";
+    }
+
+    private record Tabela(String nome, String filtro) {
+        Object[] parametros(Long condominioId) {
+            Object[] parametros = new Object[(int) filtro.chars().filter(c -> c == '?').count()];
+            Arrays.fill(parametros, condominioId);
+            return parametros;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.argus.api.infra.datasource;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Leituras em réplicas: ativado com api.datasource.leitura.habilitado=true e a lista
+// api.datasource.leitura.replicas. O primário continua configurado em spring.datasource.
+@Configuration
+@EnableConfigurationProperties(ReplicasLeituraProperties.class)
+@ConditionalOnProperty(name = "api.datasource.leitura.habilitado", havingValue = "true")
+public class ReplicasLeituraConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoLeituraDataSource roteamentoLeituraDataSource(@Qualifier("dataSourcePrimario") DataSource dataSourcePrimario,
+                                                                   DataSourceProperties properties,
+                                                                   ReplicasLeituraProperties leitura) {
+        List<DataSource> replicas = leitura.getReplicas().stream()
+                .map(replica -> {
+                    HikariDataSource dataSource = DataSourceBuilder.create()
+                            .type(HikariDataSource.class)
+                            .driverClassName(properties.getDriverClassName())
+                            .url(replica.getUrl())
+                            .username(replica.getUsername())
+                            .password(replica.getPassword())
+                            .build();
+                    dataSource.setPoolName("replica-" + replica.getUrl());
+                    dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+                    dataSource.setReadOnly(true);
+                    return (DataSource) dataSource;
+                })
+                .toList();
+        return new RoteamentoLeituraDataSource(dataSourcePrimario, replicas, leitura.getJanelaAposEscrita());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoLeituraDataSource roteamentoLeituraDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoLeituraDataSource);
+    }
+
+    @Bean
+    public VerificadorReplicas verificadorReplicas(RoteamentoLeituraDataSource roteamentoLeituraDataSource) {
+        return new VerificadorReplicas(roteamentoLeituraDataSource);
+    }
+
+    public static class VerificadorReplicas {
+        private final RoteamentoLeituraDataSource roteamento;
+
+        VerificadorReplicas(RoteamentoLeituraDataSource roteamento) {
+            this.roteamento = roteamento;
+        }
+
+        @Scheduled(fixedDelayString = "${api.datasource.leitura.intervalo-verificacao:PT10S}")
+        public void verificar() {
+            roteamento.verificarReplicas();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.argus.api.infra.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "api.datasource.leitura")
+public class ReplicasLeituraProperties {
+
+    private boolean habilitado = false;
+
+    // depois de uma escrita, as leituras do mesmo usuário vão para o primário durante esse tempo
+    private Duration janelaAposEscrita = Duration.ofSeconds(5);
+
+    private Duration intervaloVerificacao = Duration.ofSeconds(10);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,134 @@
+package com.argus.api.infra.datasource;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Envia as transações readOnly para uma réplica saudável (rodízio) e todo o resto para o
+// primário. Quem acabou de escrever lê do primário durante a janela configurada, para não
+// enxergar a réplica atrasada. Precisa ficar atrás de um LazyConnectionDataSourceProxy, senão
+// a conexão é escolhida antes de a transação ser marcada como readOnly.
+@Slf4j
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARIO = "primario";
+
+    private static final int TIMEOUT_VERIFICACAO_SEGUNDOS = 2;
+
+    private final List<String> replicas = new ArrayList<>();
+
+    private final Map<String, DataSource> alvos = new HashMap<>();
+
+    private final Map<String, Boolean> saudaveis = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> ultimasEscritas = new ConcurrentHashMap<>();
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final long janelaAposEscritaNanos;
+
+    public RoteamentoLeituraDataSource(DataSource primario, List<DataSource> replicasLeitura, Duration janelaAposEscrita) {
+        this.janelaAposEscritaNanos = janelaAposEscrita.toNanos();
+        alvos.put(PRIMARIO, primario);
+        for (int i = 0; i < replicasLeitura.size(); i++) {
+            String chave = "replica-" + i;
+            replicas.add(chave);
+            alvos.put(chave, replicasLeitura.get(i));
+            saudaveis.put(chave, true);
+        }
+        setTargetDataSources(new HashMap<>(alvos));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String usuario = usuarioAtual();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (usuario != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                ultimasEscritas.put(usuario, System.nanoTime());
+            }
+            return PRIMARIO;
+        }
+
+        if (usuario != null && escreveuRecentemente(usuario)) {
+            return PRIMARIO;
+        }
+        return replicaSaudavel();
+    }
+
+    public void verificarReplicas() {
+        for (String replica : replicas) {
+            boolean saudavel;
+            try (Connection conexao = alvos.get(replica).getConnection()) {
+                saudavel = conexao.isValid(TIMEOUT_VERIFICACAO_SEGUNDOS);
+            } catch (Exception e) {
+                saudavel = false;
+            }
+            Boolean anterior = saudaveis.put(replica, saudavel);
+            if (anterior != null && anterior != saudavel) {
+                log.warn("Réplica {} agora está {}", replica, saudavel ? "saudável" : "indisponível; leituras vão para o primário");
+            }
+        }
+        long limite = System.nanoTime() - janelaAposEscritaNanos;
+        ultimasEscritas.values().removeIf(instante -> instante < limite);
+    }
+
+    public Map<String, Boolean> estadoReplicas() {
+        return Map.copyOf(saudaveis);
+    }
+
+    // o primário é um bean próprio e é fechado pelo Spring; as réplicas só existem aqui
+    @Override
+    public void close() throws Exception {
+        for (String replica : replicas) {
+            if (alvos.get(replica) instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    void marcarSaude(String replica, boolean saudavel) {
+        saudaveis.put(replica, saudavel);
+    }
+
+    private boolean escreveuRecentemente(String usuario) {
+        Long instante = ultimasEscritas.get(usuario);
+        return instante != null && System.nanoTime() - instante < janelaAposEscritaNanos;
+    }
+
+    private String replicaSaudavel() {
+        int quantidade = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(quantidade, 1));
+        for (int i = 0; i < quantidade; i++) {
+            String replica = replicas.get((inicio + i) % quantidade);
+            if (saudaveis.getOrDefault(replica, false)) {
+                return replica;
+            }
+        }
+        return PRIMARIO;
+    }
+
+    private static String usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null || autenticacao instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return autenticacao.getName();
+    }
+}
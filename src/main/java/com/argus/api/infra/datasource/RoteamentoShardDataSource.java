@@ -0,0 +1,109 @@
+package com.argus.api.infra.datasource;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.exception.CondominioEmMovimentacaoException;
+import com.argus.api.infra.datasource.DiretorioShards.Destino;
+
+// Escolhe o banco (shard) de cada conexão pelo condomínio do usuário autenticado, consultando
+// o DiretorioShards. O ContextoShard pode fixar outro banco ou condomínio. Sem usuário nem
+// contexto, usa o principal. Como no roteamento de réplicas, precisa ficar atrás de um
+// LazyConnectionDataSourceProxy para a conexão ser escolhida depois de a transação começar.
+public class RoteamentoShardDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final String principal;
+    private final Map<String, DataSource> shards;
+    private final DiretorioShards diretorio;
+
+    public RoteamentoShardDataSource(String principal, Map<String, DataSource> shards, DiretorioShards diretorio) {
+        this.principal = principal;
+        this.shards = new LinkedHashMap<>(shards);
+        this.diretorio = diretorio;
+        setTargetDataSources(new HashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(principal));
+        // um nome de banco desconhecido no diretório é erro, não motivo para cair no principal
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String explicito = ContextoShard.shard();
+        if (explicito != null) {
+            return explicito;
+        }
+        Long condominio = condominioAtual();
+        if (condominio == null) {
+            return principal;
+        }
+        Destino destino = diretorio.localizar(condominio);
+        if (destino.bloqueado() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new CondominioEmMovimentacaoException(
+                    "Condomínio sendo movido entre bancos de dados; tente novamente em instantes.");
+        }
+        return destino.shard();
+    }
+
+    // o banco da requisição atual, para quem guarda dados por banco (caches de resposta)
+    public String shardAtual() {
+        String explicito = ContextoShard.shard();
+        if (explicito != null) {
+            return explicito;
+        }
+        Long condominio = condominioAtual();
+        return condominio != null ? diretorio.localizar(condominio).shard() : principal;
+    }
+
+    public String principal() {
+        return principal;
+    }
+
+    public Set<String> shards() {
+        return shards.keySet();
+    }
+
+    public DataSource shard(String nome) {
+        DataSource dataSource = shards.get(nome);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Banco de dados desconhecido: " + nome);
+        }
+        return dataSource;
+    }
+
+    public DiretorioShards diretorio() {
+        return diretorio;
+    }
+
+    // o principal é um bean próprio e é fechado pelo Spring; os demais só existem aqui
+    @Override
+    public void close() throws Exception {
+        for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            if (!shard.getKey().equals(principal) && shard.getValue() instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private static Long condominioAtual() {
+        Long condominio = ContextoShard.condominio();
+        if (condominio != null) {
+            return condominio;
+        }
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof Usuarios usuario
+                && usuario.getCondominio() != null) {
+            return usuario.getCondominio().getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.argus.api.infra.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.datasource.ShardsProperties.Banco;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Um banco MySQL por grupo de condomínios: ativado com api.datasource.shards.habilitado=true e a
+// lista api.datasource.shards.bancos. O banco de spring.datasource é o principal: guarda o
+// diretório e os condomínios ainda não movidos. As migrations do Flyway rodam em todos os bancos.
+// Não pode ser combinado com as réplicas de leitura (as duas configurações substituem o DataSource).
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardsProperties.class)
+@ConditionalOnProperty(name = "api.datasource.shards.habilitado", havingValue = "true")
+public class ShardsConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrincipal(DataSourceProperties properties, Environment environment) {
+        if (environment.getProperty("api.datasource.leitura.habilitado", Boolean.class, false)) {
+            throw new IllegalStateException("api.datasource.shards e api.datasource.leitura não podem ser habilitados juntos.");
+        }
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoShardDataSource roteamentoShardDataSource(@Qualifier("dataSourcePrincipal") DataSource dataSourcePrincipal,
+                                                               DataSourceProperties properties,
+                                                               ShardsProperties shards) {
+        Map<String, DataSource> bancos = new LinkedHashMap<>();
+        bancos.put(shards.getPrincipal(), dataSourcePrincipal);
+        for (Banco banco : shards.getBancos()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.getDriverClassName())
+                    .url(banco.getUrl())
+                    .username(banco.getUsername())
+                    .password(banco.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + banco.getNome());
+            dataSource.setMaximumPoolSize(banco.getMaximumPoolSize());
+            if (bancos.put(banco.getNome(), dataSource) != null) {
+                throw new IllegalStateException("Nome de banco repetido em api.datasource.shards: " + banco.getNome());
+            }
+        }
+        return new RoteamentoShardDataSource(shards.getPrincipal(), bancos,
+                new DiretorioShards(dataSourcePrincipal, shards.getPrincipal()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoShardDataSource roteamentoShardDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoShardDataSource);
+    }
+
+    // O cache de consultas do Hibernate guarda ids por consulta e parâmetros, sem saber de qual banco
+    // vieram; com shards, um condomínio receberia o resultado de outro. O cache de entidades continua,
+    // já que os ids são únicos entre os bancos. Com o open-in-view, a sessão seguraria a primeira
+    // conexão até o fim da requisição; liberando-a a cada transação, o login consegue procurar o
+    // usuário em cada banco.
+    @Bean
+    public HibernatePropertiesCustomizer hibernateComShards() {
+        return propriedades -> {
+            propriedades.put("hibernate.cache.use_query_cache", false);
+            propriedades.put("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        };
+    }
+
+    @Bean
+    public MovimentacaoShards movimentacaoShards(RoteamentoShardDataSource roteamentoShardDataSource,
+                                                 VersoesRecursos versoesRecursos, ShardsProperties shards) {
+        return new MovimentacaoShards(roteamentoShardDataSource, versoesRecursos,
+                shards.getIntervaloAtualizacao().multipliedBy(2), shards.getTamanhoLote());
+    }
+
+    @Bean
+    @Lazy(false)
+    public MigracaoShards migracaoShards(RoteamentoShardDataSource roteamentoShardDataSource,
+                                         ObjectProvider<Flyway> flyway, ShardsProperties shards) {
+        return new MigracaoShards(roteamentoShardDataSource, flyway, shards);
+    }
+
+    @Bean
+    @Lazy(false)
+    public AtualizadorDiretorio atualizadorDiretorio(RoteamentoShardDataSource roteamentoShardDataSource) {
+        return new AtualizadorDiretorio(roteamentoShardDataSource.diretorio());
+    }
+
+    // Depois que o Flyway migrou o principal: aplica as migrations nos outros bancos, ajusta a faixa
+    // de ids de cada um e carrega o diretório
+    public static class MigracaoShards implements SmartInitializingSingleton {
+        private final RoteamentoShardDataSource roteamento;
+        private final ObjectProvider<Flyway> flyway;
+        private final ShardsProperties shards;
+
+        MigracaoShards(RoteamentoShardDataSource roteamento, ObjectProvider<Flyway> flyway, ShardsProperties shards) {
+            this.roteamento = roteamento;
+            this.flyway = flyway;
+            this.shards = shards;
+        }
+
+        @Override
+        public void afterSingletonsInstantiated() {
+            Flyway principal = flyway.getIfAvailable();
+            for (Banco banco : shards.getBancos()) {
+                DataSource dataSource = roteamento.shard(banco.getNome());
+                if (principal != null) {
+                    Flyway.configure(getClass().getClassLoader())
+                            .configuration(principal.getConfiguration())
+                            .dataSource(dataSource)
+                            .load()
+                            .migrate();
+                }
+                if (banco.getInicioIds() > 1) {
+                    ajustarFaixaIds(banco.getNome(), new JdbcTemplate(dataSource), banco.getInicioIds());
+                }
+            }
+            roteamento.diretorio().atualizar();
+        }
+
+        // no MySQL, um AUTO_INCREMENT abaixo do maior id já usado é ignorado, então pode rodar a cada início
+        private static void ajustarFaixaIds(String nome, JdbcTemplate jdbcTemplate, long inicio) {
+            List<String> tabelas = jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables "
+                    + "WHERE table_schema = DATABASE() AND auto_increment IS NOT NULL AND auto_increment < ?", String.class, inicio);
+            for (String tabela : tabelas) {
+                jdbcTemplate.execute("ALTER TABLE `" + tabela + "` AUTO_INCREMENT = " + inicio);
+            }
+            if (!tabelas.isEmpty()) {
+                log.info("Banco {}: ids a partir de {} em {}", nome, inicio, tabelas);
+            }
+        }
+    }
+
+    public static class AtualizadorDiretorio {
+        private final DiretorioShards diretorio;
+
+        AtualizadorDiretorio(DiretorioShards diretorio) {
+            this.diretorio = diretorio;
+        }
+
+        @Scheduled(fixedDelayString = "${api.datasource.shards.intervalo-atualizacao:PT5S}")
+        public void atualizar() {
+            diretorio.atualizar();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.argus.api.infra.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "api.datasource.shards")
+public class ShardsProperties {
+
+    private boolean habilitado = false;
+
+    // nome do banco de spring.datasource, que também guarda o diretório e recebe os condomínios sem entrada nele
+    private String principal = "principal";
+
+    // de quanto em quanto tempo cada instância relê o diretório; as movimentações esperam esse tempo
+    private Duration intervaloAtualizacao = Duration.ofSeconds(5);
+
+    // linhas por batch ao copiar um condomínio de um banco para outro
+    private int tamanhoLote = 1000;
+
+    private List<Banco> bancos = new ArrayList<>();
+
+    @Data
+    public static class Banco {
+        private String nome;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // primeiro id dos AUTO_INCREMENT neste banco; faixas distintas mantêm os ids únicos entre os bancos,
+        // o que permite mover um condomínio sem renumerar nada
+        private long inicioIds;
+    }
+}
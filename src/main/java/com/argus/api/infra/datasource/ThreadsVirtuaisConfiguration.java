@@ -0,0 +1,61 @@
+package com.argus.api.infra.datasource;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Modo opcional (profile "virtual", Java 21): requisições e tarefas @Async em virtual threads.
+// O acesso ao banco passa a ser limitado pelo tamanho do pool do Hikari.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfiguration {
+
+    private static final int TAMANHO_PADRAO_HIKARI = 10;
+
+    @Bean
+    static BeanPostProcessor limiteConcorrenciaJdbc(Environment environment) {
+        int limiteConfigurado = environment.getProperty("api.jdbc.limite-concorrencia", Integer.class, 0);
+
+        return new LimiteConcorrenciaPostProcessor(limiteConfigurado);
+    }
+
+    @Bean
+    DetectorPinning detectorPinning(Environment environment) {
+        return new DetectorPinning(Duration.ofMillis(
+                environment.getProperty("api.jdbc.limite-pinning-ms", Long.class, 20L)));
+    }
+
+    // Ordenado para rodar antes dos BeanPostProcessors que envolvem o DataSource em outros proxies
+    private static final class LimiteConcorrenciaPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final int limiteConfigurado;
+
+        LimiteConcorrenciaPostProcessor(int limiteConfigurado) {
+            this.limiteConfigurado = limiteConfigurado;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            // sem spring.datasource.hikari.maximum-pool-size o Hikari só assume o padrão (10) ao abrir o
+            // pool, e até lá devolve -1
+            int tamanhoPool = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : TAMANHO_PADRAO_HIKARI;
+            int limite = limiteConfigurado > 0 ? limiteConfigurado : tamanhoPool;
+            return new LimiteConcorrenciaDataSource(hikari, limite, Duration.ofMillis(hikari.getConnectionTimeout()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.argus.api.infra.idempotencia;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.argus.api.domain.model.Usuarios;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Suporte ao cabeçalho Idempotency-Key nos POSTs que não podem ser repetidos (reservas e votos).
+// A primeira resposta para a chave (por usuário e rota) é guardada e devolvida de novo nas
+// repetições, sem executar o service. As respostas ficam em memória, com limite de entradas, e na
+// tabela idempotencia, que vale entre restarts e entre instâncias. Uma repetição que chega enquanto
+// a primeira ainda executa espera por ela até api.idempotencia.espera-maxima; em outra instância,
+// recebe 409. A mesma chave com outro corpo recebe 422. Respostas 5xx não são guardadas.
+// O registro da resposta não está na mesma transação do service: se a aplicação cair entre os dois,
+// a chave é liberada quando o bloqueio expira e a repetição executa de novo.
+@Component
+public class RespostasIdempotentes {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration validade;
+    private final Duration bloqueio;
+    private final long esperaMaximaNanos;
+    private final int maximoEntradas;
+
+    private final Map<String, Entrada> memoria = new ConcurrentHashMap<>();
+
+    public RespostasIdempotentes(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${api.idempotencia.validade:24h}") Duration validade,
+                                 @Value("${api.idempotencia.bloqueio:1m}") Duration bloqueio,
+                                 @Value("${api.idempotencia.espera-maxima:10s}") Duration esperaMaxima,
+                                 @Value("${api.idempotencia.maximo-entradas:10000}") int maximoEntradas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.validade = validade;
+        this.bloqueio = bloqueio;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.maximoEntradas = maximoEntradas;
+        meterRegistry.gaugeMapSize("idempotencia.entradas", List.of(), memoria);
+    }
+
+    // chave nula (cliente sem o cabeçalho) executa a ação normalmente
+    public ResponseEntity<?> executar(String rota, String chave, Object requisicao, Supplier<ResponseEntity<?>> acao) {
+        if (chave == null) {
+            return acao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            return new ResponseEntity<>("Idempotency-Key deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres.",
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        String id = sha256((usuario() + "\n" + rota + "\n" + chave).getBytes(StandardCharsets.UTF_8));
+        String impressao = sha256(json(requisicao));
+
+        while (true) {
+            long agora = System.nanoTime();
+            Entrada existente = memoria.get(id);
+            if (existente != null && existente.expirada(agora)) {
+                memoria.remove(id, existente);
+                continue;
+            }
+
+            if (existente == null) {
+                if (memoria.size() >= maximoEntradas) {
+                    limparMemoria();
+                }
+                if (memoria.size() >= maximoEntradas) {
+                    // sem espaço em memória, a tabela continua garantindo a idempotência
+                    return primeira(rota, id, impressao, null, acao);
+                }
+                Entrada nova = new Entrada(impressao, new CompletableFuture<>(), agora + validade.toNanos());
+                if (memoria.putIfAbsent(id, nova) == null) {
+                    return primeira(rota, id, impressao, nova, acao);
+                }
+                continue;
+            }
+
+            if (!existente.impressao().equals(impressao)) {
+                return corpoDiferente();
+            }
+            try {
+                Resposta resposta = existente.resposta().get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+                if (resposta != null) {
+                    contador(rota, "memoria").increment();
+                    return resposta.repetir();
+                }
+            } catch (TimeoutException e) {
+                return emAndamento();
+            } catch (ExecutionException e) {
+                // a primeira falhou sem resposta guardada; esta tenta de novo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando a requisição original.", e);
+            }
+        }
+    }
+
+    private ResponseEntity<?> primeira(String rota, String id, String impressao, Entrada entrada,
+                                       Supplier<ResponseEntity<?>> acao) {
+        boolean reservada = false;
+        try {
+            Resposta gravada = reservar(id, impressao);
+            if (gravada != null) {
+                concluir(id, entrada, gravada);
+                contador(rota, "banco").increment();
+                return gravada.repetir();
+            }
+            reservada = true;
+
+            ResponseEntity<?> original = acao.get();
+            Resposta resposta = Resposta.de(original, objectMapper);
+            if (resposta.status() >= 500) {
+                liberar(id);
+                concluir(id, entrada, null);
+            } else {
+                gravar(id, resposta);
+                concluir(id, entrada, resposta);
+            }
+            return original;
+        } catch (Conflito conflito) {
+            concluir(id, entrada, null);
+            return conflito.resposta;
+        } catch (RuntimeException | Error e) {
+            if (reservada) {
+                liberar(id);
+            }
+            if (entrada != null) {
+                memoria.remove(id, entrada);
+                entrada.resposta().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    // sem resposta, a entrada sai da memória e quem estava esperando tenta de novo
+    private void concluir(String id, Entrada entrada, Resposta resposta) {
+        if (entrada == null) {
+            return;
+        }
+        if (resposta == null) {
+            memoria.remove(id, entrada);
+        }
+        entrada.resposta().complete(resposta);
+    }
+
+    // Reserva a chave na tabela; devolve a resposta já gravada se outra requisição terminou antes
+    private Resposta reservar(String id, String impressao) {
+        for (int tentativa = 0; tentativa < 3; tentativa++) {
+            Timestamp agora = Timestamp.from(Instant.now());
+            try {
+                jdbcTemplate.update("INSERT INTO idempotencia (chave, impressao_requisicao, expira_em) VALUES (?, ?, ?)",
+                        id, impressao, Timestamp.from(agora.toInstant().plus(bloqueio)));
+                return null;
+            } catch (DuplicateKeyException e) {
+                List<Registro> registros = jdbcTemplate.query(
+                        "SELECT impressao_requisicao, status, tipo_conteudo, corpo, expira_em FROM idempotencia WHERE chave = ?",
+                        (rs, linha) -> new Registro(rs.getString(1), (Integer) rs.getObject(2), rs.getString(3),
+                                rs.getBytes(4), rs.getTimestamp(5)),
+                        id);
+                if (registros.isEmpty()) {
+                    continue;
+                }
+                Registro registro = registros.get(0);
+                if (registro.expiraEm().before(agora)) {
+                    jdbcTemplate.update("DELETE FROM idempotencia WHERE chave = ? AND expira_em = ?", id, registro.expiraEm());
+                    continue;
+                }
+                if (!registro.impressao().equals(impressao)) {
+                    throw new Conflito(corpoDiferente());
+                }
+                if (registro.status() == null) {
+                    throw new Conflito(emAndamento());
+                }
+                return new Resposta(registro.status(), registro.tipoConteudo(), registro.corpo());
+            }
+        }
+        throw new Conflito(emAndamento());
+    }
+
+    private void gravar(String id, Resposta resposta) {
+        jdbcTemplate.update("UPDATE idempotencia SET status = ?, tipo_conteudo = ?, corpo = ?, expira_em = ? WHERE chave = ?",
+                resposta.status(), resposta.tipoConteudo(), resposta.corpo(),
+                Timestamp.from(Instant.now().plus(validade)), id);
+    }
+
+    private void liberar(String id) {
+        jdbcTemplate.update("DELETE FROM idempotencia WHERE chave = ? AND status IS NULL", id);
+    }
+
+    @Scheduled(fixedDelayString = "${api.idempotencia.intervalo-limpeza:PT10M}")
+    public void limpar() {
+        limparMemoria();
+        jdbcTemplate.update("DELETE FROM idempotencia WHERE expira_em < ?", Timestamp.from(Instant.now()));
+    }
+
+    private void limparMemoria() {
+        long agora = System.nanoTime();
+        memoria.values().removeIf(entrada -> entrada.expirada(agora));
+    }
+
+    private Counter contador(String rota, String origem) {
+        return Counter.builder("idempotencia.repeticoes").tag("rota", rota).tag("origem", origem).register(meterRegistry);
+    }
+
+    private static ResponseEntity<?> corpoDiferente() {
+        return new ResponseEntity<>("Idempotency-Key já usada com outra requisição.", HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private static ResponseEntity<?> emAndamento() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Requisição com a mesma Idempotency-Key ainda em andamento.");
+    }
+
+    private static String usuario() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof Usuarios usuario) {
+            return String.valueOf(usuario.getId());
+        }
+        return autenticacao != null ? autenticacao.getName() : "-";
+    }
+
+    private byte[] json(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a requisição.", e);
+        }
+    }
+
+    private static String sha256(byte[] conteudo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entrada(String impressao, CompletableFuture<Resposta> resposta, long expiraEmNanos) {
+        boolean expirada(long agora) {
+            return resposta.isDone() && agora - expiraEmNanos > 0;
+        }
+    }
+
+    private record Registro(String impressao, Integer status, String tipoConteudo, byte[] corpo, Timestamp expiraEm) { }
+
+    private record Resposta(int status, String tipoConteudo, byte[] corpo) {
+
+        static Resposta de(ResponseEntity<?> resposta, ObjectMapper objectMapper) {
+            Object corpo = resposta.getBody();
+            MediaType tipo = resposta.getHeaders().getContentType();
+            byte[] bytes;
+            if (corpo == null) {
+                bytes = new byte[0];
+            } else if (corpo instanceof byte[] conteudo) {
+                bytes = conteudo;
+            } else if (corpo instanceof String texto) {
+                bytes = texto.getBytes(StandardCharsets.UTF_8);
+                tipo = tipo != null ? tipo : new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+            } else {
+                try {
+                    bytes = objectMapper.writeValueAsBytes(corpo);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Erro ao serializar a resposta.", e);
+                }
+                tipo = tipo != null ? tipo : MediaType.APPLICATION_JSON;
+            }
+            return new Resposta(resposta.getStatusCode().value(), tipo != null ? tipo.toString() : null, bytes);
+        }
+
+        ResponseEntity<byte[]> repetir() {
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.status(status).header(CABECALHO_REPETIDA, "true");
+            if (tipoConteudo != null) {
+                resposta.contentType(MediaType.parseMediaType(tipoConteudo));
+            }
+            return resposta.body(corpo);
+        }
+    }
+
+    private static final class Conflito extends RuntimeException {
+        private final transient ResponseEntity<?> resposta;
+
+        Conflito(ResponseEntity<?> resposta) {
+            super(null, null, false, false);
+            this.resposta = resposta;
+        }
+    }
+}
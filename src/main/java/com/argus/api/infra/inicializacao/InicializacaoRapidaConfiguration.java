@@ -0,0 +1,55 @@
+package com.argus.api.infra.inicializacao;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Ajustes do profile "rapido" (application-rapido.yml), usado pelas instâncias criadas pelo
+// autoscaler. Com spring.main.lazy-initialization, os beans só são criados no primeiro uso;
+// o banco, o Hibernate, o Flyway e a segurança continuam sendo iniciados no boot para que uma
+// configuração errada derrube a instância antes de ela receber tráfego. Os beans com métodos
+// @Scheduled também: ninguém os injeta, e sem o boot eles nunca seriam criados nem agendados.
+@Configuration
+public class InicializacaoRapidaConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansCriticos() {
+        return (beanName, definition, tipo) -> tipo != null && (DataSource.class.isAssignableFrom(tipo)
+                || EntityManagerFactory.class.isAssignableFrom(tipo)
+                || FlywayMigrationInitializer.class.isAssignableFrom(tipo)
+                || SecurityFilterChain.class.isAssignableFrom(tipo)
+                || temAgendamento(tipo));
+    }
+
+    private static boolean temAgendamento(Class<?> tipo) {
+        if (!AnnotationUtils.isCandidateClass(tipo, List.of(Scheduled.class, Schedules.class))) {
+            return false;
+        }
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(tipo)))
+                .anyMatch(metodo -> !AnnotatedElementUtils
+                        .getMergedRepeatableAnnotations(metodo, Scheduled.class, Schedules.class).isEmpty());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "api.inicializacao.pular-flyway-sem-alteracao", havingValue = "true")
+    FlywayMigrationStrategy migracaoFlywayCondicional() {
+        return new MigracaoFlywayCondicional();
+    }
+}
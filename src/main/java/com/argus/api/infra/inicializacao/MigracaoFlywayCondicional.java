@@ -0,0 +1,84 @@
+package com.argus.api.infra.inicializacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Pula o Flyway na inicialização quando os scripts de migração são os mesmos da última execução
+// completa. A impressão (SHA-256 dos nomes e conteúdos dos scripts) fica na tabela
+// impressao_migracoes; se ela não existe ou é diferente, o migrate roda normalmente, com a trava e
+// a leitura do histórico do Flyway, e a nova impressão é gravada.
+@Slf4j
+public class MigracaoFlywayCondicional implements FlywayMigrationStrategy {
+
+    @Override
+    public void migrate(Flyway flyway) {
+        String impressao = impressao(flyway.getConfiguration().getLocations());
+        JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+
+        if (impressao.equals(impressaoGravada(jdbc))) {
+            log.info("Migrações sem alteração desde a última execução; Flyway ignorado.");
+            return;
+        }
+
+        flyway.migrate();
+        if (jdbc.update("UPDATE impressao_migracoes SET impressao = ? WHERE id = 1", impressao) == 0) {
+            jdbc.update("INSERT INTO impressao_migracoes (id, impressao) VALUES (1, ?)", impressao);
+        }
+    }
+
+    private String impressaoGravada(JdbcTemplate jdbc) {
+        try {
+            return jdbc.query("SELECT impressao FROM impressao_migracoes WHERE id = 1",
+                    resultado -> resultado.next() ? resultado.getString(1) : null);
+        } catch (DataAccessException e) {
+            // banco novo ou anterior à tabela
+            return null;
+        }
+    }
+
+    static String impressao(Location[] locations) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MessageDigest digest = novoDigest();
+        try {
+            for (Location location : locations) {
+                String prefixo = location.isClassPath() ? "classpath*:" : "file:";
+                Resource[] scripts = resolver.getResources(prefixo + location.getRootPath() + "/**/*.sql");
+                Arrays.sort(scripts, Comparator.comparing(Resource::getFilename));
+                for (Resource script : scripts) {
+                    digest.update(script.getFilename().getBytes(StandardCharsets.UTF_8));
+                    try (InputStream conteudo = script.getInputStream()) {
+                        digest.update(conteudo.readAllBytes());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
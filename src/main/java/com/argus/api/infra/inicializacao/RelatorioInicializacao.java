@@ -0,0 +1,171 @@
+package com.argus.api.infra.inicializacao;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Tempo de inicialização por fase, para acompanhar quanto uma instância nova demora até atender.
+// Usa os passos registrados pelo BufferingApplicationStartup (configurado no ApiApplication):
+// as fases de nível mais alto do Spring Boot e os beans mais demorados, com o tempo total (incluindo
+// as dependências criadas dentro dele) e o próprio. Vai para o log e, se api.inicializacao.relatorio
+// estiver definido, para um arquivo JSON, que é regravado quando a primeira requisição termina.
+@Slf4j
+@Component
+public class RelatorioInicializacao {
+
+    private static final String CRIACAO_BEAN = "spring.beans.instantiate";
+    private static final int BEANS_NO_RELATORIO = 15;
+
+    private final ObjectMapper objectMapper;
+    private final String arquivo;
+    private final AtomicBoolean primeiraRequisicaoAtendida = new AtomicBoolean();
+
+    private volatile Relatorio relatorio;
+
+    public RelatorioInicializacao(ObjectMapper objectMapper,
+                                  @Value("${api.inicializacao.relatorio:}") String arquivo) {
+        this.objectMapper = objectMapper;
+        this.arquivo = arquivo;
+    }
+
+    @EventListener
+    public void aoFicarPronta(ApplicationReadyEvent evento) {
+        List<Fase> fases = new ArrayList<>();
+        List<Bean> beans = new ArrayList<>();
+        if (evento.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<TimelineEvent> passos = startup.drainBufferedTimeline().getEvents();
+            fases = fases(passos);
+            beans = beansMaisDemorados(passos);
+        }
+
+        relatorio = new Relatorio(desdeInicioJvm(), evento.getTimeTaken().toMillis(), null, fases, beans);
+        registrar(relatorio);
+    }
+
+    @EventListener
+    public void aoAtenderRequisicao(ServletRequestHandledEvent evento) {
+        if (relatorio == null || primeiraRequisicaoAtendida.get() || !primeiraRequisicaoAtendida.compareAndSet(false, true)) {
+            return;
+        }
+        long primeiraRequisicao = desdeInicioJvm();
+        log.info("Primeira requisição atendida {} ms após o início da JVM ({}).", primeiraRequisicao, evento.getRequestUrl());
+        relatorio = relatorio.comPrimeiraRequisicao(primeiraRequisicao);
+        gravar(relatorio);
+    }
+
+    private void registrar(Relatorio relatorio) {
+        StringBuilder texto = new StringBuilder()
+                .append(String.format("Inicialização: %d ms desde o início da JVM, %d ms no Spring%n",
+                        relatorio.jvmAtePronta(), relatorio.springAtePronta()));
+        relatorio.fases().forEach(fase -> texto.append(String.format("  %-60s %7d ms%n", fase.nome(), fase.ms())));
+        if (!relatorio.beans().isEmpty()) {
+            texto.append(String.format("  %-60s %7s %7s%n", "beans mais demorados", "total", "próprio"));
+            relatorio.beans().forEach(bean -> texto.append(
+                    String.format("  %-60s %7d %7d%n", abreviar(bean.nome()), bean.totalMs(), bean.proprioMs())));
+        }
+        log.info(texto.toString().stripTrailing());
+        gravar(relatorio);
+    }
+
+    private void gravar(Relatorio relatorio) {
+        if (arquivo.isBlank()) {
+            return;
+        }
+        try {
+            Path destino = Path.of(arquivo);
+            if (destino.getParent() != null) {
+                Files.createDirectories(destino.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(destino.toFile(), relatorio);
+        } catch (IOException e) {
+            log.warn("Não foi possível gravar o relatório de inicialização em {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    // Soma as fases de nível mais alto pelo nome, na ordem em que começaram
+    private static List<Fase> fases(List<TimelineEvent> passos) {
+        Map<String, Long> porNome = new LinkedHashMap<>();
+        for (TimelineEvent passo : passos) {
+            if (passo.getStartupStep().getParentId() == null) {
+                porNome.merge(passo.getStartupStep().getName(), passo.getDuration().toMillis(), Long::sum);
+            }
+        }
+        List<Fase> fases = new ArrayList<>();
+        porNome.forEach((nome, ms) -> fases.add(new Fase(nome, ms)));
+        return fases;
+    }
+
+    private static List<Bean> beansMaisDemorados(List<TimelineEvent> passos) {
+        Map<Long, Long> filhosPorPai = new HashMap<>();
+        for (TimelineEvent passo : passos) {
+            Long pai = passo.getStartupStep().getParentId();
+            if (pai != null) {
+                filhosPorPai.merge(pai, passo.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        List<Bean> beans = new ArrayList<>();
+        for (TimelineEvent passo : passos) {
+            StartupStep step = passo.getStartupStep();
+            if (!CRIACAO_BEAN.equals(step.getName())) {
+                continue;
+            }
+            long total = passo.getDuration().toNanos();
+            long proprio = Math.max(0, total - filhosPorPai.getOrDefault(step.getId(), 0L));
+            beans.add(new Bean(nomeDoBean(step), Duration.ofNanos(total).toMillis(), Duration.ofNanos(proprio).toMillis()));
+        }
+        beans.sort(Comparator.comparingLong(Bean::totalMs).reversed());
+        return beans.subList(0, Math.min(BEANS_NO_RELATORIO, beans.size()));
+    }
+
+    private static String nomeDoBean(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    // nomes de beans de configuração trazem o pacote inteiro; o fim é o que identifica
+    private static String abreviar(String nome) {
+        return nome.length() <= 60 ? nome : "..." + nome.substring(nome.length() - 57);
+    }
+
+    private static long desdeInicioJvm() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    public record Relatorio(long jvmAtePronta, long springAtePronta, Long jvmAtePrimeiraRequisicao,
+                            List<Fase> fases, List<Bean> beans) {
+        Relatorio comPrimeiraRequisicao(long ms) {
+            return new Relatorio(jvmAtePronta, springAtePronta, ms, fases, beans);
+        }
+    }
+
+    public record Fase(String nome, long ms) { }
+
+    public record Bean(String nome, long totalMs, long proprioMs) { }
+}
@@ -0,0 +1,49 @@
+package com.argus.api.infra.limitetaxa;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de tokens sem trava, no formato GCRA: o estado é um único long com o instante teórico em
+// que o balde estaria cheio de novo. Consumir um token é avançar esse instante em um intervalo
+// de emissão com compareAndSet; o pedido é recusado se isso passar da capacidade.
+// Um balde cujo instante já passou está cheio e pode ser descartado sem mudar o comportamento.
+class BaldeTokens {
+
+    private final long capacidade;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong cheioEm;
+
+    BaldeTokens(long capacidade, double porSegundo, long agoraNanos) {
+        this.capacidade = capacidade;
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000L / porSegundo));
+        this.toleranciaNanos = intervaloNanos * capacidade;
+        this.cheioEm = new AtomicLong(agoraNanos);
+    }
+
+    Resultado consumir(long agoraNanos) {
+        while (true) {
+            long atual = cheioEm.get();
+            long novo = Math.max(atual, agoraNanos) + intervaloNanos;
+            long ocupado = novo - agoraNanos;
+            if (ocupado > toleranciaNanos) {
+                long ocupadoAtual = Math.max(atual, agoraNanos) - agoraNanos;
+                return new Resultado(false, capacidade, restantes(ocupadoAtual), ocupadoAtual,
+                        ocupado - toleranciaNanos);
+            }
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return new Resultado(true, capacidade, restantes(ocupado), ocupado, 0);
+            }
+        }
+    }
+
+    boolean cheio(long agoraNanos) {
+        return cheioEm.get() <= agoraNanos;
+    }
+
+    private long restantes(long ocupadoNanos) {
+        return Math.max(0, (toleranciaNanos - ocupadoNanos) / intervaloNanos);
+    }
+
+    // ateCheioNanos: tempo até o balde voltar a ficar cheio; esperaNanos: até o próximo token, se recusado
+    record Resultado(boolean permitido, long limite, long restantes, long ateCheioNanos, long esperaNanos) { }
+}
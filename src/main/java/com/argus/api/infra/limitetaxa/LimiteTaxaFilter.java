@@ -0,0 +1,169 @@
+package com.argus.api.infra.limitetaxa;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.infra.limitetaxa.BaldeTokens.Resultado;
+import com.argus.api.infra.limitetaxa.LimiteTaxaProperties.Limite;
+import com.argus.api.infra.limitetaxa.LimiteTaxaProperties.Regra;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// Limite de requisições por usuário e por condomínio, com um balde de tokens por regra de rota
+// (api.limite-taxa.regras). Roda na cadeia do Spring Security logo depois do SecurityFilter,
+// então o usuário já é conhecido e uma requisição recusada não chega aos controllers nem ao banco.
+// Responde com os cabeçalhos RateLimit-Limit/Remaining/Reset do escopo mais apertado e, ao recusar,
+// com 429 e Retry-After. Requisições sem usuário autenticado não são limitadas aqui.
+// Registrado só na cadeia do Security (ver SecurityConfigurations), não como filtro do servlet.
+@Slf4j
+@Component
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final LimiteTaxaProperties properties;
+    private final List<Regra> regras;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<Chave, BaldeTokens> baldes = new ConcurrentHashMap<>();
+    private final AtomicLong proximaLimpeza;
+    private final AtomicBoolean avisouLotado = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+
+    public LimiteTaxaFilter(LimiteTaxaProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.regras = List.copyOf(properties.getRegras());
+        this.meterRegistry = meterRegistry;
+        this.proximaLimpeza = new AtomicLong(System.nanoTime() + properties.getIntervaloLimpeza().toNanos());
+        meterRegistry.gaugeMapSize("limite.taxa.baldes", List.of(), baldes);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isHabilitado();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        int indiceRegra = regra(request);
+        if (indiceRegra < 0 || autenticacao == null || !(autenticacao.getPrincipal() instanceof Usuarios usuario)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long agora = System.nanoTime();
+        limpar(agora);
+        Regra regra = regras.get(indiceRegra);
+
+        Resultado porUsuario = consumir(new Chave(indiceRegra, false, usuario.getId()), regra.getUsuario(), agora);
+        Resultado maisApertado = porUsuario;
+        String escopo = "usuario";
+        // se o condomínio recusar, o token do usuário já foi gasto; a diferença é de um token
+        if (porUsuario == null || porUsuario.permitido()) {
+            Long condominioId = usuario.getCondominio() != null ? usuario.getCondominio().getId() : null;
+            Resultado porCondominio = condominioId != null
+                    ? consumir(new Chave(indiceRegra, true, condominioId), regra.getCondominio(), agora)
+                    : null;
+            if (porCondominio != null && (maisApertado == null || !porCondominio.permitido()
+                    || porCondominio.restantes() < maisApertado.restantes())) {
+                maisApertado = porCondominio;
+                escopo = "condominio";
+            }
+        }
+
+        if (maisApertado != null) {
+            response.setHeader("RateLimit-Limit", String.valueOf(maisApertado.limite()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(maisApertado.restantes()));
+            response.setHeader("RateLimit-Reset", String.valueOf(segundos(maisApertado.ateCheioNanos())));
+            if (!maisApertado.permitido()) {
+                recusar(response, regra, escopo, maisApertado);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private int regra(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < regras.size(); i++) {
+            Regra regra = regras.get(i);
+            boolean metodo = regra.getMetodo() == null || regra.getMetodo().isBlank()
+                    || regra.getMetodo().equalsIgnoreCase(request.getMethod());
+            if (metodo && pathMatcher.match(regra.getCaminho(), caminho)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Resultado consumir(Chave chave, Limite limite, long agora) {
+        if (limite.getCapacidade() <= 0 || limite.getPorSegundo() <= 0) {
+            return null;
+        }
+        BaldeTokens balde = baldes.get(chave);
+        if (balde == null) {
+            if (baldes.size() >= properties.getMaximoBaldes()) {
+                // deixa passar em vez de crescer sem limite; a próxima limpeza abre espaço
+                if (avisouLotado.compareAndSet(false, true)) {
+                    log.warn("Limite de {} baldes de taxa atingido; requisições novas passam sem limite até a próxima limpeza.",
+                            properties.getMaximoBaldes());
+                }
+                return null;
+            }
+            balde = baldes.computeIfAbsent(chave, c -> new BaldeTokens(limite.getCapacidade(), limite.getPorSegundo(), agora));
+        }
+        return balde.consumir(agora);
+    }
+
+    // Só uma thread faz a varredura de cada intervalo (a que ganhar o compareAndSet); as outras seguem
+    private void limpar(long agora) {
+        long prevista = proximaLimpeza.get();
+        boolean lotado = baldes.size() >= properties.getMaximoBaldes();
+        if ((agora - prevista < 0 && !lotado)
+                || !proximaLimpeza.compareAndSet(prevista, agora + properties.getIntervaloLimpeza().toNanos())) {
+            return;
+        }
+        baldes.values().removeIf(balde -> balde.cheio(agora));
+        avisouLotado.set(false);
+    }
+
+    private void recusar(HttpServletResponse response, Regra regra, String escopo, Resultado resultado) throws IOException {
+        long espera = segundos(resultado.esperaNanos());
+        Counter.builder("limite.taxa.recusadas")
+                .tag("regra", (regra.getMetodo() != null ? regra.getMetodo() + " " : "") + regra.getCaminho())
+                .tag("escopo", escopo)
+                .register(meterRegistry)
+                .increment();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(espera));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Limite de requisições excedido. Tente novamente em " + espera + " s.");
+    }
+
+    private static long segundos(long nanos) {
+        return (nanos + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO;
+    }
+
+    private record Chave(int regra, boolean condominio, long id) { }
+}
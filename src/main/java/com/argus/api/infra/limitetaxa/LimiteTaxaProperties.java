@@ -0,0 +1,40 @@
+package com.argus.api.infra.limitetaxa;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "api.limite-taxa")
+public class LimiteTaxaProperties {
+
+    private boolean habilitado = true;
+
+    // acima disso, os baldes cheios são descartados; se ainda assim não couber, a requisição passa sem limite
+    private int maximoBaldes = 100_000;
+
+    private Duration intervaloLimpeza = Duration.ofSeconds(30);
+
+    // a primeira regra cujo método e caminho casarem com a requisição é aplicada
+    private List<Regra> regras = new ArrayList<>();
+
+    @Data
+    public static class Regra {
+        // vazio = qualquer método
+        private String metodo;
+        private String caminho = "/**";
+        private Limite usuario = new Limite();
+        private Limite condominio = new Limite();
+    }
+
+    @Data
+    public static class Limite {
+        // 0 = sem limite nesse escopo
+        private long capacidade;
+        private double porSegundo;
+    }
+}
@@ -0,0 +1,283 @@
+package com.argus.api.infra.lote;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.argus.api.dto.RequisicaoLoteDTO;
+import com.argus.api.dto.RespostaLoteDTO;
+import com.argus.api.infra.limitetaxa.LimiteTaxaFilter;
+import com.argus.api.infra.metricas.ContagemSqlFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// Executa as sub-requisições de POST /batch dentro da própria aplicação. Cada uma passa pelas
+// regras de acesso do SecurityConfigurations (o mesmo AuthorizationManager da cadeia do Security),
+// pela contagem de SQL, pelo limite de taxa e pelo DispatcherServlet, com o usuário autenticado da
+// requisição do lote. Leituras (GET e HEAD) rodam em paralelo; qualquer outro método espera os itens
+// anteriores terminarem e só depois libera os seguintes, então uma escrita nunca corre junto de outro
+// item. O paralelismo é limitado por api.lote.paralelismo vagas para a aplicação inteira; um item que
+// não consegue vaga dentro do tempo do lote volta com 504 sem rodar. Com o profile "virtual", as
+// sub-requisições rodam em virtual threads.
+@Slf4j
+@Component
+public class ExecutorLote {
+
+    private static final Set<String> METODOS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE");
+
+    // O que o StrictHttpFirewall recusa nas requisições de fora. O item não passa pelo firewall da
+    // cadeia, e um caminho com segmentos relativos ou separadores codificados pode ser lido de um
+    // jeito pelas regras de acesso e de outro pelo DispatcherServlet.
+    private static final List<String> PROIBIDOS_NO_CAMINHO = List.of("..", "/./", "//", ";", "\\",
+            "%2e", "%2f", "%5c", "%3b", "%25", "%00");
+
+    private final AuthorizationManager<HttpServletRequest> autorizacao;
+    private final FilterChain despacho;
+    private final ObjectMapper objectMapper;
+    private final int maximoItens;
+    private final long tempoMaximoNanos;
+    private final SimpleAsyncTaskExecutor executor;
+    private final Semaphore vagas;
+    private final DistributionSummary tamanhos;
+
+    @Autowired
+    public ExecutorLote(SecurityFilterChain cadeiaSeguranca, ContagemSqlFilter contagemSqlFilter,
+                        LimiteTaxaFilter limiteTaxaFilter, ObjectProvider<DispatcherServlet> dispatcherServlet, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry, @Value("${api.lote.maximo-itens:20}") int maximoItens,
+                        @Value("${api.lote.paralelismo:6}") int paralelismo,
+                        @Value("${api.lote.tempo-maximo:10s}") Duration tempoMaximo,
+                        @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        // a sub-requisição tem atributos próprios, então os dois filtros contam cada item como uma
+        // requisição nova; o SQL do item fica na rota dele, na thread que o executa
+        this(autorizacao(cadeiaSeguranca),
+                (request, response) -> contagemSqlFilter.doFilter(request, response,
+                        (requisicao, resposta) -> limiteTaxaFilter.doFilter(requisicao, resposta,
+                                (interna, respostaInterna) -> dispatcherServlet.getObject().service(interna, respostaInterna))),
+                objectMapper, meterRegistry, maximoItens, paralelismo, tempoMaximo, threadsVirtuais);
+    }
+
+    ExecutorLote(AuthorizationManager<HttpServletRequest> autorizacao, FilterChain despacho, ObjectMapper objectMapper,
+                 MeterRegistry meterRegistry, int maximoItens, int paralelismo, Duration tempoMaximo, boolean threadsVirtuais) {
+        this.autorizacao = autorizacao;
+        this.despacho = despacho;
+        this.objectMapper = objectMapper;
+        this.maximoItens = maximoItens;
+        this.tempoMaximoNanos = tempoMaximo.toNanos();
+        this.executor = new SimpleAsyncTaskExecutor("lote-");
+        this.executor.setVirtualThreads(threadsVirtuais);
+        this.executor.setDaemon(true);
+        this.vagas = new Semaphore(paralelismo);
+        this.tamanhos = DistributionSummary.builder("lote.itens").register(meterRegistry);
+    }
+
+    public List<RespostaLoteDTO> executar(List<RequisicaoLoteDTO> itens, HttpServletRequest request,
+                                          HttpServletResponse response) {
+        if (itens == null || itens.isEmpty() || itens.size() > maximoItens) {
+            throw new IllegalArgumentException("O lote deve ter de 1 a " + maximoItens + " requisições.");
+        }
+        tamanhos.record(itens.size());
+
+        SecurityContext contexto = SecurityContextHolder.getContext();
+        long limite = System.nanoTime() + tempoMaximoNanos;
+        RespostaLoteDTO[] respostas = new RespostaLoteDTO[itens.size()];
+        List<Pendente> grupo = new ArrayList<>();
+
+        for (int i = 0; i < itens.size(); i++) {
+            RequisicaoLoteDTO item = itens.get(i);
+            String invalido = validar(item);
+            if (invalido != null) {
+                respostas[i] = erro(item, HttpStatus.BAD_REQUEST, invalido);
+                continue;
+            }
+            boolean leitura = "GET".equals(item.metodo()) || "HEAD".equals(item.metodo());
+            if (!leitura) {
+                aguardar(grupo, respostas, limite);
+            }
+            if (System.nanoTime() - limite >= 0) {
+                respostas[i] = erro(item, HttpStatus.GATEWAY_TIMEOUT, "Tempo do lote esgotado antes da execução.");
+                continue;
+            }
+            try {
+                if (!vagas.tryAcquire(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    respostas[i] = erro(item, HttpStatus.GATEWAY_TIMEOUT, "Nenhuma vaga livre dentro do tempo do lote.");
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respostas[i] = erro(item, HttpStatus.SERVICE_UNAVAILABLE, "Lote interrompido.");
+                continue;
+            }
+            grupo.add(new Pendente(i, item, leitura, submeter(new DelegatingSecurityContextCallable<>(
+                    () -> executarItem(item, request, response, contexto.getAuthentication()), contexto))));
+            if (!leitura) {
+                aguardar(grupo, respostas, limite);
+            }
+        }
+        aguardar(grupo, respostas, limite);
+        return Arrays.asList(respostas);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.close();
+    }
+
+    // A vaga é devolvida quando a tarefa termina, mesmo que tenha sido cancelada antes de começar.
+    private Future<RespostaLoteDTO> submeter(Callable<RespostaLoteDTO> tarefa) {
+        FutureTask<RespostaLoteDTO> futuro = new FutureTask<>(tarefa);
+        try {
+            executor.execute(() -> {
+                try {
+                    futuro.run();
+                } finally {
+                    vagas.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            vagas.release();
+            throw e;
+        }
+        return futuro;
+    }
+
+    private RespostaLoteDTO executarItem(RequisicaoLoteDTO item, HttpServletRequest request, HttpServletResponse response,
+                                         Authentication autenticacao) throws Exception {
+        RequisicaoLote requisicao = new RequisicaoLote(request, item.metodo(), item.caminho(), item.cabecalhos(),
+                item.corpo() != null && !item.corpo().isNull() ? objectMapper.writeValueAsBytes(item.corpo()) : null);
+        AuthorizationDecision decisao = autorizacao.check(() -> autenticacao, requisicao);
+        if (decisao != null && !decisao.isGranted()) {
+            return erro(item, HttpStatus.FORBIDDEN, "Acesso negado.");
+        }
+
+        RespostaLote resposta = new RespostaLote(response);
+        try {
+            despacho.doFilter(requisicao, resposta);
+        } catch (Exception e) {
+            // leitura interrompida pelo cancelamento de quem passou do tempo; a resposta já é o 504
+            if (!(NestedExceptionUtils.getMostSpecificCause(e) instanceof InterruptedException)) {
+                log.warn("Falha na sub-requisição {} {} do lote", item.metodo(), requisicao.caminho(), e);
+            }
+            return erro(item, HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno.");
+        }
+        return new RespostaLoteDTO(item.id(), resposta.status(), resposta.cabecalhos(), corpo(resposta));
+    }
+
+    private void aguardar(List<Pendente> grupo, RespostaLoteDTO[] respostas, long limite) {
+        for (Pendente pendente : grupo) {
+            try {
+                respostas[pendente.indice()] = pendente.futuro().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | CancellationException e) {
+                respostas[pendente.indice()] = erro(pendente.item(), HttpStatus.GATEWAY_TIMEOUT, abandonar(pendente));
+            } catch (ExecutionException e) {
+                log.warn("Falha na sub-requisição {} {} do lote", pendente.item().metodo(), pendente.item().caminho(), e.getCause());
+                respostas[pendente.indice()] = erro(pendente.item(), HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandonar(pendente);
+                respostas[pendente.indice()] = erro(pendente.item(), HttpStatus.SERVICE_UNAVAILABLE, "Lote interrompido.");
+            }
+        }
+        grupo.clear();
+    }
+
+    // Uma leitura que passou do tempo é interrompida. Uma escrita não: interrompê-la no meio da
+    // transação não garante rollback, então ela segue até o fim e pode ser confirmada depois de o
+    // item já ter voltado com 504.
+    private static String abandonar(Pendente pendente) {
+        if (pendente.leitura()) {
+            pendente.futuro().cancel(true);
+            return "Tempo do lote esgotado.";
+        }
+        return "Tempo do lote esgotado; a escrita continua em andamento e pode ser concluída.";
+    }
+
+    private static String validar(RequisicaoLoteDTO item) {
+        if (item.metodo() == null || !METODOS.contains(item.metodo())) {
+            return "Método inválido: " + item.metodo();
+        }
+        if (item.caminho() == null || !item.caminho().startsWith("/") || caminhoAmbiguo(item.caminho())) {
+            return "Caminho inválido: " + item.caminho();
+        }
+        if (item.caminho().equals("/batch") || item.caminho().startsWith("/batch?") || item.caminho().startsWith("/batch/")) {
+            return "Um lote não pode conter outro lote.";
+        }
+        return null;
+    }
+
+    // só o caminho: a consulta é lida como parâmetros e pode ter qualquer valor codificado
+    private static boolean caminhoAmbiguo(String caminhoComConsulta) {
+        int inicioConsulta = caminhoComConsulta.indexOf('?');
+        String caminho = (inicioConsulta >= 0 ? caminhoComConsulta.substring(0, inicioConsulta) : caminhoComConsulta)
+                .toLowerCase(Locale.ROOT);
+        return caminho.endsWith("/.") || PROIBIDOS_NO_CAMINHO.stream().anyMatch(caminho::contains)
+                || caminho.chars().anyMatch(Character::isISOControl);
+    }
+
+    private String corpo(RespostaLote resposta) throws JsonProcessingException {
+        byte[] corpo = resposta.corpo();
+        if (corpo.length == 0) {
+            return null;
+        }
+        if (resposta.json()) {
+            return new String(corpo, StandardCharsets.UTF_8);
+        }
+        return objectMapper.writeValueAsString(new String(corpo, resposta.charset()));
+    }
+
+    private RespostaLoteDTO erro(RequisicaoLoteDTO item, HttpStatus status, String mensagem) {
+        try {
+            return new RespostaLoteDTO(item.id(), status.value(), Map.of(), objectMapper.writeValueAsString(mensagem));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuthorizationManager<HttpServletRequest> autorizacao(SecurityFilterChain cadeiaSeguranca) {
+        return cadeiaSeguranca.getFilters().stream()
+                .filter(AuthorizationFilter.class::isInstance)
+                .map(filtro -> (AuthorizationManager<HttpServletRequest>) ((AuthorizationFilter) filtro).getAuthorizationManager())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("A cadeia do Spring Security não tem AuthorizationFilter"));
+    }
+
+    private record Pendente(int indice, RequisicaoLoteDTO item, boolean leitura, Future<RespostaLoteDTO> futuro) { }
+}
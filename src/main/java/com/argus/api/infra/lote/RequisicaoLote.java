@@ -0,0 +1,308 @@
+package com.argus.api.infra.lote;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+// Uma sub-requisição do lote como se tivesse chegado sozinha: método, caminho, parâmetros, corpo e
+// atributos próprios. Os cabeçalhos e o contexto da requisição do lote são copiados na criação,
+// porque a sub-requisição roda em outra thread e pode terminar depois de o Tomcat reciclar a
+// original. Os cabeçalhos condicionais e o Accept-Encoding não passam: cada item volta com o corpo
+// inteiro e sem gzip, já que vai dentro da resposta do lote.
+class RequisicaoLote extends HttpServletRequestWrapper {
+
+    private static final Set<String> DESCARTADOS = Set.of(HttpHeaders.ACCEPT_ENCODING.toLowerCase(),
+            HttpHeaders.IF_NONE_MATCH.toLowerCase(), HttpHeaders.IF_MODIFIED_SINCE.toLowerCase(),
+            HttpHeaders.CONTENT_TYPE.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase());
+
+    private final String metodo;
+    private final String caminho;
+    private final String consulta;
+    private final byte[] corpo;
+    private final String contexto;
+    private final ServletContext servletContext;
+    private final String esquema;
+    private final String servidor;
+    private final int porta;
+    private final String enderecoRemoto;
+    private final Map<String, List<String>> cabecalhos = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, String[]> parametros = new LinkedHashMap<>();
+    private final Map<String, Object> atributos = new ConcurrentHashMap<>();
+
+    RequisicaoLote(HttpServletRequest original, String metodo, String caminhoComConsulta, Map<String, String> cabecalhosItem,
+                   byte[] corpo) {
+        super(original);
+        int inicioConsulta = caminhoComConsulta.indexOf('?');
+        this.metodo = metodo;
+        this.caminho = inicioConsulta >= 0 ? caminhoComConsulta.substring(0, inicioConsulta) : caminhoComConsulta;
+        this.consulta = inicioConsulta >= 0 ? caminhoComConsulta.substring(inicioConsulta + 1) : null;
+        this.corpo = corpo;
+        this.contexto = original.getContextPath();
+        this.servletContext = original.getServletContext();
+        this.esquema = original.getScheme();
+        this.servidor = original.getServerName();
+        this.porta = original.getServerPort();
+        this.enderecoRemoto = original.getRemoteAddr();
+
+        for (String nome : Collections.list(original.getHeaderNames())) {
+            if (!DESCARTADOS.contains(nome.toLowerCase())) {
+                cabecalhos.put(nome, Collections.list(original.getHeaders(nome)));
+            }
+        }
+        if (cabecalhosItem != null) {
+            cabecalhosItem.forEach((nome, valor) -> cabecalhos.put(nome, List.of(valor)));
+        }
+        if (corpo != null) {
+            cabecalhos.put(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE));
+            cabecalhos.put(HttpHeaders.CONTENT_LENGTH, List.of(String.valueOf(corpo.length)));
+        }
+        if (consulta != null) {
+            lerParametros(consulta);
+        }
+    }
+
+    String caminho() {
+        return caminho;
+    }
+
+    private void lerParametros(String texto) {
+        Map<String, List<String>> valores = new LinkedHashMap<>();
+        for (String par : texto.split("&")) {
+            if (par.isEmpty()) {
+                continue;
+            }
+            int igual = par.indexOf('=');
+            String nome = URLDecoder.decode(igual >= 0 ? par.substring(0, igual) : par, StandardCharsets.UTF_8);
+            String valor = igual >= 0 ? URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8) : "";
+            valores.computeIfAbsent(nome, n -> new ArrayList<>()).add(valor);
+        }
+        valores.forEach((nome, lista) -> parametros.put(nome, lista.toArray(String[]::new)));
+    }
+
+    @Override
+    public String getMethod() {
+        return metodo;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return contexto + caminho;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':')
+                .append(getServerPort()).append(getRequestURI());
+    }
+
+    @Override
+    public String getContextPath() {
+        return contexto;
+    }
+
+    @Override
+    public String getServletPath() {
+        return caminho;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return consulta;
+    }
+
+    @Override
+    public String getScheme() {
+        return esquema;
+    }
+
+    @Override
+    public String getServerName() {
+        return servidor;
+    }
+
+    @Override
+    public int getServerPort() {
+        return porta;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return enderecoRemoto;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    // respostas em streaming (exportações) não cabem dentro da resposta do lote
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public String getHeader(String nome) {
+        List<String> valores = cabecalhos.get(nome);
+        return valores != null && !valores.isEmpty() ? valores.get(0) : null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String nome) {
+        return Collections.enumeration(cabecalhos.getOrDefault(nome, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(cabecalhos.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String nome) {
+        String valor = getHeader(nome);
+        return valor != null ? Integer.parseInt(valor) : -1;
+    }
+
+    @Override
+    public long getDateHeader(String nome) {
+        String valor = getHeader(nome);
+        if (valor == null) {
+            return -1;
+        }
+        HttpHeaders leitura = new HttpHeaders();
+        leitura.set(nome, valor);
+        return leitura.getFirstDate(nome);
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public int getContentLength() {
+        return corpo != null ? corpo.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream entrada = new ByteArrayInputStream(corpo != null ? corpo : new byte[0]);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return entrada.read();
+            }
+
+            @Override
+            public int read(byte[] destino, int inicio, int tamanho) {
+                return entrada.read(destino, inicio, tamanho);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return entrada.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String getParameter(String nome) {
+        String[] valores = parametros.get(nome);
+        return valores != null ? valores[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parametros);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parametros.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String nome) {
+        return parametros.get(nome);
+    }
+
+    @Override
+    public Object getAttribute(String nome) {
+        return atributos.get(nome);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(atributos.keySet());
+    }
+
+    @Override
+    public void setAttribute(String nome, Object valor) {
+        if (valor == null) {
+            atributos.remove(nome);
+        } else {
+            atributos.put(nome, valor);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String nome) {
+        atributos.remove(nome);
+    }
+}
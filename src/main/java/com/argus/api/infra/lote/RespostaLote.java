@@ -0,0 +1,293 @@
+package com.argus.api.infra.lote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Guarda em memória o status, os cabeçalhos e o corpo de uma sub-requisição do lote. Nada chega à
+// resposta original: todos os métodos que escrevem ou alteram o estado são atendidos aqui.
+class RespostaLote extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+    private final Map<String, List<String>> cabecalhos = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private int status = HttpStatus.OK.value();
+    private String codificacao;
+    private Locale localidade = Locale.getDefault();
+    private boolean confirmada;
+    private ServletOutputStream saida;
+    private PrintWriter escritor;
+
+    RespostaLote(HttpServletResponse original) {
+        super(original);
+    }
+
+    int status() {
+        return status;
+    }
+
+    // o primeiro valor de cada cabeçalho, na ordem alfabética
+    Map<String, String> cabecalhos() {
+        Map<String, String> primeiros = new LinkedHashMap<>();
+        cabecalhos.forEach((nome, valores) -> primeiros.put(nome, valores.get(0)));
+        return primeiros;
+    }
+
+    // o Spring às vezes grava o Content-Type direto como cabeçalho, sem passar por setContentType
+    Charset charset() {
+        String tipo = getContentType();
+        Charset charset = tipo != null ? MediaType.parseMediaType(tipo).getCharset() : null;
+        if (charset != null) {
+            return charset;
+        }
+        return codificacao != null ? Charset.forName(codificacao) : StandardCharsets.ISO_8859_1;
+    }
+
+    byte[] corpo() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        return corpo.toByteArray();
+    }
+
+    boolean json() {
+        String tipo = getContentType();
+        if (tipo == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(tipo);
+        return mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || mediaType.getSubtype().endsWith("+json");
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String mensagem) {
+        resetBuffer();
+        this.status = status;
+        if (mensagem != null) {
+            setContentType("text/plain;charset=UTF-8");
+            corpo.writeBytes(mensagem.getBytes(StandardCharsets.UTF_8));
+        }
+        confirmada = true;
+    }
+
+    @Override
+    public void sendRedirect(String local) {
+        resetBuffer();
+        status = HttpStatus.FOUND.value();
+        setHeader(HttpHeaders.LOCATION, local);
+        confirmada = true;
+    }
+
+    @Override
+    public void setHeader(String nome, String valor) {
+        if (valor == null) {
+            cabecalhos.remove(nome);
+        } else {
+            cabecalhos.put(nome, new ArrayList<>(List.of(valor)));
+        }
+    }
+
+    @Override
+    public void addHeader(String nome, String valor) {
+        if (valor != null) {
+            cabecalhos.computeIfAbsent(nome, n -> new ArrayList<>()).add(valor);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String nome, int valor) {
+        setHeader(nome, String.valueOf(valor));
+    }
+
+    @Override
+    public void addIntHeader(String nome, int valor) {
+        addHeader(nome, String.valueOf(valor));
+    }
+
+    @Override
+    public void setDateHeader(String nome, long data) {
+        setHeader(nome, data(data));
+    }
+
+    @Override
+    public void addDateHeader(String nome, long data) {
+        addHeader(nome, data(data));
+    }
+
+    @Override
+    public boolean containsHeader(String nome) {
+        return cabecalhos.containsKey(nome);
+    }
+
+    @Override
+    public String getHeader(String nome) {
+        List<String> valores = cabecalhos.get(nome);
+        return valores != null ? valores.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String nome) {
+        return List.copyOf(cabecalhos.getOrDefault(nome, List.of()));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(cabecalhos.keySet());
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // a API é sem estado; cookies de uma sub-requisição não vão para o cliente
+    }
+
+    @Override
+    public void setContentType(String tipo) {
+        setHeader(HttpHeaders.CONTENT_TYPE, tipo);
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setCharacterEncoding(String codificacao) {
+        this.codificacao = codificacao;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return charset().name();
+    }
+
+    @Override
+    public void setContentLength(int tamanho) {
+    }
+
+    @Override
+    public void setContentLengthLong(long tamanho) {
+    }
+
+    @Override
+    public void setLocale(Locale localidade) {
+        this.localidade = localidade;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return localidade;
+    }
+
+    @Override
+    public void setBufferSize(int tamanho) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        confirmada = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return confirmada;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        cabecalhos.clear();
+        status = HttpStatus.OK.value();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        corpo.reset();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (saida == null) {
+            saida = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    corpo.write(b);
+                }
+
+                @Override
+                public void write(byte[] dados, int inicio, int tamanho) {
+                    corpo.write(dados, inicio, tamanho);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        return saida;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (escritor == null) {
+            escritor = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset()));
+        }
+        return escritor;
+    }
+
+    private static String data(long data) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(data).atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,48 @@
+package com.argus.api.infra.metricas;
+
+// Contadores de comandos SQL e linhas lidas da requisição que está rodando na thread atual.
+// Fora de uma requisição (jobs, inicialização) nada é contado.
+public final class ContagemSql {
+
+    private static final ThreadLocal<Contador> ATUAL = new ThreadLocal<>();
+
+    private ContagemSql() {
+    }
+
+    static Contador iniciar() {
+        Contador contador = new Contador();
+        ATUAL.set(contador);
+        return contador;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    static void registrarComando() {
+        Contador contador = ATUAL.get();
+        if (contador != null) {
+            contador.comandos++;
+        }
+    }
+
+    static void registrarLinha() {
+        Contador contador = ATUAL.get();
+        if (contador != null) {
+            contador.linhas++;
+        }
+    }
+
+    static final class Contador {
+        private int comandos;
+        private long linhas;
+
+        int comandos() {
+            return comandos;
+        }
+
+        long linhas() {
+            return linhas;
+        }
+    }
+}
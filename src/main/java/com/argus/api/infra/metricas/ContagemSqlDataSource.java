@@ -0,0 +1,83 @@
+package com.argus.api.infra.metricas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Envolve conexões, statements e result sets para contar, por requisição, quantos comandos
+// foram enviados ao banco e quantas linhas foram lidas (ver ContagemSql).
+class ContagemSqlDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUCOES = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Set<String> CRIACAO_STATEMENT = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    ContagemSqlDataSource(DataSource alvo) {
+        super(alvo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexao(super.getConnection(username, password));
+    }
+
+    private static Connection envolverConexao(Connection conexao) {
+        return proxy(Connection.class, conexao, (metodo, resultado) ->
+                CRIACAO_STATEMENT.contains(metodo.getName())
+                        ? envolverStatement(metodo.getReturnType(), (Statement) resultado)
+                        : resultado);
+    }
+
+    private static Object envolverStatement(Class<?> tipo, Statement statement) {
+        return proxy(tipo, statement, (metodo, resultado) -> {
+            if (EXECUCOES.contains(metodo.getName())) {
+                ContagemSql.registrarComando();
+            }
+            return resultado instanceof ResultSet resultSet ? envolverResultSet(resultSet) : resultado;
+        });
+    }
+
+    private static ResultSet envolverResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (metodo, resultado) -> {
+            if (metodo.getName().equals("next") && Boolean.TRUE.equals(resultado)) {
+                ContagemSql.registrarLinha();
+            }
+            return resultado;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> tipo, Object alvo, PosInvocacao posInvocacao) {
+        InvocationHandler handler = (proxy, metodo, argumentos) -> {
+            Object resultado;
+            try {
+                resultado = metodo.invoke(alvo, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            return posInvocacao.aplicar(metodo, resultado);
+        };
+        return (T) Proxy.newProxyInstance(ContagemSqlDataSource.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    @FunctionalInterface
+    private interface PosInvocacao {
+        Object aplicar(Method metodo, Object resultado);
+    }
+}
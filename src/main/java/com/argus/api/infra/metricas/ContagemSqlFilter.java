@@ -0,0 +1,73 @@
+package com.argus.api.infra.metricas;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// Publica quantos comandos SQL e linhas cada requisição usou (sql.requisicao.comandos e
+// sql.requisicao.linhas, por rota) e avisa no log quando passa do limite, o que costuma ser
+// um N+1. Roda antes do Spring Security para contar também a busca do usuário do token.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ContagemSqlFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int limiteComandos;
+    private final long limiteLinhas;
+
+    public ContagemSqlFilter(MeterRegistry meterRegistry,
+                             @Value("${api.metricas.limite-comandos-sql:30}") int limiteComandos,
+                             @Value("${api.metricas.limite-linhas-sql:5000}") long limiteLinhas) {
+        this.meterRegistry = meterRegistry;
+        this.limiteComandos = limiteComandos;
+        this.limiteLinhas = limiteLinhas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContagemSql.Contador contador = ContagemSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContagemSql.encerrar();
+            registrar(request, contador);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ContagemSql.Contador contador) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String rota = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        resumo("sql.requisicao.comandos", "comandos", request.getMethod(), rota).record(contador.comandos());
+        resumo("sql.requisicao.linhas", "linhas", request.getMethod(), rota).record(contador.linhas());
+
+        if (contador.comandos() > limiteComandos || contador.linhas() > limiteLinhas) {
+            log.warn("{} {} executou {} comandos SQL e leu {} linhas (limites {} e {}); possível N+1",
+                    request.getMethod(), rota, contador.comandos(), contador.linhas(), limiteComandos, limiteLinhas);
+        }
+    }
+
+    private DistributionSummary resumo(String nome, String unidade, String metodo, String rota) {
+        return DistributionSummary.builder(nome)
+                .baseUnit(unidade)
+                .tag("method", metodo)
+                .tag("uri", rota)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
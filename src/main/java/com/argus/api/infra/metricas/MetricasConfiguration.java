@@ -0,0 +1,27 @@
+package com.argus.api.infra.metricas;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfiguration {
+
+    // Envolve o DataSource principal (o pool do Hikari ou, com réplicas, o roteador) para a
+    // contagem de SQL por requisição. Os demais BeanPostProcessors de DataSource são ordenados
+    // e rodam antes, então ainda recebem o HikariDataSource original.
+    @Bean
+    static BeanPostProcessor contagemSqlDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ContagemSqlDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.argus.api.infra.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,13 +16,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.argus.api.infra.limitetaxa.LimiteTaxaFilter;
+import com.argus.api.infra.limitetaxa.LimiteTaxaProperties;
+
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(LimiteTaxaProperties.class)
 public class SecurityConfigurations {
 
     @Autowired
     SecurityFilter securityFilter;
 
+    @Autowired
+    LimiteTaxaFilter limiteTaxaFilter;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -37,6 +46,7 @@ public class SecurityConfigurations {
                         .requestMatchers(HttpMethod.DELETE, "/condominio/{id}").hasRole("ADMIN")
                         // <-- USUARIOS -- > //
                         .requestMatchers(HttpMethod.GET, "/usuarios").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.POST, "/usuarios/importacao").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.GET, "/usuarios/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.PUT, "/usuarios/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.DELETE, "/usuarios/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
@@ -48,6 +58,8 @@ public class SecurityConfigurations {
                         .requestMatchers(HttpMethod.POST, "/areasComuns").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.PUT, "/areasComuns/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.DELETE, "/areasComuns/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.GET, "/areasComuns/{id}/ocupacao").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.POST, "/areasComuns/ocupacao/recalcular").hasRole("ADMIN")
                         // <-- SESSAO VOTACAO -- > //
                         .requestMatchers(HttpMethod.POST, "/sessaoVotacao").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.DELETE, "/sessaoVotacao/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
@@ -58,17 +70,44 @@ public class SecurityConfigurations {
                         // <-- OCORRENCIAS -- > //
                         .requestMatchers(HttpMethod.POST, "/ocorrencias").hasRole("MORADOR")
                         .requestMatchers(HttpMethod.GET, "/ocorrencias").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.GET, "/ocorrencias/busca").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.GET, "/ocorrencias/stats").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        .requestMatchers(HttpMethod.POST, "/ocorrencias/stats/recalcular").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/ocorrencias/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.PUT, "/ocorrencias/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .requestMatchers(HttpMethod.DELETE, "/ocorrencias/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        // <-- ESTATISTICAS -- > //
+                        .requestMatchers(HttpMethod.GET, "/estatisticas/**").hasRole("ADMIN")
+                        // <-- SHARDS -- > //
+                        .requestMatchers("/shards/**").hasRole("ADMIN")
+                        // <-- PURGAS -- > //
+                        .requestMatchers(HttpMethod.GET, "/purgas/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        // <-- RELATORIOS -- > //
+                        .requestMatchers("/relatorios", "/relatorios/**").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
+                        // <-- AUDITORIA -- > //
+                        .requestMatchers(HttpMethod.GET, "/auditoria", "/auditoria/exportacao").hasRole("ADMIN")
+                        // <-- LOTE (cada item é autorizado pelas regras acima) -- > //
+                        .requestMatchers(HttpMethod.POST, "/batch").authenticated()
+                        // <-- ACTUATOR -- > //
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // <-- RESERVAS  -- > //
                         .requestMatchers(HttpMethod.DELETE, "/reservas/{id}").hasAnyRole("ADMIN", "SINDICO", "SUBSINDICO")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(limiteTaxaFilter, SecurityFilter.class)
                 .build();
     }
 
+    // O limite de taxa precisa do usuário autenticado, então só roda dentro da cadeia acima
+    @Bean
+    public FilterRegistrationBean<LimiteTaxaFilter> limiteTaxaFilterRegistration(LimiteTaxaFilter filter) {
+        FilterRegistrationBean<LimiteTaxaFilter> registro = new FilterRegistrationBean<>(filter);
+        registro.setEnabled(false);
+        return registro;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration) throws Exception {
         return authenticationConfiguration.getAuthenticationManager();
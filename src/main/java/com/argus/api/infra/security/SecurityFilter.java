@@ -1,5 +1,6 @@
 package com.argus.api.infra.security;
 
+import com.argus.api.infra.datasource.ContextoShard;
 import com.argus.api.repository.UsuarioRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,7 +28,7 @@ public class SecurityFilter extends OncePerRequestFilter {
         var token = this.recoverToken(request);
         if(token != null) {
             var cpf = tokenService.validateToken(token);
-            UserDetails user = usuarioRepository.findByCpf(cpf);
+            UserDetails user = ContextoShard.doCondominio(tokenService.condominio(token), () -> usuarioRepository.findByCpf(cpf));
 
             var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -4,6 +4,7 @@ import com.argus.api.domain.model.Usuarios;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -21,12 +22,15 @@ public class TokenService {
     public String generateToken(Usuarios usuarios) {
         try {
             Algorithm algorithm = Algorithm.HMAC256(secret);
-            String token = JWT.create()
+            var builder = JWT.create()
                     .withIssuer("APIARGUS")
                     .withSubject(usuarios.getCpf())
-                    .withExpiresAt(genExpirationDate())
-                    .sign(algorithm);
-            return token;
+                    .withExpiresAt(genExpirationDate());
+            // com shards, indica em qual banco procurar o usuário a cada requisição
+            if (usuarios.getCondominio() != null) {
+                builder.withClaim("condominio", usuarios.getCondominio().getId());
+            }
+            return builder.sign(algorithm);
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Error While Generating Token", exception);
         }
@@ -45,6 +49,15 @@ public class TokenService {
         }
     }
 
+    // Só lê a claim; a assinatura já foi conferida por validateToken
+    public Long condominio(String token) {
+        try {
+            return JWT.decode(token).getClaim("condominio").asLong();
+        } catch (JWTDecodeException exception) {
+            return null;
+        }
+    }
+
     private Instant genExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
@@ -0,0 +1,26 @@
+package com.argus.api.infra.transacao;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Executa a ação só depois do commit da transação corrente (ou na hora, se não houver transação),
+// para que estruturas em memória não reflitam escritas que acabaram em rollback.
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    public static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.argus.api.infra.transacao;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Mapa de contadores em memória mantido por deltas aplicados depois do commit de cada escrita e
+// refeito de tempos em tempos a partir do banco. O recálculo monta o mapa novo sem trava, enquanto
+// os deltas continuam sendo aplicados ao atual; a trava de escrita só é tomada para a troca.
+//
+// Cada transação entra no commit marcada com a época atual. O recálculo abre uma época nova, espera
+// as transações da anterior terminarem (o que elas gravaram já aparece na consulta) e guarda os
+// deltas da época nova que chegam enquanto a consulta roda, para aplicá-los ao mapa novo antes da
+// troca. A única sobreposição possível é a de uma transação da época nova que conclui o commit entre
+// a abertura da época e o início da consulta, contada duas vezes até o próximo recálculo.
+public class ContadoresAposCommit<K, V> {
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Object recalculo = new Object();
+    private final Map<Long, AtomicInteger> emCommit = new ConcurrentHashMap<>();
+
+    private volatile Map<K, V> contadores = new ConcurrentHashMap<>();
+    private long epoca;
+    // deltas da época do recálculo em andamento; null fora de um recálculo
+    private Queue<Consumer<Map<K, V>>> pendentes;
+    private long epocaPendentes;
+
+    public V buscar(K chave) {
+        return contadores.get(chave);
+    }
+
+    // Aplica o delta depois do commit da transação corrente, ou na hora, se não houver transação
+    public void aposCommit(Consumer<Map<K, V>> delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long epocaDoCommit = entrarNoCommit();
+            aplicar(delta, epocaDoCommit);
+            sairDoCommit(epocaDoCommit);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Long epocaDoCommit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                epocaDoCommit = entrarNoCommit();
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(delta, epocaDoCommit);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (epocaDoCommit != null) {
+                    sairDoCommit(epocaDoCommit);
+                }
+            }
+        });
+    }
+
+    // Um recálculo por vez; carga roda sem trava nenhuma e devolve o mapa novo
+    public void recalcular(Supplier<Map<K, V>> carga) {
+        synchronized (recalculo) {
+            long anterior;
+            trava.writeLock().lock();
+            try {
+                anterior = epoca++;
+                epocaPendentes = epoca;
+                pendentes = new ConcurrentLinkedQueue<>();
+            } finally {
+                trava.writeLock().unlock();
+            }
+
+            Map<K, V> novos;
+            try {
+                aguardarCommits(anterior);
+                novos = carga.get();
+            } catch (RuntimeException e) {
+                trava.writeLock().lock();
+                try {
+                    pendentes = null;
+                } finally {
+                    trava.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            trava.writeLock().lock();
+            try {
+                pendentes.forEach(delta -> delta.accept(novos));
+                pendentes = null;
+                contadores = novos;
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+    }
+
+    private long entrarNoCommit() {
+        trava.readLock().lock();
+        try {
+            emCommit.computeIfAbsent(epoca, e -> new AtomicInteger()).incrementAndGet();
+            return epoca;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    private void sairDoCommit(long epocaDoCommit) {
+        AtomicInteger contador = emCommit.get(epocaDoCommit);
+        if (contador != null && contador.decrementAndGet() == 0) {
+            synchronized (emCommit) {
+                emCommit.notifyAll();
+            }
+        }
+    }
+
+    // as épocas anteriores à nova não recebem mais transações, então os contadores delas só descem
+    private void aguardarCommits(long ultima) {
+        synchronized (emCommit) {
+            emCommit.entrySet().removeIf(entrada -> entrada.getKey() <= ultima && entrada.getValue().get() == 0);
+            while (emCommit.keySet().stream().anyMatch(e -> e <= ultima)) {
+                try {
+                    emCommit.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Recálculo interrompido", e);
+                }
+                emCommit.entrySet().removeIf(entrada -> entrada.getKey() <= ultima && entrada.getValue().get() == 0);
+            }
+        }
+    }
+
+    private void aplicar(Consumer<Map<K, V>> delta, long epocaDoCommit) {
+        trava.readLock().lock();
+        try {
+            delta.accept(contadores);
+            if (pendentes != null && epocaDoCommit >= epocaPendentes) {
+                pendentes.add(delta);
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.argus.api.repository;
+
+import com.argus.api.domain.model.AnexoOcorrencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnexoOcorrenciaRepository extends JpaRepository<AnexoOcorrencia, Long> {
+    List<AnexoOcorrencia> findByOcorrenciaIdOrderByIdAsc(Long ocorrenciaId);
+
+    Optional<AnexoOcorrencia> findByIdAndOcorrenciaId(Long id, Long ocorrenciaId);
+
+    @Query("SELECT COALESCE(SUM(a.tamanho), 0) FROM AnexoOcorrencia a WHERE a.usuario.id = :usuarioId")
+    long somarTamanhoPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT DISTINCT a.hashConteudo FROM AnexoOcorrencia a WHERE a.ocorrencia.id = :ocorrenciaId")
+    List<String> listarHashesPorOcorrencia(@Param("ocorrenciaId") Long ocorrenciaId);
+
+    @Modifying
+    @Query("DELETE FROM AnexoOcorrencia a WHERE a.ocorrencia.id = :ocorrenciaId")
+    int excluirPorOcorrencia(@Param("ocorrenciaId") Long ocorrenciaId);
+
+    boolean existsByHashConteudo(String hashConteudo);
+}
@@ -3,12 +3,19 @@ package com.argus.api.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.argus.api.domain.model.AreasComuns;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AreasComunsRepository extends JpaRepository<AreasComuns, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AreasComuns> findByNome(String nome);
+
+    boolean existsByIdAndCondominioId(Long id, Long condominioId);
 }
@@ -2,12 +2,21 @@ package com.argus.api.repository;
 
 import com.argus.api.domain.model.Comunicados;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ComunicadoRepository extends JpaRepository<Comunicados, Long> {
     Optional<Comunicados> findById(Long id);
+
+    @Query(value = "SELECT * FROM comunicados " +
+            "WHERE MATCH(titulo, mensagem) AGAINST (:termos IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(titulo, mensagem) AGAINST (:termos IN BOOLEAN MODE) DESC, id DESC " +
+            "LIMIT :limite", nativeQuery = true)
+    List<Comunicados> buscarPorTexto(@Param("termos") String termos, @Param("limite") int limite);
 }
 
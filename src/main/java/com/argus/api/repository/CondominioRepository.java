@@ -1,13 +1,17 @@
 package com.argus.api.repository;
 
 import com.argus.api.domain.model.Condominio;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface CondominioRepository extends JpaRepository<Condominio, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Condominio> findByNome(String nome);
     Optional<Condominio> findById(Long id);
 }
@@ -2,6 +2,8 @@ package com.argus.api.repository;
 
 import com.argus.api.domain.model.Ocorrencias;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,20 @@ public interface OcorrenciasRepository extends JpaRepository<Ocorrencias, Long>
     List<Ocorrencias> findByTipo(Ocorrencias.TipoOcorrencia tipo);
     List<Ocorrencias> findByStatusAprovacao(Ocorrencias.StatusAprovacao statusAprovacao);
     List<Ocorrencias> findByStatusResolucao(Ocorrencias.StatusResolucao statusResolucao);
+
+    @Query(value = "SELECT * FROM ocorrencias " +
+            "WHERE MATCH(titulo, descricao) AGAINST (:termos IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(titulo, descricao) AGAINST (:termos IN BOOLEAN MODE) DESC, id DESC " +
+            "LIMIT :limite", nativeQuery = true)
+    List<Ocorrencias> buscarPorTexto(@Param("termos") String termos, @Param("limite") int limite);
+
+    // condominio_id, mes (yyyy-MM), tipo, status_aprovacao, status_resolucao, quantidade,
+    // soma dos segundos até a resolução e quantidade com data de resolução
+    @Query(value = "SELECT u.condominio_id, DATE_FORMAT(o.data_criacao, '%Y-%m'), o.tipo, " +
+            "o.status_aprovacao, o.status_resolucao, COUNT(*), " +
+            "COALESCE(SUM(TIMESTAMPDIFF(SECOND, o.data_criacao, o.data_resolucao)), 0), COUNT(o.data_resolucao) " +
+            "FROM ocorrencias o JOIN usuarios u ON u.id = o.id_usuario " +
+            "GROUP BY u.condominio_id, DATE_FORMAT(o.data_criacao, '%Y-%m'), o.tipo, o.status_aprovacao, o.status_resolucao",
+            nativeQuery = true)
+    List<Object[]> agregarEstatisticas();
 }
\ No newline at end of file
@@ -3,11 +3,13 @@ package com.argus.api.repository;
 import com.argus.api.domain.model.AreasComuns;
 import com.argus.api.domain.model.Reservas;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +18,9 @@ public interface ReservasRepository extends JpaRepository<Reservas, Long> {
 
 	Optional<Reservas> findByAreasComunsAndDataReservaAndHoraInicioBetween(AreasComuns areasComuns,
 			LocalDate localDate, LocalTime horaInicio, LocalTime horaFim);
+
+	// areas_comuns_id, data (yyyy-MM-dd), hora_inicio e hora_fim (HH:mm:ss) e quantidade de reservas iguais
+	@Query(value = "SELECT areas_comuns_id, CAST(data_reserva AS CHAR), CAST(hora_inicio AS CHAR), CAST(hora_fim AS CHAR), " +
+			"COUNT(*) FROM reservas GROUP BY areas_comuns_id, data_reserva, hora_inicio, hora_fim", nativeQuery = true)
+	List<Object[]> agregarOcupacao();
 }
@@ -1,7 +1,11 @@
 package com.argus.api.repository;
 
 import com.argus.api.domain.model.Usuarios;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +15,9 @@ import java.util.Optional;
 public interface UsuarioRepository extends JpaRepository<Usuarios, Long> {
     Optional<Usuarios> findById(Long id);
     UserDetails findByCpf(String cpf);
+
+    // trava a linha do usuário até o fim da transação, para serializar quem consome a mesma cota
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Usuarios u WHERE u.id = :id")
+    Optional<Usuarios> travarPorId(@Param("id") Long id);
 }
@@ -0,0 +1,176 @@
+package com.argus.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.AnexoOcorrencia;
+import com.argus.api.domain.model.Ocorrencias;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.dto.AnexoOcorrenciaDTO;
+import com.argus.api.exception.LimiteAnexoExcedidoException;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo.ConteudoArmazenado;
+import com.argus.api.infra.transacao.AposCommit;
+import com.argus.api.repository.AnexoOcorrenciaRepository;
+import com.argus.api.repository.OcorrenciasRepository;
+import com.argus.api.repository.UsuarioRepository;
+
+@Service
+public class AnexosService {
+
+    private final AnexoOcorrenciaRepository anexoOcorrenciaRepository;
+    private final OcorrenciasRepository ocorrenciasRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ArmazenamentoConteudo armazenamentoConteudo;
+    private final TransactionTemplate transactionTemplate;
+    private final long tamanhoMaximoArquivo;
+    private final long cotaPorUsuario;
+
+    public AnexosService(AnexoOcorrenciaRepository anexoOcorrenciaRepository,
+                         OcorrenciasRepository ocorrenciasRepository,
+                         UsuarioRepository usuarioRepository,
+                         ArmazenamentoConteudo armazenamentoConteudo,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${api.anexos.tamanho-maximo-arquivo:50MB}") DataSize tamanhoMaximoArquivo,
+                         @Value("${api.anexos.cota-por-usuario:500MB}") DataSize cotaPorUsuario) {
+        this.anexoOcorrenciaRepository = anexoOcorrenciaRepository;
+        this.ocorrenciasRepository = ocorrenciasRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.armazenamentoConteudo = armazenamentoConteudo;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoMaximoArquivo = tamanhoMaximoArquivo.toBytes();
+        this.cotaPorUsuario = cotaPorUsuario.toBytes();
+    }
+
+    public AnexoOcorrenciaDTO anexar(Long ocorrenciaId, String nomeArquivo, String tipoConteudo,
+                                     long tamanhoInformado, InputStream corpo, Usuarios usuario) throws IOException {
+        Ocorrencias ocorrencia = buscarOcorrenciaPermitida(ocorrenciaId, usuario);
+
+        if (nomeArquivo == null || nomeArquivo.isBlank()) {
+            throw new IllegalArgumentException("O nome do arquivo é obrigatório.");
+        }
+        if (!tipoPermitido(tipoConteudo)) {
+            throw new IllegalArgumentException("Tipo de arquivo não permitido: " + tipoConteudo);
+        }
+
+        long restanteCota = cotaPorUsuario - anexoOcorrenciaRepository.somarTamanhoPorUsuario(usuario.getId());
+        long limite = Math.min(tamanhoMaximoArquivo, restanteCota);
+        if (limite <= 0) {
+            throw new LimiteAnexoExcedidoException("Cota de anexos do usuário esgotada.");
+        }
+        if (tamanhoInformado > limite) {
+            throw new LimiteAnexoExcedidoException("O arquivo excede o limite de " + limite + " bytes.");
+        }
+
+        ConteudoArmazenado conteudo = armazenamentoConteudo.gravar(corpo, limite);
+
+        // a conta acima é só para cortar o upload cedo; a que vale é feita de novo com a linha do
+        // usuário travada, para uploads simultâneos não passarem juntos da cota
+        try {
+            return transactionTemplate.execute(status -> {
+                usuarioRepository.travarPorId(usuario.getId());
+                if (anexoOcorrenciaRepository.somarTamanhoPorUsuario(usuario.getId()) + conteudo.tamanho() > cotaPorUsuario) {
+                    throw new LimiteAnexoExcedidoException("Cota de anexos do usuário esgotada.");
+                }
+                return salvar(ocorrencia, nomeArquivo, tipoConteudo, conteudo, usuario);
+            });
+        } catch (RuntimeException e) {
+            // com o rollback, o arquivo gravado acima ficaria no disco sem anexo nenhum apontando para ele
+            try {
+                if (!anexoOcorrenciaRepository.existsByHashConteudo(conteudo.hash())) {
+                    armazenamentoConteudo.descartar(conteudo);
+                }
+            } catch (RuntimeException falha) {
+                e.addSuppressed(falha);
+            }
+            throw e;
+        }
+    }
+
+    // Na exclusão da ocorrência. O conteúdo é compartilhado entre anexos iguais: o arquivo só é
+    // apagado, depois do commit, se nenhum outro anexo usa o mesmo hash
+    @Transactional
+    public void excluirDaOcorrencia(Long ocorrenciaId) {
+        List<String> hashes = anexoOcorrenciaRepository.listarHashesPorOcorrencia(ocorrenciaId);
+        if (hashes.isEmpty()) {
+            return;
+        }
+        anexoOcorrenciaRepository.excluirPorOcorrencia(ocorrenciaId);
+        List<String> semUso = hashes.stream()
+                .filter(hash -> !anexoOcorrenciaRepository.existsByHashConteudo(hash))
+                .collect(Collectors.toList());
+        AposCommit.executar(() -> semUso.forEach(armazenamentoConteudo::liberar));
+    }
+
+    private AnexoOcorrenciaDTO salvar(Ocorrencias ocorrencia, String nomeArquivo, String tipoConteudo,
+                                      ConteudoArmazenado conteudo, Usuarios usuario) {
+        AnexoOcorrencia anexo = new AnexoOcorrencia();
+        anexo.setOcorrencia(ocorrencia);
+        anexo.setUsuario(usuario);
+        anexo.setHashConteudo(conteudo.hash());
+        anexo.setNomeArquivo(nomeArquivo.length() > 255 ? nomeArquivo.substring(0, 255) : nomeArquivo);
+        anexo.setTipoConteudo(tipoConteudo);
+        anexo.setTamanho(conteudo.tamanho());
+        anexo.setDataCriacao(LocalDateTime.now());
+
+        return converterParaDTO(anexoOcorrenciaRepository.save(anexo));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnexoOcorrenciaDTO> listarAnexos(Long ocorrenciaId, Usuarios usuario) {
+        buscarOcorrenciaPermitida(ocorrenciaId, usuario);
+        return anexoOcorrenciaRepository.findByOcorrenciaIdOrderByIdAsc(ocorrenciaId).stream()
+                .map(this::converterParaDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public AnexoOcorrencia buscarAnexo(Long ocorrenciaId, Long anexoId, Usuarios usuario) {
+        buscarOcorrenciaPermitida(ocorrenciaId, usuario);
+        return anexoOcorrenciaRepository.findByIdAndOcorrenciaId(anexoId, ocorrenciaId)
+                .orElseThrow(() -> new RuntimeException("Anexo não encontrado"));
+    }
+
+    public Path caminhoConteudo(AnexoOcorrencia anexo) {
+        return armazenamentoConteudo.caminho(anexo.getHashConteudo());
+    }
+
+    // Moradores só acessam os anexos das próprias ocorrências
+    private Ocorrencias buscarOcorrenciaPermitida(Long ocorrenciaId, Usuarios usuario) {
+        Ocorrencias ocorrencia = ocorrenciasRepository.findById(ocorrenciaId)
+                .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada"));
+
+        if (usuario.getTipoDoUsuario() == TipoDoUsuario.MORADOR
+                && !ocorrencia.getUsuario().getId().equals(usuario.getId())) {
+            throw new IllegalArgumentException("Ocorrência de outro usuário.");
+        }
+        return ocorrencia;
+    }
+
+    private boolean tipoPermitido(String tipoConteudo) {
+        return tipoConteudo != null && (tipoConteudo.startsWith("image/") || tipoConteudo.startsWith("video/"));
+    }
+
+    private AnexoOcorrenciaDTO converterParaDTO(AnexoOcorrencia anexo) {
+        return new AnexoOcorrenciaDTO(
+                anexo.getId(),
+                anexo.getOcorrencia().getId(),
+                anexo.getNomeArquivo(),
+                anexo.getTipoConteudo(),
+                anexo.getTamanho(),
+                anexo.getHashConteudo(),
+                anexo.getDataCriacao()
+        );
+    }
+}
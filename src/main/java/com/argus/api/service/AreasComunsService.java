@@ -2,32 +2,54 @@ package com.argus.api.service;
 
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.argus.api.domain.model.AreasComuns;
 import com.argus.api.domain.model.Condominio;
 import com.argus.api.dto.AreasComunsDTO;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.AreasComunsRepository;
 import com.argus.api.repository.CondominioRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 public class AreasComunsService {
 
+    private static final CamposListagem CAMPOS = CamposListagem.de("areas_comuns a", "a.id")
+            .campo("id", "a.id")
+            .campo("nome", "a.nome")
+            .campo("disponivel", "a.disponivel")
+            .campo("condominioNome", "c.nome", "LEFT JOIN condominios c ON c.id = a.condominio_id", null)
+            .construir();
+
     @Autowired
     private AreasComunsRepository areasComunsRepository;
 
     @Autowired
     private CondominioRepository condominioRepository;
 
+    @Autowired
+    private VersoesRecursos versoesRecursos;
+
+    @Autowired
+    private ConsultaCampos consultaCampos;
+
+    @Autowired
+    private ReferenciasService referenciasService;
+
+    @Transactional
     public AreasComunsDTO cadastrarAreaComum(AreasComunsDTO areasComunsDTO) {
         // Buscar condomínio pelo nome
-        Condominio condominio = condominioRepository.findByNome(areasComunsDTO.condominioNome())
+        Condominio condominio = referenciasService.condominioPorNome(areasComunsDTO.condominioNome())
+                .flatMap(referencia -> condominioRepository.findById(referencia.id()))
                 .orElseThrow(() -> new RuntimeException("Condomínio não encontrado."));
 
         AreasComuns areasComuns = new AreasComuns();
@@ -36,10 +58,13 @@ public class AreasComunsService {
         areasComuns.setCondominio(condominio);
 
         areasComunsRepository.save(areasComuns);
+        referenciasService.registrarArea(areasComuns);
+        versoesRecursos.incrementar(Recurso.AREAS_COMUNS);
 
         return convertToDTO(areasComuns);
     }
 
+    @Transactional(readOnly = true)
     public List<AreasComunsDTO> listarTodasAsAreasComuns() {
         List<AreasComuns> areasComunsList = areasComunsRepository.findAll();
 
@@ -48,6 +73,16 @@ public class AreasComunsService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
+    // "nome, id,id" -> "nome,id": a mesma seleção escrita de outro jeito usa a mesma entrada do cache
+    public String normalizarCampos(String fields) {
+        return String.join(",", CAMPOS.selecionar(fields));
+    }
+
     @Transactional
     public AreasComunsDTO atualizarAreaComum(Long id, AreasComunsDTO areasComunsDTO) {
         AreasComuns areasComuns = areasComunsRepository.findById(id)
@@ -62,6 +97,8 @@ public class AreasComunsService {
         }
 
         areasComunsRepository.save(areasComuns);
+        referenciasService.registrarArea(areasComuns);
+        versoesRecursos.incrementar(Recurso.AREAS_COMUNS);
 
         return convertToDTO(areasComuns);
     }
@@ -76,11 +113,13 @@ public class AreasComunsService {
         String nomeAreaComum = areasComuns.getNome();
 
         areasComunsRepository.delete(areasComuns);
+        referenciasService.registrarRemocaoArea(id);
+        versoesRecursos.incrementar(Recurso.AREAS_COMUNS);
 
         return ResponseEntity.ok("A Área de " + nomeAreaComum + " Foi excluída com sucesso.");
     }
 
-    private AreasComunsDTO convertToDTO(AreasComuns areasComuns) {
+    AreasComunsDTO convertToDTO(AreasComuns areasComuns) {
         return new AreasComunsDTO(
                 areasComuns.getId(),
                 areasComuns.getNome(),
@@ -1,11 +1,15 @@
 package com.argus.api.service;
 
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
 import com.argus.api.repository.UsuarioRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class AuthorizationService implements UserDetailsService {
@@ -13,8 +17,28 @@ public class AuthorizationService implements UserDetailsService {
     @Autowired
     UsuarioRepository usuarioRepository;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectProvider<RoteamentoShardDataSource> roteamentoShards;
+
+    // Fica fora das transações readOnly para ler do primário: logo depois do cadastro a réplica
+    // pode ainda não ter o usuário. Com shards, o login ainda não sabe o condomínio, então procura
+    // o CPF em cada banco, uma transação por banco
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return usuarioRepository.findByCpf(username);
+        RoteamentoShardDataSource roteamento = roteamentoShards.getIfAvailable();
+        if (roteamento == null) {
+            return transactionTemplate.execute(status -> usuarioRepository.findByCpf(username));
+        }
+        for (String shard : roteamento.shards()) {
+            UserDetails usuario = ContextoShard.noShard(shard,
+                    () -> transactionTemplate.execute(status -> usuarioRepository.findByCpf(username)));
+            if (usuario != null) {
+                return usuario;
+            }
+        }
+        return null;
     }
 }
@@ -5,19 +5,33 @@ import com.argus.api.domain.model.Condominio;
 import com.argus.api.domain.model.Notificacoes;
 import com.argus.api.domain.model.Usuarios;
 import com.argus.api.dto.ComunicadoDTO;
+import com.argus.api.infra.busca.ConsultaTextual;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.ComunicadoRepository;
 import com.argus.api.repository.CondominioRepository;
 import com.argus.api.repository.NotificacaoRepository;
 import com.argus.api.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ComunicadoService {
 
+    private static final CamposListagem CAMPOS = CamposListagem.de("comunicados m", "m.id")
+            .campo("id", "m.id")
+            .campo("condominioNome", "c.nome", "LEFT JOIN condominios c ON c.id = m.condominio_id", null)
+            .campo("titulo", "m.titulo")
+            .campo("mensagem", "m.mensagem")
+            .construir();
+
     @Autowired
     private ComunicadoRepository comunicadoRepository;
 
@@ -30,12 +44,28 @@ public class ComunicadoService {
     @Autowired
     private NotificacoesService notificacoesService;
 
+    @Autowired
+    private ConsultaTextual consultaTextual;
+
+    @Autowired
+    private VersoesRecursos versoesRecursos;
+
+    @Autowired
+    private ConsultaCampos consultaCampos;
+
+    @Autowired
+    private ReferenciasService referenciasService;
+
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    @Transactional
     public ComunicadoDTO enviarComunicado(ComunicadoDTO comunicadoDTO) {
 
         Usuarios usuario = usuarioRepository.findById(1L)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado."));
 
-        Condominio condominio = condominioRepository.findByNome(comunicadoDTO.condominioNome())
+        Condominio condominio = referenciasService.condominioPorNome(comunicadoDTO.condominioNome())
+                .flatMap(referencia -> condominioRepository.findById(referencia.id()))
                 .orElseThrow(() -> new RuntimeException("Condomínio não encontrado."));
 
         Comunicados comunicado = new Comunicados();
@@ -45,6 +75,7 @@ public class ComunicadoService {
         comunicado.setUsuarios(usuario);
 
         Comunicados salvo = comunicadoRepository.save(comunicado);
+        versoesRecursos.incrementar(Recurso.COMUNICADOS);
         
         notificacoesService.criarNotificacaoComunicado(salvo);
 
@@ -53,6 +84,7 @@ public class ComunicadoService {
          return converterParaDTO(salvo);
     }
 
+    @Transactional(readOnly = true)
     public List<ComunicadoDTO> listarComunicados() {
         List<Comunicados> comunicados = comunicadoRepository.findAll();
 
@@ -61,6 +93,24 @@ public class ComunicadoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ComunicadoDTO> buscarPorTexto(String texto, int limite) {
+        String termos = consultaTextual.montar(texto);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        return comunicadoRepository.buscarPorTexto(termos, Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BUSCA)).stream()
+                .map(this::converterParaDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public ComunicadoDTO atualizarComunicado(Long id, String novaMensagem, String novoTitulo) {
 
         Comunicados comunicado = comunicadoRepository.findById(id)
@@ -70,18 +120,21 @@ public class ComunicadoService {
         comunicado.setTitulo(novoTitulo);  
 
         Comunicados comunicadoAtualizado = comunicadoRepository.save(comunicado);
+        versoesRecursos.incrementar(Recurso.COMUNICADOS);
 
         return converterParaDTO(comunicadoAtualizado);
     }
 
+    @Transactional
     public void excluirComunicado(Long id) {
         Comunicados comunicado = comunicadoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comunicado não encontrado."));
 
         comunicadoRepository.delete(comunicado);
+        versoesRecursos.incrementar(Recurso.COMUNICADOS);
     }
 
-    private ComunicadoDTO converterParaDTO(Comunicados comunicado) {
+    ComunicadoDTO converterParaDTO(Comunicados comunicado) {
         return new ComunicadoDTO(
                 comunicado.getId(),
                 comunicado.getCondominio().getNome(),
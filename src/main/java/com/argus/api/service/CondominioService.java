@@ -2,43 +2,85 @@ package com.argus.api.service;
 
 import com.argus.api.domain.model.Condominio;
 import com.argus.api.dto.CondominioDTO;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.CondominioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CondominioService {
+
+    private static final CamposListagem CAMPOS = CamposListagem.de("condominios c", "c.id")
+            .campo("id", "c.id")
+            .campo("nome", "c.nome")
+            .campo("endereco", "c.endereco")
+            .campo("createdAt", "c.created_at")
+            .campo("updatedAt", "c.updated_at")
+            .construir();
+
     @Autowired
     private CondominioRepository condominioRepository;
 
+    @Autowired
+    private VersoesRecursos versoesRecursos;
+
+    @Autowired
+    private ConsultaCampos consultaCampos;
+
+    @Autowired
+    private ReferenciasService referenciasService;
+
+    @Transactional
     public Condominio createCondominio(CondominioDTO condominioDTO) {
         Condominio condominio = new Condominio();
         condominio.setNome(condominioDTO.nome());
         condominio.setEndereco(condominioDTO.endereco());
-        return condominioRepository.save(condominio);
+        Condominio salvo = condominioRepository.save(condominio);
+        referenciasService.registrarCondominio(salvo);
+        versoesRecursos.incrementar(Recurso.CONDOMINIOS);
+        return salvo;
     }
 
+    @Transactional(readOnly = true)
     public List<Condominio> getAllCondominios() {
         return condominioRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
+    // "nome, id,id" -> "nome,id": a mesma seleção escrita de outro jeito usa a mesma entrada do cache
+    public String normalizarCampos(String fields) {
+        return String.join(",", CAMPOS.selecionar(fields));
+    }
+
+    @Transactional(readOnly = true)
     public Condominio getCondominioById(Long id) throws Exception {
         return condominioRepository.findById(id).orElse(null);
     }
 
+    @Transactional
     public Condominio updateCondominio(Long id, CondominioDTO condominioDTO) {
         Condominio condominio = condominioRepository.findById(id).orElse(null);
         if (condominio != null) {
             condominio.setNome(condominioDTO.nome());
             condominio.setEndereco(condominioDTO.endereco());
-            return condominioRepository.save(condominio);
+            Condominio atualizado = condominioRepository.save(condominio);
+            referenciasService.registrarCondominio(atualizado);
+            // o nome do condomínio aparece nas listagens de áreas, sessões e comunicados
+            versoesRecursos.incrementar(Recurso.CONDOMINIOS, Recurso.AREAS_COMUNS,
+                    Recurso.SESSOES_VOTACAO, Recurso.COMUNICADOS);
+            return atualizado;
         }
         return null;
     }
-
-    public void deleteCondominio(Long id) {
-        condominioRepository.deleteById(id);
-    }
 }
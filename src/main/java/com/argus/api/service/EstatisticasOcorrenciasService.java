@@ -0,0 +1,205 @@
+package com.argus.api.service;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.argus.api.domain.model.Ocorrencias;
+import com.argus.api.domain.model.Ocorrencias.StatusAprovacao;
+import com.argus.api.domain.model.Ocorrencias.StatusResolucao;
+import com.argus.api.domain.model.Ocorrencias.TipoOcorrencia;
+import com.argus.api.dto.OcorrenciasEstatisticasDTO;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.argus.api.infra.transacao.ContadoresAposCommit;
+import com.argus.api.repository.OcorrenciasRepository;
+
+// Contadores das ocorrências por condomínio e por mês, mantidos por deltas a cada escrita do
+// OcorrenciasService. Cada ocorrência é somada em quatro chaves (condomínio/mês, condomínio,
+// mês e geral), então qualquer consulta é uma única leitura no mapa. O recálculo soma a agregação
+// de todos os bancos, já que os ids não se repetem entre eles.
+@Service
+public class EstatisticasOcorrenciasService {
+
+    private final OcorrenciasRepository ocorrenciasRepository;
+    private final RoteamentoShardDataSource roteamentoShards;
+
+    private final ContadoresAposCommit<Chave, Contadores> contadores = new ContadoresAposCommit<>();
+
+    public EstatisticasOcorrenciasService(OcorrenciasRepository ocorrenciasRepository,
+                                          ObjectProvider<RoteamentoShardDataSource> roteamentoShards) {
+        this.ocorrenciasRepository = ocorrenciasRepository;
+        this.roteamentoShards = roteamentoShards.getIfAvailable();
+    }
+
+    public OcorrenciasEstatisticasDTO consultar(Long condominioId, YearMonth mes) {
+        Contadores encontrados = contadores.buscar(new Chave(condominioId, mes));
+        return (encontrados != null ? encontrados : new Contadores()).toDTO(condominioId, mes);
+    }
+
+    void registrarCriacao(Ocorrencias ocorrencia) {
+        Registro novo = Registro.de(ocorrencia);
+        contadores.aposCommit(mapa -> aplicar(mapa, novo, 1));
+    }
+
+    void registrarAtualizacao(Registro anterior, Ocorrencias ocorrencia) {
+        Registro novo = Registro.de(ocorrencia);
+        if (novo.equals(anterior)) {
+            return;
+        }
+        contadores.aposCommit(mapa -> {
+            aplicar(mapa, anterior, -1);
+            aplicar(mapa, novo, 1);
+        });
+    }
+
+    void registrarRemocao(Registro anterior) {
+        contadores.aposCommit(mapa -> aplicar(mapa, anterior, -1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcular() {
+        contadores.recalcular(() -> {
+            Map<Chave, Contadores> novos = new ConcurrentHashMap<>();
+            for (String shard : shards()) {
+                for (Object[] linha : agregar(shard)) {
+                    somar(novos, linha);
+                }
+            }
+            return novos;
+        });
+    }
+
+    private List<Object[]> agregar(String shard) {
+        return roteamentoShards != null
+                ? ContextoShard.noShard(shard, ocorrenciasRepository::agregarEstatisticas)
+                : ocorrenciasRepository.agregarEstatisticas();
+    }
+
+    private Collection<String> shards() {
+        return roteamentoShards != null ? roteamentoShards.shards() : List.of("");
+    }
+
+    private static void somar(Map<Chave, Contadores> novos, Object[] linha) {
+        Long condominioId = linha[0] != null ? ((Number) linha[0]).longValue() : null;
+        YearMonth mes = YearMonth.parse((String) linha[1]);
+        Registro registro = new Registro(
+                condominioId,
+                mes,
+                TipoOcorrencia.valueOf((String) linha[2]),
+                linha[3] != null ? StatusAprovacao.valueOf((String) linha[3]) : null,
+                StatusResolucao.valueOf((String) linha[4]),
+                0L);
+        long quantidade = ((Number) linha[5]).longValue();
+        long segundosResolucao = ((Number) linha[6]).longValue();
+        long resolvidas = ((Number) linha[7]).longValue();
+
+        for (Chave chave : Chave.de(condominioId, mes)) {
+            novos.computeIfAbsent(chave, c -> new Contadores())
+                    .somar(registro, quantidade, segundosResolucao, resolvidas);
+        }
+    }
+
+    private static void aplicar(Map<Chave, Contadores> mapa, Registro registro, int sinal) {
+        long resolvidas = registro.segundosResolucao() >= 0 ? sinal : 0;
+        long segundos = registro.segundosResolucao() >= 0 ? sinal * registro.segundosResolucao() : 0;
+
+        for (Chave chave : Chave.de(registro.condominioId(), registro.mes())) {
+            mapa.computeIfAbsent(chave, c -> new Contadores())
+                    .somar(registro, sinal, segundos, resolvidas);
+        }
+    }
+
+    // Estado de uma ocorrência que importa para os contadores; segundosResolucao é -1 enquanto não resolvida
+    record Registro(
+            Long condominioId,
+            YearMonth mes,
+            TipoOcorrencia tipo,
+            StatusAprovacao statusAprovacao,
+            StatusResolucao statusResolucao,
+            long segundosResolucao
+    ) {
+        static Registro de(Ocorrencias ocorrencia) {
+            var condominio = ocorrencia.getUsuario().getCondominio();
+            long segundos = ocorrencia.getDataResolucao() != null
+                    ? Duration.between(ocorrencia.getDataCriacao(), ocorrencia.getDataResolucao()).getSeconds()
+                    : -1;
+            return new Registro(
+                    condominio != null ? condominio.getId() : null,
+                    YearMonth.from(ocorrencia.getDataCriacao()),
+                    ocorrencia.getTipo(),
+                    ocorrencia.getStatusAprovacao(),
+                    ocorrencia.getStatusResolucao(),
+                    segundos);
+        }
+    }
+
+    // condominioId ou mes nulos significam "todos"
+    private record Chave(Long condominioId, YearMonth mes) {
+        static List<Chave> de(Long condominioId, YearMonth mes) {
+            return List.of(
+                    new Chave(condominioId, mes),
+                    new Chave(condominioId, null),
+                    new Chave(null, mes),
+                    new Chave(null, null));
+        }
+    }
+
+    private static class Contadores {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] porTipo = novos(TipoOcorrencia.values().length);
+        private final LongAdder[] porStatusAprovacao = novos(StatusAprovacao.values().length);
+        private final LongAdder[] porStatusResolucao = novos(StatusResolucao.values().length);
+        private final LongAdder segundosResolucao = new LongAdder();
+        private final LongAdder resolvidas = new LongAdder();
+
+        void somar(Registro registro, long quantidade, long segundos, long quantidadeResolvidas) {
+            total.add(quantidade);
+            porTipo[registro.tipo().ordinal()].add(quantidade);
+            if (registro.statusAprovacao() != null) {
+                porStatusAprovacao[registro.statusAprovacao().ordinal()].add(quantidade);
+            }
+            porStatusResolucao[registro.statusResolucao().ordinal()].add(quantidade);
+            segundosResolucao.add(segundos);
+            resolvidas.add(quantidadeResolvidas);
+        }
+
+        OcorrenciasEstatisticasDTO toDTO(Long condominioId, YearMonth mes) {
+            long quantidadeResolvidas = resolvidas.sum();
+            return new OcorrenciasEstatisticasDTO(
+                    condominioId,
+                    mes != null ? mes.toString() : null,
+                    total.sum(),
+                    contagem(TipoOcorrencia.class, porTipo),
+                    contagem(StatusAprovacao.class, porStatusAprovacao),
+                    contagem(StatusResolucao.class, porStatusResolucao),
+                    quantidadeResolvidas > 0 ? segundosResolucao.sum() / 3600.0 / quantidadeResolvidas : null);
+        }
+
+        private static LongAdder[] novos(int tamanho) {
+            LongAdder[] adders = new LongAdder[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private static <E extends Enum<E>> Map<E, Long> contagem(Class<E> tipo, LongAdder[] adders) {
+            Map<E, Long> mapa = new EnumMap<>(tipo);
+            for (E valor : tipo.getEnumConstants()) {
+                mapa.put(valor, adders[valor.ordinal()].sum());
+            }
+            return mapa;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.argus.api.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.dto.ImportacaoUsuariosDTO;
+import com.argus.api.dto.ImportacaoUsuariosDTO.ErroImportacao;
+import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.csv.LeitorCsv;
+
+import jakarta.annotation.PreDestroy;
+
+// Importação em massa de moradores a partir de um CSV com cabeçalho (nome, cpf, senha, telefone,
+// tipoDoUsuario, bloco, apartamento; as duas últimas opcionais). O arquivo é lido em blocos: cada
+// bloco é validado, tem os CPFs conferidos com uma única consulta, as senhas codificadas em paralelo
+// e é gravado com um batch JDBC na sua própria transação. As linhas com problema não impedem as
+// demais e voltam no relatório com o número da linha no arquivo. Um registro com aspas não fechadas
+// encerra a leitura, e o relatório mostra o que foi importado até ali. Ninguém cria por importação
+// um usuário de papel acima do próprio: síndicos e subsíndicos não criam ADMIN, nem subsíndicos criam
+// síndicos.
+@Service
+public class ImportacaoUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoUsuariosService.class);
+
+    private static final String INSERT = "INSERT INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, bloco, "
+            + "apartamento, condominio_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] TIPOS = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.CHAR, Types.INTEGER, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+    private static final List<String> COLUNAS_OBRIGATORIAS = List.of("nome", "cpf", "senha", "telefone", "tipodousuario");
+
+    private final ReferenciasService referenciasService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogAuditoria logAuditoria;
+    private final int tamanhoBloco;
+    private final int maximoErros;
+
+    // compartilhado entre as importações: o BCrypt é caro e não pode tomar todos os núcleos
+    private final ExecutorService codificacaoSenhas;
+
+    public ImportacaoUsuariosService(ReferenciasService referenciasService,
+                                     PasswordEncoder passwordEncoder,
+                                     JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     LogAuditoria logAuditoria,
+                                     @Value("${api.importacao.threads-senha:0}") int threadsSenha,
+                                     @Value("${api.importacao.tamanho-bloco:500}") int tamanhoBloco,
+                                     @Value("${api.importacao.maximo-erros:1000}") int maximoErros) {
+        this.referenciasService = referenciasService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.logAuditoria = logAuditoria;
+        this.tamanhoBloco = tamanhoBloco;
+        this.maximoErros = maximoErros;
+
+        int threads = threadsSenha > 0 ? threadsSenha : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        this.codificacaoSenhas = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "importacao-senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        codificacaoSenhas.shutdownNow();
+    }
+
+    public ImportacaoUsuariosDTO importar(String nomeCondominio, InputStream csv, TipoDoUsuario papelDoImportador)
+            throws IOException {
+        Long condominioId = referenciasService.condominioPorNome(nomeCondominio)
+                .orElseThrow(() -> new CondominioNotFoundException("Condomínio não encontrado")).id();
+        return importar(condominioId, csv, papelDoImportador);
+    }
+
+    public ImportacaoUsuariosDTO importar(Long condominioId, InputStream csv, TipoDoUsuario papelDoImportador)
+            throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<String> cabecalho = new ArrayList<>();
+        LeitorCsv registros = LeitorCsv.comCabecalho(leitor, cabecalho);
+        Colunas colunas = Colunas.de(cabecalho);
+
+        Relatorio relatorio = new Relatorio(maximoErros);
+        Set<String> cpfsDoArquivo = new HashSet<>();
+        List<Linha> bloco = new ArrayList<>(tamanhoBloco);
+
+        while (true) {
+            List<String> campos;
+            try {
+                campos = registros.proximo();
+            } catch (IllegalArgumentException e) {
+                // aspas não fechadas: o resto do arquivo virou um único campo, então a leitura para
+                // aqui; os blocos anteriores já foram gravados e as linhas lidas até então também são
+                relatorio.lidas++;
+                relatorio.erro(registros.linha(), null, e.getMessage() + " Importação interrompida.");
+                break;
+            }
+            if (campos == null) {
+                break;
+            }
+            relatorio.lidas++;
+            Linha linha = colunas.ler(registros.linha(), campos, papelDoImportador, relatorio);
+            if (linha == null) {
+                continue;
+            }
+            if (!cpfsDoArquivo.add(linha.cpf())) {
+                relatorio.erro(linha.numero(), linha.cpf(), "CPF repetido no arquivo.");
+                continue;
+            }
+            bloco.add(linha);
+            if (bloco.size() == tamanhoBloco) {
+                gravarBloco(bloco, condominioId, relatorio);
+                bloco.clear();
+            }
+        }
+        gravarBloco(bloco, condominioId, relatorio);
+
+        return relatorio.toDTO();
+    }
+
+    private void gravarBloco(List<Linha> bloco, Long condominioId, Relatorio relatorio) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+
+        // uma consulta para o bloco inteiro em vez de uma por linha
+        Set<String> existentes = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT cpf FROM usuarios WHERE cpf IN (:cpfs)",
+                new MapSqlParameterSource("cpfs", bloco.stream().map(Linha::cpf).toList()),
+                String.class));
+        List<Linha> novas = new ArrayList<>(bloco.size());
+        for (Linha linha : bloco) {
+            if (existentes.contains(linha.cpf())) {
+                relatorio.erro(linha.numero(), linha.cpf(), "CPF já cadastrado.");
+            } else {
+                novas.add(linha);
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> senhas = novas.stream()
+                .map(linha -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(linha.senha()), codificacaoSenhas))
+                .toList();
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> valores = new ArrayList<>(novas.size());
+        for (int i = 0; i < novas.size(); i++) {
+            valores.add(novas.get(i).valores(senhas.get(i).join(), condominioId, agora));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT, valores, TIPOS);
+                auditar(novas);
+            });
+            relatorio.importadas += novas.size();
+        } catch (DataIntegrityViolationException e) {
+            // outro cadastro com o mesmo CPF entrou entre a consulta e o insert, ou alguma linha tem um
+            // valor que o banco recusa: grava linha a linha para separar as boas das ruins
+            List<Linha> gravadas = new ArrayList<>(novas.size());
+            for (int i = 0; i < novas.size(); i++) {
+                Linha linha = novas.get(i);
+                try {
+                    jdbcTemplate.update(INSERT, valores.get(i));
+                    gravadas.add(linha);
+                    relatorio.importadas++;
+                } catch (DataIntegrityViolationException recusada) {
+                    // a violação não diz qual constraint foi; o CPF é a única chave única da tabela
+                    if (cpfCadastrado(linha.cpf())) {
+                        relatorio.erro(linha.numero(), linha.cpf(), "CPF já cadastrado.");
+                    } else {
+                        log.warn("Linha {} da importação recusada pelo banco: {}", linha.numero(),
+                                recusada.getMostSpecificCause().getMessage());
+                        relatorio.erro(linha.numero(), linha.cpf(), "Dados recusados pelo banco.");
+                    }
+                }
+            }
+            auditar(gravadas);
+        }
+    }
+
+    private boolean cpfCadastrado(String cpf) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios WHERE cpf = ?", Integer.class, cpf) > 0;
+    }
+
+    // como no cadastro, cada usuário criado vai para a trilha com o papel recebido; o batch não
+    // devolve os ids, que são lidos pelos CPFs
+    private void auditar(List<Linha> gravadas) {
+        if (gravadas.isEmpty()) {
+            return;
+        }
+        Map<String, TipoDoUsuario> papeis = new HashMap<>();
+        gravadas.forEach(linha -> papeis.put(linha.cpf(), linha.tipo()));
+        namedJdbcTemplate.query("SELECT id, cpf FROM usuarios WHERE cpf IN (:cpfs)",
+                new MapSqlParameterSource("cpfs", papeis.keySet()),
+                (RowCallbackHandler) rs -> logAuditoria.registrar(AcaoAuditoria.USUARIO_CRIADO, rs.getLong("id"),
+                        "papel=" + papeis.get(rs.getString("cpf")) + " importacao"));
+    }
+
+    private record Linha(long numero, String nome, String cpf, String senha, String telefone,
+                         TipoDoUsuario tipo, String bloco, Integer apartamento) {
+        Object[] valores(String senhaCodificada, Long condominioId, Timestamp agora) {
+            return new Object[]{nome, cpf, senhaCodificada, telefone, tipo.name(), bloco, apartamento, condominioId, agora, agora};
+        }
+    }
+
+    // Posição de cada coluna no cabeçalho, que pode vir em qualquer ordem e caixa
+    private record Colunas(int nome, int cpf, int senha, int telefone, int tipo, int bloco, int apartamento) {
+
+        static Colunas de(List<String> cabecalho) {
+            List<String> nomes = cabecalho.stream().map(coluna -> coluna.toLowerCase(Locale.ROOT)).toList();
+            for (String obrigatoria : COLUNAS_OBRIGATORIAS) {
+                if (!nomes.contains(obrigatoria)) {
+                    throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+                }
+            }
+            return new Colunas(nomes.indexOf("nome"), nomes.indexOf("cpf"), nomes.indexOf("senha"),
+                    nomes.indexOf("telefone"), nomes.indexOf("tipodousuario"), nomes.indexOf("bloco"),
+                    nomes.indexOf("apartamento"));
+        }
+
+        Linha ler(long numero, List<String> campos, TipoDoUsuario papelDoImportador, Relatorio relatorio) {
+            String cpf = campo(campos, this.cpf);
+            String nome = campo(campos, this.nome);
+            String senha = campo(campos, this.senha);
+            String telefone = campo(campos, this.telefone);
+            String tipo = campo(campos, this.tipo);
+            String bloco = campo(campos, this.bloco);
+            String apartamento = campo(campos, this.apartamento);
+
+            String problema = null;
+            TipoDoUsuario tipoDoUsuario = null;
+            Integer numeroApartamento = null;
+            if (nome.isEmpty() || nome.length() > 50) {
+                problema = "Nome obrigatório, com até 50 caracteres.";
+            } else if (cpf.isEmpty() || cpf.length() > 14) {
+                problema = "CPF obrigatório, com até 14 caracteres.";
+            } else if (senha.isEmpty()) {
+                problema = "Senha obrigatória.";
+            } else if (telefone.isEmpty()) {
+                problema = "Telefone obrigatório.";
+            } else if (bloco.length() > 1) {
+                problema = "O bloco deve ter um caractere.";
+            } else {
+                try {
+                    tipoDoUsuario = TipoDoUsuario.valueOf(tipo.toUpperCase(Locale.ROOT));
+                    numeroApartamento = apartamento.isEmpty() ? null : Integer.valueOf(apartamento);
+                } catch (IllegalArgumentException e) {
+                    problema = tipoDoUsuario == null ? "Tipo de usuário inválido: " + tipo : "Apartamento inválido: " + apartamento;
+                }
+                // o enum vai do papel mais alto (ADMIN) ao mais baixo
+                if (problema == null && tipoDoUsuario.compareTo(papelDoImportador) < 0) {
+                    problema = "Sem permissão para criar usuário " + tipoDoUsuario + ".";
+                }
+            }
+
+            if (problema != null) {
+                relatorio.erro(numero, cpf, problema);
+                return null;
+            }
+            return new Linha(numero, nome, cpf, senha, telefone, tipoDoUsuario, bloco.isEmpty() ? null : bloco, numeroApartamento);
+        }
+
+        private static String campo(List<String> campos, int indice) {
+            return indice >= 0 && indice < campos.size() ? campos.get(indice).strip() : "";
+        }
+    }
+
+    private static final class Relatorio {
+        private final int maximoErros;
+        private final List<ErroImportacao> erros = new ArrayList<>();
+        private long lidas;
+        private long importadas;
+        private long totalErros;
+
+        Relatorio(int maximoErros) {
+            this.maximoErros = maximoErros;
+        }
+
+        void erro(long linha, String cpf, String mensagem) {
+            totalErros++;
+            if (erros.size() < maximoErros) {
+                erros.add(new ErroImportacao(linha, cpf, mensagem));
+            }
+        }
+
+        ImportacaoUsuariosDTO toDTO() {
+            return new ImportacaoUsuariosDTO(lidas, importadas, totalErros, erros);
+        }
+    }
+}
@@ -5,14 +5,20 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.argus.api.domain.model.Comunicados;
 import com.argus.api.domain.model.Notificacoes;
 import com.argus.api.domain.model.Reservas;
 import com.argus.api.dto.NotificacaoDTO;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
 import com.argus.api.repository.NotificacaoRepository;
 import com.argus.api.repository.UsuarioRepository;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class NotificacoesService {
 
@@ -22,6 +28,10 @@ public class NotificacoesService {
 	@Autowired
 	private UsuarioRepository usuarioRepository;
 
+	@Autowired
+	private VersoesRecursos versoesRecursos;
+
+	@Transactional
 	public NotificacaoDTO criarNotificacaoComunicado(Comunicados comunicado) {
 		Notificacoes notificacao = new Notificacoes();
 		notificacao.setTitulo("Novo Comunicado: " + comunicado.getTitulo());
@@ -29,16 +39,19 @@ public class NotificacoesService {
 		notificacao.setComunicado(comunicado); 
 
 		Notificacoes novaNotificacao = notificacaoRepository.save(notificacao);
-		System.out.println("[DEBUG] [criarNotificacaoTodos] Notificação criada e associada ao comunicado ID: " + comunicado.getId());
+		versoesRecursos.incrementar(Recurso.NOTIFICACOES);
+		log.debug("Notificação criada e associada ao comunicado ID: {}", comunicado.getId());
 
 		return toDTO(novaNotificacao);
 	}
 
-	public NotificacaoDTO criarNotificacaoReserva(Reservas reserva) {
+	@Transactional
+	// o nome da área vem de quem chama, para não carregar a área só por ele
+	public NotificacaoDTO criarNotificacaoReserva(Reservas reserva, String areaNome) {
 	    Notificacoes notificacao = new Notificacoes();
-	    notificacao.setTitulo("Nova Reserva: " + reserva.getAreasComuns().getNome());
+	    notificacao.setTitulo("Nova Reserva: " + areaNome);
 	    notificacao.setCorpoDeTexto(
-	        "Reserva para a área " + reserva.getAreasComuns().getNome() + 
+	        "Reserva para a área " + areaNome + 
 	        " em " + reserva.getDataReserva() + 
 	        " das " + reserva.getHoraInicio() + 
 	        " até " + reserva.getHoraFim()
@@ -47,7 +60,8 @@ public class NotificacoesService {
 
 	    // Salva a notificação no banco
 	    Notificacoes novaNotificacao = notificacaoRepository.save(notificacao);
-	    System.out.println("[DEBUG] [criarNotificacaoReserva] Notificação criada para a reserva ID: " + reserva.getId());
+	    versoesRecursos.incrementar(Recurso.NOTIFICACOES);
+	    log.debug("Notificação criada para a reserva ID: {}", reserva.getId());
 
 	    return toDTO(novaNotificacao);
 	}
@@ -55,6 +69,7 @@ public class NotificacoesService {
 
 
 
+	@Transactional(readOnly = true)
 	public List<NotificacaoDTO> buscarUltimasNotificacoes() {
 		List<Notificacoes> notificacoes = notificacaoRepository.findTop10ByOrderByIdDesc();
 		List<NotificacaoDTO> notificacoesDTO = new ArrayList<>();
@@ -66,9 +81,11 @@ public class NotificacoesService {
 		return notificacoesDTO;
 	}
 
+	@Transactional
 	public boolean deletarNotificacao(Long id) {
 		if (notificacaoRepository.existsById(id)) {
 			notificacaoRepository.deleteById(id);
+			versoesRecursos.incrementar(Recurso.NOTIFICACOES);
 			return true;  
 		} else {
 			return false; 
@@ -3,6 +3,9 @@ package com.argus.api.service;
 import com.argus.api.domain.model.Ocorrencias;
 import com.argus.api.domain.model.Usuarios;
 import com.argus.api.dto.OcorrenciasDTO;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.busca.ConsultaTextual;
 import com.argus.api.repository.OcorrenciasRepository;
 import com.argus.api.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +21,12 @@ import java.util.stream.Collectors;
 public class OcorrenciasService {
     private final OcorrenciasRepository ocorrenciasRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ConsultaTextual consultaTextual;
+    private final EstatisticasOcorrenciasService estatisticasOcorrenciasService;
+    private final LogAuditoria logAuditoria;
+    private final AnexosService anexosService;
+
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
 
     @Transactional
     public OcorrenciasDTO criarOcorrencia(OcorrenciasDTO ocorrenciaDTO) {
@@ -32,15 +41,30 @@ public class OcorrenciasService {
         ocorrencia.setUsuario(usuario);
 
         Ocorrencias salva = ocorrenciasRepository.save(ocorrencia);
+        estatisticasOcorrenciasService.registrarCriacao(salva);
         return converterParaDTO(salva);
     }
 
+    @Transactional(readOnly = true)
     public List<OcorrenciasDTO> listarTodasOcorrencias() {
         return ocorrenciasRepository.findAll().stream()
                 .map(this::converterParaDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<OcorrenciasDTO> buscarPorTexto(String texto, int limite) {
+        String termos = consultaTextual.montar(texto);
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        return ocorrenciasRepository.buscarPorTexto(termos, Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BUSCA)).stream()
+                .map(this::converterParaDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
     public OcorrenciasDTO buscarOcorrenciaPorId(Long id) {
         Ocorrencias ocorrencia = ocorrenciasRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada"));
@@ -51,6 +75,9 @@ public class OcorrenciasService {
     public OcorrenciasDTO atualizarOcorrencia(Long id, OcorrenciasDTO ocorrenciaDTO) {
         Ocorrencias ocorrenciaExistente = ocorrenciasRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ocorrência não encontrada"));
+        EstatisticasOcorrenciasService.Registro anterior = EstatisticasOcorrenciasService.Registro.de(ocorrenciaExistente);
+        Ocorrencias.StatusAprovacao aprovacaoAnterior = ocorrenciaExistente.getStatusAprovacao();
+        Ocorrencias.StatusResolucao resolucaoAnterior = ocorrenciaExistente.getStatusResolucao();
 
         ocorrenciaExistente.setTitulo(ocorrenciaDTO.getTitulo());
         ocorrenciaExistente.setDescricao(ocorrenciaDTO.getDescricao());
@@ -58,16 +85,35 @@ public class OcorrenciasService {
         ocorrenciaExistente.setStatusAprovacao(ocorrenciaDTO.getStatusAprovacao());
         ocorrenciaExistente.setStatusResolucao(ocorrenciaDTO.getStatusResolucao());
 
+        if (ocorrenciaDTO.getStatusResolucao() != Ocorrencias.StatusResolucao.CONCLUIDA) {
+            ocorrenciaExistente.setDataResolucao(null);
+        } else if (resolucaoAnterior != Ocorrencias.StatusResolucao.CONCLUIDA) {
+            // só na transição: ocorrências concluídas antes da coluna existir continuam sem data
+            ocorrenciaExistente.setDataResolucao(LocalDateTime.now());
+        }
+
         Ocorrencias atualizada = ocorrenciasRepository.save(ocorrenciaExistente);
+        estatisticasOcorrenciasService.registrarAtualizacao(anterior, atualizada);
+        if (aprovacaoAnterior != atualizada.getStatusAprovacao() || resolucaoAnterior != atualizada.getStatusResolucao()) {
+            logAuditoria.registrar(AcaoAuditoria.OCORRENCIA_STATUS_ALTERADO, id,
+                    "aprovacao=" + aprovacaoAnterior + "->" + atualizada.getStatusAprovacao()
+                            + " resolucao=" + resolucaoAnterior + "->" + atualizada.getStatusResolucao());
+        }
         return converterParaDTO(atualizada);
     }
 
     @Transactional
     public void deletarOcorrencia(Long id) {
-        ocorrenciasRepository.deleteById(id);
+        ocorrenciasRepository.findById(id).ifPresent(ocorrencia -> {
+            EstatisticasOcorrenciasService.Registro anterior = EstatisticasOcorrenciasService.Registro.de(ocorrencia);
+            // os anexos referenciam a ocorrência (fk_anexos_ocorrencia) e saem antes dela
+            anexosService.excluirDaOcorrencia(id);
+            ocorrenciasRepository.delete(ocorrencia);
+            estatisticasOcorrenciasService.registrarRemocao(anterior);
+        });
     }
 
-    private OcorrenciasDTO converterParaDTO(Ocorrencias ocorrencia) {
+    OcorrenciasDTO converterParaDTO(Ocorrencias ocorrencia) {
         OcorrenciasDTO dto = new OcorrenciasDTO();
         dto.setId(ocorrencia.getId());
         dto.setTitulo(ocorrencia.getTitulo());
@@ -76,6 +122,7 @@ public class OcorrenciasService {
         dto.setStatusAprovacao(ocorrencia.getStatusAprovacao());
         dto.setStatusResolucao(ocorrencia.getStatusResolucao());
         dto.setDataCriacao(ocorrencia.getDataCriacao());
+        dto.setDataResolucao(ocorrencia.getDataResolucao());
         dto.setIdUsuario(ocorrencia.getUsuario().getId());
         dto.setIdArea(ocorrencia.getArea() != null ? ocorrencia.getArea().getId() : null);
         return dto;
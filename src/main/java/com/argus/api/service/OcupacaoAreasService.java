@@ -0,0 +1,174 @@
+package com.argus.api.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.argus.api.domain.model.Reservas;
+import com.argus.api.dto.OcupacaoAreaDTO;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.argus.api.infra.transacao.ContadoresAposCommit;
+import com.argus.api.repository.AreasComunsRepository;
+import com.argus.api.repository.ReservasRepository;
+
+// Mapa de calor da ocupação das áreas comuns por dia da semana e hora, mantido por deltas a cada
+// reserva criada ou excluída pelo ReservasService. Cada reserva é somada em duas chaves (área/mês e
+// área), em arrays de 7 x 24 posições com a quantidade de reservas e os minutos reservados em cada
+// hora; a consulta só copia os arrays, sem ler o histórico. Uma reserva que termina à meia-noite
+// (ou antes do início) ocupa até o fim do dia. O recálculo soma as reservas de todos os bancos, já
+// que os ids das áreas não se repetem entre eles.
+@Service
+public class OcupacaoAreasService {
+
+    private static final int HORAS = 24;
+    private static final int POSICOES = 7 * HORAS;
+
+    private final ReservasRepository reservasRepository;
+    private final AreasComunsRepository areasComunsRepository;
+    private final RoteamentoShardDataSource roteamentoShards;
+
+    private final ContadoresAposCommit<Chave, Ocupacao> ocupacoes = new ContadoresAposCommit<>();
+
+    public OcupacaoAreasService(ReservasRepository reservasRepository, AreasComunsRepository areasComunsRepository,
+                                ObjectProvider<RoteamentoShardDataSource> roteamentoShards) {
+        this.reservasRepository = reservasRepository;
+        this.areasComunsRepository = areasComunsRepository;
+        this.roteamentoShards = roteamentoShards.getIfAvailable();
+    }
+
+    public OcupacaoAreaDTO consultar(Long areaId, YearMonth mes) {
+        Ocupacao encontrada = ocupacoes.buscar(new Chave(areaId, mes));
+        return (encontrada != null ? encontrada : new Ocupacao()).toDTO(areaId, mes);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean areaDoCondominio(Long areaId, Long condominioId) {
+        return areasComunsRepository.existsByIdAndCondominioId(areaId, condominioId);
+    }
+
+    void registrarCriacao(Reservas reserva) {
+        Registro novo = Registro.de(reserva);
+        ocupacoes.aposCommit(mapa -> aplicar(mapa, novo, 1));
+    }
+
+    void registrarRemocao(Reservas reserva) {
+        Registro anterior = Registro.de(reserva);
+        ocupacoes.aposCommit(mapa -> aplicar(mapa, anterior, -1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcular() {
+        ocupacoes.recalcular(() -> {
+            Map<Chave, Ocupacao> novas = new ConcurrentHashMap<>();
+            for (String shard : shards()) {
+                for (Object[] linha : agregar(shard)) {
+                    Registro registro = new Registro(
+                            ((Number) linha[0]).longValue(),
+                            LocalDate.parse((String) linha[1]),
+                            LocalTime.parse((String) linha[2]),
+                            LocalTime.parse((String) linha[3]));
+                    aplicar(novas, registro, ((Number) linha[4]).intValue());
+                }
+            }
+            return novas;
+        });
+    }
+
+    private List<Object[]> agregar(String shard) {
+        return roteamentoShards != null
+                ? ContextoShard.noShard(shard, reservasRepository::agregarOcupacao)
+                : reservasRepository.agregarOcupacao();
+    }
+
+    private Collection<String> shards() {
+        return roteamentoShards != null ? roteamentoShards.shards() : List.of("");
+    }
+
+    private static void aplicar(Map<Chave, Ocupacao> mapa, Registro registro, int quantidade) {
+        for (Chave chave : Chave.de(registro)) {
+            mapa.computeIfAbsent(chave, c -> new Ocupacao()).somar(registro, quantidade);
+        }
+    }
+
+    record Registro(long areaId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        static Registro de(Reservas reserva) {
+            return new Registro(reserva.getAreasComuns().getId(), reserva.getDataReserva(),
+                    reserva.getHoraInicio(), reserva.getHoraFim());
+        }
+    }
+
+    // mes nulo significa "todos os meses"
+    private record Chave(Long areaId, YearMonth mes) {
+        static List<Chave> de(Registro registro) {
+            return List.of(new Chave(registro.areaId(), YearMonth.from(registro.data())), new Chave(registro.areaId(), null));
+        }
+    }
+
+    private static class Ocupacao {
+        private final LongAdder total = new LongAdder();
+        private final AtomicIntegerArray reservas = new AtomicIntegerArray(POSICOES);
+        private final AtomicIntegerArray minutos = new AtomicIntegerArray(POSICOES);
+
+        void somar(Registro registro, int quantidade) {
+            int dia = registro.data().getDayOfWeek().ordinal();
+            int inicio = registro.horaInicio().toSecondOfDay() / 60;
+            int fim = registro.horaFim().toSecondOfDay() / 60;
+            if (fim <= inicio) {
+                fim = HORAS * 60;
+            }
+            total.add(quantidade);
+            for (int hora = inicio / 60; hora * 60 < fim; hora++) {
+                int ocupados = Math.min(fim, (hora + 1) * 60) - Math.max(inicio, hora * 60);
+                reservas.addAndGet(dia * HORAS + hora, quantidade);
+                minutos.addAndGet(dia * HORAS + hora, quantidade * ocupados);
+            }
+        }
+
+        OcupacaoAreaDTO toDTO(Long areaId, YearMonth mes) {
+            Map<DayOfWeek, int[]> reservasPorHora = new EnumMap<>(DayOfWeek.class);
+            Map<DayOfWeek, int[]> minutosPorHora = new EnumMap<>(DayOfWeek.class);
+            Map<DayOfWeek, double[]> taxa = mes != null ? new EnumMap<>(DayOfWeek.class) : null;
+            for (DayOfWeek dia : DayOfWeek.values()) {
+                int[] porHora = new int[HORAS];
+                int[] minutosDia = new int[HORAS];
+                for (int hora = 0; hora < HORAS; hora++) {
+                    porHora[hora] = reservas.get(dia.ordinal() * HORAS + hora);
+                    minutosDia[hora] = minutos.get(dia.ordinal() * HORAS + hora);
+                }
+                reservasPorHora.put(dia, porHora);
+                minutosPorHora.put(dia, minutosDia);
+                if (taxa != null) {
+                    int disponiveis = 60 * quantidadeNoMes(mes, dia);
+                    double[] taxaDia = new double[HORAS];
+                    for (int hora = 0; hora < HORAS; hora++) {
+                        taxaDia[hora] = (double) minutosDia[hora] / disponiveis;
+                    }
+                    taxa.put(dia, taxaDia);
+                }
+            }
+            return new OcupacaoAreaDTO(areaId, mes != null ? mes.toString() : null, total.sum(),
+                    reservasPorHora, minutosPorHora, taxa);
+        }
+
+        // quantas vezes o dia da semana aparece no mês (4 ou 5)
+        private static int quantidadeNoMes(YearMonth mes, DayOfWeek dia) {
+            int primeiro = (dia.getValue() - mes.atDay(1).getDayOfWeek().getValue() + 7) % 7 + 1;
+            return (mes.lengthOfMonth() - primeiro) / 7 + 1;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.argus.api.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "api.purga")
+public class PurgaProperties {
+
+    // linhas por DELETE; cada lote é uma transação curta
+    private int tamanhoLote = 500;
+
+    private Duration pausaEntreLotes = Duration.ofMillis(100);
+
+    // de quanto em quanto tempo a tabela purgas é consultada atrás de purgas pendentes ou abandonadas
+    private Duration intervalo = Duration.ofSeconds(10);
+
+    // reserva de uma purga pela instância que a executa, renovada a cada lote
+    private Duration bloqueio = Duration.ofMinutes(5);
+
+    private int maximoTentativas = 5;
+}
@@ -0,0 +1,401 @@
+package com.argus.api.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+
+import com.argus.api.domain.model.AreasComuns;
+import com.argus.api.domain.model.Condominio;
+import com.argus.api.domain.model.SessaoVotacao;
+import com.argus.api.dto.PurgaDTO;
+import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.exception.UsuarioNotFoundException;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+// Exclusão de condomínios e usuários em segundo plano. O pedido só registra uma purga na tabela
+// purgas e responde 202; uma thread própria apaga os dados dependentes tabela por tabela, na ordem
+// das chaves estrangeiras, com DELETE ... LIMIT api.purga.tamanho-lote e uma pausa entre os lotes,
+// para não segurar locks grandes nem disputar o banco com as requisições. Cada lote é uma transação
+// curta e atualiza o progresso. A purga fica reservada por api.purga.bloqueio, renovado a cada lote:
+// se a instância cair, outra (ou a mesma, ao subir) retoma a purga depois que a reserva expira.
+// Uma purga retomada ou repetida depois de um erro recomeça da primeira tabela; as já limpas custam
+// um DELETE vazio cada. Status: PENDENTE, EXECUTANDO, CONCLUIDA e FALHOU (depois de
+// api.purga.maximo-tentativas erros). Com shards, a tabela purgas fica no banco principal e os
+// DELETEs vão para o banco do condomínio. Os arquivos dos anexos apagados que nenhum outro anexo usa
+// são liberados a cada lote, como na exclusão de uma ocorrência.
+@Slf4j
+@Service
+@EnableConfigurationProperties(PurgaProperties.class)
+public class PurgaService {
+
+    public enum Tipo {
+        CONDOMINIO,
+        USUARIO
+    }
+
+    // em ordem de dependência: cada tabela só é apagada depois das que apontam para ela
+    private static final String USUARIOS = "SELECT id FROM usuarios WHERE condominio_id = ?";
+    private static final String AREAS = "SELECT id FROM areas_comuns WHERE condominio_id = ?";
+    private static final String ANEXOS = "anexos_ocorrencia";
+    private static final List<Etapa> ETAPAS_CONDOMINIO = List.of(
+            new Etapa(ANEXOS, "usuario_id IN (" + USUARIOS + ") OR ocorrencia_id IN (SELECT id FROM ocorrencias"
+                    + " WHERE id_usuario IN (" + USUARIOS + ") OR id_area IN (" + AREAS + "))"),
+            new Etapa("notificacoes", "id_usuarios IN (" + USUARIOS + ")"
+                    + " OR id_comunicados IN (SELECT id FROM comunicados WHERE condominio_id = ? OR usuario_id IN (" + USUARIOS + "))"
+                    + " OR id_reserva IN (SELECT id FROM reservas WHERE areas_comuns_id IN (" + AREAS + "))"),
+            new Etapa("voto", "usuario_id IN (" + USUARIOS + ")"
+                    + " OR sessao_votacao_id IN (SELECT id FROM sessao_votacao WHERE condominio_id = ?)"),
+            new Etapa("ocorrencias", "id_usuario IN (" + USUARIOS + ") OR id_area IN (" + AREAS + ")"),
+            new Etapa("reservas", "areas_comuns_id IN (" + AREAS + ")"),
+            new Etapa("comunicados", "condominio_id = ? OR usuario_id IN (" + USUARIOS + ")"),
+            new Etapa("sessao_votacao", "condominio_id = ?"),
+            new Etapa("areas_comuns", "condominio_id = ?"),
+            new Etapa("usuarios", "condominio_id = ?"),
+            new Etapa("condominios", "id = ?"));
+    private static final List<Etapa> ETAPAS_USUARIO = List.of(
+            new Etapa(ANEXOS, "usuario_id = ? OR ocorrencia_id IN (SELECT id FROM ocorrencias WHERE id_usuario = ?)"),
+            new Etapa("notificacoes", "id_usuarios = ? OR id_comunicados IN (SELECT id FROM comunicados WHERE usuario_id = ?)"),
+            new Etapa("voto", "usuario_id = ?"),
+            new Etapa("ocorrencias", "id_usuario = ?"),
+            new Etapa("comunicados", "usuario_id = ?"),
+            new Etapa("usuarios", "id = ?"));
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VersoesRecursos versoesRecursos;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EstatisticasOcorrenciasService estatisticasOcorrenciasService;
+    private final OcupacaoAreasService ocupacaoAreasService;
+    private final ReferenciasService referenciasService;
+    private final RoteamentoShardDataSource roteamentoShards;
+    private final MeterRegistry meterRegistry;
+    private final LogAuditoria logAuditoria;
+    private final ArmazenamentoConteudo armazenamentoConteudo;
+    private final int tamanhoLote;
+    private final Duration pausaEntreLotes;
+    private final Duration intervalo;
+    private final Duration bloqueio;
+    private final int maximoTentativas;
+
+    // uma purga por vez nesta instância; as outras esperam na tabela
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "purga");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean iniciado;
+
+    public PurgaService(JdbcTemplate jdbcTemplate, VersoesRecursos versoesRecursos,
+                        EntityManagerFactory entityManagerFactory,
+                        EstatisticasOcorrenciasService estatisticasOcorrenciasService,
+                        OcupacaoAreasService ocupacaoAreasService, ReferenciasService referenciasService,
+                        ObjectProvider<RoteamentoShardDataSource> roteamentoShards, MeterRegistry meterRegistry,
+                        LogAuditoria logAuditoria, ArmazenamentoConteudo armazenamentoConteudo,
+                        PurgaProperties propriedades) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versoesRecursos = versoesRecursos;
+        this.entityManagerFactory = entityManagerFactory;
+        this.estatisticasOcorrenciasService = estatisticasOcorrenciasService;
+        this.ocupacaoAreasService = ocupacaoAreasService;
+        this.referenciasService = referenciasService;
+        this.roteamentoShards = roteamentoShards.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.logAuditoria = logAuditoria;
+        this.armazenamentoConteudo = armazenamentoConteudo;
+        this.tamanhoLote = propriedades.getTamanhoLote();
+        this.pausaEntreLotes = propriedades.getPausaEntreLotes();
+        this.intervalo = propriedades.getIntervalo();
+        this.bloqueio = propriedades.getBloqueio();
+        this.maximoTentativas = propriedades.getMaximoTentativas();
+    }
+
+    // as purgas deixadas por uma execução anterior são retomadas a partir daqui
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        iniciado = true;
+        executor.scheduleWithFixedDelay(this::executarPendentes, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public PurgaDTO agendarCondominio(Long condominioId) {
+        long encontrados = ContextoShard.doCondominio(condominioId, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM condominios WHERE id = ?", Long.class, condominioId));
+        if (encontrados == 0) {
+            throw new CondominioNotFoundException("Condomínio não encontrado");
+        }
+        return agendar(Tipo.CONDOMINIO, condominioId, condominioId);
+    }
+
+    public PurgaDTO agendarUsuario(Long usuarioId) {
+        List<Long> condominio = jdbcTemplate.query("SELECT condominio_id FROM usuarios WHERE id = ?",
+                (rs, linha) -> rs.getObject(1, Long.class), usuarioId);
+        if (condominio.isEmpty()) {
+            throw new UsuarioNotFoundException("Usuário não encontrado");
+        }
+        return agendar(Tipo.USUARIO, usuarioId, condominio.get(0));
+    }
+
+    public Optional<PurgaDTO> buscar(Long id) {
+        return noPrincipal(() -> jdbcTemplate.query("SELECT * FROM purgas WHERE id = ?", PurgaService::toDTO, id))
+                .stream().findFirst();
+    }
+
+    private PurgaDTO agendar(Tipo tipo, Long alvoId, Long condominioId) {
+        PurgaDTO purga = noPrincipal(() -> {
+            // pedir de novo a exclusão de quem já está sendo purgado devolve a purga existente
+            List<PurgaDTO> ativas = jdbcTemplate.query("SELECT * FROM purgas WHERE tipo = ? AND alvo_id = ? "
+                    + "AND status IN ('PENDENTE', 'EXECUTANDO') ORDER BY id LIMIT 1", PurgaService::toDTO, tipo.name(), alvoId);
+            if (!ativas.isEmpty()) {
+                return ativas.get(0);
+            }
+            Timestamp agora = Timestamp.from(Instant.now());
+            GeneratedKeyHolder chave = new GeneratedKeyHolder();
+            jdbcTemplate.update(conexao -> {
+                PreparedStatement insert = conexao.prepareStatement("INSERT INTO purgas (tipo, alvo_id, condominio_id, "
+                        + "status, criada_em, atualizada_em) VALUES (?, ?, ?, 'PENDENTE', ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                insert.setString(1, tipo.name());
+                insert.setLong(2, alvoId);
+                insert.setObject(3, condominioId);
+                insert.setTimestamp(4, agora);
+                insert.setTimestamp(5, agora);
+                return insert;
+            }, chave);
+            log.info("Purga {} agendada: {} {}", chave.getKey(), tipo, alvoId);
+            logAuditoria.registrar(tipo == Tipo.CONDOMINIO ? AcaoAuditoria.CONDOMINIO_EXCLUIDO : AcaoAuditoria.USUARIO_EXCLUIDO,
+                    alvoId, "purga=" + chave.getKey());
+            return jdbcTemplate.queryForObject("SELECT * FROM purgas WHERE id = ?", PurgaService::toDTO,
+                    chave.getKey().longValue());
+        });
+        if (iniciado) {
+            executor.execute(this::executarPendentes);
+        }
+        return purga;
+    }
+
+    // chamado pela thread da purga; público para os testes rodarem sem esperar o agendamento
+    public void executarPendentes() {
+        try {
+            Purga purga;
+            while (!Thread.currentThread().isInterrupted() && (purga = reservarProxima()) != null) {
+                executar(purga);
+            }
+        } catch (RuntimeException e) {
+            // uma exceção aqui cancelaria o agendamento
+            log.error("Erro ao buscar purgas pendentes", e);
+        }
+    }
+
+    private Purga reservarProxima() {
+        return noPrincipal(() -> {
+            Timestamp agora = Timestamp.from(Instant.now());
+            List<Long> candidatas = jdbcTemplate.queryForList("SELECT id FROM purgas WHERE status IN ('PENDENTE', 'EXECUTANDO') "
+                    + "AND (bloqueada_ate IS NULL OR bloqueada_ate < ?) ORDER BY id LIMIT 10", Long.class, agora);
+            for (Long id : candidatas) {
+                // o UPDATE condicional decide entre instâncias que viram a mesma purga livre
+                int reservadas = jdbcTemplate.update("UPDATE purgas SET status = 'EXECUTANDO', bloqueada_ate = ?, "
+                        + "atualizada_em = ? WHERE id = ? AND status IN ('PENDENTE', 'EXECUTANDO') "
+                        + "AND (bloqueada_ate IS NULL OR bloqueada_ate < ?)", reserva(), agora, id, agora);
+                if (reservadas == 1) {
+                    return jdbcTemplate.queryForObject("SELECT id, tipo, alvo_id, condominio_id FROM purgas WHERE id = ?",
+                            (rs, linha) -> new Purga(rs.getLong("id"), Tipo.valueOf(rs.getString("tipo")),
+                                    rs.getLong("alvo_id"), rs.getObject("condominio_id", Long.class)), id);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void executar(Purga purga) {
+        long inicio = System.nanoTime();
+        log.info("Executando a purga {}: {} {}", purga.id(), purga.tipo(), purga.alvoId());
+        try {
+            for (Etapa etapa : purga.tipo() == Tipo.CONDOMINIO ? ETAPAS_CONDOMINIO : ETAPAS_USUARIO) {
+                Counter apagadas = Counter.builder("purga.linhas.apagadas").tag("tabela", etapa.tabela()).register(meterRegistry);
+                int linhas;
+                do {
+                    linhas = ContextoShard.doCondominio(purga.condominioId(), () -> apagarLote(etapa, purga.alvoId()));
+                    apagadas.increment(linhas);
+                    registrarProgresso(purga.id(), etapa.tabela(), linhas);
+                    if (linhas == tamanhoLote && !pausar()) {
+                        // a reserva expira e a purga é retomada na próxima execução
+                        return;
+                    }
+                } while (linhas == tamanhoLote);
+            }
+        } catch (RuntimeException e) {
+            registrarFalha(purga, e);
+            return;
+        }
+
+        noPrincipal(() -> jdbcTemplate.update("UPDATE purgas SET status = 'CONCLUIDA', etapa = NULL, erro = NULL, "
+                + "bloqueada_ate = NULL, atualizada_em = ?, concluida_em = ? WHERE id = ?",
+                Timestamp.from(Instant.now()), Timestamp.from(Instant.now()), purga.id()));
+        invalidarCaches();
+        log.info("Purga {} concluída em {} ms", purga.id(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private int apagarLote(Etapa etapa, long alvoId) {
+        if (!etapa.tabela().equals(ANEXOS)) {
+            return jdbcTemplate.update("DELETE FROM " + etapa.tabela() + " WHERE " + etapa.filtro() + " LIMIT " + tamanhoLote,
+                    etapa.parametros(alvoId));
+        }
+        // os hashes do lote são lidos antes do DELETE; depois dele (cada comando é o próprio commit),
+        // os que nenhuma linha usa mais são liberados
+        List<Long> ids = new ArrayList<>();
+        Set<String> hashes = new LinkedHashSet<>();
+        jdbcTemplate.query("SELECT id, hash_conteudo FROM " + ANEXOS + " WHERE " + etapa.filtro() + " LIMIT " + tamanhoLote,
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    hashes.add(rs.getString("hash_conteudo"));
+                }, etapa.parametros(alvoId));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int linhas = jdbcTemplate.update("DELETE FROM " + ANEXOS + " WHERE id IN (" + marcadores(ids.size()) + ")",
+                ids.toArray());
+        hashes.removeAll(hashesEmUso(hashes));
+        hashes.forEach(armazenamentoConteudo::liberar);
+        return linhas;
+    }
+
+    // o diretório dos anexos é um só para todos os shards, então o hash pode estar em uso em outro banco
+    private Set<String> hashesEmUso(Set<String> hashes) {
+        String consulta = "SELECT DISTINCT hash_conteudo FROM " + ANEXOS + " WHERE hash_conteudo IN ("
+                + marcadores(hashes.size()) + ")";
+        Set<String> emUso = new LinkedHashSet<>();
+        for (String shard : shards()) {
+            Supplier<List<String>> busca = () -> jdbcTemplate.queryForList(consulta, String.class, hashes.toArray());
+            emUso.addAll(roteamentoShards != null ? ContextoShard.noShard(shard, busca) : busca.get());
+        }
+        return emUso;
+    }
+
+    private Collection<String> shards() {
+        return roteamentoShards != null ? roteamentoShards.shards() : List.of("");
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
+
+    private void registrarProgresso(long id, String tabela, int linhas) {
+        noPrincipal(() -> jdbcTemplate.update("UPDATE purgas SET etapa = ?, linhas_apagadas = linhas_apagadas + ?, "
+                + "bloqueada_ate = ?, atualizada_em = ? WHERE id = ?",
+                tabela, linhas, reserva(), Timestamp.from(Instant.now()), id));
+    }
+
+    // uma escrita nova no meio da purga pode esbarrar numa chave estrangeira; a purga volta para a fila
+    // e recomeça depois de uma espera que cresce a cada tentativa
+    private void registrarFalha(Purga purga, RuntimeException e) {
+        log.warn("Falha na purga {}: {}", purga.id(), e.getMessage());
+        String erro = String.valueOf(e.getMessage());
+        if (erro.length() > TAMANHO_MAXIMO_ERRO) {
+            erro = erro.substring(0, TAMANHO_MAXIMO_ERRO);
+        }
+        String mensagem = erro;
+        noPrincipal(() -> jdbcTemplate.update("UPDATE purgas SET tentativas = tentativas + 1, erro = ?, "
+                + "status = CASE WHEN tentativas + 1 >= ? THEN 'FALHOU' ELSE 'PENDENTE' END, "
+                + "bloqueada_ate = ?, atualizada_em = ? WHERE id = ?",
+                mensagem, maximoTentativas, Timestamp.from(Instant.now().plus(intervalo.multipliedBy(6))),
+                Timestamp.from(Instant.now()), purga.id()));
+    }
+
+    // os DELETEs não passam pelo Hibernate, então os caches não ficam sabendo
+    private void invalidarCaches() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Condominio.class);
+        cache.evictEntityData(AreasComuns.class);
+        cache.evictEntityData(SessaoVotacao.class);
+        cache.evictQueryRegions();
+        versoesRecursos.incrementar(Recurso.values());
+        estatisticasOcorrenciasService.recalcular();
+        ocupacaoAreasService.recalcular();
+        referenciasService.recarregar();
+    }
+
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausaEntreLotes.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Timestamp reserva() {
+        return Timestamp.from(Instant.now().plus(bloqueio));
+    }
+
+    private <T> T noPrincipal(Supplier<T> acao) {
+        return roteamentoShards != null ? ContextoShard.noShard(roteamentoShards.principal(), acao) : acao.get();
+    }
+
+    private static PurgaDTO toDTO(ResultSet rs, int linha) throws SQLException {
+        Timestamp concluidaEm = rs.getTimestamp("concluida_em");
+        return new PurgaDTO(
+                rs.getLong("id"),
+                rs.getString("tipo"),
+                rs.getLong("alvo_id"),
+                rs.getString("status"),
+                rs.getString("etapa"),
+                rs.getLong("linhas_apagadas"),
+                rs.getInt("tentativas"),
+                rs.getString("erro"),
+                rs.getTimestamp("criada_em").toLocalDateTime(),
+                concluidaEm != null ? concluidaEm.toLocalDateTime() : null);
+    }
+
+    private record Purga(long id, Tipo tipo, long alvoId, Long condominioId) { }
+
+    private record Etapa(String tabela, String filtro) {
+        Object[] parametros(long alvoId) {
+            Object[] parametros = new Object[(int) filtro.chars().filter(c -> c == '?').count()];
+            Arrays.fill(parametros, alvoId);
+            return parametros;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.argus.api.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.argus.api.domain.model.AreasComuns;
+import com.argus.api.domain.model.Condominio;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.argus.api.infra.transacao.AposCommit;
+
+// Foto em memória dos condomínios e das áreas comuns (id, nome e disponibilidade), para resolver
+// os nomes que chegam nas escritas sem consultar o banco. A foto é imutável: é carregada na
+// inicialização e trocada inteira por uma cópia a cada alteração feita pelo CondominioService e
+// pelo AreasComunsService, depois do commit. O que outras instâncias alteram chega pela
+// reconciliação periódica, que relê as linhas com updated_at recente e compara as contagens para
+// perceber exclusões. Com shards, há uma foto por banco.
+@Service
+public class ReferenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenciasService.class);
+
+    // chave da única foto quando não há shards
+    private static final String SEM_SHARDS = "";
+
+    public record CondominioReferencia(Long id, String nome) {
+    }
+
+    public record AreaReferencia(Long id, String nome, boolean disponivel, Long condominioId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoteamentoShardDataSource roteamento;
+    private final VersoesRecursos versoesRecursos;
+    private final Duration margem;
+
+    private final AtomicReference<Map<String, Instantaneo>> instantaneos = new AtomicReference<>(Map.of());
+
+    public ReferenciasService(JdbcTemplate jdbcTemplate, ObjectProvider<RoteamentoShardDataSource> roteamentoShards,
+                              VersoesRecursos versoesRecursos,
+                              @Value("${api.referencias.margem:1m}") Duration margem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roteamento = roteamentoShards.getIfAvailable();
+        this.versoesRecursos = versoesRecursos;
+        this.margem = margem;
+    }
+
+    public Optional<CondominioReferencia> condominioPorNome(String nome) {
+        if (nome == null) {
+            return Optional.empty();
+        }
+        String shard = shardAtual();
+        Instantaneo instantaneo = instantaneos.get().get(shard);
+        CondominioReferencia encontrado = instantaneo != null ? instantaneo.condominiosPorNome.get(nome) : null;
+        if (encontrado != null) {
+            return Optional.of(encontrado);
+        }
+        // foto ainda não carregada, condomínio criado por outra instância depois da última
+        // reconciliação ou nome que só a collation do banco considera igual
+        List<CondominioReferencia> lidos = jdbcTemplate.query("SELECT id, nome FROM condominios WHERE nome = ?",
+                ReferenciasService::condominio, nome);
+        lidos.forEach(lido -> aplicarAposCommit(shard, atual -> atual.comCondominios(List.of(lido))));
+        return lidos.stream().findFirst();
+    }
+
+    // nomes de áreas podem se repetir entre condomínios; como no findByNome, um nome ambíguo é erro
+    public Optional<AreaReferencia> areaPorNome(String nome) {
+        if (nome == null) {
+            return Optional.empty();
+        }
+        String shard = shardAtual();
+        Instantaneo instantaneo = instantaneos.get().get(shard);
+        List<AreaReferencia> encontradas = instantaneo != null
+                ? instantaneo.areasPorNome.getOrDefault(nome, List.of())
+                : List.of();
+        if (encontradas.isEmpty()) {
+            encontradas = jdbcTemplate.query("SELECT id, nome, disponivel, condominio_id FROM areas_comuns WHERE nome = ?",
+                    ReferenciasService::area, nome);
+            List<AreaReferencia> lidas = encontradas;
+            aplicarAposCommit(shard, atual -> atual.comAreas(lidas));
+        }
+        if (encontradas.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, encontradas.size());
+        }
+        return encontradas.stream().findFirst();
+    }
+
+    void registrarCondominio(Condominio condominio) {
+        CondominioReferencia referencia = new CondominioReferencia(condominio.getId(), condominio.getNome());
+        aplicarAposCommit(shardAtual(), atual -> atual.comCondominios(List.of(referencia)));
+    }
+
+    void registrarArea(AreasComuns area) {
+        AreaReferencia referencia = new AreaReferencia(area.getId(), area.getNome(),
+                Boolean.TRUE.equals(area.getDisponivel()), area.getCondominio().getId());
+        aplicarAposCommit(shardAtual(), atual -> atual.comAreas(List.of(referencia)));
+    }
+
+    void registrarRemocaoArea(Long id) {
+        aplicarAposCommit(shardAtual(), atual -> atual.semArea(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recarregar() {
+        for (String shard : shards()) {
+            Instantaneo carregado = noShard(shard, this::carregar);
+            substituir(shard, carregado);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.referencias.intervalo-reconciliacao:PT30S}")
+    public void reconciliar() {
+        for (String shard : shards()) {
+            try {
+                noShard(shard, () -> {
+                    reconciliar(shard);
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                log.warn("Falha ao reconciliar as referências do banco '{}': {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    // As contagens e as marcas são lidas antes das linhas: o que mudar no meio do caminho tem
+    // updated_at depois da marca e volta na próxima rodada. A margem cobre a diferença entre os
+    // relógios das instâncias (o Hibernate grava o updated_at dos condomínios com o relógio da JVM)
+    // e as transações que fazem commit depois da leitura com um updated_at anterior
+    private void reconciliar(String shard) {
+        Instantaneo anterior = instantaneos.get().get(shard);
+        if (anterior == null) {
+            substituir(shard, carregar());
+            return;
+        }
+        Estado condominios = estado("condominios");
+        Estado areas = estado("areas_comuns");
+        List<CondominioReferencia> condominiosAlterados = jdbcTemplate.query(
+                "SELECT id, nome FROM condominios WHERE updated_at >= ?",
+                ReferenciasService::condominio, desde(anterior.marcaCondominios));
+        List<AreaReferencia> areasAlteradas = jdbcTemplate.query(
+                "SELECT id, nome, disponivel, condominio_id FROM areas_comuns WHERE updated_at >= ?",
+                ReferenciasService::area, desde(anterior.marcaAreas));
+
+        Instantaneo atualizado = aplicar(shard, atual -> atual.comCondominios(condominiosAlterados)
+                .comAreas(areasAlteradas)
+                .comMarcas(condominios.marca(), areas.marca()));
+        if (atualizado.condominios.size() != condominios.linhas() || atualizado.areas.size() != areas.linhas()) {
+            // alguma linha foi apagada (ou entrou depois da contagem): recarrega o banco inteiro
+            atualizado = carregar();
+            substituir(shard, atualizado);
+        }
+
+        if (!atualizado.condominios.equals(anterior.condominios)) {
+            // as mesmas listagens que o CondominioService invalida ao renomear
+            versoesRecursos.incrementar(Recurso.CONDOMINIOS, Recurso.AREAS_COMUNS,
+                    Recurso.SESSOES_VOTACAO, Recurso.COMUNICADOS);
+        } else if (!atualizado.areas.equals(anterior.areas)) {
+            versoesRecursos.incrementar(Recurso.AREAS_COMUNS);
+        }
+    }
+
+    private Instantaneo carregar() {
+        Estado condominios = estado("condominios");
+        Estado areas = estado("areas_comuns");
+        return new Instantaneo(
+                porId(jdbcTemplate.query("SELECT id, nome FROM condominios", ReferenciasService::condominio),
+                        CondominioReferencia::id),
+                porId(jdbcTemplate.query("SELECT id, nome, disponivel, condominio_id FROM areas_comuns",
+                        ReferenciasService::area), AreaReferencia::id),
+                condominios.marca(), areas.marca());
+    }
+
+    private Estado estado(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), MAX(updated_at) FROM " + tabela,
+                (rs, linha) -> new Estado(rs.getLong(1), rs.getTimestamp(2)));
+    }
+
+    private Timestamp desde(Timestamp marca) {
+        return marca != null ? Timestamp.from(marca.toInstant().minus(margem)) : new Timestamp(0);
+    }
+
+    // uma foto que ainda não foi carregada continua vazia: a primeira reconciliação a carrega inteira
+    private void aplicarAposCommit(String shard, UnaryOperator<Instantaneo> alteracao) {
+        AposCommit.executar(() -> aplicar(shard, alteracao));
+    }
+
+    private Instantaneo aplicar(String shard, UnaryOperator<Instantaneo> alteracao) {
+        return instantaneos.updateAndGet(fotos -> {
+            Instantaneo atual = fotos.get(shard);
+            return atual != null ? com(fotos, shard, alteracao.apply(atual)) : fotos;
+        }).get(shard);
+    }
+
+    private void substituir(String shard, Instantaneo instantaneo) {
+        instantaneos.updateAndGet(fotos -> com(fotos, shard, instantaneo));
+    }
+
+    private static Map<String, Instantaneo> com(Map<String, Instantaneo> fotos, String shard, Instantaneo instantaneo) {
+        Map<String, Instantaneo> copia = new HashMap<>(fotos);
+        copia.put(shard, instantaneo);
+        return Map.copyOf(copia);
+    }
+
+    private Collection<String> shards() {
+        return roteamento != null ? roteamento.shards() : List.of(SEM_SHARDS);
+    }
+
+    private String shardAtual() {
+        return roteamento != null ? roteamento.shardAtual() : SEM_SHARDS;
+    }
+
+    private <T> T noShard(String shard, Supplier<T> acao) {
+        return roteamento != null ? ContextoShard.noShard(shard, acao) : acao.get();
+    }
+
+    private static CondominioReferencia condominio(ResultSet rs, int linha) throws SQLException {
+        return new CondominioReferencia(rs.getLong("id"), rs.getString("nome"));
+    }
+
+    private static AreaReferencia area(ResultSet rs, int linha) throws SQLException {
+        return new AreaReferencia(rs.getLong("id"), rs.getString("nome"), rs.getBoolean("disponivel"),
+                rs.getLong("condominio_id"));
+    }
+
+    private static <T> Map<Long, T> porId(List<T> referencias, Function<T, Long> id) {
+        Map<Long, T> mapa = new HashMap<>();
+        referencias.forEach(referencia -> mapa.put(id.apply(referencia), referencia));
+        return mapa;
+    }
+
+    private record Estado(long linhas, Timestamp marca) {
+    }
+
+    // as marcas são o maior updated_at de cada tabela na última leitura
+    private static final class Instantaneo {
+        private final Map<Long, CondominioReferencia> condominios;
+        private final Map<Long, AreaReferencia> areas;
+        private final Map<String, CondominioReferencia> condominiosPorNome;
+        private final Map<String, List<AreaReferencia>> areasPorNome;
+        private final Timestamp marcaCondominios;
+        private final Timestamp marcaAreas;
+
+        Instantaneo(Map<Long, CondominioReferencia> condominios, Map<Long, AreaReferencia> areas,
+                    Timestamp marcaCondominios, Timestamp marcaAreas) {
+            this.condominios = Map.copyOf(condominios);
+            this.areas = Map.copyOf(areas);
+            this.marcaCondominios = marcaCondominios;
+            this.marcaAreas = marcaAreas;
+            Map<String, CondominioReferencia> condominiosPorNome = new HashMap<>();
+            condominios.values().forEach(condominio -> condominiosPorNome.put(condominio.nome(), condominio));
+            this.condominiosPorNome = Map.copyOf(condominiosPorNome);
+            Map<String, List<AreaReferencia>> areasPorNome = new HashMap<>();
+            areas.values().forEach(area -> areasPorNome.computeIfAbsent(area.nome(), nome -> new ArrayList<>()).add(area));
+            areasPorNome.replaceAll((nome, lista) -> List.copyOf(lista));
+            this.areasPorNome = Map.copyOf(areasPorNome);
+        }
+
+        Instantaneo comCondominios(List<CondominioReferencia> alterados) {
+            if (alterados.isEmpty()) {
+                return this;
+            }
+            Map<Long, CondominioReferencia> copia = new HashMap<>(condominios);
+            alterados.forEach(condominio -> copia.put(condominio.id(), condominio));
+            return new Instantaneo(copia, areas, marcaCondominios, marcaAreas);
+        }
+
+        Instantaneo comAreas(List<AreaReferencia> alteradas) {
+            if (alteradas.isEmpty()) {
+                return this;
+            }
+            Map<Long, AreaReferencia> copia = new HashMap<>(areas);
+            alteradas.forEach(area -> copia.put(area.id(), area));
+            return new Instantaneo(condominios, copia, marcaCondominios, marcaAreas);
+        }
+
+        Instantaneo semArea(Long id) {
+            Map<Long, AreaReferencia> copia = new HashMap<>(areas);
+            copia.remove(id);
+            return new Instantaneo(condominios, copia, marcaCondominios, marcaAreas);
+        }
+
+        // uma tabela vazia não tem marca; fica a anterior
+        Instantaneo comMarcas(Timestamp condominios, Timestamp areas) {
+            return new Instantaneo(this.condominios, this.areas,
+                    condominios != null ? condominios : marcaCondominios, areas != null ? areas : marcaAreas);
+        }
+    }
+}
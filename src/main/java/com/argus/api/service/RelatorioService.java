@@ -0,0 +1,495 @@
+package com.argus.api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.argus.api.domain.TipoRelatorio;
+import com.argus.api.dto.RelatorioDTO;
+import com.argus.api.exception.LimiteRelatoriosException;
+import com.argus.api.infra.datasource.ContextoShard;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Relatórios mensais gerados em segundo plano. O pedido só registra o relatório na tabela relatorios
+// e responde 202; api.relatorios.trabalhadores threads reservam os pendentes com um UPDATE condicional
+// (como nas purgas) e gravam o resultado de uma consulta agregada, linha a linha, em um CSV em
+// api.relatorios.diretorio. Cada condomínio tem no máximo api.relatorios.pendentes-por-condominio
+// pedidos na fila e api.relatorios.simultaneos-por-condominio em geração, para que um condomínio não
+// ocupe todos os trabalhadores. Um relatório concluído é reaproveitado por quem pedir o mesmo tipo e
+// período: para sempre se foi gerado depois do fim do mês, e por api.relatorios.validade-mes-corrente
+// se o mês ainda estava aberto. Com shards, a tabela fica no banco principal e as consultas vão para o
+// banco do condomínio.
+//
+// Cada reserva recebe um identificador próprio (coluna reserva), que também dá nome ao arquivo
+// parcial. Enquanto o relatório é gerado, a reserva é renovada a cada terço de api.relatorios.bloqueio;
+// se outra execução a assumiu (depois de uma pausa longa, por exemplo), esta descarta o que gerou, e a
+// conclusão e a falha só são gravadas por quem ainda tem a reserva. Um pedido pendente ou em execução é
+// único por condomínio, tipo e período (chave única com a coluna gerada ativo).
+@Slf4j
+@Service
+public class RelatorioService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoteamentoShardDataSource roteamentoShards;
+    private final MeterRegistry meterRegistry;
+    private final Counter reaproveitados;
+    private final Path diretorio;
+    private final int trabalhadores;
+    private final int pendentesPorCondominio;
+    private final int simultaneosPorCondominio;
+    private final Duration validadeMesCorrente;
+    private final Duration retencao;
+    private final Duration intervalo;
+    private final Duration bloqueio;
+    private final int maximoTentativas;
+
+    private final ScheduledExecutorService executor;
+    private final ScheduledExecutorService renovacoes;
+
+    private volatile boolean iniciado;
+
+    public RelatorioService(JdbcTemplate jdbcTemplate, ObjectProvider<RoteamentoShardDataSource> roteamentoShards,
+                            MeterRegistry meterRegistry,
+                            @Value("${api.relatorios.diretorio:./dados/relatorios}") String diretorio,
+                            @Value("${api.relatorios.trabalhadores:2}") int trabalhadores,
+                            @Value("${api.relatorios.pendentes-por-condominio:5}") int pendentesPorCondominio,
+                            @Value("${api.relatorios.simultaneos-por-condominio:1}") int simultaneosPorCondominio,
+                            @Value("${api.relatorios.validade-mes-corrente:15m}") Duration validadeMesCorrente,
+                            @Value("${api.relatorios.retencao:90d}") Duration retencao,
+                            @Value("${api.relatorios.intervalo:10s}") Duration intervalo,
+                            @Value("${api.relatorios.bloqueio:5m}") Duration bloqueio,
+                            @Value("${api.relatorios.maximo-tentativas:3}") int maximoTentativas) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roteamentoShards = roteamentoShards.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.reaproveitados = meterRegistry.counter("relatorios.reaproveitados");
+        this.diretorio = Path.of(diretorio).toAbsolutePath().normalize();
+        this.trabalhadores = trabalhadores;
+        this.pendentesPorCondominio = pendentesPorCondominio;
+        this.simultaneosPorCondominio = simultaneosPorCondominio;
+        this.validadeMesCorrente = validadeMesCorrente;
+        this.retencao = retencao;
+        this.intervalo = intervalo;
+        this.bloqueio = bloqueio;
+        this.maximoTentativas = maximoTentativas;
+        Files.createDirectories(this.diretorio);
+
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(trabalhadores, tarefa -> {
+            Thread thread = new Thread(tarefa, "relatorio-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // separado dos trabalhadores, que ficam ocupados durante a geração
+        this.renovacoes = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "relatorio-renovacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // os relatórios deixados por uma execução anterior são retomados a partir daqui
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        iniciado = true;
+        for (int i = 0; i < trabalhadores; i++) {
+            executor.scheduleWithFixedDelay(this::executarPendentes, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+        renovacoes.shutdownNow();
+    }
+
+    public RelatorioDTO solicitar(TipoRelatorio tipo, YearMonth periodo, Long condominioId, Long usuarioId) {
+        if (tipo == null || periodo == null) {
+            throw new IllegalArgumentException("Informe o tipo e o período (AAAA-MM) do relatório.");
+        }
+        if (periodo.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("O período não pode estar no futuro.");
+        }
+        if (condominioId == null) {
+            throw new IllegalArgumentException("Informe o condomínio do relatório.");
+        }
+
+        RelatorioDTO relatorio = noPrincipal(() -> {
+            List<RelatorioDTO> anteriores = jdbcTemplate.query("SELECT * FROM relatorios WHERE condominio_id = ? "
+                    + "AND tipo = ? AND periodo = ? AND status IN ('PENDENTE', 'EXECUTANDO', 'CONCLUIDA') ORDER BY id DESC LIMIT 1",
+                    RelatorioService::toDTO, condominioId, tipo.name(), periodo.toString());
+            if (!anteriores.isEmpty() && reaproveitavel(anteriores.get(0), periodo)) {
+                return anteriores.get(0);
+            }
+
+            long naFila = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM relatorios WHERE condominio_id = ? "
+                    + "AND status IN ('PENDENTE', 'EXECUTANDO')", Long.class, condominioId);
+            if (naFila >= pendentesPorCondominio) {
+                throw new LimiteRelatoriosException("O condomínio já tem " + naFila
+                        + " relatórios na fila; aguarde a conclusão de algum deles.");
+            }
+
+            Timestamp agora = Timestamp.from(Instant.now());
+            GeneratedKeyHolder chave = new GeneratedKeyHolder();
+            try {
+                jdbcTemplate.update(conexao -> {
+                    PreparedStatement insert = conexao.prepareStatement("INSERT INTO relatorios (tipo, condominio_id, "
+                            + "periodo, status, solicitado_por, criada_em, atualizada_em) VALUES (?, ?, ?, 'PENDENTE', ?, ?, ?)",
+                            new String[] {"id"});
+                    insert.setString(1, tipo.name());
+                    insert.setLong(2, condominioId);
+                    insert.setString(3, periodo.toString());
+                    insert.setObject(4, usuarioId);
+                    insert.setTimestamp(5, agora);
+                    insert.setTimestamp(6, agora);
+                    return insert;
+                }, chave);
+            } catch (DuplicateKeyException e) {
+                // um pedido igual entrou entre a consulta acima e o insert; vale o dele
+                return jdbcTemplate.query("SELECT * FROM relatorios WHERE condominio_id = ? AND tipo = ? AND periodo = ? "
+                        + "AND status IN ('PENDENTE', 'EXECUTANDO', 'CONCLUIDA') ORDER BY id DESC LIMIT 1",
+                        RelatorioService::toDTO, condominioId, tipo.name(), periodo.toString())
+                        .stream().findFirst().orElseThrow(() -> e);
+            }
+            log.info("Relatório {} solicitado: {} {} do condomínio {}", chave.getKey(), tipo, periodo, condominioId);
+            return jdbcTemplate.queryForObject("SELECT * FROM relatorios WHERE id = ?", RelatorioService::toDTO,
+                    chave.getKey().longValue());
+        });
+
+        if ("CONCLUIDA".equals(relatorio.status())) {
+            reaproveitados.increment();
+        } else if (iniciado) {
+            executor.execute(this::executarPendentes);
+        }
+        return relatorio;
+    }
+
+    public Optional<RelatorioDTO> buscar(Long id) {
+        return noPrincipal(() -> jdbcTemplate.query("SELECT * FROM relatorios WHERE id = ?", RelatorioService::toDTO, id))
+                .stream().findFirst();
+    }
+
+    public Path arquivo(RelatorioDTO relatorio) {
+        return diretorio.resolve(relatorio.id() + ".csv");
+    }
+
+    // chamado pelas threads dos relatórios; público para os testes rodarem sem esperar o agendamento
+    public void executarPendentes() {
+        try {
+            Relatorio relatorio;
+            while (!Thread.currentThread().isInterrupted() && (relatorio = reservarProximo()) != null) {
+                executar(relatorio);
+            }
+        } catch (RuntimeException e) {
+            // uma exceção aqui cancelaria o agendamento
+            log.error("Erro ao buscar relatórios pendentes", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.relatorios.intervalo-limpeza:PT1H}")
+    public void limpar() {
+        Timestamp limite = Timestamp.from(Instant.now().minus(retencao));
+        List<Long> antigos = noPrincipal(() -> jdbcTemplate.queryForList("SELECT id FROM relatorios "
+                + "WHERE status IN ('CONCLUIDA', 'FALHOU') AND criada_em < ?", Long.class, limite));
+        for (Long id : antigos) {
+            try {
+                Files.deleteIfExists(diretorio.resolve(id + ".csv"));
+                noPrincipal(() -> jdbcTemplate.update("DELETE FROM relatorios WHERE id = ?", id));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Não foi possível apagar o relatório {}: {}", id, e.getMessage());
+            }
+        }
+        if (!antigos.isEmpty()) {
+            log.info("{} relatórios apagados pela retenção", antigos.size());
+        }
+        apagarParciaisSemReserva();
+    }
+
+    // arquivos parciais de execuções que perderam a reserva ou pararam no meio (id-reserva.csv.part)
+    private void apagarParciaisSemReserva() {
+        try (DirectoryStream<Path> parciais = Files.newDirectoryStream(diretorio, "*.csv.part")) {
+            for (Path parcial : parciais) {
+                String nome = parcial.getFileName().toString();
+                int separador = nome.indexOf('-');
+                if (separador < 0) {
+                    continue;
+                }
+                String reserva = nome.substring(separador + 1, nome.length() - ".csv.part".length());
+                long id = Long.parseLong(nome.substring(0, separador));
+                List<String> atual = noPrincipal(() -> jdbcTemplate.queryForList(
+                        "SELECT reserva FROM relatorios WHERE id = ? AND reserva = ?", String.class, id, reserva));
+                if (atual.isEmpty()) {
+                    Files.deleteIfExists(parcial);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível apagar os arquivos parciais de relatórios: {}", e.getMessage());
+        }
+    }
+
+    // um concluído só serve se o arquivo ainda existe e o mês já tinha fechado quando foi gerado
+    // (ou se ainda está dentro da validade); um pendente ou em execução sempre é reaproveitado
+    private boolean reaproveitavel(RelatorioDTO anterior, YearMonth periodo) {
+        if (!"CONCLUIDA".equals(anterior.status())) {
+            return true;
+        }
+        if (!Files.exists(arquivo(anterior))) {
+            return false;
+        }
+        LocalDateTime concluidaEm = anterior.concluidaEm();
+        return !concluidaEm.isBefore(periodo.plusMonths(1).atDay(1).atStartOfDay())
+                || concluidaEm.isAfter(LocalDateTime.now().minus(validadeMesCorrente));
+    }
+
+    private Relatorio reservarProximo() {
+        return noPrincipal(() -> {
+            Timestamp agora = Timestamp.from(Instant.now());
+            List<Relatorio> candidatos = jdbcTemplate.query("SELECT id, tipo, condominio_id, periodo FROM relatorios "
+                    + "WHERE status IN ('PENDENTE', 'EXECUTANDO') AND (bloqueada_ate IS NULL OR bloqueada_ate < ?) "
+                    + "ORDER BY id LIMIT 20", (rs, linha) -> toRelatorio(rs, UUID.randomUUID().toString()), agora);
+            for (Relatorio candidato : candidatos) {
+                // o limite por condomínio é conferido antes da reserva; duas instâncias ao mesmo tempo podem
+                // passar dele por um relatório, o que não compromete a divisão dos trabalhadores
+                long emGeracao = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM relatorios WHERE condominio_id = ? "
+                        + "AND status = 'EXECUTANDO' AND bloqueada_ate >= ?", Long.class, candidato.condominioId(), agora);
+                if (emGeracao >= simultaneosPorCondominio) {
+                    continue;
+                }
+                int reservados = jdbcTemplate.update("UPDATE relatorios SET status = 'EXECUTANDO', reserva = ?, "
+                        + "bloqueada_ate = ?, atualizada_em = ? WHERE id = ? AND status IN ('PENDENTE', 'EXECUTANDO') "
+                        + "AND (bloqueada_ate IS NULL OR bloqueada_ate < ?)",
+                        candidato.reserva(), Timestamp.from(Instant.now().plus(bloqueio)), agora, candidato.id(), agora);
+                if (reservados == 1) {
+                    return candidato;
+                }
+            }
+            return null;
+        });
+    }
+
+    private void executar(Relatorio relatorio) {
+        Consulta consulta = consulta(relatorio.tipo());
+        Path destino = diretorio.resolve(relatorio.id() + ".csv");
+        Path parcial = parcial(relatorio);
+        AtomicBoolean perdida = new AtomicBoolean();
+        long periodoRenovacao = Math.max(1, bloqueio.toMillis() / 3);
+        ScheduledFuture<?> renovacao = renovacoes.scheduleAtFixedRate(() -> {
+            if (!renovar(relatorio)) {
+                perdida.set(true);
+            }
+        }, periodoRenovacao, periodoRenovacao, TimeUnit.MILLISECONDS);
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        long linhas;
+        try {
+            try (BufferedWriter escritor = Files.newBufferedWriter(parcial, StandardCharsets.UTF_8)) {
+                escritor.write(String.join(",", consulta.colunas()));
+                escritor.newLine();
+                linhas = ContextoShard.doCondominio(relatorio.condominioId(), () -> gravar(consulta, relatorio, escritor, perdida));
+            }
+            // renovada logo antes da troca, a reserva não expira no meio dela
+            renovacao.cancel(false);
+            if (perdida.get() || !renovar(relatorio)) {
+                throw new ReservaPerdidaException();
+            }
+            Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (ReservaPerdidaException e) {
+            log.warn("Relatório {}: a reserva passou para outra execução; o que foi gerado aqui é descartado", relatorio.id());
+            apagarParcial(relatorio);
+            return;
+        } catch (IOException | RuntimeException e) {
+            registrarFalha(relatorio, e);
+            return;
+        } finally {
+            renovacao.cancel(false);
+            amostra.stop(meterRegistry.timer("relatorios.geracao", "tipo", relatorio.tipo().name()));
+        }
+
+        long tamanho = destino.toFile().length();
+        int concluidos = noPrincipal(() -> jdbcTemplate.update("UPDATE relatorios SET status = 'CONCLUIDA', linhas = ?, "
+                + "tamanho = ?, erro = NULL, reserva = NULL, bloqueada_ate = NULL, atualizada_em = ?, concluida_em = ? "
+                + "WHERE id = ? AND reserva = ?",
+                linhas, tamanho, Timestamp.from(Instant.now()), Timestamp.from(Instant.now()), relatorio.id(), relatorio.reserva()));
+        if (concluidos == 0) {
+            log.warn("Relatório {}: a reserva passou para outra execução antes da conclusão", relatorio.id());
+            return;
+        }
+        log.info("Relatório {} concluído: {} linhas", relatorio.id(), linhas);
+    }
+
+    // false se a reserva já não é desta execução; uma falha do banco não conta como perda
+    private boolean renovar(Relatorio relatorio) {
+        try {
+            return noPrincipal(() -> jdbcTemplate.update("UPDATE relatorios SET bloqueada_ate = ?, atualizada_em = ? "
+                    + "WHERE id = ? AND reserva = ? AND status = 'EXECUTANDO'",
+                    Timestamp.from(Instant.now().plus(bloqueio)), Timestamp.from(Instant.now()), relatorio.id(),
+                    relatorio.reserva())) == 1;
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível renovar a reserva do relatório {}: {}", relatorio.id(), e.getMessage());
+            return true;
+        }
+    }
+
+    private Path parcial(Relatorio relatorio) {
+        return diretorio.resolve(relatorio.id() + "-" + relatorio.reserva() + ".csv.part");
+    }
+
+    private void apagarParcial(Relatorio relatorio) {
+        try {
+            Files.deleteIfExists(parcial(relatorio));
+        } catch (IOException ignorada) {
+            // a limpeza apaga os arquivos parciais que ficaram sem reserva
+        }
+    }
+
+    // as linhas vão para o arquivo à medida que chegam do banco
+    private long gravar(Consulta consulta, Relatorio relatorio, BufferedWriter escritor, AtomicBoolean perdida) {
+        LocalDate inicio = relatorio.periodo().atDay(1);
+        LocalDate fim = relatorio.periodo().plusMonths(1).atDay(1);
+        long[] linhas = {0};
+        jdbcTemplate.query(consulta.sql(), (ResultSet rs) -> {
+            if (perdida.get()) {
+                throw new ReservaPerdidaException();
+            }
+            StringBuilder linha = new StringBuilder();
+            for (int i = 1; i <= consulta.colunas().length; i++) {
+                if (i > 1) {
+                    linha.append(',');
+                }
+                linha.append(campo(rs.getString(i)));
+            }
+            try {
+                escritor.write(linha.toString());
+                escritor.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            linhas[0]++;
+        }, inicio, fim, relatorio.condominioId());
+        return linhas[0];
+    }
+
+    // todas as consultas recebem (início do mês, início do mês seguinte, condomínio)
+    private static Consulta consulta(TipoRelatorio tipo) {
+        return switch (tipo) {
+            case RESERVAS_POR_AREA -> new Consulta(new String[] {"area", "reservas", "dias_com_reserva"},
+                    "SELECT a.nome, COUNT(r.id), COUNT(DISTINCT r.data_reserva) FROM areas_comuns a "
+                            + "LEFT JOIN reservas r ON r.areas_comuns_id = a.id AND r.data_reserva >= ? AND r.data_reserva < ? "
+                            + "WHERE a.condominio_id = ? GROUP BY a.id, a.nome ORDER BY a.nome");
+            case OCORRENCIAS_POR_STATUS -> new Consulta(new String[] {"status_aprovacao", "status_resolucao", "ocorrencias"},
+                    "SELECT o.status_aprovacao, o.status_resolucao, COUNT(*) FROM ocorrencias o "
+                            + "JOIN usuarios u ON u.id = o.id_usuario "
+                            + "WHERE o.data_criacao >= ? AND o.data_criacao < ? AND u.condominio_id = ? "
+                            + "GROUP BY o.status_aprovacao, o.status_resolucao ORDER BY o.status_aprovacao, o.status_resolucao");
+            case RESULTADOS_VOTACAO -> new Consulta(new String[] {"sessao_id", "proposta", "data_inicio", "data_fim",
+                    "votos_sim", "votos_nao", "total"},
+                    "SELECT s.id, s.proposta, s.data_inicio, s.data_fim, "
+                            + "SUM(CASE WHEN v.voto = TRUE THEN 1 ELSE 0 END), SUM(CASE WHEN v.voto = FALSE THEN 1 ELSE 0 END), "
+                            + "COUNT(v.id) FROM sessao_votacao s LEFT JOIN voto v ON v.sessao_votacao_id = s.id "
+                            + "WHERE s.data_fim >= ? AND s.data_inicio < ? AND s.condominio_id = ? "
+                            + "GROUP BY s.id, s.proposta, s.data_inicio, s.data_fim ORDER BY s.data_inicio, s.id");
+        };
+    }
+
+    private void registrarFalha(Relatorio relatorio, Exception e) {
+        log.warn("Falha no relatório {}: {}", relatorio.id(), e.getMessage());
+        apagarParcial(relatorio);
+        String erro = String.valueOf(e.getMessage());
+        if (erro.length() > TAMANHO_MAXIMO_ERRO) {
+            erro = erro.substring(0, TAMANHO_MAXIMO_ERRO);
+        }
+        String mensagem = erro;
+        noPrincipal(() -> jdbcTemplate.update("UPDATE relatorios SET tentativas = tentativas + 1, erro = ?, "
+                + "status = CASE WHEN tentativas + 1 >= ? THEN 'FALHOU' ELSE 'PENDENTE' END, "
+                + "reserva = NULL, bloqueada_ate = ?, atualizada_em = ? WHERE id = ? AND reserva = ?",
+                mensagem, maximoTentativas, Timestamp.from(Instant.now().plus(intervalo.multipliedBy(6))),
+                Timestamp.from(Instant.now()), relatorio.id(), relatorio.reserva()));
+    }
+
+    private <T> T noPrincipal(Supplier<T> acao) {
+        return roteamentoShards != null ? ContextoShard.noShard(roteamentoShards.principal(), acao) : acao.get();
+    }
+
+    private static String campo(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+
+    private static RelatorioDTO toDTO(ResultSet rs, int linha) throws SQLException {
+        Timestamp concluidaEm = rs.getTimestamp("concluida_em");
+        return new RelatorioDTO(
+                rs.getLong("id"),
+                rs.getString("tipo"),
+                rs.getLong("condominio_id"),
+                rs.getString("periodo"),
+                rs.getString("status"),
+                rs.getObject("linhas", Long.class),
+                rs.getObject("tamanho", Long.class),
+                rs.getInt("tentativas"),
+                rs.getString("erro"),
+                rs.getTimestamp("criada_em").toLocalDateTime(),
+                concluidaEm != null ? concluidaEm.toLocalDateTime() : null);
+    }
+
+    private static Relatorio toRelatorio(ResultSet rs, String reserva) throws SQLException {
+        return new Relatorio(rs.getLong("id"), TipoRelatorio.valueOf(rs.getString("tipo")),
+                rs.getLong("condominio_id"), YearMonth.parse(rs.getString("periodo")), reserva);
+    }
+
+    private record Relatorio(long id, TipoRelatorio tipo, long condominioId, YearMonth periodo, String reserva) { }
+
+    // sem stack trace: só interrompe a geração de quem perdeu a reserva
+    private static final class ReservaPerdidaException extends RuntimeException {
+        ReservaPerdidaException() {
+            super("Reserva do relatório perdida", null, false, false);
+        }
+    }
+
+    private record Consulta(String[] colunas, String sql) { }
+}
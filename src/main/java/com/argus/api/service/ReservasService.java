@@ -2,20 +2,36 @@ package com.argus.api.service;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.argus.api.domain.model.AreasComuns;
 import com.argus.api.domain.model.Reservas;
 import com.argus.api.dto.ReservasDTO;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.AreasComunsRepository;
 import com.argus.api.repository.ReservasRepository;
+import com.argus.api.service.ReferenciasService.AreaReferencia;
 
 @Service
 public class ReservasService {
 
+    private static final CamposListagem CAMPOS = CamposListagem.de("reservas r", "r.id")
+            .campo("id", "r.id")
+            .campo("areaNome", "a.nome", "JOIN areas_comuns a ON a.id = r.areas_comuns_id", null)
+            .campo("dataReserva", "r.data_reserva", CamposListagem.DATA)
+            .campo("horaInicio", "r.hora_inicio", CamposListagem.HORA)
+            .campo("horaFim", "r.hora_fim", CamposListagem.HORA)
+            .construir();
+
     @Autowired
     ReservasRepository reservasRepository;
 
@@ -25,15 +41,31 @@ public class ReservasService {
     @Autowired
     private NotificacoesService notificacoesService;
 
+    @Autowired
+    private LogAuditoria logAuditoria;
+
+    @Autowired
+    private OcupacaoAreasService ocupacaoAreasService;
+
+    @Autowired
+    private ConsultaCampos consultaCampos;
+
+    @Autowired
+    private ReferenciasService referenciasService;
+
+    @Transactional
     public ReservasDTO reservarArea(ReservasDTO reservasDTO) {
 
-        AreasComuns areasComuns = areasComunsRepository.findByNome(reservasDTO.areaNome())
+        AreaReferencia area = referenciasService.areaPorNome(reservasDTO.areaNome())
                 .orElseThrow(() -> new RuntimeException("Área não encontrada."));
 
-        if (!areasComuns.getDisponivel()) {
+        if (!area.disponivel()) {
             throw new RuntimeException("No momento não está disponível");
         }
 
+        // só a referência: a disponibilidade e o nome já vieram da foto, e a linha da área não é lida
+        AreasComuns areasComuns = areasComunsRepository.getReferenceById(area.id());
+
         if (reservasRepository.findByAreasComunsAndDataReservaAndHoraInicioBetween(
                 areasComuns, reservasDTO.dataReserva(), reservasDTO.horaInicio(), reservasDTO.horaFim()).isPresent()) {
             throw new RuntimeException("Área já reservada para essa data e horário.");
@@ -45,14 +77,22 @@ public class ReservasService {
         reservas.setHoraInicio(reservasDTO.horaInicio());
         reservas.setHoraFim(reservasDTO.horaFim());
 
-        reservasRepository.save(reservas);
+        try {
+            // a consulta acima não impede duas reservas simultâneas; uk_reservas_area_horario impede
+            reservasRepository.saveAndFlush(reservas);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Área já reservada para essa data e horário.");
+        }
+        ocupacaoAreasService.registrarCriacao(reservas);
         
-        notificacoesService.criarNotificacaoReserva(reservas);
+        notificacoesService.criarNotificacaoReserva(reservas, area.nome());
 
 
-        return convertToDTO(reservas);
+        return new ReservasDTO(reservas.getId(), area.nome(), reservas.getDataReserva(),
+                reservas.getHoraInicio(), reservas.getHoraFim());
     }
 
+    @Transactional(readOnly = true)
     public List<ReservasDTO> listarTodasReservas() {
         List<Reservas> reservas = reservasRepository.findAll();
 
@@ -66,12 +106,21 @@ public class ReservasService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
+    @Transactional
     public String excluirReserva(Long reservaId) {
         // Verificar se a reserva existe
         Reservas reserva = reservasRepository.findById(reservaId)
                 .orElseThrow(() -> new RuntimeException("Reserva não encontrada."));
 
         reservasRepository.delete(reserva);
+        ocupacaoAreasService.registrarRemocao(reserva);
+        logAuditoria.registrar(AcaoAuditoria.RESERVA_REMOVIDA, reservaId, "area=" + reserva.getAreasComuns().getId()
+                + " data=" + reserva.getDataReserva() + " " + reserva.getHoraInicio() + "-" + reserva.getHoraFim());
 
         String mensagem = "A reserva da área " + reserva.getAreasComuns().getNome() +
                 " para a data " + reserva.getDataReserva().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) +
@@ -82,7 +131,7 @@ public class ReservasService {
         return mensagem;
     }
 
-    private ReservasDTO convertToDTO(Reservas reservas) {
+    ReservasDTO convertToDTO(Reservas reservas) {
         return new ReservasDTO(
                 reservas.getId(),
                 reservas.getAreasComuns().getNome(),
@@ -3,30 +3,55 @@ package com.argus.api.service;
 import com.argus.api.domain.model.Condominio;
 import com.argus.api.domain.model.SessaoVotacao;
 import com.argus.api.dto.SessaoVotacaoDTO;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.CondominioRepository;
 import com.argus.api.repository.SessaoVotacaoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class SessaoVotacaoService {
 
+    private static final CamposListagem CAMPOS = CamposListagem.de("sessao_votacao s", "s.id")
+            .campo("id", "s.id")
+            .campo("proposta", "s.proposta")
+            .campo("descricao", "s.descricao")
+            .campo("dataInicio", "s.data_inicio", CamposListagem.DATA)
+            .campo("dataFim", "s.data_fim", CamposListagem.DATA)
+            .campo("condominioNome", "c.nome", "LEFT JOIN condominios c ON c.id = s.condominio_id", null)
+            .construir();
+
     private final SessaoVotacaoRepository sessaoVotacaoRepository;
     private final CondominioRepository condominioRepository;
+    private final VersoesRecursos versoesRecursos;
+    private final ConsultaCampos consultaCampos;
+    private final ReferenciasService referenciasService;
 
     @Autowired
-    public SessaoVotacaoService(SessaoVotacaoRepository sessaoVotacaoRepository, CondominioRepository condominioRepository) {
+    public SessaoVotacaoService(SessaoVotacaoRepository sessaoVotacaoRepository, CondominioRepository condominioRepository,
+                                VersoesRecursos versoesRecursos, ConsultaCampos consultaCampos,
+                                ReferenciasService referenciasService) {
         this.sessaoVotacaoRepository = sessaoVotacaoRepository;
         this.condominioRepository = condominioRepository;
+        this.versoesRecursos = versoesRecursos;
+        this.consultaCampos = consultaCampos;
+        this.referenciasService = referenciasService;
     }
 
+    @Transactional
     public SessaoVotacaoDTO criarSessao(SessaoVotacaoDTO sessaoVotacaoDTO) {
         // Buscar o condomínio pelo nome
-        Optional<Condominio> condominioOptional = condominioRepository.findByNome(sessaoVotacaoDTO.condominioNome());
+        Optional<Condominio> condominioOptional = referenciasService.condominioPorNome(sessaoVotacaoDTO.condominioNome())
+                .flatMap(referencia -> condominioRepository.findById(referencia.id()));
 
         // Se o condomínio não existir, você pode lançar uma exceção ou criar um novo condomínio
         Condominio condominio;
@@ -36,6 +61,8 @@ public class SessaoVotacaoService {
             condominio = new Condominio();
             condominio.setNome(sessaoVotacaoDTO.condominioNome());
             condominio = condominioRepository.save(condominio);  // Persistir o novo condomínio
+            referenciasService.registrarCondominio(condominio);
+            versoesRecursos.incrementar(Recurso.CONDOMINIOS);
         }
 
         // Criar a sessão de votação
@@ -48,11 +75,13 @@ public class SessaoVotacaoService {
 
         // Salvar a sessão de votação
         SessaoVotacao sessaoSalva = sessaoVotacaoRepository.save(sessaoVotacao);
+        versoesRecursos.incrementar(Recurso.SESSOES_VOTACAO);
 
         // Retornar o DTO da SessaoVotacao salva utilizando o método auxiliar
         return convertToDTO(sessaoSalva);
     }
 
+    @Transactional(readOnly = true)
     public List<SessaoVotacaoDTO> listarTodasSessoes() {
         List<SessaoVotacao> sessoes = sessaoVotacaoRepository.findAll();
         return sessoes.stream()
@@ -60,14 +89,26 @@ public class SessaoVotacaoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
+    // "nome, id,id" -> "nome,id": a mesma seleção escrita de outro jeito usa a mesma entrada do cache
+    public String normalizarCampos(String fields) {
+        return String.join(",", CAMPOS.selecionar(fields));
+    }
+
+    @Transactional
     public void deletarSessao(Long id) {
         SessaoVotacao sessao = sessaoVotacaoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Sessão de votação não encontrada com ID: " + id));
         sessaoVotacaoRepository.delete(sessao);
+        versoesRecursos.incrementar(Recurso.SESSOES_VOTACAO);
     }
 
     // Método auxiliar para converter SessaoVotacao para SessaoVotacaoDTO
-    private SessaoVotacaoDTO convertToDTO(SessaoVotacao sessaoVotacao) {
+    SessaoVotacaoDTO convertToDTO(SessaoVotacao sessaoVotacao) {
         return new SessaoVotacaoDTO(
                 sessaoVotacao.getId(),
                 sessaoVotacao.getProposta(),
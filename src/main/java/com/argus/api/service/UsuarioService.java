@@ -1,22 +1,40 @@
 package com.argus.api.service;
 
+import com.argus.api.domain.TipoDoUsuario;
 import com.argus.api.domain.model.Condominio;
 import com.argus.api.domain.model.Usuarios;
 import com.argus.api.dto.UsuarioDTO;
 import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.CondominioRepository;
 import com.argus.api.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class UsuarioService {
 
+    private static final CamposListagem CAMPOS = CamposListagem.de("usuarios u", "u.id")
+            .campo("id", "u.id")
+            .campo("nome", "u.nome")
+            .campo("telefone", "u.telefone")
+            .campo("tipoDoUsuario", "u.tipo_do_usuario")
+            .campo("bloco", "u.bloco")
+            .campo("apartamento", "u.apartamento")
+            .campo("condominioNome", "c.nome", "LEFT JOIN condominios c ON c.id = u.condominio_id", null)
+            .campo("condominioEndereco", "c.endereco", "LEFT JOIN condominios c ON c.id = u.condominio_id", null)
+            .construir();
+
         @Autowired
         private UsuarioRepository usuarioRepository;
 
@@ -26,38 +44,59 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private LogAuditoria logAuditoria;
+
+    @Autowired
+    private ConsultaCampos consultaCampos;
+
+    @Autowired
+    private ReferenciasService referenciasService;
+
+    @Transactional
     public UsuarioDTO createUser(Usuarios usuarios) {
 
         String encryptedPassword = passwordEncoder.encode(usuarios.getSenha());
         usuarios.setSenha(encryptedPassword);
 
         if (usuarios.getCondominio() != null && usuarios.getCondominio().getNome() != null) {
-            Condominio condominio = condominioRepository.findByNome(usuarios.getCondominio().getNome())
+            Condominio condominio = referenciasService.condominioPorNome(usuarios.getCondominio().getNome())
+                    .flatMap(referencia -> condominioRepository.findById(referencia.id()))
                     .orElseThrow(() -> new CondominioNotFoundException("Condomínio não encontrado"));
             usuarios.setCondominio(condominio);
         }
 
         Usuarios savedUser = usuarioRepository.save(usuarios);
-
+        // o papel inicial também é uma concessão de acesso
+        logAuditoria.registrar(AcaoAuditoria.USUARIO_CRIADO, savedUser.getId(), "papel=" + savedUser.getTipoDoUsuario());
 
         return convertToDTO(savedUser);
     }
 
 
 
+    @Transactional(readOnly = true)
     public List<UsuarioDTO> getAllUsers() {
             return usuarioRepository.findAll().stream()
                     .map(this::convertToDTO)
                     .collect(Collectors.toList());
         }
 
+        @Transactional(readOnly = true)
+        public List<Map<String, Object>> listarCampos(String fields) {
+            return consultaCampos.listar(CAMPOS, fields);
+        }
+
+        @Transactional(readOnly = true)
         public Optional<UsuarioDTO> findUserById(Long id) {
             return usuarioRepository.findById(id).map(this::convertToDTO);
         }
 
+        @Transactional
         public Usuarios updateUser(Long id, Usuarios usuarios) throws Exception {
             Usuarios existingUser = usuarioRepository.findById(id)
                     .orElseThrow(() -> new Exception("Usuário não encontrado"));
+            TipoDoUsuario papelAnterior = existingUser.getTipoDoUsuario();
 
             existingUser.setNome(usuarios.getNome());
             existingUser.setCpf(usuarios.getCpf());
@@ -68,22 +107,17 @@ public class UsuarioService {
             existingUser.setApartamento(usuarios.getApartamento());
 
             if (usuarios.getCondominio() != null && usuarios.getCondominio().getNome() != null) {
-                Condominio condominio = condominioRepository.findByNome(usuarios.getCondominio().getNome())
+                Condominio condominio = referenciasService.condominioPorNome(usuarios.getCondominio().getNome())
+                        .flatMap(referencia -> condominioRepository.findById(referencia.id()))
                         .orElseThrow(() -> new CondominioNotFoundException("Condomínio não encontrado"));
                 existingUser.setCondominio(condominio);
             }
 
-            return usuarioRepository.save(existingUser);
-        }
-
-
-        public UsuarioDTO deleteUser(Long id) throws Exception {
-            Usuarios usuarios = usuarioRepository.findById(id)
-                    .orElseThrow(() -> new Exception("Usuário não encontrado"));
-
-            usuarioRepository.delete(usuarios);
-
-            return convertToDTO(usuarios);
+            Usuarios salvo = usuarioRepository.save(existingUser);
+            if (papelAnterior != salvo.getTipoDoUsuario()) {
+                logAuditoria.registrar(AcaoAuditoria.USUARIO_PAPEL_ALTERADO, id, papelAnterior + "->" + salvo.getTipoDoUsuario());
+            }
+            return salvo;
         }
 
 
@@ -1,14 +1,21 @@
 package com.argus.api.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.argus.api.domain.model.SessaoVotacao;
 import com.argus.api.domain.model.Usuarios;
 import com.argus.api.domain.model.Voto;
 import com.argus.api.dto.VotoDTO;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.campos.CamposListagem;
+import com.argus.api.infra.campos.ConsultaCampos;
 import com.argus.api.repository.SessaoVotacaoRepository;
 import com.argus.api.repository.UsuarioRepository;
 import com.argus.api.repository.VotoRepository;
@@ -16,17 +23,31 @@ import com.argus.api.repository.VotoRepository;
 @Service
 public class VotoService {
 
+    // a resposta completa traz a sessão inteira; aqui ela vem achatada em sessaoId e sessaoProposta
+    private static final CamposListagem CAMPOS = CamposListagem.de("voto v", "v.id")
+            .campo("id", "v.id")
+            .campo("voto", "v.voto")
+            .campo("sessaoId", "v.sessao_votacao_id")
+            .campo("sessaoProposta", "s.proposta", "JOIN sessao_votacao s ON s.id = v.sessao_votacao_id", null)
+            .construir();
+
     private final VotoRepository votoRepository;
     private final SessaoVotacaoRepository sessaoVotacaoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final LogAuditoria logAuditoria;
+    private final ConsultaCampos consultaCampos;
 
     @Autowired
-    public VotoService(VotoRepository votoRepository, SessaoVotacaoRepository sessaoVotacaoRepository, UsuarioRepository usuarioRepository) {
+    public VotoService(VotoRepository votoRepository, SessaoVotacaoRepository sessaoVotacaoRepository, UsuarioRepository usuarioRepository,
+                       LogAuditoria logAuditoria, ConsultaCampos consultaCampos) {
         this.votoRepository = votoRepository;
         this.sessaoVotacaoRepository = sessaoVotacaoRepository;
         this.usuarioRepository = usuarioRepository;
+        this.logAuditoria = logAuditoria;
+        this.consultaCampos = consultaCampos;
     }
 
+    @Transactional
     public String registrarVoto(VotoDTO votoDTO, Long usuarioId) {
         // Obter o usuário autenticado pelo ID
         Usuarios usuario = usuarioRepository.findById(usuarioId)
@@ -44,13 +65,20 @@ public class VotoService {
         // Converter o VotoDTO para Voto (entidade)
         Voto novoVoto = converterParaVoto(votoDTO, sessao, usuario);
 
-        // Registrar o voto
-        votoRepository.save(novoVoto);
+        // Registrar o voto; dois votos simultâneos passam pela verificação acima e param em uk_voto_sessao_usuario
+        try {
+            votoRepository.saveAndFlush(novoVoto);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Usuário já votou nesta sessão.");
+        }
+        // a escolha não vai para a trilha, só o fato de ter votado
+        logAuditoria.registrar(AcaoAuditoria.VOTO_REGISTRADO, novoVoto.getId(), "sessao=" + sessao.getId());
 
         return "Voto registrado com sucesso.";
     }
 
     // Método para listar todos os votos de uma sessão de votação
+    @Transactional(readOnly = true)
     public List<Voto> listarVotos(Long sessaoVotacaoId) {
         SessaoVotacao sessaoVotacao = sessaoVotacaoRepository.findById(sessaoVotacaoId)
                 .orElseThrow(() -> new IllegalArgumentException("Sessão de votação não encontrada."));
@@ -59,16 +87,24 @@ public class VotoService {
     }
 
     // Novo método para listar todos os votos
+    @Transactional(readOnly = true)
     public List<Voto> listarTodosVotos() {
         return votoRepository.findAll();  // Retorna todos os votos
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listarCampos(String fields) {
+        return consultaCampos.listar(CAMPOS, fields);
+    }
+
     // Método para deletar um voto pelo ID
+    @Transactional
     public String deletarVoto(Long votoId) {
         Voto voto = votoRepository.findById(votoId)
                 .orElseThrow(() -> new IllegalArgumentException("Voto não encontrado."));
 
         votoRepository.delete(voto);
+        logAuditoria.registrar(AcaoAuditoria.VOTO_REMOVIDO, votoId, "sessao=" + voto.getSessaoVotacao().getId());
         return "Voto deletado com sucesso.";
     }
 
@@ -0,0 +1,3 @@
+ALTER TABLE ocorrencias ADD FULLTEXT INDEX ft_ocorrencias_texto (titulo, descricao);
+
+ALTER TABLE comunicados ADD FULLTEXT INDEX ft_comunicados_texto (titulo, mensagem);
@@ -0,0 +1 @@
+ALTER TABLE ocorrencias ADD COLUMN data_resolucao DATETIME NULL AFTER data_criacao;
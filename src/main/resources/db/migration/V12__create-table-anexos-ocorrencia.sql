@@ -0,0 +1,14 @@
+CREATE TABLE anexos_ocorrencia (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    ocorrencia_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    hash_conteudo CHAR(64) NOT NULL,
+    nome_arquivo VARCHAR(255) NOT NULL,
+    tipo_conteudo VARCHAR(100) NOT NULL,
+    tamanho BIGINT NOT NULL,
+    data_criacao DATETIME NOT NULL,
+    CONSTRAINT fk_anexos_ocorrencia FOREIGN KEY (ocorrencia_id) REFERENCES ocorrencias(id),
+    CONSTRAINT fk_anexos_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios(id),
+    INDEX idx_anexos_usuario (usuario_id),
+    INDEX idx_anexos_hash (hash_conteudo)
+);
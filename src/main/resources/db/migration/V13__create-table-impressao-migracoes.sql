@@ -0,0 +1,5 @@
+CREATE TABLE impressao_migracoes (
+    id TINYINT PRIMARY KEY,
+    impressao CHAR(64) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -0,0 +1,9 @@
+CREATE TABLE idempotencia (
+    chave CHAR(64) PRIMARY KEY,
+    impressao_requisicao CHAR(64) NOT NULL,
+    status SMALLINT NULL,
+    tipo_conteudo VARCHAR(100) NULL,
+    corpo MEDIUMBLOB NULL,
+    expira_em DATETIME NOT NULL,
+    INDEX idx_idempotencia_expira_em (expira_em)
+);
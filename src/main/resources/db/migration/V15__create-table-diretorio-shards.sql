@@ -0,0 +1,6 @@
+CREATE TABLE diretorio_shards (
+    condominio_id BIGINT PRIMARY KEY,
+    shard VARCHAR(50) NOT NULL,
+    bloqueado BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -0,0 +1,17 @@
+CREATE TABLE purgas (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(20) NOT NULL,
+    alvo_id BIGINT NOT NULL,
+    condominio_id BIGINT NULL,
+    status VARCHAR(20) NOT NULL,
+    etapa VARCHAR(50) NULL,
+    linhas_apagadas BIGINT NOT NULL DEFAULT 0,
+    tentativas INT NOT NULL DEFAULT 0,
+    erro VARCHAR(500) NULL,
+    bloqueada_ate DATETIME NULL,
+    criada_em DATETIME NOT NULL,
+    atualizada_em DATETIME NOT NULL,
+    concluida_em DATETIME NULL,
+    INDEX idx_purgas_status (status),
+    INDEX idx_purgas_alvo (tipo, alvo_id)
+);
@@ -0,0 +1,18 @@
+CREATE TABLE relatorios (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(40) NOT NULL,
+    condominio_id BIGINT NOT NULL,
+    periodo CHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    linhas BIGINT NULL,
+    tamanho BIGINT NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    erro VARCHAR(500) NULL,
+    bloqueada_ate DATETIME NULL,
+    solicitado_por BIGINT NULL,
+    criada_em DATETIME NOT NULL,
+    atualizada_em DATETIME NOT NULL,
+    concluida_em DATETIME NULL,
+    INDEX idx_relatorios_status (status),
+    INDEX idx_relatorios_chave (condominio_id, tipo, periodo)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE areas_comuns ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+CREATE INDEX idx_areas_comuns_updated_at ON areas_comuns (updated_at);
+CREATE INDEX idx_condominios_updated_at ON condominios (updated_at);
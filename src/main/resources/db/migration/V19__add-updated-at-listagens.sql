@@ -0,0 +1,6 @@
+ALTER TABLE comunicados ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE notificacoes ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE sessao_votacao ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+CREATE INDEX idx_comunicados_updated_at ON comunicados (updated_at);
+CREATE INDEX idx_notificacoes_updated_at ON notificacoes (updated_at);
+CREATE INDEX idx_sessao_votacao_updated_at ON sessao_votacao (updated_at);
@@ -0,0 +1,20 @@
+-- Os duplicados gravados antes destas constraints impediriam o ALTER: fica o de menor id de cada
+-- chave, e as notificações de uma reserva apagada passam a apontar para a que ficou.
+UPDATE notificacoes SET id_reserva = (
+    SELECT MIN(o.id) FROM reservas r
+    JOIN reservas o ON o.areas_comuns_id = r.areas_comuns_id
+        AND o.data_reserva = r.data_reserva AND o.hora_inicio = r.hora_inicio
+    WHERE r.id = notificacoes.id_reserva)
+WHERE id_reserva IN (
+    SELECT id FROM reservas WHERE id NOT IN (
+        SELECT id FROM (SELECT MIN(id) AS id FROM reservas GROUP BY areas_comuns_id, data_reserva, hora_inicio) AS manter));
+
+DELETE FROM reservas WHERE id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM reservas GROUP BY areas_comuns_id, data_reserva, hora_inicio) AS manter);
+
+ALTER TABLE reservas ADD CONSTRAINT uk_reservas_area_horario UNIQUE (areas_comuns_id, data_reserva, hora_inicio);
+
+DELETE FROM voto WHERE id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM voto GROUP BY sessao_votacao_id, usuario_id) AS manter);
+
+ALTER TABLE voto ADD CONSTRAINT uk_voto_sessao_usuario UNIQUE (sessao_votacao_id, usuario_id);
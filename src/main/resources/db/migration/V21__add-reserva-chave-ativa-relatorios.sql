@@ -0,0 +1,15 @@
+-- Identifica a execução que reservou o relatório: a conclusão e a falha só valem para quem ainda
+-- tem a reserva, e o arquivo parcial leva o mesmo identificador.
+ALTER TABLE relatorios ADD COLUMN reserva CHAR(36) NULL;
+
+-- Um único pedido ativo (pendente ou em execução) por condomínio, tipo e período. Fora desses
+-- status a coluna ativo é NULL, que não conflita na chave única. Os pedidos duplicados que já
+-- existirem, exceto o de menor id, são encerrados como falha antes da constraint.
+UPDATE relatorios SET status = 'FALHOU', erro = 'Pedido duplicado.', bloqueada_ate = NULL
+WHERE status IN ('PENDENTE', 'EXECUTANDO') AND id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM relatorios WHERE status IN ('PENDENTE', 'EXECUTANDO')
+                    GROUP BY condominio_id, tipo, periodo) AS manter);
+
+ALTER TABLE relatorios ADD COLUMN ativo TINYINT GENERATED ALWAYS AS (
+    CASE WHEN status IN ('PENDENTE', 'EXECUTANDO') THEN 1 END);
+ALTER TABLE relatorios ADD CONSTRAINT uk_relatorios_chave_ativa UNIQUE (condominio_id, tipo, periodo, ativo);
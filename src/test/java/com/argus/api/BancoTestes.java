@@ -0,0 +1,26 @@
+package com.argus.api;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+// Um H2 novo em memória, no modo MySQL, com as tabelas criadas pelas próprias migrations. Cada
+// teste pede só as migrations das tabelas que usa, na ordem em que o Flyway as aplicaria.
+public final class BancoTestes {
+
+	private BancoTestes() {
+	}
+
+	public static DataSource criar(String nome, String... migrations) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + nome + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+		for (String migration : migrations) {
+			populator.addScript(new ClassPathResource("db/migration/" + migration));
+		}
+		populator.execute(dataSource);
+		return dataSource;
+	}
+}
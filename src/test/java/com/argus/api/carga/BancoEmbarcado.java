@@ -0,0 +1,48 @@
+package com.argus.api.carga;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+// MariaDB embarcado (MariaDB4j) no lugar do MySQL, em uma porta livre e com os dados em um
+// diretório temporário descartado no fim. Aceita o Flyway e as migrations do projeto como estão.
+final class BancoEmbarcado implements AutoCloseable {
+
+	static final String BANCO = "argus_db";
+
+	private final DB db;
+
+	private final int porta;
+
+	private BancoEmbarcado(DB db, int porta) {
+		this.db = db;
+		this.porta = porta;
+	}
+
+	static BancoEmbarcado iniciar(int maximoConexoes) throws Exception {
+		DBConfigurationBuilder configuracao = DBConfigurationBuilder.newBuilder();
+		configuracao.setPort(0);
+		configuracao.addArg("--max-connections=" + maximoConexoes);
+		configuracao.addArg("--character-set-server=utf8mb4");
+		// em contêineres e CI a JVM costuma rodar como root, o que o mariadbd só aceita explicitamente
+		if ("root".equals(System.getProperty("user.name"))) {
+			configuracao.addArg("--user=root");
+		}
+
+		DB db = DB.newEmbeddedDB(configuracao.build());
+		db.start();
+		// com a porta 0 o MariaDB4j escolhe uma livre, que só aparece na configuração já construída
+		return new BancoEmbarcado(db, db.getConfiguration().getPort());
+	}
+
+	// o banco é criado pelo driver: o db.createDB do MariaDB4j usa o cliente de linha de comando,
+	// que depende de bibliotecas nem sempre presentes (libncurses)
+	String url() {
+		return "jdbc:mysql://localhost:" + porta + "/" + BANCO
+				+ "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true";
+	}
+
+	@Override
+	public void close() throws Exception {
+		db.stop();
+	}
+}
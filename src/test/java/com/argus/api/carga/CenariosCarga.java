@@ -0,0 +1,105 @@
+package com.argus.api.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.ApiApplication;
+
+// Teste de carga autocontido: sobe um MariaDB embarcado, a aplicação apontando para ele, cria a
+// massa de dados e executa os cenários. Termina com código 1 se algum SLO do arquivo
+// carga/slo.properties (ou do indicado em -Dcarga.slo) for violado, e com 2 se a execução falhar.
+//
+// mvn -Pcarga test-compile exec:java -Dcarga.concorrencia=100 -Dcarga.duracao=60
+//
+// Cenários: login (rajada de logins), votos (rajada de votos), reservas (muitos clientes disputando
+// os mesmos horários; as recusas 4xx são esperadas) e notificacoes (polling, metade com If-None-Match).
+public final class CenariosCarga {
+
+	private CenariosCarga() {
+	}
+
+	public static void main(String[] args) {
+		try {
+			System.exit(executar(args));
+		} catch (Exception e) {
+			// o MariaDB4j deixa threads não daemon vivas; sem o exit a JVM não terminaria
+			e.printStackTrace();
+			System.exit(2);
+		}
+	}
+
+	private static int executar(String[] args) throws Exception {
+		int concorrencia = Integer.getInteger("carga.concorrencia", 50);
+		Duration aquecimento = Duration.ofSeconds(Long.getLong("carga.aquecimento", 5));
+		Duration duracao = Duration.ofSeconds(Long.getLong("carga.duracao", 20));
+		int usuarios = Integer.getInteger("carga.usuarios", 500);
+		int sessoes = Integer.getInteger("carga.sessoes", 100);
+		ObjetivosCarga objetivos = ObjetivosCarga.carregar(System.getProperty("carga.slo", "carga/slo.properties"));
+
+		List<ResultadoCarga> resultados = new ArrayList<>();
+		long reservasDuplicadas;
+		try (BancoEmbarcado banco = BancoEmbarcado.iniciar(concorrencia * 2 + 50);
+			 ConfigurableApplicationContext contexto = iniciar(banco, args)) {
+			MassaDeDados massa = MassaDeDados.preparar(contexto, usuarios, sessoes);
+			int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+			ClienteCarga cliente = new ClienteCarga("http://localhost:" + porta);
+			String token = cliente.login(MassaDeDados.CPF_ADMIN, MassaDeDados.SENHA);
+
+			resultados.add(ExecutorCarga.executar("login", concorrencia, aquecimento, duracao,
+					i -> cliente.enviar("POST", "/auth/login", null, massa.corpoLogin(i))));
+
+			resultados.add(ExecutorCarga.executar("votos", concorrencia, aquecimento, duracao,
+					i -> cliente.enviar("POST", "/votos", token, massa.corpoVoto(i),
+							"usuarioId", String.valueOf(massa.usuarioDoVoto(i)))));
+
+			resultados.add(ExecutorCarga.executar("reservas", concorrencia, aquecimento, duracao,
+					i -> cliente.enviar("POST", "/reservas", token, massa.corpoReservaDisputada(i))));
+			reservasDuplicadas = massa.reservasDuplicadas(contexto.getBean(JdbcTemplate.class));
+
+			String etag = cliente.cabecalho("GET", "/notificacoes", token, "ETag");
+			resultados.add(ExecutorCarga.executar("notificacoes", concorrencia, aquecimento, duracao,
+					i -> i % 2 == 0 && etag != null
+							? cliente.enviar("GET", "/notificacoes", token, null, "If-None-Match", etag)
+							: cliente.enviar("GET", "/notificacoes", token, null)));
+		}
+
+		System.out.println();
+		System.out.println("Concorrência: " + concorrencia + " clientes, " + duracao.toSeconds() + " s por cenário");
+		System.out.println(ResultadoCarga.cabecalho());
+		resultados.forEach(resultado -> System.out.println(resultado.linha()));
+		System.out.println("Horários disputados reservados mais de uma vez: " + reservasDuplicadas);
+
+		List<String> violacoes = objetivos.verificar(resultados);
+		if (!violacoes.isEmpty()) {
+			System.out.println();
+			System.out.println("SLOs violados:");
+			violacoes.forEach(violacao -> System.out.println("  " + violacao));
+			return 1;
+		}
+		System.out.println("Todos os SLOs atendidos.");
+		return 0;
+	}
+
+	// as propriedades vão como argumentos de linha de comando: as "default properties" do
+	// SpringApplicationBuilder perdem para o application.yml
+	private static ConfigurableApplicationContext iniciar(BancoEmbarcado banco, String[] args) {
+		List<String> argumentos = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--spring.datasource.url=" + banco.url(),
+				"--spring.datasource.username=root",
+				"--spring.datasource.password=",
+				"--spring.jpa.show-sql=false",
+				// os cenários usam um único token de ADMIN: com o limite por usuário ligado, os
+				// votos e as reservas parariam nos 429 e a medida seria a do limite
+				"--api.limite-taxa.habilitado=false",
+				"--logging.level.com.argus.api.infra.metricas=ERROR"));
+		argumentos.addAll(List.of(args));
+		return new SpringApplicationBuilder(ApiApplication.class).run(argumentos.toArray(String[]::new));
+	}
+}
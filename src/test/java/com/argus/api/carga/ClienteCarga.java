@@ -0,0 +1,66 @@
+package com.argus.api.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Cliente HTTP mínimo usado pelos cenários de carga
+class ClienteCarga {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final HttpClient http;
+
+	private final String urlBase;
+
+	ClienteCarga(String urlBase) {
+		this.urlBase = urlBase;
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+	}
+
+	String login(String cpf, String senha) throws Exception {
+		String corpo = JSON.writeValueAsString(Map.of("cpf", cpf, "password", senha));
+		HttpResponse<String> resposta = http.send(requisicao("POST", "/auth/login", null, corpo).build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (resposta.statusCode() != 200) {
+			throw new IllegalStateException("Login falhou (" + resposta.statusCode() + "): " + resposta.body());
+		}
+		return JSON.readTree(resposta.body()).get("token").asText();
+	}
+
+	int enviar(String metodo, String caminho, String token, String corpoJson, String... cabecalhos) throws Exception {
+		HttpRequest.Builder builder = requisicao(metodo, caminho, token, corpoJson);
+		for (int i = 0; i + 1 < cabecalhos.length; i += 2) {
+			builder.header(cabecalhos[i], cabecalhos[i + 1]);
+		}
+		return http.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	String cabecalho(String metodo, String caminho, String token, String nome) throws Exception {
+		return http.send(requisicao(metodo, caminho, token, null).build(), HttpResponse.BodyHandlers.discarding())
+				.headers().firstValue(nome).orElse(null);
+	}
+
+	private HttpRequest.Builder requisicao(String metodo, String caminho, String token, String corpoJson) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlBase + caminho))
+				.timeout(Duration.ofSeconds(30))
+				.method(metodo, corpoJson != null
+						? HttpRequest.BodyPublishers.ofString(corpoJson)
+						: HttpRequest.BodyPublishers.noBody());
+		if (corpoJson != null) {
+			builder.header("Content-Type", "application/json");
+		}
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder;
+	}
+}
@@ -0,0 +1,68 @@
+package com.argus.api.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.argus.api.ApiApplication;
+
+// Compara a API em platform threads (Tomcat padrão) e em virtual threads (profile "virtual")
+// nos endpoints de reserva e de voto. Sobe a aplicação duas vezes no mesmo processo, contra o
+// banco configurado no application.yml, e imprime vazão e percentis de latência de cada modo.
+//
+// mvn -Pvirtual-threads test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.argus.api.carga.ComparativoThreads -Dcarga.concorrencia=400 -Dcarga.duracao=60
+//
+// Em Java anterior ao 21 só o modo de platform threads é executado.
+public final class ComparativoThreads {
+
+	private ComparativoThreads() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int concorrencia = Integer.getInteger("carga.concorrencia", 200);
+		Duration aquecimento = Duration.ofSeconds(Long.getLong("carga.aquecimento", 5));
+		Duration duracao = Duration.ofSeconds(Long.getLong("carga.duracao", 30));
+		int usuarios = Integer.getInteger("carga.usuarios", 1000);
+		int sessoes = Integer.getInteger("carga.sessoes", 200);
+
+		List<String> modos = Runtime.version().feature() >= 21
+				? List.of("plataforma", "virtual")
+				: List.of("plataforma");
+
+		List<ResultadoCarga> resultados = new ArrayList<>();
+		for (String modo : modos) {
+			try (ConfigurableApplicationContext contexto = iniciar(modo, args)) {
+				MassaDeDados massa = MassaDeDados.preparar(contexto, usuarios, sessoes);
+				int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+				ClienteCarga cliente = new ClienteCarga("http://localhost:" + porta);
+				String token = cliente.login(MassaDeDados.CPF_ADMIN, MassaDeDados.SENHA);
+
+				resultados.add(ExecutorCarga.executar(modo + " POST /reservas", concorrencia, aquecimento, duracao,
+						i -> cliente.enviar("POST", "/reservas", token, massa.corpoReserva(i))));
+
+				resultados.add(ExecutorCarga.executar(modo + " POST /votos", concorrencia, aquecimento, duracao,
+						i -> cliente.enviar("POST", "/votos", token, massa.corpoVoto(i),
+								"usuarioId", String.valueOf(massa.usuarioDoVoto(i)))));
+			}
+		}
+
+		System.out.println();
+		System.out.println("Concorrência: " + concorrencia + " clientes, " + duracao.toSeconds() + " s por cenário");
+		System.out.println(ResultadoCarga.cabecalho());
+		resultados.forEach(resultado -> System.out.println(resultado.linha()));
+	}
+
+	private static ConfigurableApplicationContext iniciar(String modo, String[] args) {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(ApiApplication.class)
+				.properties("server.port=0", "spring.jpa.show-sql=false");
+		if (modo.equals("virtual")) {
+			builder.profiles("virtual");
+		}
+		return builder.run(args);
+	}
+}
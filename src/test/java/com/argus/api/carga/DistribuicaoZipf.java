@@ -0,0 +1,94 @@
+package com.argus.api.carga;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Distribuição de Zipf sobre n itens: o item de posição k recebe peso 1/k^expoente. As posições
+// são embaralhadas pela semente, para que os itens "quentes" não sejam sempre os primeiros ids.
+// Expoente 0 dá distribuição uniforme.
+final class DistribuicaoZipf {
+
+	private final double[] probabilidades;
+
+	DistribuicaoZipf(int itens, double expoente, long semente) {
+		int[] posicoes = new int[itens];
+		for (int i = 0; i < itens; i++) {
+			posicoes[i] = i;
+		}
+		Random random = new Random(semente);
+		for (int i = itens - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int troca = posicoes[i];
+			posicoes[i] = posicoes[j];
+			posicoes[j] = troca;
+		}
+
+		probabilidades = new double[itens];
+		double soma = 0;
+		for (int i = 0; i < itens; i++) {
+			probabilidades[i] = 1.0 / Math.pow(posicoes[i] + 1, expoente);
+			soma += probabilidades[i];
+		}
+		for (int i = 0; i < itens; i++) {
+			probabilidades[i] /= soma;
+		}
+	}
+
+	double probabilidade(int item) {
+		return probabilidades[item];
+	}
+
+	// Divide o total entre os itens proporcionalmente às probabilidades, com no mínimo "minimo"
+	// para cada um, pelo método dos maiores restos: a soma é exatamente o total.
+	long[] repartir(long total, long minimo) {
+		int itens = probabilidades.length;
+		long[] quantidades = new long[itens];
+		long restante = total - minimo * itens;
+		if (restante < 0) {
+			throw new IllegalArgumentException("Total " + total + " menor que o mínimo para " + itens + " itens.");
+		}
+
+		long distribuido = 0;
+		double[] restos = new double[itens];
+		for (int i = 0; i < itens; i++) {
+			double exato = restante * probabilidades[i];
+			quantidades[i] = minimo + (long) exato;
+			restos[i] = exato - (long) exato;
+			distribuido += (long) exato;
+		}
+
+		Integer[] ordem = new Integer[itens];
+		for (int i = 0; i < itens; i++) {
+			ordem[i] = i;
+		}
+		Arrays.sort(ordem, (a, b) -> Double.compare(restos[b], restos[a]));
+		for (int i = 0; distribuido < restante; i++, distribuido++) {
+			quantidades[ordem[i]]++;
+		}
+		return quantidades;
+	}
+
+	// Posições iniciais acumuladas: inicios[i] é o primeiro índice do item i e inicios[n] o total
+	static long[] inicios(long[] quantidades) {
+		long[] inicios = new long[quantidades.length + 1];
+		for (int i = 0; i < quantidades.length; i++) {
+			inicios[i + 1] = inicios[i] + quantidades[i];
+		}
+		return inicios;
+	}
+
+	// Item ao qual pertence o índice, dado o vetor de inícios (itens vazios são pulados)
+	static int item(long[] inicios, long indice) {
+		int baixo = 0;
+		int alto = inicios.length - 1;
+		while (alto - baixo > 1) {
+			int meio = (baixo + alto) >>> 1;
+			if (inicios[meio] <= indice) {
+				baixo = meio;
+			} else {
+				alto = meio;
+			}
+		}
+		return baixo;
+	}
+}
@@ -0,0 +1,97 @@
+package com.argus.api.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Carga em malha fechada: cada worker envia a próxima requisição assim que recebe a resposta.
+// As requisições do aquecimento não entram no resultado.
+final class ExecutorCarga {
+
+	@FunctionalInterface
+	interface Requisicao {
+		// recebe um número sequencial único e devolve o status HTTP
+		int executar(int iteracao) throws Exception;
+	}
+
+	private ExecutorCarga() {
+	}
+
+	static ResultadoCarga executar(String nome, int concorrencia, Duration aquecimento, Duration duracao,
+			Requisicao requisicao) throws Exception {
+		AtomicInteger iteracoes = new AtomicInteger();
+		long inicio = System.nanoTime();
+		long inicioMedicao = inicio + aquecimento.toNanos();
+		long fim = inicioMedicao + duracao.toNanos();
+
+		ExecutorService workers = Executors.newFixedThreadPool(concorrencia);
+		try {
+			List<Future<Worker>> futuros = new ArrayList<>();
+			for (int i = 0; i < concorrencia; i++) {
+				futuros.add(workers.submit(() -> {
+					Worker worker = new Worker();
+					long agora;
+					while ((agora = System.nanoTime()) < fim) {
+						int status;
+						try {
+							status = requisicao.executar(iteracoes.getAndIncrement());
+						} catch (Exception e) {
+							status = -1;
+						}
+						if (agora >= inicioMedicao) {
+							worker.registrar(System.nanoTime() - agora, status);
+						}
+					}
+					return worker;
+				}));
+			}
+
+			long[] latencias = new long[0];
+			long sucessos = 0;
+			long rejeicoes = 0;
+			long erros = 0;
+			for (Future<Worker> futuro : futuros) {
+				Worker worker = futuro.get();
+				int base = latencias.length;
+				latencias = Arrays.copyOf(latencias, base + worker.quantidade);
+				System.arraycopy(worker.latencias, 0, latencias, base, worker.quantidade);
+				sucessos += worker.sucessos;
+				rejeicoes += worker.rejeicoes;
+				erros += worker.erros;
+			}
+			return new ResultadoCarga(nome, latencias, sucessos, rejeicoes, erros, duracao);
+		} finally {
+			workers.shutdownNow();
+			workers.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private static final class Worker {
+		private long[] latencias = new long[1024];
+		private int quantidade;
+		private long sucessos;
+		private long rejeicoes;
+		private long erros;
+
+		void registrar(long latencia, int status) {
+			if (quantidade == latencias.length) {
+				latencias = Arrays.copyOf(latencias, quantidade * 2);
+			}
+			latencias[quantidade++] = latencia;
+			// 304 (If-None-Match) também é uma resposta bem-sucedida
+			if (status >= 200 && status < 400) {
+				sucessos++;
+			} else if (status >= 400 && status < 500) {
+				rejeicoes++;
+			} else {
+				erros++;
+			}
+		}
+	}
+}
@@ -0,0 +1,407 @@
+package com.argus.api.carga;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Gera massa de dados em volume (milhares de condomínios, centenas de milhares de usuários,
+// milhões de reservas, votos e notificações) direto pelo JDBC, em lotes de INSERT multi-linha.
+// Aplica as migrations do Flyway antes, então o banco pode estar vazio.
+//
+// mvn -Pcarga test-compile exec:java -Dcarga.principal=com.argus.api.carga.GeradorMassa \
+//     -Dmassa.url=jdbc:mysql://localhost:3306/argus_massa -Dmassa.usuario=root -Dmassa.senha=root
+//
+// A mesma semente gera sempre os mesmos dados: os ids são atribuídos pelo gerador (a partir do
+// maior id de cada tabela) e cada parte de cada tabela usa um Random derivado da semente, da
+// tabela e do número da parte, então o paralelismo não altera o resultado. As tabelas são
+// geradas em etapas na ordem das chaves estrangeiras; dentro de uma etapa, as partes de todas as
+// tabelas rodam em paralelo.
+//
+// Distribuições: usuários por condomínio e reservas por área seguem Zipf (-Dmassa.zipf), o que
+// cria condomínios grandes e áreas "quentes"; a participação nas sessões de votação também segue
+// Zipf e cada sessão tem uma tendência própria de votos sim.
+public final class GeradorMassa {
+
+	private static final int LINHAS_POR_PARTE = 50_000;
+	private static final int HORARIOS_POR_DIA = 14;
+	private static final LocalDate INICIO_RESERVAS = LocalDate.of(2020, 1, 1);
+	private static final LocalDateTime INICIO_REGISTROS = LocalDateTime.of(2023, 1, 1, 0, 0);
+	private static final int DIAS_REGISTROS = 730;
+	private static final String SENHA = "massa123";
+	private static final String[] AREAS = {"Salão de Festas", "Churrasqueira", "Piscina", "Quadra", "Academia", "Espaço Gourmet"};
+	private static final String[] TIPOS_OCORRENCIA = {"PROBLEMA_DE_INFRAESTRUTURA", "DESENTENDIMENTO",
+			"SOLICITACAO_DE_MANUTENCAO", "ASSEMBLEIA", "DESVIO_DE_CONDUTA"};
+	private static final String[] STATUS_APROVACAO = {"APROVADO", "REJEITADO", "AGUARDANDO"};
+	private static final String[] STATUS_RESOLUCAO = {"PENDENTE", "EM_ANDAMENTO", "CONCLUIDA"};
+
+	private final long semente;
+	private final int lote;
+	private final HikariDataSource dataSource;
+	private final ExecutorService executor;
+	private final Map<String, Long> primeirosIds = new LinkedHashMap<>();
+	private final Map<String, long[]> tempos = new LinkedHashMap<>();
+
+	// formato da massa, calculado antes de qualquer insert
+	private final int condominios;
+	private final int areasPorCondominio;
+	private final int sessoesPorCondominio;
+	private final int comunicadosPorCondominio;
+	private final long[] inicioUsuarios;
+	private final long[] inicioReservas;
+	private final long[] inicioVotos;
+	private final long[] deslocamentoVotos;
+	private final double[] tendenciaSim;
+	private final long ocorrencias;
+	private final long notificacoes;
+	private final String hashSenha;
+
+	private GeradorMassa(HikariDataSource dataSource, int threads) {
+		this.dataSource = dataSource;
+		this.executor = Executors.newFixedThreadPool(threads);
+		this.semente = Long.getLong("massa.semente", 42);
+		this.lote = Integer.getInteger("massa.lote", 5_000);
+		double zipf = Double.parseDouble(System.getProperty("massa.zipf", "1.1"));
+
+		condominios = Integer.getInteger("massa.condominios", 1_000);
+		areasPorCondominio = Integer.getInteger("massa.areas-por-condominio", 5);
+		sessoesPorCondominio = Integer.getInteger("massa.sessoes-por-condominio", 20);
+		comunicadosPorCondominio = Integer.getInteger("massa.comunicados-por-condominio", 20);
+		long usuarios = Long.getLong("massa.usuarios", 200_000);
+		long reservas = Long.getLong("massa.reservas", 1_000_000);
+		long votos = Long.getLong("massa.votos", 1_000_000);
+		ocorrencias = Long.getLong("massa.ocorrencias", 200_000);
+		notificacoes = Long.getLong("massa.notificacoes", 1_000_000);
+
+		inicioUsuarios = DistribuicaoZipf.inicios(
+				new DistribuicaoZipf(condominios, zipf, semente).repartir(usuarios, 1));
+		inicioReservas = DistribuicaoZipf.inicios(
+				new DistribuicaoZipf(condominios * areasPorCondominio, zipf, semente + 1).repartir(reservas, 0));
+
+		// cada sessão recebe votos de usuários distintos do seu condomínio, então a cota é limitada
+		// pelo número de moradores; por isso o total de votos gerados pode ficar abaixo do pedido
+		int sessoes = condominios * sessoesPorCondominio;
+		long[] cotas = new DistribuicaoZipf(sessoes, zipf, semente + 2).repartir(votos, 0);
+		deslocamentoVotos = new long[sessoes];
+		tendenciaSim = new double[sessoes];
+		Random random = new Random(semente + 3);
+		for (int s = 0; s < sessoes; s++) {
+			long moradores = quantidade(inicioUsuarios, s / sessoesPorCondominio);
+			cotas[s] = Math.min(cotas[s], moradores);
+			deslocamentoVotos[s] = (long) (random.nextDouble() * moradores);
+			tendenciaSim[s] = random.nextDouble();
+		}
+		inicioVotos = DistribuicaoZipf.inicios(cotas);
+
+		// BCrypt por linha levaria horas; todos os usuários gerados compartilham a mesma senha, com
+		// o sal tirado da semente para que o hash também se repita
+		hashSenha = BCrypt.hashpw(SENHA, BCrypt.gensalt(10, aleatorioSeguro(semente)));
+	}
+
+	public static void main(String[] args) {
+		String url = System.getProperty("massa.url");
+		if (url == null) {
+			System.err.println("Informe o banco em -Dmassa.url (e -Dmassa.usuario / -Dmassa.senha).");
+			System.exit(2);
+		}
+		try {
+			gerar(url, System.getProperty("massa.usuario", "root"), System.getProperty("massa.senha", ""));
+			System.exit(0);
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(2);
+		}
+	}
+
+	static void gerar(String url, String usuario, String senha) throws Exception {
+		Flyway.configure().dataSource(url, usuario, senha).load().migrate();
+
+		int threads = Integer.getInteger("massa.threads", Runtime.getRuntime().availableProcessors());
+		HikariConfig configuracao = new HikariConfig();
+		// sem rewriteBatchedStatements o Connector/J envia um INSERT por linha mesmo em lote
+		configuracao.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true");
+		configuracao.setUsername(usuario);
+		configuracao.setPassword(senha);
+		configuracao.setMaximumPoolSize(threads);
+		configuracao.setAutoCommit(false);
+
+		try (HikariDataSource dataSource = new HikariDataSource(configuracao)) {
+			GeradorMassa gerador = new GeradorMassa(dataSource, threads);
+			try {
+				gerador.executar();
+			} finally {
+				gerador.executor.shutdownNow();
+			}
+		}
+	}
+
+	private void executar() throws Exception {
+		for (String tabela : List.of("condominios", "usuarios", "areas_comuns", "sessao_votacao", "reservas",
+				"voto", "comunicados", "ocorrencias", "notificacoes")) {
+			primeirosIds.put(tabela, maiorId(tabela) + 1);
+		}
+
+		long inicio = System.nanoTime();
+		etapa("condominios");
+		etapa("usuarios", "areas_comuns", "sessao_votacao");
+		etapa("reservas", "voto", "comunicados", "ocorrencias");
+		etapa("notificacoes");
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		System.out.printf("%-16s %12s %10s %12s%n", "tabela", "linhas", "s", "linhas/s");
+		long total = 0;
+		for (Map.Entry<String, long[]> tabela : tempos.entrySet()) {
+			long linhas = tabela.getValue()[0];
+			double duracao = tabela.getValue()[1] / 1e9;
+			total += linhas;
+			System.out.printf("%-16s %12d %10.1f %12.0f%n", tabela.getKey(), linhas, duracao, linhas / duracao);
+		}
+		System.out.printf("%-16s %12d %10.1f %12.0f%n", "total", total, segundos, total / segundos);
+		System.out.println("Senha dos usuários gerados: " + SENHA);
+	}
+
+	private void etapa(String... tabelas) throws Exception {
+		List<Future<?>> partes = new ArrayList<>();
+		long inicio = System.nanoTime();
+		for (String tabela : tabelas) {
+			long linhas = linhas(tabela);
+			for (long parte = 0; parte * LINHAS_POR_PARTE < linhas; parte++) {
+				long de = parte * LINHAS_POR_PARTE;
+				long ate = Math.min(de + LINHAS_POR_PARTE, linhas);
+				long numero = parte;
+				partes.add(executor.submit(() -> {
+					inserir(tabela, numero, de, ate);
+					return null;
+				}));
+			}
+		}
+		for (Future<?> parte : partes) {
+			parte.get();
+		}
+		// as tabelas da etapa rodam juntas, então o tempo de cada uma é o da etapa inteira
+		long duracao = System.nanoTime() - inicio;
+		for (String tabela : tabelas) {
+			tempos.put(tabela, new long[]{linhas(tabela), duracao});
+		}
+	}
+
+	private long linhas(String tabela) {
+		return switch (tabela) {
+			case "condominios" -> condominios;
+			case "usuarios" -> inicioUsuarios[condominios];
+			case "areas_comuns" -> (long) condominios * areasPorCondominio;
+			case "sessao_votacao" -> (long) condominios * sessoesPorCondominio;
+			case "reservas" -> inicioReservas[inicioReservas.length - 1];
+			case "voto" -> inicioVotos[inicioVotos.length - 1];
+			case "comunicados" -> (long) condominios * comunicadosPorCondominio;
+			case "ocorrencias" -> ocorrencias;
+			case "notificacoes" -> notificacoes;
+			default -> throw new IllegalArgumentException("Tabela desconhecida: " + tabela);
+		};
+	}
+
+	private void inserir(String tabela, long parte, long de, long ate) throws SQLException {
+		Random random = new Random(Objects.hash(semente, tabela, parte));
+		try (Connection conexao = dataSource.getConnection();
+			 PreparedStatement insert = conexao.prepareStatement(sql(tabela))) {
+			for (long i = de; i < ate; i++) {
+				preencher(tabela, insert, i, random);
+				insert.addBatch();
+				if ((i - de + 1) % lote == 0) {
+					insert.executeBatch();
+					conexao.commit();
+				}
+			}
+			insert.executeBatch();
+			conexao.commit();
+		}
+	}
+
+	private static String sql(String tabela) {
+		return switch (tabela) {
+			// created_at e updated_at explícitos: o padrão CURRENT_TIMESTAMP mudaria a cada execução
+			case "condominios" -> "INSERT INTO condominios (id, nome, endereco, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+			case "usuarios" -> "INSERT INTO usuarios (id, nome, cpf, senha, telefone, tipo_do_usuario, bloco, apartamento, "
+					+ "condominio_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+			case "areas_comuns" -> "INSERT INTO areas_comuns (id, nome, disponivel, condominio_id) VALUES (?, ?, ?, ?)";
+			case "sessao_votacao" -> "INSERT INTO sessao_votacao (id, proposta, descricao, data_inicio, data_fim, condominio_id) "
+					+ "VALUES (?, ?, ?, ?, ?, ?)";
+			case "reservas" -> "INSERT INTO reservas (id, areas_comuns_id, data_reserva, hora_inicio, hora_fim) VALUES (?, ?, ?, ?, ?)";
+			case "voto" -> "INSERT INTO voto (id, voto, sessao_votacao_id, usuario_id) VALUES (?, ?, ?, ?)";
+			case "comunicados" -> "INSERT INTO comunicados (id, titulo, mensagem, usuario_id, condominio_id) VALUES (?, ?, ?, ?, ?)";
+			case "ocorrencias" -> "INSERT INTO ocorrencias (id, titulo, descricao, tipo, status_aprovacao, status_resolucao, "
+					+ "data_criacao, data_resolucao, id_usuario, id_area) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+			case "notificacoes" -> "INSERT INTO notificacoes (id, titulo, corpo_de_texto, data, id_comunicados, id_usuarios) "
+					+ "VALUES (?, ?, ?, ?, ?, ?)";
+			default -> throw new IllegalArgumentException("Tabela desconhecida: " + tabela);
+		};
+	}
+
+	private void preencher(String tabela, PreparedStatement insert, long i, Random random) throws SQLException {
+		long id = primeirosIds.get(tabela) + i;
+		insert.setLong(1, id);
+		switch (tabela) {
+			case "condominios" -> {
+				insert.setString(2, "Condomínio Massa " + id);
+				insert.setString(3, "Rua " + (i % 500 + 1) + ", " + (i / 500 + 1));
+				insert.setTimestamp(4, Timestamp.valueOf(INICIO_REGISTROS));
+				insert.setTimestamp(5, Timestamp.valueOf(INICIO_REGISTROS));
+			}
+			case "usuarios" -> {
+				int condominio = DistribuicaoZipf.item(inicioUsuarios, i);
+				long posicao = i - inicioUsuarios[condominio];
+				insert.setString(2, "Morador " + id);
+				insert.setString(3, cpf(id));
+				insert.setString(4, hashSenha);
+				insert.setString(5, String.format("119%08d", random.nextInt(100_000_000)));
+				// o primeiro usuário de cada condomínio é o síndico
+				insert.setString(6, posicao == 0 ? "SINDICO" : "MORADOR");
+				insert.setString(7, String.valueOf((char) ('A' + posicao % 8)));
+				insert.setInt(8, (int) (101 + posicao / 8));
+				insert.setLong(9, idCondominio(condominio));
+				insert.setTimestamp(10, Timestamp.valueOf(INICIO_REGISTROS));
+				insert.setTimestamp(11, Timestamp.valueOf(INICIO_REGISTROS));
+			}
+			case "areas_comuns" -> {
+				int condominio = (int) (i / areasPorCondominio);
+				int area = (int) (i % areasPorCondominio);
+				insert.setString(2, AREAS[area % AREAS.length] + (area >= AREAS.length ? " " + (area / AREAS.length + 1) : ""));
+				insert.setBoolean(3, random.nextInt(10) > 0);
+				insert.setLong(4, idCondominio(condominio));
+			}
+			case "sessao_votacao" -> {
+				LocalDate dataInicio = INICIO_REGISTROS.toLocalDate().plusDays(random.nextInt(DIAS_REGISTROS));
+				insert.setString(2, "Proposta " + id);
+				insert.setString(3, "Proposta gerada para testes de desempenho.");
+				insert.setDate(4, Date.valueOf(dataInicio));
+				insert.setDate(5, Date.valueOf(dataInicio.plusDays(7 + random.nextInt(24))));
+				insert.setLong(6, idCondominio((int) (i / sessoesPorCondominio)));
+			}
+			case "reservas" -> {
+				// horários consecutivos por área, sem sobreposição
+				int area = DistribuicaoZipf.item(inicioReservas, i);
+				long posicao = i - inicioReservas[area];
+				LocalTime hora = LocalTime.of(8 + (int) (posicao % HORARIOS_POR_DIA), 0);
+				insert.setLong(2, primeirosIds.get("areas_comuns") + area);
+				insert.setDate(3, Date.valueOf(INICIO_RESERVAS.plusDays(posicao / HORARIOS_POR_DIA)));
+				insert.setTime(4, Time.valueOf(hora));
+				insert.setTime(5, Time.valueOf(hora.plusMinutes(59)));
+			}
+			case "voto" -> {
+				int sessao = DistribuicaoZipf.item(inicioVotos, i);
+				int condominio = sessao / sessoesPorCondominio;
+				long moradores = quantidade(inicioUsuarios, condominio);
+				long eleitor = (deslocamentoVotos[sessao] + i - inicioVotos[sessao]) % moradores;
+				insert.setBoolean(2, random.nextDouble() < tendenciaSim[sessao]);
+				insert.setLong(3, primeirosIds.get("sessao_votacao") + sessao);
+				insert.setLong(4, idUsuario(inicioUsuarios[condominio] + eleitor));
+			}
+			case "comunicados" -> {
+				int condominio = (int) (i / comunicadosPorCondominio);
+				insert.setString(2, "Comunicado " + id);
+				insert.setString(3, "Comunicado gerado para testes de desempenho.");
+				insert.setLong(4, idUsuario(inicioUsuarios[condominio]));
+				insert.setLong(5, idCondominio(condominio));
+			}
+			case "ocorrencias" -> {
+				long usuario = (long) (random.nextDouble() * inicioUsuarios[condominios]);
+				int condominio = DistribuicaoZipf.item(inicioUsuarios, usuario);
+				String resolucao = STATUS_RESOLUCAO[random.nextInt(STATUS_RESOLUCAO.length)];
+				LocalDateTime criacao = INICIO_REGISTROS.plusMinutes(random.nextInt(DIAS_REGISTROS * 24 * 60));
+				insert.setString(2, "Ocorrência " + id);
+				insert.setString(3, "Ocorrência gerada para testes de desempenho.");
+				insert.setString(4, TIPOS_OCORRENCIA[random.nextInt(TIPOS_OCORRENCIA.length)]);
+				insert.setString(5, STATUS_APROVACAO[random.nextInt(STATUS_APROVACAO.length)]);
+				insert.setString(6, resolucao);
+				insert.setTimestamp(7, Timestamp.valueOf(criacao));
+				insert.setTimestamp(8, "CONCLUIDA".equals(resolucao)
+						? Timestamp.valueOf(criacao.plusHours(1 + random.nextInt(24 * 30))) : null);
+				insert.setLong(9, idUsuario(usuario));
+				if (random.nextBoolean()) {
+					insert.setLong(10, primeirosIds.get("areas_comuns") + (long) condominio * areasPorCondominio
+							+ random.nextInt(areasPorCondominio));
+				} else {
+					insert.setNull(10, Types.BIGINT);
+				}
+			}
+			case "notificacoes" -> {
+				long usuario = (long) (random.nextDouble() * inicioUsuarios[condominios]);
+				int condominio = DistribuicaoZipf.item(inicioUsuarios, usuario);
+				insert.setString(2, "Notificação " + id);
+				insert.setString(3, "Notificação gerada para testes de desempenho.");
+				insert.setDate(4, Date.valueOf(INICIO_REGISTROS.toLocalDate().plusDays(random.nextInt(DIAS_REGISTROS))));
+				// metade das notificações vem de um comunicado do condomínio do usuário
+				if (comunicadosPorCondominio > 0 && random.nextBoolean()) {
+					insert.setLong(5, primeirosIds.get("comunicados") + (long) condominio * comunicadosPorCondominio
+							+ random.nextInt(comunicadosPorCondominio));
+				} else {
+					insert.setNull(5, Types.BIGINT);
+				}
+				insert.setLong(6, idUsuario(usuario));
+			}
+			default -> throw new IllegalArgumentException("Tabela desconhecida: " + tabela);
+		}
+	}
+
+	private long idCondominio(int condominio) {
+		return primeirosIds.get("condominios") + condominio;
+	}
+
+	private long idUsuario(long usuario) {
+		return primeirosIds.get("usuarios") + usuario;
+	}
+
+	private static long quantidade(long[] inicios, int item) {
+		return inicios[item + 1] - inicios[item];
+	}
+
+	// único por id e no formato 000.000.000-00, que cabe na coluna
+	private static String cpf(long id) {
+		String digitos = String.format("%011d", id);
+		return digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "." + digitos.substring(6, 9) + "-" + digitos.substring(9);
+	}
+
+	private static SecureRandom aleatorioSeguro(long semente) {
+		try {
+			// o SHA1PRNG semeado antes do primeiro uso produz sempre a mesma sequência
+			SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+			random.setSeed(semente);
+			return random;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long maiorId(String tabela) throws SQLException {
+		try (Connection conexao = dataSource.getConnection(); Statement consulta = conexao.createStatement()) {
+			ResultSet resultado = consulta.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tabela);
+			resultado.next();
+			return resultado.getLong(1);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.argus.api.carga;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Dados mínimos para os cenários de carga, criados direto pelo JDBC do contexto da aplicação.
+// Pode ser executado de novo sobre o mesmo banco: reaproveita o que já existe.
+class MassaDeDados {
+
+	static final String CONDOMINIO = "Condomínio Carga";
+	static final String AREA = "Salão de Festas Carga";
+	static final String CPF_ADMIN = "000.000.000-00";
+	static final String SENHA = "carga123";
+
+	private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private static final int HORARIOS_POR_DIA = 14;
+	private static final int HORARIOS_DISPUTADOS = 20;
+
+	private final List<Long> usuarios;
+	private final List<Long> sessoes;
+	private final LocalDate primeiraDataReserva;
+
+	private MassaDeDados(List<Long> usuarios, List<Long> sessoes) {
+		this.usuarios = usuarios;
+		this.sessoes = sessoes;
+		// datas distantes e aleatórias para cada execução não colidir com reservas anteriores
+		this.primeiraDataReserva = LocalDate.now().plusYears(5).plusDays(ThreadLocalRandom.current().nextInt(300_000));
+	}
+
+	static MassaDeDados preparar(ApplicationContext contexto, int quantidadeUsuarios, int quantidadeSessoes) {
+		JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+		String senha = contexto.getBean(PasswordEncoder.class).encode(SENHA);
+
+		jdbc.update("INSERT IGNORE INTO condominios (nome, endereco) VALUES (?, ?)", CONDOMINIO, "Rua da Carga, 100");
+		Long condominioId = jdbc.queryForObject("SELECT id FROM condominios WHERE nome = ?", Long.class, CONDOMINIO);
+
+		jdbc.update("INSERT IGNORE INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+				+ "VALUES (?, ?, ?, ?, 'ADMIN', ?)", "Admin Carga", CPF_ADMIN, senha, "00000000000", condominioId);
+
+		if (jdbc.queryForObject("SELECT COUNT(*) FROM areas_comuns WHERE nome = ?", Long.class, AREA) == 0) {
+			jdbc.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES (?, TRUE, ?)", AREA, condominioId);
+		}
+
+		List<Object[]> novosUsuarios = new ArrayList<>();
+		for (int i = 0; i < quantidadeUsuarios; i++) {
+			novosUsuarios.add(new Object[]{"Morador Carga " + i, String.format("carga-%08d", i), senha, "00000000000", condominioId});
+		}
+		jdbc.batchUpdate("INSERT IGNORE INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+				+ "VALUES (?, ?, ?, ?, 'MORADOR', ?)", novosUsuarios);
+
+		long sessoesExistentes = jdbc.queryForObject(
+				"SELECT COUNT(*) FROM sessao_votacao WHERE condominio_id = ? AND proposta LIKE 'Carga %'", Long.class, condominioId);
+		List<Object[]> novasSessoes = new ArrayList<>();
+		for (long i = sessoesExistentes; i < quantidadeSessoes; i++) {
+			novasSessoes.add(new Object[]{"Carga " + i, "Sessão criada para teste de carga", condominioId});
+		}
+		jdbc.batchUpdate("INSERT INTO sessao_votacao (proposta, descricao, data_inicio, data_fim, condominio_id) "
+				+ "VALUES (?, ?, CURRENT_DATE, DATE_ADD(CURRENT_DATE, INTERVAL 1 YEAR), ?)", novasSessoes);
+
+		return new MassaDeDados(
+				jdbc.queryForList("SELECT id FROM usuarios WHERE cpf LIKE 'carga-%' ORDER BY id LIMIT ?", Long.class, quantidadeUsuarios),
+				// as sessões sem votos vêm primeiro para que execuções repetidas não esbarrem em "já votou"
+				jdbc.queryForList("SELECT s.id FROM sessao_votacao s WHERE s.condominio_id = ? AND s.proposta LIKE 'Carga %' "
+						+ "ORDER BY (SELECT COUNT(*) FROM voto v WHERE v.sessao_votacao_id = s.id), s.id LIMIT ?",
+						Long.class, condominioId, quantidadeSessoes));
+	}
+
+	String corpoReserva(int iteracao) {
+		LocalDate data = primeiraDataReserva.plusDays(iteracao / HORARIOS_POR_DIA);
+		int hora = 8 + iteracao % HORARIOS_POR_DIA;
+		return String.format("{\"areaNome\":\"%s\",\"dataReserva\":\"%s\",\"horaInicio\":\"%02d:00\",\"horaFim\":\"%02d:59\"}",
+				AREA, data.format(DATA), hora, hora);
+	}
+
+	// poucos horários para muitos clientes: quase todas as tentativas devem ser recusadas
+	String corpoReservaDisputada(int iteracao) {
+		int horario = iteracao % HORARIOS_DISPUTADOS;
+		LocalDate data = dataDisputada().plusDays(horario / HORARIOS_POR_DIA);
+		int hora = 8 + horario % HORARIOS_POR_DIA;
+		return String.format("{\"areaNome\":\"%s\",\"dataReserva\":\"%s\",\"horaInicio\":\"%02d:00\",\"horaFim\":\"%02d:59\"}",
+				AREA, data.format(DATA), hora, hora);
+	}
+
+	// reservas repetidas nos horários disputados, deixadas pela corrida entre a checagem e o insert
+	long reservasDuplicadas(JdbcTemplate jdbc) {
+		LocalDate inicio = dataDisputada();
+		LocalDate fim = inicio.plusDays(HORARIOS_DISPUTADOS / HORARIOS_POR_DIA);
+		return jdbc.queryForObject("SELECT COALESCE(SUM(quantidade - 1), 0) FROM ("
+				+ "SELECT COUNT(*) AS quantidade FROM reservas r JOIN areas_comuns a ON a.id = r.areas_comuns_id "
+				+ "WHERE a.nome = ? AND r.data_reserva BETWEEN ? AND ? "
+				+ "GROUP BY r.data_reserva, r.hora_inicio HAVING COUNT(*) > 1) duplicadas",
+				Long.class, AREA, inicio, fim);
+	}
+
+	String corpoLogin(int iteracao) {
+		return String.format("{\"cpf\":\"carga-%08d\",\"password\":\"%s\"}", iteracao % usuarios.size(), SENHA);
+	}
+
+	private LocalDate dataDisputada() {
+		return primeiraDataReserva.minusDays(10);
+	}
+
+	// cada iteração vota com um par (usuário, sessão) diferente enquanto houver combinações
+	long usuarioDoVoto(int iteracao) {
+		return usuarios.get(iteracao % usuarios.size());
+	}
+
+	String corpoVoto(int iteracao) {
+		long sessao = sessoes.get((iteracao / usuarios.size()) % sessoes.size());
+		return "{\"sessaoId\":" + sessao + ",\"voto\":" + (iteracao % 3 != 0) + "}";
+	}
+}
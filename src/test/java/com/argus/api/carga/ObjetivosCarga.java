@@ -0,0 +1,71 @@
+package com.argus.api.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+// SLOs dos cenários, lidos de um .properties com chaves <cenario>.<métrica>:
+// p50-ms, p99-ms (máximos), vazao-minima (req/s) e taxa-erro-maxima (0 a 1, sem contar 4xx).
+final class ObjetivosCarga {
+
+	private final Properties objetivos;
+
+	private ObjetivosCarga(Properties objetivos) {
+		this.objetivos = objetivos;
+	}
+
+	// caminho no disco ou, se não existir, recurso do classpath
+	static ObjetivosCarga carregar(String local) throws IOException {
+		Properties objetivos = new Properties();
+		Path arquivo = Path.of(local);
+		if (Files.exists(arquivo)) {
+			try (Reader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+				objetivos.load(leitor);
+			}
+		} else {
+			try (InputStream entrada = ObjetivosCarga.class.getClassLoader().getResourceAsStream(local)) {
+				if (entrada == null) {
+					throw new IOException("Arquivo de SLOs não encontrado: " + local);
+				}
+				objetivos.load(entrada);
+			}
+		}
+		return new ObjetivosCarga(objetivos);
+	}
+
+	List<String> verificar(List<ResultadoCarga> resultados) {
+		List<String> violacoes = new ArrayList<>();
+		for (ResultadoCarga resultado : resultados) {
+			String cenario = resultado.nome();
+			maximo(violacoes, cenario, "p50-ms", resultado.percentilMs(50));
+			maximo(violacoes, cenario, "p99-ms", resultado.percentilMs(99));
+			maximo(violacoes, cenario, "taxa-erro-maxima", resultado.taxaErro());
+
+			Double vazaoMinima = valor(cenario + ".vazao-minima");
+			if (vazaoMinima != null && resultado.vazao() < vazaoMinima) {
+				violacoes.add(String.format(Locale.ROOT, "%s: vazão %.1f req/s abaixo do mínimo %.1f",
+						cenario, resultado.vazao(), vazaoMinima));
+			}
+		}
+		return violacoes;
+	}
+
+	private void maximo(List<String> violacoes, String cenario, String metrica, double medido) {
+		Double limite = valor(cenario + "." + metrica);
+		if (limite != null && medido > limite) {
+			violacoes.add(String.format(Locale.ROOT, "%s: %s = %.3f acima do limite %.3f", cenario, metrica, medido, limite));
+		}
+	}
+
+	private Double valor(String chave) {
+		String valor = objetivos.getProperty(chave);
+		return valor != null ? Double.valueOf(valor.trim()) : null;
+	}
+}
@@ -0,0 +1,70 @@
+package com.argus.api.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Latências (em nanossegundos) e contagens de um cenário
+class ResultadoCarga {
+
+	private final String nome;
+
+	private final long[] latencias;
+
+	private final long sucessos;
+
+	private final long rejeicoes;
+
+	private final long erros;
+
+	private final Duration duracao;
+
+	ResultadoCarga(String nome, long[] latencias, long sucessos, long rejeicoes, long erros, Duration duracao) {
+		this.nome = nome;
+		this.latencias = latencias.clone();
+		Arrays.sort(this.latencias);
+		this.sucessos = sucessos;
+		this.rejeicoes = rejeicoes;
+		this.erros = erros;
+		this.duracao = duracao;
+	}
+
+	String nome() {
+		return nome;
+	}
+
+	long total() {
+		return latencias.length;
+	}
+
+	long erros() {
+		return erros;
+	}
+
+	double vazao() {
+		return latencias.length / (duracao.toNanos() / 1e9);
+	}
+
+	double taxaErro() {
+		return latencias.length == 0 ? 0 : (double) erros / latencias.length;
+	}
+
+	double percentilMs(double percentil) {
+		if (latencias.length == 0) {
+			return 0;
+		}
+		int indice = (int) Math.ceil(percentil / 100.0 * latencias.length) - 1;
+		return latencias[Math.max(0, Math.min(indice, latencias.length - 1))] / 1e6;
+	}
+
+	static String cabecalho() {
+		return String.format(Locale.ROOT, "%-34s %9s %9s %8s %8s %9s %9s %9s %9s",
+				"cenario", "total", "req/s", "4xx", "erros", "p50 ms", "p90 ms", "p99 ms", "max ms");
+	}
+
+	String linha() {
+		return String.format(Locale.ROOT, "%-34s %9d %9.1f %8d %8d %9.1f %9.1f %9.1f %9.1f",
+				nome, total(), vazao(), rejeicoes, erros,
+				percentilMs(50), percentilMs(90), percentilMs(99), percentilMs(100));
+	}
+}
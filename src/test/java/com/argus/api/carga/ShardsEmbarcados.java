@@ -0,0 +1,140 @@
+package com.argus.api.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.argus.api.ApiApplication;
+
+// Verificação de ponta a ponta dos shards com três MariaDB embarcados: sobe a aplicação com um
+// banco principal e dois shards, cria a massa de carga no principal, faz escritas, move o
+// condomínio para o shard-1 e confere as linhas nos bancos, o login e uma nova escrita depois
+// da movimentação. Termina com código 1 se alguma conferência falhar.
+//
+// mvn -Pcarga test-compile exec:java -Dcarga.principal=com.argus.api.carga.ShardsEmbarcados
+public final class ShardsEmbarcados {
+
+	private static final long INICIO_IDS_SHARD = 1_000_000_000_000L;
+
+	private ShardsEmbarcados() {
+	}
+
+	public static void main(String[] args) {
+		try {
+			System.exit(executar(args));
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(2);
+		}
+	}
+
+	private static int executar(String[] args) throws Exception {
+		List<String> falhas = new ArrayList<>();
+		try (BancoEmbarcado principal = BancoEmbarcado.iniciar(100);
+			 BancoEmbarcado shard1 = BancoEmbarcado.iniciar(100);
+			 BancoEmbarcado shard2 = BancoEmbarcado.iniciar(100);
+			 ConfigurableApplicationContext contexto = iniciar(principal, List.of(shard1, shard2), args)) {
+			MassaDeDados massa = MassaDeDados.preparar(contexto, 50, 5);
+			JdbcTemplate bancoPrincipal = jdbc(principal);
+			JdbcTemplate bancoShard1 = jdbc(shard1);
+			Long condominioId = bancoPrincipal.queryForObject("SELECT id FROM condominios WHERE nome = ?",
+					Long.class, MassaDeDados.CONDOMINIO);
+
+			int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+			ClienteCarga cliente = new ClienteCarga("http://localhost:" + porta);
+			String token = cliente.login(MassaDeDados.CPF_ADMIN, MassaDeDados.SENHA);
+			conferir(falhas, "reserva antes da movimentação", 201,
+					cliente.enviar("POST", "/reservas", token, massa.corpoReserva(0)));
+			conferir(falhas, "voto antes da movimentação", 200,
+					cliente.enviar("POST", "/votos", token, massa.corpoVoto(0), "usuarioId", String.valueOf(massa.usuarioDoVoto(0))));
+
+			Map<String, Long> antes = contagens(bancoPrincipal, condominioId);
+			long inicio = System.nanoTime();
+			conferir(falhas, "movimentação", 200,
+					cliente.enviar("POST", "/shards/condominios/" + condominioId + "/mover?destino=shard-1", token, null));
+			System.out.printf("Movimentação concluída em %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+
+			Map<String, Long> noDestino = contagens(bancoShard1, condominioId);
+			Map<String, Long> naOrigem = contagens(bancoPrincipal, condominioId);
+			System.out.println("Linhas antes: " + antes);
+			System.out.println("Linhas no shard-1: " + noDestino);
+			if (!antes.equals(noDestino)) {
+				falhas.add("contagens no shard-1 diferentes das da origem");
+			}
+			if (naOrigem.values().stream().anyMatch(linhas -> linhas != 0)) {
+				falhas.add("linhas do condomínio ficaram no principal: " + naOrigem);
+			}
+
+			String novoToken = cliente.login(MassaDeDados.CPF_ADMIN, MassaDeDados.SENHA);
+			conferir(falhas, "reserva depois da movimentação", 201,
+					cliente.enviar("POST", "/reservas", novoToken, massa.corpoReserva(1)));
+			conferir(falhas, "reserva com o token anterior", 201,
+					cliente.enviar("POST", "/reservas", token, massa.corpoReserva(2)));
+			long reservasNovas = bancoShard1.queryForObject("SELECT COUNT(*) FROM reservas WHERE id >= ?",
+					Long.class, INICIO_IDS_SHARD);
+			if (reservasNovas != 2) {
+				falhas.add("esperava 2 reservas com ids do shard-1, encontrou " + reservasNovas);
+			}
+			conferir(falhas, "listagem dos shards", 200, cliente.enviar("GET", "/shards", token, null));
+		}
+
+		System.out.println();
+		if (!falhas.isEmpty()) {
+			System.out.println("Falhas:");
+			falhas.forEach(falha -> System.out.println("  " + falha));
+			return 1;
+		}
+		System.out.println("Shards conferidos.");
+		return 0;
+	}
+
+	private static void conferir(List<String> falhas, String descricao, int esperado, int obtido) {
+		if (esperado != obtido) {
+			falhas.add(descricao + ": status " + obtido + ", esperado " + esperado);
+		}
+	}
+
+	private static Map<String, Long> contagens(JdbcTemplate jdbc, Long condominioId) {
+		return Map.of(
+				"condominios", jdbc.queryForObject("SELECT COUNT(*) FROM condominios WHERE id = ?", Long.class, condominioId),
+				"usuarios", jdbc.queryForObject("SELECT COUNT(*) FROM usuarios WHERE condominio_id = ?", Long.class, condominioId),
+				"sessao_votacao", jdbc.queryForObject("SELECT COUNT(*) FROM sessao_votacao WHERE condominio_id = ?", Long.class, condominioId),
+				"reservas", jdbc.queryForObject("SELECT COUNT(*) FROM reservas r JOIN areas_comuns a ON a.id = r.areas_comuns_id "
+						+ "WHERE a.condominio_id = ?", Long.class, condominioId),
+				"voto", jdbc.queryForObject("SELECT COUNT(*) FROM voto v JOIN usuarios u ON u.id = v.usuario_id "
+						+ "WHERE u.condominio_id = ?", Long.class, condominioId));
+	}
+
+	private static JdbcTemplate jdbc(BancoEmbarcado banco) {
+		return new JdbcTemplate(new DriverManagerDataSource(banco.url(), "root", ""));
+	}
+
+	private static ConfigurableApplicationContext iniciar(BancoEmbarcado principal, List<BancoEmbarcado> shards, String[] args) {
+		List<String> argumentos = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--spring.datasource.url=" + principal.url(),
+				"--spring.datasource.username=root",
+				"--spring.datasource.password=",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.com.argus.api.infra.metricas=ERROR",
+				"--api.limite-taxa.habilitado=false",
+				"--api.datasource.shards.habilitado=true",
+				"--api.datasource.shards.intervalo-atualizacao=PT1S"));
+		for (int i = 0; i < shards.size(); i++) {
+			String prefixo = "--api.datasource.shards.bancos[" + i + "].";
+			argumentos.add(prefixo + "nome=shard-" + (i + 1));
+			argumentos.add(prefixo + "url=" + shards.get(i).url());
+			argumentos.add(prefixo + "username=root");
+			argumentos.add(prefixo + "password=");
+			argumentos.add(prefixo + "inicio-ids=" + INICIO_IDS_SHARD * (i + 1));
+		}
+		argumentos.addAll(List.of(args));
+		return new SpringApplicationBuilder(ApiApplication.class).run(argumentos.toArray(String[]::new));
+	}
+}
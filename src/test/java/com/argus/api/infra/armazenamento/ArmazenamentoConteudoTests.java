@@ -0,0 +1,113 @@
+package com.argus.api.infra.armazenamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.argus.api.exception.LimiteAnexoExcedidoException;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo.ConteudoArmazenado;
+
+class ArmazenamentoConteudoTests {
+
+	@TempDir
+	Path diretorio;
+
+	private ArmazenamentoConteudo armazenamento;
+
+	@BeforeEach
+	void preparar() throws IOException {
+		armazenamento = new ArmazenamentoConteudo(diretorio.toString());
+	}
+
+	@Test
+	void conteudoIgualEhGravadoUmaVez() throws IOException {
+		ConteudoArmazenado primeiro = gravar("mesmo conteúdo");
+		ConteudoArmazenado segundo = gravar("mesmo conteúdo");
+
+		assertEquals(primeiro.hash(), segundo.hash());
+		assertEquals(primeiro.tamanho(), segundo.tamanho());
+		assertNull(segundo.criadoEm());
+		assertTrue(Files.exists(armazenamento.caminho(primeiro.hash())));
+		assertEquals(0, temporarios());
+	}
+
+	@Test
+	void uploadAcimaDoLimiteNaoDeixaArquivo() throws IOException {
+		assertThrows(LimiteAnexoExcedidoException.class,
+				() -> armazenamento.gravar(new ByteArrayInputStream(new byte[11]), 10));
+		assertEquals(0, temporarios());
+	}
+
+	@Test
+	void liberarPreservaConteudoRecente() throws IOException {
+		ConteudoArmazenado conteudo = gravar("foto");
+		Path arquivo = armazenamento.caminho(conteudo.hash());
+
+		// acabou de ser gravado: pode ser de um upload que ainda vai inserir o anexo
+		armazenamento.liberar(conteudo.hash());
+		assertTrue(Files.exists(arquivo));
+
+		Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minus(ArmazenamentoConteudo.GUARDA).minusSeconds(1)));
+		armazenamento.liberar(conteudo.hash());
+		assertFalse(Files.exists(arquivo));
+
+		// já apagado: não falha
+		armazenamento.liberar(conteudo.hash());
+	}
+
+	@Test
+	void descartarSoApagaOQueEsteUploadCriou() throws IOException {
+		ConteudoArmazenado criado = gravar("áudio");
+		ConteudoArmazenado reaproveitado = gravar("áudio");
+		Path arquivo = armazenamento.caminho(criado.hash());
+
+		armazenamento.descartar(reaproveitado);
+		assertTrue(Files.exists(arquivo));
+
+		// o segundo upload renovou a data: o arquivo agora é dele também
+		Files.setLastModifiedTime(arquivo, FileTime.from(criado.criadoEm().plusSeconds(1)));
+		armazenamento.descartar(criado);
+		assertTrue(Files.exists(arquivo));
+
+		Files.setLastModifiedTime(arquivo, FileTime.from(criado.criadoEm()));
+		armazenamento.descartar(criado);
+		assertFalse(Files.exists(arquivo));
+	}
+
+	@Test
+	void reaproveitarConteudoRenovaAGuarda() throws IOException {
+		ConteudoArmazenado conteudo = gravar("vídeo");
+		Path arquivo = armazenamento.caminho(conteudo.hash());
+		Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minus(ArmazenamentoConteudo.GUARDA).minusSeconds(1)));
+
+		gravar("vídeo");
+		armazenamento.liberar(conteudo.hash());
+
+		assertTrue(Files.exists(arquivo));
+	}
+
+	private ConteudoArmazenado gravar(String conteudo) throws IOException {
+		return armazenamento.gravar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), 1024);
+	}
+
+	private long temporarios() throws IOException {
+		try (Stream<Path> arquivos = Files.list(diretorio.resolve("tmp"))) {
+			return arquivos.count();
+		}
+	}
+}
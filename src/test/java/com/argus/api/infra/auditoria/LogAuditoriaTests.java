@@ -0,0 +1,271 @@
+package com.argus.api.infra.auditoria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.argus.api.dto.RegistroAuditoriaDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LogAuditoriaTests {
+
+	@TempDir
+	Path diretorio;
+
+	private final RelogioManual relogio = new RelogioManual(1_000_000);
+	private final List<LogAuditoria> abertos = new ArrayList<>();
+
+	@AfterEach
+	void encerrar() {
+		abertos.forEach(LogAuditoria::fechar);
+	}
+
+	@Test
+	void consultaPorIntervaloUsaOIndiceEFiltra() throws IOException {
+		LogAuditoria auditoria = abrir(1024 * 1024, false);
+		for (int i = 0; i < 2000; i++) {
+			relogio.avancar(10);
+			auditoria.anexar((long) i % 5, 1L, i % 2 == 0 ? AcaoAuditoria.VOTO_REGISTRADO : AcaoAuditoria.RESERVA_REMOVIDA,
+					(long) i, "registro " + i);
+		}
+
+		List<RegistroAuditoriaDTO> meio = auditoria.consultar(instante(1_000_000 + 10 * 1001), instante(1_000_000 + 10 * 1010),
+				null, null, 100);
+		assertEquals(10, meio.size());
+		assertEquals(1000L, meio.get(0).recursoId());
+		assertEquals("registro 1009", meio.get(9).detalhe());
+
+		List<RegistroAuditoriaDTO> filtrados = auditoria.consultar(instante(0), instante(Long.MAX_VALUE / 2), 3L,
+				AcaoAuditoria.RESERVA_REMOVIDA, 1000);
+		assertEquals(200, filtrados.size());
+		assertTrue(filtrados.stream().allMatch(registro -> registro.usuarioId() == 3L && registro.recursoId() % 2 == 1));
+
+		assertEquals(7, auditoria.consultar(instante(0), instante(Long.MAX_VALUE / 2), null, null, 7).size());
+	}
+
+	@Test
+	void instantesNuncaVoltamQuandoORelogioRecua() throws IOException {
+		LogAuditoria auditoria = abrir(64 * 1024, false);
+		auditoria.anexar(1L, null, AcaoAuditoria.VOTO_REGISTRADO, 1L, null);
+		relogio.avancar(-500);
+		auditoria.anexar(1L, null, AcaoAuditoria.VOTO_REMOVIDO, 1L, null);
+
+		List<RegistroAuditoriaDTO> registros = auditoria.consultar(instante(0), instante(2_000_000), null, null, 10);
+		assertEquals(2, registros.size());
+		assertEquals(registros.get(0).instante(), registros.get(1).instante());
+		assertNull(registros.get(0).condominioId());
+		assertNull(registros.get(0).detalhe());
+	}
+
+	@Test
+	void segmentoCheioRotacionaEAReaberturaUsaOIndice() throws IOException {
+		LogAuditoria auditoria = abrir(512, false);
+		for (int i = 0; i < 40; i++) {
+			relogio.avancar(1);
+			auditoria.anexar(7L, 2L, AcaoAuditoria.OCORRENCIA_STATUS_ALTERADO, (long) i, "PENDENTE->CONCLUIDA");
+		}
+		auditoria.fechar();
+		abertos.remove(auditoria);
+
+		long segmentos = contar(SegmentoAuditoria.EXTENSAO);
+		assertTrue(segmentos > 3);
+		// todos menos o ativo foram selados com índice
+		assertEquals(segmentos - 1, contar(".idx"));
+
+		LogAuditoria reaberta = abrir(512, false);
+		relogio.avancar(1);
+		reaberta.anexar(7L, 2L, AcaoAuditoria.USUARIO_PAPEL_ALTERADO, 40L, "MORADOR->SINDICO");
+		List<RegistroAuditoriaDTO> todos = reaberta.consultar(instante(0), instante(2_000_000), null, null, 1000);
+		assertEquals(41, todos.size());
+		for (int i = 0; i < todos.size(); i++) {
+			assertEquals((long) i, todos.get(i).recursoId());
+		}
+		assertEquals(AcaoAuditoria.USUARIO_PAPEL_ALTERADO, todos.get(40).acao());
+		assertEquals(5, reaberta.consultar(instante(1_000_011), instante(1_000_015), null, null, 1000).size());
+	}
+
+	@Test
+	void registroInterrompidoNoFinalEhDescartadoNaReabertura() throws IOException {
+		LogAuditoria auditoria = abrir(64 * 1024, false);
+		for (int i = 0; i < 3; i++) {
+			relogio.avancar(1);
+			auditoria.anexar(1L, 1L, AcaoAuditoria.VOTO_REGISTRADO, (long) i, "sessao=9");
+		}
+		auditoria.fechar();
+		abertos.remove(auditoria);
+
+		// como se a queda tivesse acontecido no meio da cópia do terceiro registro
+		Path arquivo = diretorio.resolve(SegmentoAuditoria.nome(1));
+		int tamanhoRegistro = SegmentoAuditoria.codificar(0, 1L, 1L, AcaoAuditoria.VOTO_REGISTRADO, 2L, "sessao=9", 1024).length;
+		try (RandomAccessFile bruto = new RandomAccessFile(arquivo.toFile(), "rw")) {
+			long terceiro = 16 + 2L * (8 + tamanhoRegistro);
+			bruto.seek(terceiro + 8 + tamanhoRegistro - 1);
+			bruto.write('X');
+		}
+
+		LogAuditoria reaberta = abrir(64 * 1024, false);
+		assertEquals(2, reaberta.consultar(instante(0), instante(2_000_000), null, null, 10).size());
+		relogio.avancar(1);
+		reaberta.anexar(1L, 1L, AcaoAuditoria.VOTO_REMOVIDO, 5L, null);
+		reaberta.fechar();
+		abertos.remove(reaberta);
+
+		List<RegistroAuditoriaDTO> depois = abrir(64 * 1024, false)
+				.consultar(instante(0), instante(2_000_000), null, null, 10);
+		assertEquals(3, depois.size());
+		assertEquals(AcaoAuditoria.VOTO_REMOVIDO, depois.get(2).acao());
+	}
+
+	@Test
+	void segmentoAtivoSemCabecalhoEhRecriadoVazio() throws IOException {
+		LogAuditoria auditoria = abrir(512, false);
+		for (int i = 0; i < 10; i++) {
+			relogio.avancar(1);
+			auditoria.anexar(1L, 1L, AcaoAuditoria.VOTO_REGISTRADO, (long) i, "sessao=9");
+		}
+		auditoria.fechar();
+		abertos.remove(auditoria);
+
+		// o próximo segmento foi criado, mas a queda veio antes de o cabeçalho chegar ao disco
+		long proximo = contar(SegmentoAuditoria.EXTENSAO) + 1;
+		Files.write(diretorio.resolve(SegmentoAuditoria.nome(proximo)), new byte[512]);
+
+		LogAuditoria reaberta = abrir(512, false);
+		relogio.avancar(1);
+		reaberta.anexar(1L, 1L, AcaoAuditoria.VOTO_REMOVIDO, 99L, null);
+		List<RegistroAuditoriaDTO> todos = reaberta.consultar(instante(0), instante(2_000_000), null, null, 100);
+		assertEquals(11, todos.size());
+		assertEquals(AcaoAuditoria.VOTO_REMOVIDO, todos.get(10).acao());
+
+		// um arquivo vazio também
+		reaberta.fechar();
+		abertos.remove(reaberta);
+		Files.write(diretorio.resolve(SegmentoAuditoria.nome(contar(SegmentoAuditoria.EXTENSAO) + 1)), new byte[0]);
+		assertEquals(11, abrir(512, false).consultar(instante(0), instante(2_000_000), null, null, 100).size());
+	}
+
+	@Test
+	void quemAguardaASincronizacaoCompartilhaOFsync() throws Exception {
+		SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+		LogAuditoria auditoria = new LogAuditoria(diretorio, 1024 * 1024, true, true, Duration.ofMillis(5),
+				Duration.ofDays(400), relogio, metricas);
+		abertos.add(auditoria);
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				long usuario = t;
+				tarefas.add(threads.submit(() -> {
+					for (int i = 0; i < 50; i++) {
+						auditoria.anexar(usuario, 1L, AcaoAuditoria.VOTO_REGISTRADO, (long) i, null);
+					}
+				}));
+			}
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			threads.shutdownNow();
+		}
+
+		assertEquals(400, auditoria.consultar(instante(0), instante(2_000_000), null, null, 1000).size());
+		assertEquals(400, metricas.counter("auditoria.registros").count());
+		long fsyncs = metricas.timer("auditoria.sincronizacoes").count();
+		assertTrue(fsyncs > 0 && fsyncs < 400, "fsyncs: " + fsyncs);
+	}
+
+	@Test
+	void limpezaApagaSoSegmentosSeladosForaDaRetencao() throws IOException {
+		LogAuditoria auditoria = new LogAuditoria(diretorio, 512, true, false, Duration.ofSeconds(1),
+				Duration.ofDays(1), relogio, new SimpleMeterRegistry());
+		abertos.add(auditoria);
+		for (int i = 0; i < 20; i++) {
+			auditoria.anexar(1L, 1L, AcaoAuditoria.RESERVA_REMOVIDA, (long) i, "area=1");
+		}
+		relogio.avancar(Duration.ofDays(2).toMillis());
+		for (int i = 20; i < 25; i++) {
+			auditoria.anexar(1L, 1L, AcaoAuditoria.RESERVA_REMOVIDA, (long) i, "area=1");
+		}
+
+		auditoria.limpar();
+
+		List<RegistroAuditoriaDTO> restantes = auditoria.consultar(instante(0), instante(Long.MAX_VALUE / 2), null, null, 100);
+		// o segmento que mistura registros antigos e novos fica inteiro
+		assertTrue(restantes.get(0).recursoId() > 0);
+		assertEquals(List.of(20L, 21L, 22L, 23L, 24L), restantes.stream().map(RegistroAuditoriaDTO::recursoId)
+				.filter(recurso -> recurso >= 20).toList());
+		assertEquals(contar(SegmentoAuditoria.EXTENSAO) - 1, contar(".idx"));
+	}
+
+	private LogAuditoria abrir(int tamanhoSegmento, boolean aguardar) throws IOException {
+		LogAuditoria auditoria = new LogAuditoria(diretorio, tamanhoSegmento, true, aguardar, Duration.ofSeconds(1),
+				Duration.ofDays(400), relogio, new SimpleMeterRegistry());
+		abertos.add(auditoria);
+		return auditoria;
+	}
+
+	private long contar(String extensao) throws IOException {
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			return arquivos.filter(arquivo -> arquivo.toString().endsWith(extensao)).count();
+		}
+	}
+
+	private static Instant instante(long millis) {
+		return Instant.ofEpochMilli(millis);
+	}
+
+	private static final class RelogioManual extends Clock {
+
+		private final AtomicLong agora;
+
+		RelogioManual(long inicio) {
+			this.agora = new AtomicLong(inicio);
+		}
+
+		void avancar(long millis) {
+			agora.addAndGet(millis);
+		}
+
+		@Override
+		public long millis() {
+			return agora.get();
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis());
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
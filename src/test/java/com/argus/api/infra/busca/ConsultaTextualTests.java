@@ -0,0 +1,35 @@
+package com.argus.api.infra.busca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ConsultaTextualTests {
+
+	private final ConsultaTextual consulta = new ConsultaTextual();
+
+	@Test
+	void formasDoMesmoVerboViramOMesmoRadical() {
+		assertEquals("+vaza*", consulta.montar("vazamentos vazou vazando vazado vazar"));
+		assertEquals("+entupi*", consulta.montar("entupimento entupido"));
+	}
+
+	@Test
+	void radicalNaoCasaComPalavrasDeOutraFamilia() {
+		assertEquals("+vazio*", consulta.montar("vazio"));
+		assertEquals("+vazao*", consulta.montar("vazão"));
+	}
+
+	@Test
+	void acentosPluraisEStopwordsSaoTratados() {
+		assertEquals("+infiltra* +paredao* +banheiro*", consulta.montar("Infiltrações nos paredões do Banheiro"));
+		assertEquals("+portao* +barulho* +novo*", consulta.montar("o portão e o barulho, de novo?"));
+	}
+
+	@Test
+	void termosCurtosOuDemaisSaoDescartados() {
+		assertEquals("", consulta.montar(null));
+		assertEquals("", consulta.montar("a é ok"));
+		assertEquals(10, consulta.montar("alfa beta gama delta epsilon zeta teta iota kapa lambda sigma").split(" ").length);
+	}
+}
@@ -0,0 +1,96 @@
+package com.argus.api.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CacheRespostasTests {
+
+	@Test
+	void corpoGzipTemETagProprio() {
+		CacheRespostas cache = new CacheRespostas(new VersoesRecursos(), new ObjectMapper(), DataSize.ofMegabytes(1),
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class));
+		List<String> corpo = List.of("x".repeat(500));
+
+		MockHttpServletResponse gzip = new MockHttpServletResponse();
+		ServletWebRequest comGzip = requisicao("gzip", null, gzip);
+		assertFalse(cache.naoModificado(Recurso.CONDOMINIOS, comGzip));
+		assertEquals("gzip", cache.responder("condominio", Recurso.CONDOMINIOS, comGzip, () -> corpo)
+				.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+		MockHttpServletResponse identity = new MockHttpServletResponse();
+		ServletWebRequest semGzip = requisicao(null, null, identity);
+		assertFalse(cache.naoModificado(Recurso.CONDOMINIOS, semGzip));
+		assertNull(cache.responder("condominio", Recurso.CONDOMINIOS, semGzip, () -> corpo)
+				.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+		String etagGzip = gzip.getHeader(HttpHeaders.ETAG);
+		String etagIdentity = identity.getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etagIdentity, etagGzip);
+		assertTrue(etagGzip.endsWith("-gzip\""));
+
+		// o ETag de uma codificação não vale para a outra
+		assertFalse(cache.naoModificado(Recurso.CONDOMINIOS,
+				requisicao(null, etagGzip, new MockHttpServletResponse())));
+		assertTrue(cache.naoModificado(Recurso.CONDOMINIOS,
+				requisicao("gzip", etagGzip, new MockHttpServletResponse())));
+		assertTrue(cache.naoModificado(Recurso.CONDOMINIOS,
+				requisicao(null, etagIdentity, new MockHttpServletResponse())));
+	}
+
+	@Test
+	void gzipListadoSemPesoEhAceito() {
+		assertTrue(CacheRespostas.aceitaGzip("gzip, deflate, br"));
+		assertTrue(CacheRespostas.aceitaGzip("br;q=1.0, GZIP;q=0.5"));
+		assertTrue(CacheRespostas.aceitaGzip("*"));
+		assertTrue(CacheRespostas.aceitaGzip("x-gzip"));
+	}
+
+	@Test
+	void pesoZeroRecusaOGzip() {
+		assertFalse(CacheRespostas.aceitaGzip("gzip;q=0"));
+		assertFalse(CacheRespostas.aceitaGzip("gzip ; q=0.0, identity"));
+		assertFalse(CacheRespostas.aceitaGzip("*;q=0"));
+		// o peso do gzip vale mais que o do *
+		assertFalse(CacheRespostas.aceitaGzip("gzip;q=0, *"));
+		assertTrue(CacheRespostas.aceitaGzip("gzip, *;q=0"));
+	}
+
+	@Test
+	void semGzipOuComIdentityPreferidoNaoCompacta() {
+		assertFalse(CacheRespostas.aceitaGzip(null));
+		assertFalse(CacheRespostas.aceitaGzip(""));
+		assertFalse(CacheRespostas.aceitaGzip("identity"));
+		assertFalse(CacheRespostas.aceitaGzip("deflate, br"));
+		assertFalse(CacheRespostas.aceitaGzip("gzip;q=0.5, identity"));
+		assertTrue(CacheRespostas.aceitaGzip("gzip, identity;q=0.5"));
+		assertFalse(CacheRespostas.aceitaGzip("gzip;q=abc"));
+	}
+
+	private static ServletWebRequest requisicao(String aceita, String ifNoneMatch, MockHttpServletResponse resposta) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/condominio");
+		if (aceita != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, aceita);
+		}
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return new ServletWebRequest(request, resposta);
+	}
+}
@@ -0,0 +1,116 @@
+package com.argus.api.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LeiturasAgrupadasTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private ExecutorService threads;
+
+	@BeforeEach
+	void preparar() {
+		meterRegistry = new SimpleMeterRegistry();
+		threads = Executors.newFixedThreadPool(8);
+	}
+
+	@AfterEach
+	void encerrar() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void requisicoesIguaisSimultaneasFazemUmaSoConsulta() throws Exception {
+		LeiturasAgrupadas leituras = new LeiturasAgrupadas(new VersoesRecursos(), meterRegistry, true, Duration.ofSeconds(5));
+		AtomicInteger consultas = new AtomicInteger();
+		CountDownLatch liberar = new CountDownLatch(1);
+		List<String> resultado = List.of("a", "b");
+
+		List<Future<List<String>>> respostas = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			respostas.add(threads.submit(() -> leituras.executar("comunicado", Recurso.COMUNICADOS, requisicao(), () -> {
+				consultas.incrementAndGet();
+				aguardar(liberar);
+				return resultado;
+			})));
+		}
+		// dá tempo para todas as threads encontrarem a consulta em andamento
+		while (meterRegistry.get("leituras.agrupadas.em.andamento").gauge().value() < 1) {
+			Thread.sleep(5);
+		}
+		Thread.sleep(100);
+		liberar.countDown();
+
+		for (Future<List<String>> resposta : respostas) {
+			assertSame(resultado, resposta.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, consultas.get());
+		assertEquals(7, meterRegistry.get("leituras.agrupadas").counter().count());
+	}
+
+	@Test
+	void quemEsperaDemaisFazAPropriaConsulta() throws Exception {
+		LeiturasAgrupadas leituras = new LeiturasAgrupadas(new VersoesRecursos(), meterRegistry, true, Duration.ofMillis(50));
+		CountDownLatch liberar = new CountDownLatch(1);
+		CountDownLatch iniciou = new CountDownLatch(1);
+
+		Future<String> lenta = threads.submit(() -> leituras.executar("notificacoes", Recurso.NOTIFICACOES, requisicao(), () -> {
+			iniciou.countDown();
+			aguardar(liberar);
+			return "lenta";
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+		assertEquals("propria", leituras.executar("notificacoes", Recurso.NOTIFICACOES, requisicao(), () -> "propria"));
+		assertEquals(1, meterRegistry.get("leituras.agrupadas.espera.excedida").counter().count());
+
+		liberar.countDown();
+		assertEquals("lenta", lenta.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void parametrosDiferentesNaoSeMisturam() {
+		LeiturasAgrupadas leituras = new LeiturasAgrupadas(new VersoesRecursos(), meterRegistry, true, Duration.ofSeconds(5));
+		MockHttpServletRequest pagina2 = new MockHttpServletRequest();
+		pagina2.setParameter("pagina", "2");
+
+		String externo = leituras.executar("comunicado", Recurso.COMUNICADOS, requisicao(), () ->
+				leituras.executar("comunicado", Recurso.COMUNICADOS, new ServletWebRequest(pagina2), () -> "pagina 2"));
+
+		assertEquals("pagina 2", externo);
+	}
+
+	private static WebRequest requisicao() {
+		return new ServletWebRequest(new MockHttpServletRequest());
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
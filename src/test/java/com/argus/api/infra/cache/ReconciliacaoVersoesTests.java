@@ -0,0 +1,80 @@
+package com.argus.api.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+// As escritas feitas direto no banco fazem o papel de outra instância.
+class ReconciliacaoVersoesTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private VersoesRecursos versoesRecursos;
+	private ReconciliacaoVersoes reconciliacao;
+
+	@BeforeEach
+	void preparar() {
+		jdbcTemplate = new JdbcTemplate(BancoTestes.criar("versoes", "V1__create-table-condominio.sql", "V2__create-table-usuarios.sql",
+				"V3__create-table-comunicados.sql", "V4__create-table-areascomuns.sql", "V5__create-table-reservas.sql",
+				"V6__create-table-sessavoto.sql", "V9__create-table-notificacao.sql", "V19__add-updated-at-listagens.sql"));
+		versoesRecursos = new VersoesRecursos();
+		reconciliacao = new ReconciliacaoVersoes(jdbcTemplate,
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class), versoesRecursos,
+				Duration.ofMinutes(1));
+
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Alvo', 'Rua')");
+		jdbcTemplate.update("INSERT INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+				+ "VALUES ('Síndico', '000', 'x', '1', 'SINDICO', 1)");
+		reconciliacao.reconciliar();
+	}
+
+	@Test
+	void escritaDeOutraInstanciaIncrementaSoOProprioRecurso() {
+		long comunicados = versoesRecursos.versao(Recurso.COMUNICADOS);
+		long notificacoes = versoesRecursos.versao(Recurso.NOTIFICACOES);
+
+		jdbcTemplate.update("INSERT INTO comunicados (titulo, mensagem, usuario_id, condominio_id) VALUES ('t', 'm', 1, 1)");
+		reconciliacao.reconciliar();
+
+		assertTrue(versoesRecursos.versao(Recurso.COMUNICADOS) > comunicados);
+		assertEquals(notificacoes, versoesRecursos.versao(Recurso.NOTIFICACOES));
+	}
+
+	@Test
+	void tabelaParadaNaoIncrementa() {
+		jdbcTemplate.update("INSERT INTO sessao_votacao (proposta, descricao, data_inicio, data_fim, condominio_id) "
+				+ "VALUES ('p', 'd', CURRENT_DATE, CURRENT_DATE, 1)");
+		// fora da margem: só a mudança da marca conta
+		jdbcTemplate.update("UPDATE sessao_votacao SET updated_at = TIMESTAMPADD(HOUR, -1, CURRENT_TIMESTAMP)");
+		reconciliacao.reconciliar();
+		long versao = versoesRecursos.versao(Recurso.SESSOES_VOTACAO);
+
+		reconciliacao.reconciliar();
+		assertEquals(versao, versoesRecursos.versao(Recurso.SESSOES_VOTACAO));
+
+		// a exclusão não deixa updated_at; aparece pela contagem
+		jdbcTemplate.update("DELETE FROM sessao_votacao");
+		reconciliacao.reconciliar();
+		assertTrue(versoesRecursos.versao(Recurso.SESSOES_VOTACAO) > versao);
+	}
+
+	@Test
+	void alteracaoRecenteIncrementaAteSairDaMargem() {
+		jdbcTemplate.update("INSERT INTO comunicados (titulo, mensagem, usuario_id, condominio_id) VALUES ('t', 'm', 1, 1)");
+		reconciliacao.reconciliar();
+		long versao = versoesRecursos.versao(Recurso.COMUNICADOS);
+
+		// mesma contagem e mesma marca, mas outra transação ainda pode fazer commit com esse horário
+		reconciliacao.reconciliar();
+		assertTrue(versoesRecursos.versao(Recurso.COMUNICADOS) > versao);
+	}
+}
@@ -0,0 +1,67 @@
+package com.argus.api.infra.campos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.exception.CamposInvalidosException;
+
+class ConsultaCamposTests {
+
+	private static final CamposListagem RESERVAS = CamposListagem.de("reservas r", "r.id")
+			.campo("id", "r.id")
+			.campo("areaNome", "a.nome", "JOIN areas_comuns a ON a.id = r.areas_comuns_id", null)
+			.campo("dataReserva", "r.data_reserva", CamposListagem.DATA)
+			.campo("horaInicio", "r.hora_inicio", CamposListagem.HORA)
+			.construir();
+
+	private ConsultaCampos consultaCampos;
+
+	@BeforeEach
+	void preparar() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(BancoTestes.criar("campos", "V1__create-table-condominio.sql", "V4__create-table-areascomuns.sql",
+				"V5__create-table-reservas.sql"));
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Central', 'Rua')");
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Salão', TRUE, 1)");
+		jdbcTemplate.update("INSERT INTO reservas (areas_comuns_id, data_reserva, hora_inicio, hora_fim) "
+				+ "VALUES (1, '2026-09-01', '08:30', '10:00')");
+		consultaCampos = new ConsultaCampos(jdbcTemplate);
+	}
+
+	@Test
+	void juncaoSoEntraQuandoUmCampoDelaEhPedido() {
+		assertEquals("SELECT r.id, r.data_reserva FROM reservas r ORDER BY r.id",
+				RESERVAS.sql(RESERVAS.selecionar("id,dataReserva")));
+		assertEquals("SELECT a.nome, r.id FROM reservas r JOIN areas_comuns a ON a.id = r.areas_comuns_id ORDER BY r.id",
+				RESERVAS.sql(RESERVAS.selecionar(" areaNome , id,areaNome")));
+	}
+
+	@Test
+	void linhaTemSoOsCamposPedidosNaOrdemENoFormatoDaRespostaCompleta() {
+		List<Map<String, Object>> reservas = consultaCampos.listar(RESERVAS, "horaInicio,dataReserva,areaNome");
+
+		assertEquals(1, reservas.size());
+		assertEquals(List.of("horaInicio", "dataReserva", "areaNome"), List.copyOf(reservas.get(0).keySet()));
+		assertEquals("08:30", reservas.get(0).get("horaInicio"));
+		assertEquals("01/09/2026", reservas.get(0).get("dataReserva"));
+		assertEquals("Salão", reservas.get(0).get("areaNome"));
+	}
+
+	@Test
+	void campoDesconhecidoOuListaVaziaSaoRecusados() {
+		CamposInvalidosException desconhecido = assertThrows(CamposInvalidosException.class,
+				() -> consultaCampos.listar(RESERVAS, "id,senha"));
+		assertTrue(desconhecido.getMessage().contains("senha"));
+		assertTrue(desconhecido.getMessage().contains("id,areaNome,dataReserva,horaInicio"));
+
+		assertThrows(CamposInvalidosException.class, () -> consultaCampos.listar(RESERVAS, " , "));
+	}
+}
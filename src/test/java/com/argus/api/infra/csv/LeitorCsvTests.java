@@ -0,0 +1,65 @@
+package com.argus.api.infra.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LeitorCsvTests {
+
+	@Test
+	void aspasDuplicadasESeparadorDentroDasAspas() throws IOException {
+		List<String> cabecalho = new ArrayList<>();
+		LeitorCsv csv = ler("nome,apelido\n\"Silva, Ana\",\"a \"\"Aninha\"\"\"\n,\"\"\n", cabecalho);
+
+		assertEquals(List.of("nome", "apelido"), cabecalho);
+		assertEquals(List.of("Silva, Ana", "a \"Aninha\""), csv.proximo());
+		assertEquals(List.of("", ""), csv.proximo());
+		assertNull(csv.proximo());
+	}
+
+	@Test
+	void pontoEVirgulaDoExcelComBomECrlf() throws IOException {
+		List<String> cabecalho = new ArrayList<>();
+		LeitorCsv csv = ler("\uFEFFnome;cpf\r\nAna;1,5\r\n\r\nBia;2\r\n", cabecalho);
+
+		assertEquals(List.of("nome", "cpf"), cabecalho);
+		assertEquals(List.of("Ana", "1,5"), csv.proximo());
+		assertEquals(2, csv.linha());
+		// a linha em branco é pulada, mas conta na numeração
+		assertEquals(List.of("Bia", "2"), csv.proximo());
+		assertEquals(4, csv.linha());
+		assertNull(csv.proximo());
+	}
+
+	@Test
+	void quebraDeLinhaDentroDasAspas() throws IOException {
+		LeitorCsv csv = ler("nome,obs\r\nAna,\"primeira\r\nsegunda\"\r\nBia,fim\r\n", new ArrayList<>());
+
+		assertEquals(List.of("Ana", "primeira\nsegunda"), csv.proximo());
+		assertEquals(2, csv.linha());
+		assertEquals(List.of("Bia", "fim"), csv.proximo());
+		assertEquals(4, csv.linha());
+	}
+
+	@Test
+	void aspasNaoFechadasApontamOInicioDoRegistro() throws IOException {
+		LeitorCsv csv = ler("nome,obs\nAna,ok\nBia,\"sem fim\nCarla,x\n", new ArrayList<>());
+
+		assertEquals(List.of("Ana", "ok"), csv.proximo());
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, csv::proximo);
+		assertEquals("Aspas não fechadas no registro da linha 3.", erro.getMessage());
+		assertEquals(3, csv.linha());
+	}
+
+	private static LeitorCsv ler(String conteudo, List<String> cabecalho) throws IOException {
+		return LeitorCsv.comCabecalho(new BufferedReader(new StringReader(conteudo)), cabecalho);
+	}
+}
@@ -0,0 +1,96 @@
+package com.argus.api.infra.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Dois bancos H2 em memória fazem o papel de primário e réplica; cada um responde o próprio nome.
+class RoteamentoLeituraDataSourceTests {
+
+	private RoteamentoLeituraDataSource roteamento;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate leitura;
+	private TransactionTemplate escrita;
+
+	@BeforeEach
+	void preparar() {
+		DataSource primario = banco("primario");
+		DataSource replica = banco("replica");
+
+		roteamento = new RoteamentoLeituraDataSource(primario, List.of(replica), Duration.ofMinutes(1));
+		roteamento.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+		escrita = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void limpar() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void transacaoReadOnlyLeDaReplica() {
+		assertEquals("replica", leitura.execute(status -> origem()));
+	}
+
+	@Test
+	void transacaoDeEscritaUsaOPrimario() {
+		assertEquals("primario", escrita.execute(status -> origem()));
+	}
+
+	@Test
+	void usuarioQueAcabouDeEscreverLeDoPrimario() {
+		autenticar("111.111.111-11");
+		escrita.execute(status -> origem());
+		assertEquals("primario", leitura.execute(status -> origem()));
+
+		autenticar("222.222.222-22");
+		assertEquals("replica", leitura.execute(status -> origem()));
+	}
+
+	@Test
+	void replicaIndisponivelDesviaParaOPrimario() {
+		roteamento.marcarSaude("replica-0", false);
+		assertEquals("primario", leitura.execute(status -> origem()));
+
+		roteamento.verificarReplicas();
+		assertEquals("replica", leitura.execute(status -> origem()));
+	}
+
+	private String origem() {
+		return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+	}
+
+	private static void autenticar(String cpf) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(cpf, null, List.of()));
+	}
+
+	private static DataSource banco(String nome) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + nome + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE origem (nome VARCHAR(20))");
+		jdbc.update("INSERT INTO origem (nome) VALUES (?)", nome);
+		return dataSource;
+	}
+}
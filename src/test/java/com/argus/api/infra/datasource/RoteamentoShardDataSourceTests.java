@@ -0,0 +1,128 @@
+package com.argus.api.infra.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.domain.model.Condominio;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.exception.CondominioEmMovimentacaoException;
+
+// Três bancos H2 em memória fazem o papel dos shards; cada um responde o próprio nome.
+class RoteamentoShardDataSourceTests {
+
+	private DiretorioShards diretorio;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate leitura;
+	private TransactionTemplate escrita;
+
+	@BeforeEach
+	void preparar() {
+		Map<String, DataSource> shards = new LinkedHashMap<>();
+		for (String nome : List.of("principal", "shard-1", "shard-2")) {
+			shards.put(nome, banco(nome));
+		}
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V15__create-table-diretorio-shards.sql"))
+				.execute(shards.get("principal"));
+
+		diretorio = new DiretorioShards(shards.get("principal"), "principal");
+		RoteamentoShardDataSource roteamento = new RoteamentoShardDataSource("principal", shards, diretorio);
+		roteamento.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+		escrita = new TransactionTemplate(transactionManager);
+		// o LazyConnectionDataSourceProxy lê o autocommit e o isolamento padrão na primeira conexão,
+		// como acontece no início da aplicação, antes de haver usuário
+		origem();
+	}
+
+	@AfterEach
+	void limpar() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void semUsuarioUsaOPrincipal() {
+		assertEquals("principal", origem());
+	}
+
+	@Test
+	void condominioSemEntradaNoDiretorioFicaNoPrincipal() {
+		autenticar(7L);
+		assertEquals("principal", origem());
+	}
+
+	@Test
+	void usuarioVaiParaOBancoDoSeuCondominio() {
+		diretorio.bloquear(7L, "shard-2", false);
+		autenticar(7L);
+		assertEquals("shard-2", origem());
+	}
+
+	@Test
+	void contextoFixaOBancoOuOCondominio() {
+		diretorio.bloquear(7L, "shard-1", false);
+		autenticar(8L);
+
+		assertEquals("shard-1", ContextoShard.doCondominio(7L, this::origem));
+		assertEquals("shard-2", ContextoShard.noShard("shard-2", this::origem));
+		assertEquals("principal", origem());
+	}
+
+	@Test
+	void condominioBloqueadoSoAceitaLeituras() {
+		diretorio.bloquear(7L, "shard-1", true);
+		autenticar(7L);
+
+		assertEquals("shard-1", leitura.execute(status -> origem()));
+		RuntimeException erro = assertThrows(RuntimeException.class, () -> escrita.execute(status -> origem()));
+		assertInstanceOf(CondominioEmMovimentacaoException.class, NestedExceptionUtils.getMostSpecificCause(erro));
+	}
+
+	private String origem() {
+		return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+	}
+
+	private static void autenticar(Long condominioId) {
+		Condominio condominio = new Condominio();
+		condominio.setId(condominioId);
+		Usuarios usuario = new Usuarios();
+		usuario.setCpf("111.111.111-11");
+		usuario.setCondominio(condominio);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+	}
+
+	private static DataSource banco(String nome) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + nome + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE origem (nome VARCHAR(20))");
+		jdbc.update("INSERT INTO origem (nome) VALUES (?)", nome);
+		return dataSource;
+	}
+}
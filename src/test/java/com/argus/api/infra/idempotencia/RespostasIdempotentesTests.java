@@ -0,0 +1,146 @@
+package com.argus.api.infra.idempotencia;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.BancoTestes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A tabela é criada com a própria migration, em um H2 no modo MySQL.
+class RespostasIdempotentesTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private AtomicInteger execucoes;
+	private ExecutorService threads;
+
+	@BeforeEach
+	void preparar() {
+		jdbcTemplate = new JdbcTemplate(BancoTestes.criar("idempotencia", "V14__create-table-idempotencia.sql"));
+		execucoes = new AtomicInteger();
+		threads = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	void encerrar() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void repeticaoDevolveAPrimeiraRespostaSemExecutarDeNovo() {
+		RespostasIdempotentes respostas = instancia();
+
+		ResponseEntity<?> primeira = respostas.executar("POST /votos", "abc", Map.of("sessao", 1), this::votar);
+		ResponseEntity<?> repetida = respostas.executar("POST /votos", "abc", Map.of("sessao", 1), this::votar);
+
+		assertEquals(1, execucoes.get());
+		assertEquals(HttpStatus.OK, repetida.getStatusCode());
+		assertEquals("true", repetida.getHeaders().getFirst(RespostasIdempotentes.CABECALHO_REPETIDA));
+		assertArrayEquals(((String) primeira.getBody()).getBytes(StandardCharsets.UTF_8), (byte[]) repetida.getBody());
+	}
+
+	@Test
+	void respostaGravadaValeEmOutraInstancia() {
+		instancia().executar("POST /votos", "abc", Map.of("sessao", 1), this::votar);
+
+		ResponseEntity<?> repetida = instancia().executar("POST /votos", "abc", Map.of("sessao", 1), this::votar);
+
+		assertEquals(1, execucoes.get());
+		assertEquals("true", repetida.getHeaders().getFirst(RespostasIdempotentes.CABECALHO_REPETIDA));
+	}
+
+	@Test
+	void mesmaChaveComOutroCorpoERecusada() {
+		RespostasIdempotentes respostas = instancia();
+		respostas.executar("POST /votos", "abc", Map.of("sessao", 1), this::votar);
+
+		ResponseEntity<?> outra = respostas.executar("POST /votos", "abc", Map.of("sessao", 2), this::votar);
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, outra.getStatusCode());
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void semChaveExecutaSempre() {
+		RespostasIdempotentes respostas = instancia();
+		respostas.executar("POST /votos", null, Map.of("sessao", 1), this::votar);
+		respostas.executar("POST /votos", null, Map.of("sessao", 1), this::votar);
+
+		assertEquals(2, execucoes.get());
+	}
+
+	@Test
+	void erroDoServidorNaoEGuardado() {
+		RespostasIdempotentes respostas = instancia();
+		respostas.executar("POST /reservas", "abc", "x", () -> {
+			execucoes.incrementAndGet();
+			return new ResponseEntity<>("falhou", HttpStatus.SERVICE_UNAVAILABLE);
+		});
+
+		ResponseEntity<?> segunda = respostas.executar("POST /reservas", "abc", "x", this::votar);
+
+		assertEquals(HttpStatus.OK, segunda.getStatusCode());
+		assertNull(segunda.getHeaders().getFirst(RespostasIdempotentes.CABECALHO_REPETIDA));
+		assertEquals(2, execucoes.get());
+	}
+
+	@Test
+	void repeticaoSimultaneaEsperaAPrimeira() throws Exception {
+		RespostasIdempotentes respostas = instancia();
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		Future<ResponseEntity<?>> primeira = threads.submit(() -> respostas.executar("POST /reservas", "abc", "x", () -> {
+			iniciou.countDown();
+			aguardar(liberar);
+			return votar();
+		}));
+		assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+		Future<ResponseEntity<?>> segunda = threads.submit(() -> respostas.executar("POST /reservas", "abc", "x", this::votar));
+		Thread.sleep(100);
+		liberar.countDown();
+
+		assertEquals(HttpStatus.OK, primeira.get(5, TimeUnit.SECONDS).getStatusCode());
+		ResponseEntity<?> repetida = segunda.get(5, TimeUnit.SECONDS);
+		assertEquals("true", repetida.getHeaders().getFirst(RespostasIdempotentes.CABECALHO_REPETIDA));
+		assertEquals(1, execucoes.get());
+	}
+
+	private RespostasIdempotentes instancia() {
+		return new RespostasIdempotentes(jdbcTemplate, new ObjectMapper(), new SimpleMeterRegistry(),
+				Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofSeconds(5), 100);
+	}
+
+	private ResponseEntity<?> votar() {
+		execucoes.incrementAndGet();
+		return ResponseEntity.ok("Voto registrado com sucesso.");
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
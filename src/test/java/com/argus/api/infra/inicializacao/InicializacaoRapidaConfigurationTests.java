@@ -0,0 +1,75 @@
+package com.argus.api.infra.inicializacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.argus.api.infra.cache.ReconciliacaoVersoes;
+import com.argus.api.infra.datasource.ReplicasLeituraConfiguration.VerificadorReplicas;
+
+class InicializacaoRapidaConfigurationTests {
+
+	@Test
+	void beansAgendadosSaoCriadosNoBoot() {
+		LazyInitializationExcludeFilter filtro = InicializacaoRapidaConfiguration.beansCriticos();
+
+		assertTrue(filtro.isExcluded("reconciliacaoVersoes", null, ReconciliacaoVersoes.class));
+		assertTrue(filtro.isExcluded("verificadorReplicas", null, VerificadorReplicas.class));
+		assertFalse(filtro.isExcluded("semAgendamento", null, SemAgendamento.class));
+	}
+
+	// sem a TaskSchedulingAutoConfiguration, que traz um filtro parecido: o nosso não depende dela
+	@Test
+	void comLazyInitializationOAgendamentoRodaSemNinguemInjetarOBean() {
+		new ApplicationContextRunner()
+				// o que o spring.main.lazy-initialization registra no SpringApplication
+				.withInitializer(contexto -> contexto.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor()))
+				.withUserConfiguration(InicializacaoRapidaConfiguration.class, Agendada.class)
+				.run(contexto -> {
+					// criada no boot, antes de qualquer getBean
+					assertEquals(1, Tarefa.criadas.get());
+					Tarefa tarefa = contexto.getBean(Tarefa.class);
+					for (int i = 0; i < 100 && tarefa.execucoes.get() == 0; i++) {
+						Thread.sleep(10);
+					}
+					assertTrue(tarefa.execucoes.get() > 0);
+				});
+	}
+
+	static class SemAgendamento {
+	}
+
+	@Configuration
+	@EnableScheduling
+	static class Agendada {
+		@Bean
+		Tarefa tarefa() {
+			return new Tarefa();
+		}
+	}
+
+	static class Tarefa {
+		static final AtomicInteger criadas = new AtomicInteger();
+		final AtomicInteger execucoes = new AtomicInteger();
+
+		Tarefa() {
+			criadas.incrementAndGet();
+		}
+
+		@Scheduled(fixedDelay = 10)
+		void executar() {
+			execucoes.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.argus.api.infra.limitetaxa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.argus.api.infra.limitetaxa.BaldeTokens.Resultado;
+
+// O relógio é passado explicitamente, então os testes não dependem do tempo real.
+class BaldeTokensTests {
+
+	private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void permiteRajadaAteACapacidadeEDepoisRecusa() {
+		BaldeTokens balde = new BaldeTokens(5, 1, 0);
+
+		for (int i = 0; i < 5; i++) {
+			Resultado resultado = balde.consumir(0);
+			assertTrue(resultado.permitido());
+			assertEquals(4 - i, resultado.restantes());
+		}
+
+		Resultado recusado = balde.consumir(0);
+		assertFalse(recusado.permitido());
+		assertEquals(0, recusado.restantes());
+		assertEquals(SEGUNDO, recusado.esperaNanos());
+		assertEquals(5 * SEGUNDO, recusado.ateCheioNanos());
+	}
+
+	@Test
+	void repoeUmTokenPorIntervalo() {
+		BaldeTokens balde = new BaldeTokens(2, 2, 0);
+		balde.consumir(0);
+		balde.consumir(0);
+		assertFalse(balde.consumir(0).permitido());
+
+		assertTrue(balde.consumir(SEGUNDO / 2).permitido());
+		assertFalse(balde.consumir(SEGUNDO / 2).permitido());
+	}
+
+	@Test
+	void ficaCheioDepoisDeOcioso() {
+		BaldeTokens balde = new BaldeTokens(3, 1, 0);
+		balde.consumir(0);
+		assertFalse(balde.cheio(0));
+		assertTrue(balde.cheio(SEGUNDO));
+
+		// o tempo ocioso não acumula além da capacidade
+		assertEquals(2, balde.consumir(10 * SEGUNDO).restantes());
+	}
+
+	@Test
+	void naoPermiteMaisQueACapacidadeComConcorrencia() throws InterruptedException {
+		BaldeTokens balde = new BaldeTokens(100, 1, 0);
+		AtomicInteger permitidos = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			threads.execute(() -> {
+				try {
+					largada.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				for (int i = 0; i < 50; i++) {
+					if (balde.consumir(0).permitido()) {
+						permitidos.incrementAndGet();
+					}
+				}
+			});
+		}
+		largada.countDown();
+		threads.shutdown();
+		assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(100, permitidos.get());
+	}
+}
@@ -0,0 +1,176 @@
+package com.argus.api.infra.lote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authorization.AuthorizationDecision;
+
+import com.argus.api.dto.RequisicaoLoteDTO;
+import com.argus.api.dto.RespostaLoteDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// O despacho falso faz o papel do limite de taxa + DispatcherServlet: responde conforme o caminho
+// e anota a ordem em que os itens terminam.
+class ExecutorLoteTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<String> concluidos = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger despachados = new AtomicInteger();
+	private final CountDownLatch paralelos = new CountDownLatch(2);
+	private final CountDownLatch escritaConcluida = new CountDownLatch(1);
+
+	private ExecutorLote executorLote;
+
+	@BeforeEach
+	void preparar() {
+		executorLote = new ExecutorLote(
+				(autenticacao, request) -> new AuthorizationDecision(!request.getRequestURI().equals("/proibido")),
+				(request, response) -> despachar((HttpServletRequest) request, (HttpServletResponse) response),
+				objectMapper, new SimpleMeterRegistry(), 5, 4, Duration.ofSeconds(1), false);
+	}
+
+	@AfterEach
+	void encerrar() {
+		executorLote.encerrar();
+	}
+
+	@Test
+	void leiturasRodamJuntasEVoltamNaOrdemPedida() throws Exception {
+		List<RespostaLoteDTO> respostas = executorLote.executar(List.of(
+				item("a", "GET", "/juntos?nome=Sal%C3%A3o&nome=Quadra"), item("b", "GET", "/juntos")),
+				new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		// cada um só termina se o outro estiver rodando ao mesmo tempo
+		assertEquals(List.of("a", "b"), respostas.stream().map(RespostaLoteDTO::id).toList());
+		assertEquals(List.of(200, 200), respostas.stream().map(RespostaLoteDTO::status).toList());
+		assertEquals("{\"nomes\":[\"Salão\",\"Quadra\"]}", respostas.get(0).corpo());
+	}
+
+	@Test
+	void escritaEsperaOsItensAnterioresESeguraOsSeguintes() throws Exception {
+		RequisicaoLoteDTO escrita = new RequisicaoLoteDTO("b", "POST", "/eco", Map.of(),
+				objectMapper.readTree("{\"nome\":\"Salão\"}"));
+
+		List<RespostaLoteDTO> respostas = executorLote.executar(List.of(item("a", "GET", "/lento"), escrita,
+				item("c", "GET", "/rapido")), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertEquals(List.of("/lento", "/eco", "/rapido"), concluidos);
+		assertEquals(201, respostas.get(1).status());
+		assertEquals("{\"nome\":\"Salão\"}", respostas.get(1).corpo());
+		assertEquals("/itens/1", respostas.get(1).cabecalhos().get("Location"));
+	}
+
+	@Test
+	void itensNegadosOuInvalidosNaoChegamAoDespacho() throws Exception {
+		List<RespostaLoteDTO> respostas = executorLote.executar(List.of(item("negado", "GET", "/proibido"),
+				item("aninhado", "POST", "/batch"), item("metodo", "TRACE", "/rapido"), item("caminho", "GET", "rapido"),
+				item("texto", "GET", "/texto")), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertEquals(List.of(403, 400, 400, 400, 400), respostas.stream().map(RespostaLoteDTO::status).toList());
+		assertEquals("\"Argumento inválido.\"", respostas.get(4).corpo());
+		assertEquals(1, despachados.get());
+		assertEquals("[{\"id\":\"negado\",\"status\":403,\"cabecalhos\":{},\"corpo\":\"Acesso negado.\"}]",
+				objectMapper.writeValueAsString(respostas.subList(0, 1)));
+	}
+
+	@Test
+	void itemQuePassaDoTempoVolta504ELoteGrandeEhRecusado() {
+		List<RespostaLoteDTO> respostas = executorLote.executar(List.of(item("parado", "GET", "/parado"),
+				item("rapido", "GET", "/rapido")), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertEquals(List.of(504, 200), respostas.stream().map(RespostaLoteDTO::status).toList());
+		assertThrows(IllegalArgumentException.class, () -> executorLote.executar(
+				Collections.nCopies(6, item("x", "GET", "/rapido")), new MockHttpServletRequest(), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void itemSemVagaDentroDoTempoVolta504SemRodar() {
+		ExecutorLote umaVaga = new ExecutorLote((autenticacao, request) -> new AuthorizationDecision(true),
+				(request, response) -> despachar((HttpServletRequest) request, (HttpServletResponse) response),
+				objectMapper, new SimpleMeterRegistry(), 5, 1, Duration.ofMillis(300), false);
+		try {
+			List<RespostaLoteDTO> respostas = umaVaga.executar(List.of(item("parado", "GET", "/parado"),
+					item("rapido", "GET", "/rapido")), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+			assertEquals(List.of(504, 504), respostas.stream().map(RespostaLoteDTO::status).toList());
+			assertEquals("\"Nenhuma vaga livre dentro do tempo do lote.\"", respostas.get(1).corpo());
+			assertEquals(1, despachados.get());
+		} finally {
+			umaVaga.encerrar();
+		}
+	}
+
+	@Test
+	void escritaQuePassaDoTempoNaoEhInterrompida() throws Exception {
+		List<RespostaLoteDTO> respostas = executorLote.executar(List.of(item("escrita", "POST", "/escrita-lenta"),
+				item("depois", "GET", "/rapido")), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertEquals(List.of(504, 504), respostas.stream().map(RespostaLoteDTO::status).toList());
+		// o item seguinte nem chega a rodar, e a escrita termina depois de o lote ter respondido
+		assertEquals(1, despachados.get());
+		assertTrue(escritaConcluida.await(3, TimeUnit.SECONDS));
+	}
+
+	private void despachar(HttpServletRequest request, HttpServletResponse response) {
+		despachados.incrementAndGet();
+		try {
+			switch (request.getRequestURI()) {
+				case "/juntos" -> {
+					paralelos.countDown();
+					response.setStatus(paralelos.await(2, TimeUnit.SECONDS) ? 200 : 500);
+					String[] nomes = request.getParameterValues("nome");
+					json(response, "{\"nomes\":" + objectMapper.writeValueAsString(nomes != null ? nomes : new String[0]) + "}");
+				}
+				case "/lento" -> Thread.sleep(200);
+				case "/parado" -> Thread.sleep(5000);
+				case "/escrita-lenta" -> {
+					Thread.sleep(1500);
+					escritaConcluida.countDown();
+				}
+				case "/eco" -> {
+					response.setStatus(201);
+					response.setHeader("Location", "/itens/1");
+					json(response, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+				}
+				case "/texto" -> {
+					response.setStatus(400);
+					response.setContentType("text/plain;charset=UTF-8");
+					response.getWriter().write("Argumento inválido.");
+				}
+				default -> { }
+			}
+			concluidos.add(request.getRequestURI());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void json(HttpServletResponse response, String corpo) throws Exception {
+		response.setContentType("application/json");
+		response.getOutputStream().write(corpo.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static RequisicaoLoteDTO item(String id, String metodo, String caminho) {
+		return new RequisicaoLoteDTO(id, metodo, caminho, null, null);
+	}
+}
@@ -0,0 +1,95 @@
+package com.argus.api.infra.lote;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.argus.api.controller.LoteController;
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.infra.security.SecurityConfigurations;
+import com.argus.api.infra.security.TokenService;
+import com.argus.api.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A cadeia do Spring Security de verdade, com o token de um síndico: os itens do lote precisam ser
+// barrados pelas mesmas regras que barram a requisição direta.
+@WebMvcTest(controllers = LoteController.class)
+@Import({SecurityConfigurations.class, TokenService.class, ExecutorLote.class, LoteSegurancaTests.Metricas.class})
+class LoteSegurancaTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@MockBean
+	private UsuarioRepository usuarioRepository;
+
+	private String token;
+
+	@BeforeEach
+	void preparar() {
+		Usuarios sindico = new Usuarios();
+		sindico.setId(1L);
+		sindico.setCpf("111");
+		sindico.setTipoDoUsuario(TipoDoUsuario.SINDICO);
+		when(usuarioRepository.findByCpf("111")).thenReturn(sindico);
+		token = "Bearer " + tokenService.generateToken(sindico);
+	}
+
+	@Test
+	void itensSoDeAdminSaoNegadosAoSindico() throws Exception {
+		mockMvc.perform(get("/auditoria").header("Authorization", token))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(post("/batch").header("Authorization", token).contentType(MediaType.APPLICATION_JSON).content("""
+				[{"id": "auditoria", "metodo": "GET", "caminho": "/auditoria?acao=VOTO_REGISTRADO"},
+				 {"id": "condominio", "metodo": "POST", "caminho": "/condominio", "corpo": {"nome": "Novo"}},
+				 {"id": "shards", "metodo": "GET", "caminho": "/shards/diretorio"},
+				 {"id": "movimentacao", "metodo": "POST", "caminho": "/shards/movimentacoes"}]
+				"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[*].status", contains(403, 403, 403, 403)));
+	}
+
+	@Test
+	void caminhosQueOFirewallRecusariaNaoChegamAsRegras() throws Exception {
+		mockMvc.perform(post("/batch").header("Authorization", token).contentType(MediaType.APPLICATION_JSON).content("""
+				[{"id": "a", "metodo": "GET", "caminho": "/relatorios/../auditoria"},
+				 {"id": "b", "metodo": "GET", "caminho": "/relatorios/%2E%2E/auditoria"},
+				 {"id": "c", "metodo": "GET", "caminho": "/relatorios%2Fx"},
+				 {"id": "d", "metodo": "GET", "caminho": "/relatorios%5cx"},
+				 {"id": "e", "metodo": "GET", "caminho": "/auditoria;x=1"},
+				 {"id": "f", "metodo": "GET", "caminho": "//auditoria"},
+				 {"id": "g", "metodo": "GET", "caminho": "/auditoria?inicio=2026-09-01%2F"}]
+				"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[*].status", contains(400, 400, 400, 400, 400, 400, 403)));
+	}
+
+	@TestConfiguration
+	static class Metricas {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.argus.api.infra.transacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.BancoTestes;
+
+// O "banco" de cada teste é o valor devolvido pela carga; as transações são de verdade, em um H2
+// vazio, para os deltas passarem pelo beforeCommit e pelo afterCommit.
+class ContadoresAposCommitTests {
+
+	private ContadoresAposCommit<String, AtomicLong> contadores;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void preparar() {
+		contadores = new ContadoresAposCommit<>();
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(BancoTestes.criar("contadores")));
+	}
+
+	@Test
+	void deltaQueChegaDuranteARecargaEntraNoMapaNovo() {
+		contadores.recalcular(() -> mapa(10));
+
+		contadores.recalcular(() -> {
+			// um commit feito depois da leitura do banco
+			transactionTemplate.executeWithoutResult(status -> contadores.aposCommit(somar(1)));
+			assertEquals(11, contadores.buscar("total").get());
+			return mapa(10);
+		});
+
+		assertEquals(11, contadores.buscar("total").get());
+	}
+
+	@Test
+	void commitAnteriorARecargaNaoEhContadoDuasVezes() throws Exception {
+		contadores.recalcular(() -> mapa(10));
+		CountDownLatch aplicado = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		// o commit acontece antes da recarga, mas a transação só termina depois de ela começar
+		CompletableFuture<Void> escrita = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			contadores.aposCommit(somar(1));
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					aplicado.countDown();
+					aguardar(liberar);
+				}
+			});
+		}));
+		assertTrue(aplicado.await(5, TimeUnit.SECONDS));
+
+		AtomicBoolean carregou = new AtomicBoolean();
+		CompletableFuture<Void> recarga = CompletableFuture.runAsync(() -> contadores.recalcular(() -> {
+			carregou.set(true);
+			// o banco já tem a escrita
+			return mapa(11);
+		}));
+		Thread.sleep(100);
+		assertFalse(carregou.get());
+
+		liberar.countDown();
+		escrita.get(5, TimeUnit.SECONDS);
+		recarga.get(5, TimeUnit.SECONDS);
+		assertEquals(11, contadores.buscar("total").get());
+	}
+
+	@Test
+	void rollbackNaoAplicaODelta() {
+		contadores.recalcular(() -> mapa(10));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			contadores.aposCommit(somar(1));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(10, contadores.buscar("total").get());
+		contadores.recalcular(() -> mapa(10));
+		assertEquals(10, contadores.buscar("total").get());
+	}
+
+	private static Map<String, AtomicLong> mapa(long total) {
+		Map<String, AtomicLong> mapa = new ConcurrentHashMap<>();
+		mapa.put("total", new AtomicLong(total));
+		return mapa;
+	}
+
+	private static Consumer<Map<String, AtomicLong>> somar(long quantidade) {
+		return mapa -> mapa.computeIfAbsent("total", c -> new AtomicLong()).addAndGet(quantidade);
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.domain.model.Ocorrencias;
+import com.argus.api.domain.model.Usuarios;
+import com.argus.api.exception.LimiteAnexoExcedidoException;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo;
+import com.argus.api.repository.AnexoOcorrenciaRepository;
+import com.argus.api.repository.OcorrenciasRepository;
+import com.argus.api.repository.UsuarioRepository;
+
+class AnexosServiceTests {
+
+	@TempDir
+	Path diretorio;
+
+	private AnexoOcorrenciaRepository anexos;
+	private UsuarioRepository usuarios;
+	private ArmazenamentoConteudo armazenamento;
+	private AnexosService service;
+	private Usuarios usuario;
+
+	@BeforeEach
+	void preparar() throws IOException {
+		anexos = mock(AnexoOcorrenciaRepository.class);
+		usuarios = mock(UsuarioRepository.class);
+		OcorrenciasRepository ocorrencias = mock(OcorrenciasRepository.class);
+		armazenamento = new ArmazenamentoConteudo(diretorio.toString());
+		service = new AnexosService(anexos, ocorrencias, usuarios, armazenamento,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), DataSize.ofBytes(100), DataSize.ofBytes(100));
+
+		usuario = new Usuarios();
+		usuario.setId(1L);
+		usuario.setTipoDoUsuario(TipoDoUsuario.MORADOR);
+		Ocorrencias ocorrencia = new Ocorrencias();
+		ocorrencia.setId(10L);
+		ocorrencia.setUsuario(usuario);
+		when(ocorrencias.findById(10L)).thenReturn(Optional.of(ocorrencia));
+		when(anexos.save(any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+	}
+
+	@Test
+	void cotaEhConferidaDeNovoComOUsuarioTravado() {
+		// na primeira conta sobra espaço; quando a linha é travada, outro upload já consumiu a cota
+		when(anexos.somarTamanhoPorUsuario(1L)).thenReturn(0L, 90L);
+
+		assertThrows(LimiteAnexoExcedidoException.class, () -> anexar(20));
+
+		InOrder ordem = inOrder(usuarios, anexos);
+		ordem.verify(usuarios).travarPorId(1L);
+		ordem.verify(anexos).somarTamanhoPorUsuario(1L);
+		verify(anexos, never()).save(any());
+	}
+
+	@Test
+	void uploadRecusadoNaCotaNaoDeixaConteudoNovoNoDisco() throws IOException {
+		Path reaproveitado = armazenamento.caminho(armazenamento.gravar(new ByteArrayInputStream(new byte[30]), 100).hash());
+		when(anexos.somarTamanhoPorUsuario(1L)).thenReturn(0L, 90L, 0L, 90L);
+
+		assertThrows(LimiteAnexoExcedidoException.class, () -> anexar(20));
+		// o conteúdo já existia antes deste upload: pode ser de outro que ainda vai inserir o anexo
+		assertThrows(LimiteAnexoExcedidoException.class, () -> anexar(30));
+
+		try (var arquivos = Files.walk(diretorio)) {
+			assertEquals(List.of(reaproveitado), arquivos.filter(Files::isRegularFile).toList());
+		}
+	}
+
+	@Test
+	void anexoDentroDaCotaEhSalvo() throws IOException {
+		when(anexos.somarTamanhoPorUsuario(1L)).thenReturn(30L);
+
+		assertEquals(70L, service.anexar(10L, "foto.png", "image/png", 70, new ByteArrayInputStream(new byte[70]), usuario).tamanho());
+		verify(usuarios).travarPorId(1L);
+	}
+
+	@Test
+	void excluirDaOcorrenciaLiberaSoConteudoSemOutroAnexo() throws IOException {
+		String exclusivo = armazenamento.gravar(new ByteArrayInputStream(new byte[] {1}), 10).hash();
+		String compartilhado = armazenamento.gravar(new ByteArrayInputStream(new byte[] {2}), 10).hash();
+		for (String hash : List.of(exclusivo, compartilhado)) {
+			Files.setLastModifiedTime(armazenamento.caminho(hash),
+					FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+		}
+		when(anexos.listarHashesPorOcorrencia(10L)).thenReturn(List.of(exclusivo, compartilhado));
+		when(anexos.existsByHashConteudo(compartilhado)).thenReturn(true);
+
+		service.excluirDaOcorrencia(10L);
+
+		verify(anexos).excluirPorOcorrencia(10L);
+		assertFalse(Files.exists(armazenamento.caminho(exclusivo)));
+		assertTrue(Files.exists(armazenamento.caminho(compartilhado)));
+	}
+
+	@Test
+	void ocorrenciaSemAnexosNaoExcluiNada() {
+		when(anexos.listarHashesPorOcorrencia(10L)).thenReturn(List.of());
+
+		service.excluirDaOcorrencia(10L);
+
+		verify(anexos, never()).excluirPorOcorrencia(10L);
+	}
+
+	private void anexar(int tamanho) throws IOException {
+		service.anexar(10L, "foto.png", "image/png", tamanho, new ByteArrayInputStream(new byte[tamanho]), usuario);
+	}
+}
@@ -0,0 +1,164 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.domain.TipoDoUsuario;
+import com.argus.api.dto.ImportacaoUsuariosDTO;
+import com.argus.api.dto.ImportacaoUsuariosDTO.ErroImportacao;
+import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.infra.auditoria.AcaoAuditoria;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+class ImportacaoUsuariosServiceTests {
+
+	private static final String CABECALHO = "nome;cpf;senha;telefone;tipoDoUsuario;bloco;apartamento\r\n";
+
+	private JdbcTemplate jdbcTemplate;
+	private ImportacaoUsuariosService importacao;
+	private LogAuditoria logAuditoria;
+	private long condominio;
+
+	@BeforeEach
+	void preparar() {
+		DataSource dataSource = BancoTestes.criar("importacao", "V1__create-table-condominio.sql", "V2__create-table-usuarios.sql",
+				"V4__create-table-areascomuns.sql", "V18__add-updated-at-areas-comuns.sql");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Alvo', 'Rua')");
+		condominio = jdbcTemplate.queryForObject("SELECT id FROM condominios WHERE nome = 'Alvo'", Long.class);
+		jdbcTemplate.update("INSERT INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+				+ "VALUES ('Antigo', '999', 'x', '1', 'MORADOR', ?)", condominio);
+
+		logAuditoria = mock(LogAuditoria.class);
+		ReferenciasService referencias = new ReferenciasService(jdbcTemplate,
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class), new VersoesRecursos(),
+				Duration.ofMinutes(1));
+		// blocos de duas linhas, para o arquivo passar por mais de uma transação
+		importacao = new ImportacaoUsuariosService(referencias, new BCryptPasswordEncoder(4), jdbcTemplate,
+				new TransactionTemplate(new DataSourceTransactionManager(dataSource)), logAuditoria, 2, 2, 10);
+	}
+
+	@AfterEach
+	void encerrar() {
+		importacao.encerrar();
+	}
+
+	@Test
+	void linhasInvalidasVoltamNoRelatorioSemImpedirAsDemais() throws IOException {
+		ImportacaoUsuariosDTO relatorio = importar(CABECALHO
+				+ "Ana;111;s1;9;morador;A;101\r\n"
+				+ "\"Bia \"\"B\"\"\";222;s2;9;SINDICO;;\r\n"
+				+ "Repetido;999;s3;9;MORADOR;;\r\n"
+				+ "Carla;333;s4;9;GERENTE;;\r\n"
+				+ "Ana de novo;111;s5;9;MORADOR;;\r\n"
+				+ "Dani;444;s6;9;MORADOR;B;x\r\n");
+
+		assertEquals(6, relatorio.linhasLidas());
+		assertEquals(2, relatorio.importados());
+		assertEquals(List.of(
+				new ErroImportacao(4, "999", "CPF já cadastrado."),
+				new ErroImportacao(5, "333", "Tipo de usuário inválido: GERENTE"),
+				new ErroImportacao(6, "111", "CPF repetido no arquivo."),
+				new ErroImportacao(7, "444", "Apartamento inválido: x")), ordenados(relatorio.erros()));
+		assertEquals("Bia \"B\"", jdbcTemplate.queryForObject("SELECT nome FROM usuarios WHERE cpf = '222'", String.class));
+		assertTrue(new BCryptPasswordEncoder().matches("s1",
+				jdbcTemplate.queryForObject("SELECT senha FROM usuarios WHERE cpf = '111'", String.class)));
+		assertEquals(condominio, jdbcTemplate.queryForObject("SELECT condominio_id FROM usuarios WHERE cpf = '111'", Long.class));
+		// o papel de cada usuário criado vai para a trilha, como no cadastro
+		long bia = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE cpf = '222'", Long.class);
+		verify(logAuditoria).registrar(AcaoAuditoria.USUARIO_CRIADO, bia, "papel=SINDICO importacao");
+		verify(logAuditoria, times(2)).registrar(eq(AcaoAuditoria.USUARIO_CRIADO), anyLong(), anyString());
+	}
+
+	@Test
+	void aspasNaoFechadasEncerramAImportacaoComOQueJaFoiLido() throws IOException {
+		ImportacaoUsuariosDTO relatorio = importar(CABECALHO
+				+ "Ana;111;s1;9;MORADOR;;\r\n"
+				+ "Bia;222;s2;9;MORADOR;;\r\n"
+				+ "Carla;333;s3;9;MORADOR;;\r\n"
+				+ "\"Dani;444;s4;9;MORADOR;;\r\n"
+				+ "Eva;555;s5;9;MORADOR;;\r\n");
+
+		// o primeiro bloco já tinha sido gravado; a Carla estava no bloco seguinte, ainda incompleto
+		assertEquals(3, relatorio.importados());
+		assertEquals(4, relatorio.linhasLidas());
+		assertEquals(1, relatorio.totalErros());
+		ErroImportacao erro = relatorio.erros().get(0);
+		assertEquals(5, erro.linha());
+		assertNull(erro.cpf());
+		assertEquals("Aspas não fechadas no registro da linha 5. Importação interrompida.", erro.mensagem());
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios WHERE cpf = '555'", Integer.class));
+	}
+
+	@Test
+	void importadorNaoCriaUsuarioDePapelAcimaDoSeu() throws IOException {
+		ImportacaoUsuariosDTO relatorio = importar(TipoDoUsuario.SUBSINDICO, CABECALHO
+				+ "Ana;111;s1;9;ADMIN;;\r\n"
+				+ "Bia;222;s2;9;SINDICO;;\r\n"
+				+ "Carla;333;s3;9;SUBSINDICO;;\r\n"
+				+ "Dani;444;s4;9;MORADOR;;\r\n");
+
+		assertEquals(2, relatorio.importados());
+		assertEquals(List.of(
+				new ErroImportacao(2, "111", "Sem permissão para criar usuário ADMIN."),
+				new ErroImportacao(3, "222", "Sem permissão para criar usuário SINDICO.")), ordenados(relatorio.erros()));
+		assertEquals(1, importar(TipoDoUsuario.ADMIN, CABECALHO + "Eva;555;s5;9;ADMIN;;\r\n").importados());
+	}
+
+	@Test
+	void linhaRecusadaPeloBancoNaoViraCpfJaCadastrado() throws IOException {
+		ImportacaoUsuariosDTO relatorio = importar(CABECALHO
+				+ "Ana;111;s1;9;MORADOR;;\r\n"
+				+ "Bia;222;s2;" + "9".repeat(300) + ";MORADOR;;\r\n");
+
+		assertEquals(1, relatorio.importados());
+		assertEquals(List.of(new ErroImportacao(3, "222", "Dados recusados pelo banco.")), relatorio.erros());
+	}
+
+	@Test
+	void cabecalhoSemColunaObrigatoriaOuCondominioInexistente() {
+		assertThrows(IllegalArgumentException.class, () -> importar("nome;cpf;senha\r\nAna;1;s\r\n"));
+		assertThrows(CondominioNotFoundException.class, () -> importacao.importar("Outro",
+				new ByteArrayInputStream(CABECALHO.getBytes(StandardCharsets.UTF_8)), TipoDoUsuario.ADMIN));
+	}
+
+	private ImportacaoUsuariosDTO importar(String csv) throws IOException {
+		return importar(TipoDoUsuario.SINDICO, csv);
+	}
+
+	private ImportacaoUsuariosDTO importar(TipoDoUsuario papel, String csv) throws IOException {
+		return importacao.importar(condominio, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), papel);
+	}
+
+	private static List<ErroImportacao> ordenados(List<ErroImportacao> erros) {
+		return erros.stream().sorted((a, b) -> Long.compare(a.linha(), b.linha())).toList();
+	}
+}
@@ -0,0 +1,123 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.argus.api.domain.model.AreasComuns;
+import com.argus.api.domain.model.Reservas;
+import com.argus.api.dto.OcupacaoAreaDTO;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.argus.api.repository.AreasComunsRepository;
+import com.argus.api.repository.ReservasRepository;
+
+// 2026-09-01 é uma terça-feira; setembro de 2026 tem cinco terças, cinco quartas e quatro quintas
+class OcupacaoAreasServiceTests {
+
+	private static final YearMonth SETEMBRO = YearMonth.of(2026, 9);
+
+	private ReservasRepository reservasRepository;
+	private OcupacaoAreasService ocupacao;
+
+	@BeforeEach
+	void preparar() {
+		reservasRepository = mock(ReservasRepository.class);
+		ocupacao = new OcupacaoAreasService(reservasRepository, mock(AreasComunsRepository.class),
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class));
+	}
+
+	@Test
+	void reservaEhDistribuidaPelasHorasQueOcupa() {
+		ocupacao.registrarCriacao(reserva(1L, "2026-09-01", "08:30", "10:15"));
+
+		OcupacaoAreaDTO mapa = ocupacao.consultar(1L, SETEMBRO);
+		assertEquals(1, mapa.reservas());
+		assertEquals(30, mapa.minutosPorHora().get(DayOfWeek.TUESDAY)[8]);
+		assertEquals(60, mapa.minutosPorHora().get(DayOfWeek.TUESDAY)[9]);
+		assertEquals(15, mapa.minutosPorHora().get(DayOfWeek.TUESDAY)[10]);
+		assertEquals(0, mapa.minutosPorHora().get(DayOfWeek.TUESDAY)[11]);
+		assertEquals(1, mapa.reservasPorHora().get(DayOfWeek.TUESDAY)[10]);
+		assertEquals(60.0 / (60 * 5), mapa.taxaOcupacao().get(DayOfWeek.TUESDAY)[9]);
+		assertArrayEquals(new int[24], mapa.minutosPorHora().get(DayOfWeek.MONDAY));
+	}
+
+	@Test
+	void exclusaoDesfazACriacaoEOutrasAreasNaoSeMisturam() {
+		Reservas reserva = reserva(1L, "2026-09-02", "22:00", "00:00");
+		ocupacao.registrarCriacao(reserva);
+		ocupacao.registrarCriacao(reserva(2L, "2026-09-02", "22:00", "23:00"));
+
+		assertEquals(60, ocupacao.consultar(1L, SETEMBRO).minutosPorHora().get(DayOfWeek.WEDNESDAY)[23]);
+		assertEquals(60.0 / (60 * 5), ocupacao.consultar(1L, SETEMBRO).taxaOcupacao().get(DayOfWeek.WEDNESDAY)[22]);
+		assertEquals(0.0, ocupacao.consultar(1L, SETEMBRO).taxaOcupacao().get(DayOfWeek.THURSDAY)[22]);
+
+		ocupacao.registrarRemocao(reserva);
+		OcupacaoAreaDTO depois = ocupacao.consultar(1L, SETEMBRO);
+		assertEquals(0, depois.reservas());
+		assertArrayEquals(new int[24], depois.minutosPorHora().get(DayOfWeek.WEDNESDAY));
+		assertEquals(1, ocupacao.consultar(2L, SETEMBRO).reservas());
+	}
+
+	@Test
+	void recalculoRefazOsContadoresAPartirDasReservas() {
+		ocupacao.registrarCriacao(reserva(1L, "2026-09-01", "08:00", "09:00"));
+		when(reservasRepository.agregarOcupacao()).thenReturn(List.of(
+				new Object[] {1L, "2026-09-08", "10:00:00", "11:00:00", 3L},
+				new Object[] {1L, "2026-10-06", "10:00:00", "12:00:00", 1L}));
+
+		ocupacao.recalcular();
+
+		OcupacaoAreaDTO setembro = ocupacao.consultar(1L, SETEMBRO);
+		assertEquals(3, setembro.reservas());
+		assertEquals(0, setembro.minutosPorHora().get(DayOfWeek.TUESDAY)[8]);
+		assertEquals(180, setembro.minutosPorHora().get(DayOfWeek.TUESDAY)[10]);
+
+		OcupacaoAreaDTO historico = ocupacao.consultar(1L, null);
+		assertEquals(4, historico.reservas());
+		assertEquals(4, historico.reservasPorHora().get(DayOfWeek.TUESDAY)[10]);
+		assertEquals(1, historico.reservasPorHora().get(DayOfWeek.TUESDAY)[11]);
+		assertNull(historico.taxaOcupacao());
+	}
+
+	@Test
+	void recalculoComShardsSomaTodosOsBancos() {
+		RoteamentoShardDataSource roteamento = mock(RoteamentoShardDataSource.class);
+		when(roteamento.shards()).thenReturn(new LinkedHashSet<>(List.of("principal", "outro")));
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("roteamentoShardDataSource", roteamento);
+		OcupacaoAreasService comShards = new OcupacaoAreasService(reservasRepository, mock(AreasComunsRepository.class),
+				beans.getBeanProvider(RoteamentoShardDataSource.class));
+		List<Object[]> principal = List.<Object[]>of(new Object[] {1L, "2026-09-08", "10:00:00", "11:00:00", 2L});
+		List<Object[]> outro = List.<Object[]>of(new Object[] {2L, "2026-09-08", "10:00:00", "11:00:00", 1L});
+		when(reservasRepository.agregarOcupacao()).thenReturn(principal, outro);
+
+		comShards.recalcular();
+
+		assertEquals(2, comShards.consultar(1L, SETEMBRO).reservas());
+		assertEquals(1, comShards.consultar(2L, SETEMBRO).reservas());
+	}
+
+	private static Reservas reserva(Long areaId, String data, String inicio, String fim) {
+		AreasComuns area = new AreasComuns();
+		area.setId(areaId);
+		Reservas reserva = new Reservas();
+		reserva.setAreasComuns(area);
+		reserva.setDataReserva(LocalDate.parse(data));
+		reserva.setHoraInicio(LocalTime.parse(inicio));
+		reserva.setHoraFim(LocalTime.parse(fim));
+		return reserva;
+	}
+}
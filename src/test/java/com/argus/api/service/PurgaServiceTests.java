@@ -0,0 +1,222 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.dto.PurgaDTO;
+import com.argus.api.exception.CondominioNotFoundException;
+import com.argus.api.infra.armazenamento.ArmazenamentoConteudo;
+import com.argus.api.infra.auditoria.LogAuditoria;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// As tabelas são criadas com as próprias migrations, em um H2 no modo MySQL. Os lotes são de
+// 3 linhas para que cada tabela precise de vários DELETEs.
+class PurgaServiceTests {
+
+	private static final String[] MIGRATIONS = {"V1__create-table-condominio.sql", "V2__create-table-usuarios.sql",
+			"V3__create-table-comunicados.sql", "V4__create-table-areascomuns.sql", "V5__create-table-reservas.sql",
+			"V6__create-table-sessavoto.sql", "V7__create-table-ocorrencias.sql", "V8__create-table-voto.sql",
+			"V9__create-table-notificacao.sql", "V12__create-table-anexos-ocorrencia.sql", "V16__create-table-purgas.sql"};
+
+	private JdbcTemplate jdbcTemplate;
+	private VersoesRecursos versoesRecursos;
+	private EstatisticasOcorrenciasService estatisticas;
+	private ArmazenamentoConteudo armazenamento;
+	private PurgaService purgaService;
+
+	@BeforeEach
+	void preparar() {
+		jdbcTemplate = new JdbcTemplate(BancoTestes.criar("purga", MIGRATIONS));
+		versoesRecursos = new VersoesRecursos();
+		estatisticas = mock(EstatisticasOcorrenciasService.class);
+		EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class, RETURNS_DEEP_STUBS));
+		armazenamento = mock(ArmazenamentoConteudo.class);
+		PurgaProperties propriedades = new PurgaProperties();
+		propriedades.setTamanhoLote(3);
+		propriedades.setPausaEntreLotes(Duration.ZERO);
+		propriedades.setMaximoTentativas(2);
+		// sem iniciar(): as purgas só rodam quando o teste chama executarPendentes
+		purgaService = new PurgaService(jdbcTemplate, versoesRecursos, entityManagerFactory, estatisticas,
+				mock(OcupacaoAreasService.class), mock(ReferenciasService.class),
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class), new SimpleMeterRegistry(),
+				mock(LogAuditoria.class), armazenamento, propriedades);
+	}
+
+	@AfterEach
+	void encerrar() {
+		purgaService.encerrar();
+	}
+
+	@Test
+	void purgaDoCondominioApagaOsDependentesEPreservaOsOutros() {
+		long alvo = condominio("Alvo", 7);
+		long outro = condominio("Outro", 2);
+		long versao = versoesRecursos.versao(Recurso.CONDOMINIOS);
+
+		PurgaDTO agendada = purgaService.agendarCondominio(alvo);
+		purgaService.executarPendentes();
+
+		PurgaDTO concluida = purgaService.buscar(agendada.id()).orElseThrow();
+		assertEquals("CONCLUIDA", concluida.status());
+		assertEquals(1 + 7 + 1 + 1 + 1 + 7 * 6, concluida.linhasApagadas());
+		assertEquals(0, contar("condominios WHERE id = " + alvo));
+		assertEquals(0, contar("usuarios WHERE condominio_id = " + alvo));
+		assertEquals(1, contar("condominios WHERE id = " + outro));
+		assertEquals(2, contar("usuarios WHERE condominio_id = " + outro));
+		assertEquals(2, contar("voto"));
+		assertEquals(4, contar("notificacoes"));
+		assertEquals(versao + 1, versoesRecursos.versao(Recurso.CONDOMINIOS));
+		verify(estatisticas).recalcular();
+	}
+
+	@Test
+	void purgaDoUsuarioApagaSoOQueDependeDele() {
+		long condominio = condominio("Alvo", 3);
+		long usuario = jdbcTemplate.queryForObject("SELECT MIN(id) FROM usuarios", Long.class);
+
+		PurgaDTO agendada = purgaService.agendarUsuario(usuario);
+		purgaService.executarPendentes();
+
+		assertEquals("CONCLUIDA", purgaService.buscar(agendada.id()).orElseThrow().status());
+		assertEquals(0, contar("usuarios WHERE id = " + usuario));
+		assertEquals(2, contar("usuarios WHERE condominio_id = " + condominio));
+		assertEquals(2, contar("voto"));
+		assertEquals(2, contar("ocorrencias"));
+		assertEquals(2, contar("anexos_ocorrencia"));
+		assertEquals(3, contar("reservas"));
+		// as notificações do comunicado que ele publicou saem junto
+		assertEquals(2, contar("notificacoes"));
+	}
+
+	@Test
+	void conteudoDosAnexosApagadosEhLiberadoSeNinguemMaisUsa() {
+		condominio("Alvo", 3);
+		long usuario = jdbcTemplate.queryForObject("SELECT MIN(id) FROM usuarios", Long.class);
+		long ocorrencia = jdbcTemplate.queryForObject("SELECT MIN(id) FROM ocorrencias WHERE id_usuario = ?", Long.class, usuario);
+		// um arquivo só dele e um igual ao de um vizinho
+		jdbcTemplate.update("UPDATE anexos_ocorrencia SET hash_conteudo = 'exclusivo' WHERE usuario_id = ?", usuario);
+		jdbcTemplate.update("INSERT INTO anexos_ocorrencia (ocorrencia_id, usuario_id, hash_conteudo, nome_arquivo, "
+				+ "tipo_conteudo, tamanho, data_criacao) VALUES (?, ?, 'h', 'b.txt', 'text/plain', 1, NOW())", ocorrencia, usuario);
+
+		purgaService.agendarUsuario(usuario);
+		purgaService.executarPendentes();
+
+		verify(armazenamento).liberar("exclusivo");
+		verify(armazenamento, never()).liberar("h");
+	}
+
+	@Test
+	void pedidoRepetidoDevolveAPurgaEmAndamento() {
+		long alvo = condominio("Alvo", 1);
+
+		PurgaDTO primeira = purgaService.agendarCondominio(alvo);
+		PurgaDTO repetida = purgaService.agendarCondominio(alvo);
+
+		assertEquals(primeira.id(), repetida.id());
+		assertEquals(1, contar("purgas"));
+	}
+
+	@Test
+	void condominioInexistenteNaoGeraPurga() {
+		assertThrows(CondominioNotFoundException.class, () -> purgaService.agendarCondominio(999L));
+		assertEquals(0, contar("purgas"));
+	}
+
+	@Test
+	void purgaInterrompidaEhRetomadaDepoisQueAReservaExpira() {
+		long alvo = condominio("Alvo", 4);
+		PurgaDTO agendada = purgaService.agendarCondominio(alvo);
+		// como se outra instância tivesse reservado a purga e caído no meio
+		jdbcTemplate.update("UPDATE purgas SET status = 'EXECUTANDO', bloqueada_ate = DATEADD('MINUTE', 5, NOW()) WHERE id = ?",
+				agendada.id());
+
+		purgaService.executarPendentes();
+		assertEquals("EXECUTANDO", purgaService.buscar(agendada.id()).orElseThrow().status());
+
+		jdbcTemplate.update("UPDATE purgas SET bloqueada_ate = DATEADD('MINUTE', -1, NOW()) WHERE id = ?", agendada.id());
+		purgaService.executarPendentes();
+		assertEquals("CONCLUIDA", purgaService.buscar(agendada.id()).orElseThrow().status());
+		assertEquals(0, contar("condominios WHERE id = " + alvo));
+	}
+
+	@Test
+	void falhaVoltaParaAFilaEDesisteDepoisDoMaximoDeTentativas() {
+		long alvo = condominio("Alvo", 1);
+		PurgaDTO agendada = purgaService.agendarCondominio(alvo);
+		// uma tabela que a purga não conhece ainda aponta para o condomínio
+		jdbcTemplate.execute("CREATE TABLE extra (condominio_id BIGINT, FOREIGN KEY (condominio_id) REFERENCES condominios(id))");
+		jdbcTemplate.update("INSERT INTO extra VALUES (?)", alvo);
+
+		purgaService.executarPendentes();
+		PurgaDTO primeira = purgaService.buscar(agendada.id()).orElseThrow();
+		assertEquals("PENDENTE", primeira.status());
+		assertEquals(1, primeira.tentativas());
+
+		jdbcTemplate.update("UPDATE purgas SET bloqueada_ate = NULL WHERE id = ?", agendada.id());
+		purgaService.executarPendentes();
+		assertEquals("FALHOU", purgaService.buscar(agendada.id()).orElseThrow().status());
+	}
+
+	// um condomínio com uma área, uma sessão e um comunicado; cada morador tem uma reserva, um voto,
+	// uma ocorrência com anexo e duas notificações (uma do comunicado e uma da reserva)
+	private long condominio(String nome, int moradores) {
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES (?, 'Rua')", nome);
+		long condominio = jdbcTemplate.queryForObject("SELECT id FROM condominios WHERE nome = ?", Long.class, nome);
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Salão', TRUE, ?)", condominio);
+		long area = jdbcTemplate.queryForObject("SELECT MAX(id) FROM areas_comuns", Long.class);
+		jdbcTemplate.update("INSERT INTO sessao_votacao (proposta, descricao, data_inicio, data_fim, condominio_id) "
+				+ "VALUES ('Proposta', 'Descrição', CURRENT_DATE, CURRENT_DATE, ?)", condominio);
+		long sessao = jdbcTemplate.queryForObject("SELECT MAX(id) FROM sessao_votacao", Long.class);
+
+		Long comunicado = null;
+		for (int i = 0; i < moradores; i++) {
+			jdbcTemplate.update("INSERT INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+					+ "VALUES ('Morador', ?, 'x', '0', 'MORADOR', ?)", nome + "-" + i, condominio);
+			long usuario = jdbcTemplate.queryForObject("SELECT MAX(id) FROM usuarios", Long.class);
+			if (comunicado == null) {
+				jdbcTemplate.update("INSERT INTO comunicados (titulo, mensagem, usuario_id, condominio_id) "
+						+ "VALUES ('Aviso', 'Mensagem', ?, ?)", usuario, condominio);
+				comunicado = jdbcTemplate.queryForObject("SELECT MAX(id) FROM comunicados", Long.class);
+			}
+			jdbcTemplate.update("INSERT INTO reservas (areas_comuns_id, data_reserva, hora_inicio, hora_fim) "
+					+ "VALUES (?, CURRENT_DATE, '08:00', '09:00')", area);
+			long reserva = jdbcTemplate.queryForObject("SELECT MAX(id) FROM reservas", Long.class);
+			jdbcTemplate.update("INSERT INTO voto (voto, sessao_votacao_id, usuario_id) VALUES (TRUE, ?, ?)", sessao, usuario);
+			jdbcTemplate.update("INSERT INTO ocorrencias (titulo, descricao, tipo, data_criacao, id_usuario, id_area) "
+					+ "VALUES ('Título', 'Descrição', 'DESENTENDIMENTO', NOW(), ?, ?)", usuario, area);
+			long ocorrencia = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ocorrencias", Long.class);
+			jdbcTemplate.update("INSERT INTO anexos_ocorrencia (ocorrencia_id, usuario_id, hash_conteudo, nome_arquivo, "
+					+ "tipo_conteudo, tamanho, data_criacao) VALUES (?, ?, 'h', 'a.txt', 'text/plain', 1, NOW())", ocorrencia, usuario);
+			jdbcTemplate.update("INSERT INTO notificacoes (titulo, corpo_de_texto, data, id_comunicados, id_usuarios) "
+					+ "VALUES ('Aviso', 'Texto', CURRENT_DATE, ?, ?)", comunicado, usuario);
+			jdbcTemplate.update("INSERT INTO notificacoes (titulo, corpo_de_texto, data, id_reserva, id_usuarios) "
+					+ "VALUES ('Reserva', 'Texto', CURRENT_DATE, ?, ?)", reserva, usuario);
+		}
+		return condominio;
+	}
+
+	private long contar(String tabelaEFiltro) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabelaEFiltro, Long.class);
+	}
+}
@@ -0,0 +1,117 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.domain.model.AreasComuns;
+import com.argus.api.domain.model.Condominio;
+import com.argus.api.infra.cache.VersoesRecursos;
+import com.argus.api.infra.cache.VersoesRecursos.Recurso;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+import com.argus.api.service.ReferenciasService.AreaReferencia;
+
+// As alterações feitas direto no banco fazem o papel de outra instância, que esta só conhece pela
+// reconciliação.
+class ReferenciasServiceTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private VersoesRecursos versoesRecursos;
+	private ReferenciasService referencias;
+	private long condominio;
+
+	@BeforeEach
+	void preparar() {
+		jdbcTemplate = new JdbcTemplate(BancoTestes.criar("referencias", "V1__create-table-condominio.sql", "V4__create-table-areascomuns.sql",
+				"V18__add-updated-at-areas-comuns.sql"));
+		versoesRecursos = new VersoesRecursos();
+		referencias = new ReferenciasService(jdbcTemplate,
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class), versoesRecursos,
+				Duration.ofMinutes(1));
+
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Alvo', 'Rua')");
+		condominio = jdbcTemplate.queryForObject("SELECT id FROM condominios WHERE nome = 'Alvo'", Long.class);
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Salão', TRUE, ?)", condominio);
+		referencias.recarregar();
+	}
+
+	@Test
+	void alteracoesLocaisTrocamAFotoSemConsultarOBanco() {
+		AreaReferencia salao = referencias.areaPorNome("Salão").orElseThrow();
+		assertTrue(salao.disponivel());
+		assertEquals(condominio, salao.condominioId());
+
+		// sem transação, o registro vale na hora; no banco a área continua disponível
+		referencias.registrarArea(area(salao.id(), "Salão", false));
+		assertFalse(referencias.areaPorNome("Salão").orElseThrow().disponivel());
+
+		Condominio renomeado = new Condominio();
+		renomeado.setId(condominio);
+		renomeado.setNome("Novo nome");
+		referencias.registrarCondominio(renomeado);
+		assertEquals(condominio, referencias.condominioPorNome("Novo nome").orElseThrow().id());
+
+		referencias.registrarRemocaoArea(salao.id());
+		jdbcTemplate.update("DELETE FROM areas_comuns");
+		assertTrue(referencias.areaPorNome("Salão").isEmpty());
+	}
+
+	@Test
+	void reconciliacaoTrazAlteracoesDeOutraInstancia() {
+		long versaoAreas = versoesRecursos.versao(Recurso.AREAS_COMUNS);
+		jdbcTemplate.update("UPDATE areas_comuns SET disponivel = FALSE");
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Outro', 'Rua')");
+		assertTrue(referencias.areaPorNome("Salão").orElseThrow().disponivel());
+
+		referencias.reconciliar();
+
+		assertFalse(referencias.areaPorNome("Salão").orElseThrow().disponivel());
+		jdbcTemplate.update("DELETE FROM condominios WHERE nome = 'Outro'");
+		// já está na foto: não depende mais do banco até a próxima reconciliação
+		assertTrue(referencias.condominioPorNome("Outro").isPresent());
+		assertTrue(versoesRecursos.versao(Recurso.AREAS_COMUNS) > versaoAreas);
+
+		// a exclusão não tem updated_at; aparece pela contagem
+		referencias.reconciliar();
+		assertTrue(referencias.condominioPorNome("Outro").isEmpty());
+
+		long versaoCondominios = versoesRecursos.versao(Recurso.CONDOMINIOS);
+		referencias.reconciliar();
+		assertEquals(versaoCondominios, versoesRecursos.versao(Recurso.CONDOMINIOS));
+	}
+
+	@Test
+	void nomeForaDaFotoEhBuscadoNoBanco() {
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Quadra', FALSE, ?)", condominio);
+
+		assertFalse(referencias.areaPorNome("Quadra").orElseThrow().disponivel());
+		assertTrue(referencias.areaPorNome("Piscina").isEmpty());
+
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES ('Vizinho', 'Rua')");
+		long vizinho = jdbcTemplate.queryForObject("SELECT id FROM condominios WHERE nome = 'Vizinho'", Long.class);
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Salão', TRUE, ?)", vizinho);
+		referencias.reconciliar();
+		assertThrows(IncorrectResultSizeDataAccessException.class, () -> referencias.areaPorNome("Salão"));
+	}
+
+	private AreasComuns area(Long id, String nome, boolean disponivel) {
+		Condominio dono = new Condominio();
+		dono.setId(condominio);
+		AreasComuns area = new AreasComuns();
+		area.setId(id);
+		area.setNome(nome);
+		area.setDisponivel(disponivel);
+		area.setCondominio(dono);
+		return area;
+	}
+}
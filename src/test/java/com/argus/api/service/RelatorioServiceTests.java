@@ -0,0 +1,255 @@
+package com.argus.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.argus.api.BancoTestes;
+import com.argus.api.domain.TipoRelatorio;
+import com.argus.api.dto.RelatorioDTO;
+import com.argus.api.exception.LimiteRelatoriosException;
+import com.argus.api.infra.datasource.RoteamentoShardDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// As tabelas são criadas com as próprias migrations, em um H2 no modo MySQL. Os dados ficam no mês
+// anterior, com uma linha de cada tipo fora dele para conferir o corte do período.
+class RelatorioServiceTests {
+
+	private static final String[] MIGRATIONS = {"V1__create-table-condominio.sql", "V2__create-table-usuarios.sql",
+			"V4__create-table-areascomuns.sql", "V5__create-table-reservas.sql", "V6__create-table-sessavoto.sql",
+			"V7__create-table-ocorrencias.sql", "V8__create-table-voto.sql", "V17__create-table-relatorios.sql",
+			"V21__add-reserva-chave-ativa-relatorios.sql"};
+
+	private static final YearMonth MES = YearMonth.now().minusMonths(1);
+
+	@TempDir
+	Path diretorio;
+
+	private DataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private RelatorioService relatorioService;
+	private long condominio;
+
+	@BeforeEach
+	void preparar() throws IOException {
+		dataSource = BancoTestes.criar("relatorio", MIGRATIONS);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		relatorioService = servico(jdbcTemplate);
+		condominio = condominio("Alvo");
+		condominio("Outro");
+	}
+
+	@AfterEach
+	void encerrar() {
+		relatorioService.encerrar();
+	}
+
+	@Test
+	void reservasPorAreaContaSoOMesPedido() throws IOException {
+		List<String> linhas = gerar(TipoRelatorio.RESERVAS_POR_AREA);
+
+		assertEquals(List.of("area,reservas,dias_com_reserva", "Churrasqueira,0,0", "\"Salão, térreo\",3,2"), linhas);
+	}
+
+	@Test
+	void ocorrenciasPorStatusAgrupaAprovacaoEResolucao() throws IOException {
+		List<String> linhas = gerar(TipoRelatorio.OCORRENCIAS_POR_STATUS);
+
+		// os ENUMs são ordenados pela posição na definição da coluna
+		assertEquals(List.of("status_aprovacao,status_resolucao,ocorrencias", "APROVADO,CONCLUIDA,1",
+				"AGUARDANDO,PENDENTE,2"), linhas);
+	}
+
+	@Test
+	void resultadosDaVotacaoIncluemSessoesQueCruzamOMes() throws IOException {
+		List<String> linhas = gerar(TipoRelatorio.RESULTADOS_VOTACAO);
+
+		long sessao = jdbcTemplate.queryForObject("SELECT id FROM sessao_votacao WHERE condominio_id = ?", Long.class, condominio);
+		assertEquals(List.of("sessao_id,proposta,data_inicio,data_fim,votos_sim,votos_nao,total",
+				sessao + ",Pintura," + MES.minusMonths(1).atDay(25) + "," + MES.atDay(5) + ",2,1,3"), linhas);
+	}
+
+	@Test
+	void mesFechadoJaGeradoEhReaproveitado() {
+		RelatorioDTO primeiro = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		assertEquals(primeiro.id(), relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null).id());
+		relatorioService.executarPendentes();
+
+		RelatorioDTO repetido = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		assertEquals(primeiro.id(), repetido.id());
+		assertEquals("CONCLUIDA", repetido.status());
+		assertEquals(1, contar("relatorios"));
+
+		// gerado antes do fim do mês: o próximo pedido gera outro
+		jdbcTemplate.update("UPDATE relatorios SET concluida_em = ? WHERE id = ?",
+				MES.atDay(20).atStartOfDay(), primeiro.id());
+		assertNotEquals(primeiro.id(), relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null).id());
+	}
+
+	@Test
+	void condominioComAFilaCheiaRecebeLimite() {
+		relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		relatorioService.solicitar(TipoRelatorio.OCORRENCIAS_POR_STATUS, MES, condominio, null);
+
+		assertThrows(LimiteRelatoriosException.class,
+				() -> relatorioService.solicitar(TipoRelatorio.RESULTADOS_VOTACAO, MES, condominio, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> relatorioService.solicitar(TipoRelatorio.RESULTADOS_VOTACAO, YearMonth.now().plusMonths(1), condominio, null));
+	}
+
+	@Test
+	void condominioComRelatorioEmGeracaoEsperaAVez() {
+		RelatorioDTO emGeracao = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		RelatorioDTO naFila = relatorioService.solicitar(TipoRelatorio.OCORRENCIAS_POR_STATUS, MES, condominio, null);
+		// como se outra instância estivesse gerando o primeiro
+		jdbcTemplate.update("UPDATE relatorios SET status = 'EXECUTANDO', bloqueada_ate = DATEADD('MINUTE', 5, NOW()) WHERE id = ?",
+				emGeracao.id());
+
+		relatorioService.executarPendentes();
+		assertEquals("PENDENTE", relatorioService.buscar(naFila.id()).orElseThrow().status());
+
+		jdbcTemplate.update("UPDATE relatorios SET status = 'CONCLUIDA', bloqueada_ate = NULL WHERE id = ?", emGeracao.id());
+		relatorioService.executarPendentes();
+		assertEquals("CONCLUIDA", relatorioService.buscar(naFila.id()).orElseThrow().status());
+	}
+
+	@Test
+	void execucaoQuePerdeuAReservaNaoConcluiNemDeixaArquivo() throws IOException {
+		// outra execução assume a reserva enquanto esta ainda lê o banco
+		JdbcTemplate assumida = new JdbcTemplate(dataSource) {
+			@Override
+			public void query(String sql, RowCallbackHandler rch, Object... args) {
+				update("UPDATE relatorios SET reserva = 'outra', bloqueada_ate = DATEADD('MINUTE', 5, NOW())");
+				super.query(sql, rch, args);
+			}
+		};
+		relatorioService.encerrar();
+		relatorioService = servico(assumida);
+		RelatorioDTO relatorio = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+
+		relatorioService.executarPendentes();
+
+		RelatorioDTO atual = relatorioService.buscar(relatorio.id()).orElseThrow();
+		assertEquals("EXECUTANDO", atual.status());
+		assertEquals(0, atual.tentativas());
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			assertEquals(List.of(), arquivos.toList());
+		}
+	}
+
+	@Test
+	void limpezaApagaParcialDeReservaQueNaoExisteMais() throws IOException {
+		RelatorioDTO relatorio = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		jdbcTemplate.update("UPDATE relatorios SET status = 'EXECUTANDO', reserva = 'atual' WHERE id = ?", relatorio.id());
+		Path atual = Files.createFile(diretorio.resolve(relatorio.id() + "-atual.csv.part"));
+		Path abandonado = Files.createFile(diretorio.resolve(relatorio.id() + "-antiga.csv.part"));
+
+		relatorioService.limpar();
+
+		assertTrue(Files.exists(atual));
+		assertFalse(Files.exists(abandonado));
+	}
+
+	@Test
+	void pedidosSimultaneosDoMesmoRelatorioFicamComUmSo() throws IOException {
+		// os dois pedidos consultam antes de qualquer um inserir
+		JdbcTemplate concorrente = new JdbcTemplate(dataSource) {
+			private boolean primeiraConsulta = true;
+
+			@Override
+			public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+				if (primeiraConsulta && sql.startsWith("SELECT * FROM relatorios")) {
+					primeiraConsulta = false;
+					return List.of();
+				}
+				return super.query(sql, rowMapper, args);
+			}
+		};
+		RelatorioDTO primeiro = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+		relatorioService.encerrar();
+		relatorioService = servico(concorrente);
+
+		RelatorioDTO segundo = relatorioService.solicitar(TipoRelatorio.RESERVAS_POR_AREA, MES, condominio, null);
+
+		assertEquals(primeiro.id(), segundo.id());
+		assertEquals(1, contar("relatorios"));
+	}
+
+	// sem iniciar(): os relatórios só são gerados quando o teste chama executarPendentes
+	private RelatorioService servico(JdbcTemplate jdbcTemplate) throws IOException {
+		return new RelatorioService(jdbcTemplate,
+				new StaticListableBeanFactory().getBeanProvider(RoteamentoShardDataSource.class), new SimpleMeterRegistry(),
+				diretorio.toString(), 1, 2, 1, Duration.ofMinutes(15), Duration.ofDays(90), Duration.ofSeconds(10),
+				Duration.ofMinutes(5), 2);
+	}
+
+	private List<String> gerar(TipoRelatorio tipo) throws IOException {
+		RelatorioDTO relatorio = relatorioService.solicitar(tipo, MES, condominio, null);
+		relatorioService.executarPendentes();
+		RelatorioDTO concluido = relatorioService.buscar(relatorio.id()).orElseThrow();
+		assertEquals("CONCLUIDA", concluido.status());
+		List<String> linhas = Files.readAllLines(relatorioService.arquivo(concluido));
+		assertEquals(linhas.size() - 1, concluido.linhas());
+		return linhas;
+	}
+
+	// duas áreas, três reservas no mês (em dois dias) e uma no mês seguinte; três ocorrências no mês e
+	// uma fora; uma sessão que começa no mês anterior e termina no mês, com três votos
+	private long condominio(String nome) {
+		jdbcTemplate.update("INSERT INTO condominios (nome, endereco) VALUES (?, 'Rua')", nome);
+		long id = jdbcTemplate.queryForObject("SELECT id FROM condominios WHERE nome = ?", Long.class, nome);
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Salão, térreo', TRUE, ?)", id);
+		long salao = jdbcTemplate.queryForObject("SELECT MAX(id) FROM areas_comuns", Long.class);
+		jdbcTemplate.update("INSERT INTO areas_comuns (nome, disponivel, condominio_id) VALUES ('Churrasqueira', TRUE, ?)", id);
+		for (int dia : new int[] {3, 3, 10}) {
+			jdbcTemplate.update("INSERT INTO reservas (areas_comuns_id, data_reserva, hora_inicio, hora_fim) "
+					+ "VALUES (?, ?, '08:00', '09:00')", salao, MES.atDay(dia));
+		}
+		jdbcTemplate.update("INSERT INTO reservas (areas_comuns_id, data_reserva, hora_inicio, hora_fim) "
+				+ "VALUES (?, ?, '08:00', '09:00')", salao, MES.plusMonths(1).atDay(1));
+
+		jdbcTemplate.update("INSERT INTO sessao_votacao (proposta, descricao, data_inicio, data_fim, condominio_id) "
+				+ "VALUES ('Pintura', 'Descrição', ?, ?, ?)", MES.minusMonths(1).atDay(25), MES.atDay(5), id);
+		long sessao = jdbcTemplate.queryForObject("SELECT MAX(id) FROM sessao_votacao", Long.class);
+		boolean[] votos = {true, true, false};
+		for (int i = 0; i < votos.length; i++) {
+			jdbcTemplate.update("INSERT INTO usuarios (nome, cpf, senha, telefone, tipo_do_usuario, condominio_id) "
+					+ "VALUES ('Morador', ?, 'x', '0', 'MORADOR', ?)", nome + "-" + i, id);
+			long usuario = jdbcTemplate.queryForObject("SELECT MAX(id) FROM usuarios", Long.class);
+			jdbcTemplate.update("INSERT INTO voto (voto, sessao_votacao_id, usuario_id) VALUES (?, ?, ?)", votos[i], sessao, usuario);
+			jdbcTemplate.update("INSERT INTO ocorrencias (titulo, descricao, tipo, status_aprovacao, status_resolucao, "
+					+ "data_criacao, id_usuario) VALUES ('Título', 'Descrição', 'DESENTENDIMENTO', ?, ?, ?, ?)",
+					i == 0 ? "APROVADO" : "AGUARDANDO", i == 0 ? "CONCLUIDA" : "PENDENTE", MES.atDay(15).atTime(10, 0), usuario);
+		}
+		long usuario = jdbcTemplate.queryForObject("SELECT MAX(id) FROM usuarios", Long.class);
+		jdbcTemplate.update("INSERT INTO ocorrencias (titulo, descricao, tipo, data_criacao, id_usuario) "
+				+ "VALUES ('Título', 'Descrição', 'DESENTENDIMENTO', ?, ?)", MES.plusMonths(1).atDay(1).atStartOfDay(), usuario);
+		return id;
+	}
+
+	private long contar(String tabelaEFiltro) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabelaEFiltro, Long.class);
+	}
+}